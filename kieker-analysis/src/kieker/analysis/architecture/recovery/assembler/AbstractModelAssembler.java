@@ -15,6 +15,9 @@
  ***************************************************************************/
 package kieker.analysis.architecture.recovery.assembler;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.EMap;
 import org.eclipse.emf.common.util.UniqueEList;
@@ -35,6 +38,8 @@ public abstract class AbstractModelAssembler<T> {
 
 	private final SourceModel sourceModel;
 	private final String sourceLabel;
+	/** Objects already tagged with the source label, which avoids the lookups and updates in the source model. */
+	private final Set<EObject> taggedObjects = new HashSet<>();
 
 	public AbstractModelAssembler(final SourceModel sourceModel, final String sourceLabel) {
 		this.sourceModel = sourceModel;
@@ -50,6 +55,9 @@ public abstract class AbstractModelAssembler<T> {
 	public abstract void assemble(T event);
 
 	public void updateSourceModel(final EObject object) {
+		if (!this.taggedObjects.add(object)) {
+			return;
+		}
 		final EMap<EObject, EList<String>> sources = this.sourceModel.getSources();
 		EList<String> sourceIds = sources.get(object);
 		if (sourceIds == null) {
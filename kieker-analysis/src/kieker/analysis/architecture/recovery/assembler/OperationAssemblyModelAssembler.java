@@ -37,6 +37,7 @@ public class OperationAssemblyModelAssembler extends AbstractModelAssembler<Oper
 
 	private final TypeModel typeModel;
 	private final AssemblyModel assemblyModel;
+	private final SignatureCache<AssemblyOperation> operationCache = new SignatureCache<>();
 
 	public OperationAssemblyModelAssembler(final TypeModel typeModel, final AssemblyModel assemblyModel, final SourceModel sourceModel, final String sourceLabel) {
 		super(sourceModel, sourceLabel);
@@ -53,8 +54,10 @@ public class OperationAssemblyModelAssembler extends AbstractModelAssembler<Oper
 	}
 
 	public void addOperation(final String componentSignature, final String operationSignature) {
-		final AssemblyComponent component = this.addAssemblyComponent(componentSignature);
-		this.addAssemblyOperation(component, operationSignature);
+		if (this.operationCache.get(componentSignature, operationSignature) == null) {
+			final AssemblyComponent component = this.addAssemblyComponent(componentSignature);
+			this.operationCache.put(componentSignature, operationSignature, this.addAssemblyOperation(component, operationSignature));
+		}
 	}
 
 	private AssemblyComponent addAssemblyComponent(final String componentSignature) {
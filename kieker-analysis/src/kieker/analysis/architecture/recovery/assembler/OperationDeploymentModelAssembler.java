@@ -16,6 +16,9 @@
 
 package kieker.analysis.architecture.recovery.assembler;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import kieker.analysis.architecture.recovery.events.OperationEvent;
 import kieker.model.analysismodel.assembly.AssemblyComponent;
 import kieker.model.analysismodel.assembly.AssemblyModel;
@@ -37,6 +40,7 @@ public class OperationDeploymentModelAssembler extends AbstractModelAssembler<Op
 	private final DeploymentFactory factory = DeploymentFactory.eINSTANCE;
 	private final AssemblyModel assemblyModel;
 	private final DeploymentModel deploymentModel;
+	private final Map<String, SignatureCache<DeployedOperation>> operationCaches = new HashMap<>();
 
 	public OperationDeploymentModelAssembler(final AssemblyModel assemblyModel, final DeploymentModel deploymentModel, final SourceModel sourceModel,
 			final String sourceLabel) {
@@ -55,9 +59,16 @@ public class OperationDeploymentModelAssembler extends AbstractModelAssembler<Op
 	}
 
 	private void addOperation(final String hostname, final String componentSignature, final String operationSignature) {
+		SignatureCache<DeployedOperation> operationCache = this.operationCaches.get(hostname);
+		if (operationCache == null) {
+			operationCache = new SignatureCache<>();
+			this.operationCaches.put(hostname, operationCache);
+		} else if (operationCache.get(componentSignature, operationSignature) != null) {
+			return;
+		}
 		final DeploymentContext deploymentContext = this.findOrAddDeploymentContext(hostname);
 		final DeployedComponent component = this.findOrAddDeployedComponent(deploymentContext, componentSignature);
-		this.addDeployedOperation(component, operationSignature);
+		operationCache.put(componentSignature, operationSignature, this.addDeployedOperation(component, operationSignature));
 	}
 
 	private DeploymentContext findOrAddDeploymentContext(final String hostname) {
@@ -37,6 +37,7 @@ public class OperationTypeModelAssembler extends AbstractModelAssembler<Operatio
 	private final IOperationSignatureExtractor operationSignatureExtractor;
 
 	private final TypeModel typeModel;
+	private final SignatureCache<OperationType> operationTypeCache = new SignatureCache<>();
 
 	public OperationTypeModelAssembler(final TypeModel typeModel, final SourceModel sourceModel, final String sourceLabel,
 			final IComponentSignatureExtractor componentSignatureExtractor,
@@ -53,8 +54,10 @@ public class OperationTypeModelAssembler extends AbstractModelAssembler<Operatio
 		final String componentSignature = event.getComponentSignature();
 		final String operationSignature = event.getOperationSignature();
 
-		final ComponentType componentType = this.addComponentType(componentSignature);
-		this.addOperationType(componentType, operationSignature);
+		if (this.operationTypeCache.get(componentSignature, operationSignature) == null) {
+			final ComponentType componentType = this.addComponentType(componentSignature);
+			this.operationTypeCache.put(componentSignature, operationSignature, this.addOperationType(componentType, operationSignature));
+		}
 	}
 
 	private ComponentType addComponentType(final String componentSignature) {
@@ -0,0 +1,71 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.architecture.recovery.assembler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache from the signatures of an event to the model element which has been assembled for them. It allows assemblers
+ * to skip the lookups in the EMF model and the updates of the source model for elements which are already known.
+ *
+ * @param <V>
+ *            type of the model element
+ *
+ * @author Kieker Project
+ * @since 2.0.0
+ */
+class SignatureCache<V> {
+
+	private final Map<String, Map<String, V>> elements = new HashMap<>();
+
+	/**
+	 * Returns the cached element.
+	 *
+	 * @param outerSignature
+	 *            signature of the containing element, e.g., the component signature
+	 * @param innerSignature
+	 *            signature of the element, e.g., the operation signature
+	 * @return the element or null if none is cached
+	 */
+	public V get(final String outerSignature, final String innerSignature) {
+		final Map<String, V> innerElements = this.elements.get(outerSignature);
+		if (innerElements == null) {
+			return null;
+		}
+		return innerElements.get(innerSignature);
+	}
+
+	/**
+	 * Adds an element to the cache.
+	 *
+	 * @param outerSignature
+	 *            signature of the containing element, e.g., the component signature
+	 * @param innerSignature
+	 *            signature of the element, e.g., the operation signature
+	 * @param element
+	 *            the assembled element
+	 */
+	public void put(final String outerSignature, final String innerSignature, final V element) {
+		Map<String, V> innerElements = this.elements.get(outerSignature);
+		if (innerElements == null) {
+			innerElements = new HashMap<>();
+			this.elements.put(outerSignature, innerElements);
+		}
+		innerElements.put(innerSignature, element);
+	}
+}
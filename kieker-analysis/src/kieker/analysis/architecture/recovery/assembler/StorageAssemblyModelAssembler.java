@@ -34,6 +34,7 @@ public class StorageAssemblyModelAssembler extends AbstractModelAssembler<Storag
 
 	private final AssemblyModel assemblyModel;
 	private final TypeModel typeModel;
+	private final SignatureCache<AssemblyStorage> storageCache = new SignatureCache<>();
 
 	public StorageAssemblyModelAssembler(final TypeModel typeModel, final AssemblyModel assemblyModel,
 			final SourceModel sourceModel, final String sourceLabel) {
@@ -44,8 +45,10 @@ public class StorageAssemblyModelAssembler extends AbstractModelAssembler<Storag
 
 	@Override
 	public void assemble(final StorageEvent event) {
-		final AssemblyComponent assemblyComponent = this.assemblyComponentSetUp(event);
-		this.addStorage(assemblyComponent, event);
+		if (this.storageCache.get(event.getComponentSignature(), event.getStorageSignature()) == null) {
+			final AssemblyComponent assemblyComponent = this.assemblyComponentSetUp(event);
+			this.storageCache.put(event.getComponentSignature(), event.getStorageSignature(), this.addStorage(assemblyComponent, event));
+		}
 	}
 
 	/**
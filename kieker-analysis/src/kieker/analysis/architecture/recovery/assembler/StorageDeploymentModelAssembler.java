@@ -15,6 +15,9 @@
  ***************************************************************************/
 package kieker.analysis.architecture.recovery.assembler;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import kieker.analysis.architecture.recovery.events.StorageEvent;
 import kieker.model.analysismodel.assembly.AssemblyModel;
 import kieker.model.analysismodel.assembly.AssemblyStorage;
@@ -38,6 +41,7 @@ public class StorageDeploymentModelAssembler extends AbstractModelAssembler<Stor
 
 	private final AssemblyModel assemblyModel;
 	private final DeploymentModel deploymentModel;
+	private final Map<String, SignatureCache<DeployedStorage>> storageCaches = new HashMap<>();
 
 	public StorageDeploymentModelAssembler(final AssemblyModel assemblyModel, final DeploymentModel deploymentModel,
 			final SourceModel sourceModel, final String sourceLabel) {
@@ -48,8 +52,15 @@ public class StorageDeploymentModelAssembler extends AbstractModelAssembler<Stor
 
 	@Override
 	public void assemble(final StorageEvent event) {
+		SignatureCache<DeployedStorage> storageCache = this.storageCaches.get(event.getHostname());
+		if (storageCache == null) {
+			storageCache = new SignatureCache<>();
+			this.storageCaches.put(event.getHostname(), storageCache);
+		} else if (storageCache.get(event.getComponentSignature(), event.getStorageSignature()) != null) {
+			return;
+		}
 		final DeployedComponent deployedComponent = this.deployedComponentSetUp(event);
-		this.addStorage(deployedComponent, event);
+		storageCache.put(event.getComponentSignature(), event.getStorageSignature(), this.addStorage(deployedComponent, event));
 	}
 
 	/**
@@ -37,6 +37,7 @@ public class StorageTypeModelAssembler extends AbstractModelAssembler<StorageEve
 	private final IStorageSignatureExtractor storageSignatureExtractor;
 
 	private final TypeModel typeModel;
+	private final SignatureCache<StorageType> storageTypeCache = new SignatureCache<>();
 
 	public StorageTypeModelAssembler(final TypeModel typeModel, final SourceModel sourceModel, final String sourceLabel,
 			final IComponentSignatureExtractor componentSignatureExtractor,
@@ -52,8 +53,10 @@ public class StorageTypeModelAssembler extends AbstractModelAssembler<StorageEve
 		final String componentSignature = event.getComponentSignature();
 		final String operationSignature = event.getStorageSignature();
 
-		final ComponentType componentType = this.findOrCreateComponentType(componentSignature);
-		this.addStorageType(componentType, operationSignature);
+		if (this.storageTypeCache.get(componentSignature, operationSignature) == null) {
+			final ComponentType componentType = this.findOrCreateComponentType(componentSignature);
+			this.storageTypeCache.put(componentSignature, operationSignature, this.addStorageType(componentType, operationSignature));
+		}
 	}
 
 	private ComponentType findOrCreateComponentType(final String componentSignature) {
@@ -15,6 +15,9 @@
  ***************************************************************************/
 package kieker.analysis.architecture.recovery.storage;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EObject;
@@ -38,6 +41,8 @@ public abstract class AbstractDataflowAssemblerStage<I, O> extends AbstractTrans
 
     protected final SourceModel sourceModel;
     protected final String sourceLabel;
+    /** Objects already tagged with the source label, which avoids the scans of the source lists. */
+    private final Set<EObject> taggedObjects = new HashSet<>();
 
     public AbstractDataflowAssemblerStage(final SourceModel sourceModel, final String sourceLabel) {
         this.sourceModel = sourceModel;
@@ -45,6 +50,9 @@ public abstract class AbstractDataflowAssemblerStage<I, O> extends AbstractTrans
     }
 
     protected void addObjectToSource(final EObject object) {
+        if (!this.taggedObjects.add(object)) {
+            return;
+        }
         EList<String> sources = this.sourceModel.getSources().get(object);
         boolean exists = false;
         if (sources != null) {
@@ -17,22 +17,21 @@ package kieker.analysis.architecture.trace.flow;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.carrotsearch.hppc.LongObjectHashMap;
+
 import kieker.common.record.flow.IFlowRecord;
 import kieker.common.record.flow.trace.AbstractTraceEvent;
 import kieker.common.record.flow.trace.ConstructionEvent;
@@ -64,6 +63,13 @@ import teetime.framework.OutputPort;
  * @since 1.6
  */
 public abstract class AbstractEventRecordTraceReconstructionStage extends AbstractStage {
+	private static final Comparator<TraceBuffer> TRACE_ID_COMPARATOR = new Comparator<TraceBuffer>() {
+		@Override
+		public int compare(final TraceBuffer o1, final TraceBuffer o2) {
+			return Long.compare(o1.getKey(), o2.getKey());
+		}
+	};
+
 	/** Output port delivering the valid traces. */
 	private final OutputPort<TraceEventRecords> validTracesOutputPort = this.createOutputPort(TraceEventRecords.class);
 
@@ -78,9 +84,15 @@ public abstract class AbstractEventRecordTraceReconstructionStage extends Abstra
 	private final long maxTraceTimeout;
 	private final boolean hasTimeout;
 	private final boolean repairEventBasedTraces;
+	private final boolean sortTimedOutTraces;
+	/** if true, all state is confined to the thread of this stage and no lock is taken. */
+	private final boolean lockFree;
 	private long maxEncounteredLoggingTimestamp = -1;
 
-	private final Map<Long, TraceBuffer> traceId2trace;
+	/** open traces by trace id, only accessed while holding the lock of this stage unless it is lock-free. */
+	private final LongObjectHashMap<TraceBuffer> traceId2trace;
+	/** open traces ordered by their first and last logging timestamp, only maintained if a timeout is used. */
+	private final TraceExpiryIndex expiryIndex = new TraceExpiryIndex();
 
 	/**
 	 * Creates a new instance of this class using the given parameters.
@@ -96,10 +108,59 @@ public abstract class AbstractEventRecordTraceReconstructionStage extends Abstra
 	 */
 	public AbstractEventRecordTraceReconstructionStage(final TimeUnit timeUnit, final boolean repairEventBasedTraces, final long maxTraceDuration,
 			final long maxTraceTimeout) {
+		this(timeUnit, repairEventBasedTraces, maxTraceDuration, maxTraceTimeout, true);
+	}
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 *
+	 * @param timeUnit
+	 *            property determining the time unit
+	 * @param repairEventBasedTraces
+	 *            repair traces where AfterEvents are missing
+	 * @param maxTraceDuration
+	 *            max trace duration
+	 * @param maxTraceTimeout
+	 *            max trace timeout, if set to Long.MAX_VALUE no timeout is used
+	 * @param sortTimedOutTraces
+	 *            if true, the traces timed out at once are sent ordered by their trace id, which results in a
+	 *            deterministic output; otherwise they are sent in the order of their expiry
+	 *
+	 * @since 2.0.0
+	 */
+	public AbstractEventRecordTraceReconstructionStage(final TimeUnit timeUnit, final boolean repairEventBasedTraces, final long maxTraceDuration,
+			final long maxTraceTimeout, final boolean sortTimedOutTraces) {
+		this(timeUnit, repairEventBasedTraces, maxTraceDuration, maxTraceTimeout, sortTimedOutTraces, false);
+	}
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 *
+	 * @param timeUnit
+	 *            property determining the time unit
+	 * @param repairEventBasedTraces
+	 *            repair traces where AfterEvents are missing
+	 * @param maxTraceDuration
+	 *            max trace duration
+	 * @param maxTraceTimeout
+	 *            max trace timeout, if set to Long.MAX_VALUE no timeout is used
+	 * @param sortTimedOutTraces
+	 *            if true, the traces timed out at once are sent ordered by their trace id, which results in a
+	 *            deterministic output; otherwise they are sent in the order of their expiry
+	 * @param lockFree
+	 *            if true, no lock is taken per record. This requires that the records and the timestamps are only
+	 *            passed to this stage by its own thread, e.g., by a worker which owns its partition of the traces.
+	 *
+	 * @since 2.0.0
+	 */
+	public AbstractEventRecordTraceReconstructionStage(final TimeUnit timeUnit, final boolean repairEventBasedTraces, final long maxTraceDuration,
+			final long maxTraceTimeout, final boolean sortTimedOutTraces, final boolean lockFree) {
 		super();
 		this.timeunit = timeUnit;
 
 		this.repairEventBasedTraces = repairEventBasedTraces;
+		this.sortTimedOutTraces = sortTimedOutTraces;
+		this.lockFree = lockFree;
 		this.maxTraceDuration = this.timeunit.convert(maxTraceDuration, timeUnit);
 		this.maxTraceTimeout = this.timeunit.convert(maxTraceTimeout, timeUnit);
 		this.hasTimeout = (this.maxTraceTimeout != Long.MAX_VALUE) || (this.maxTraceDuration != Long.MAX_VALUE);
@@ -108,7 +169,7 @@ public abstract class AbstractEventRecordTraceReconstructionStage extends Abstra
 		} else {
 			this.timestampsInputPort = null;
 		}
-		this.traceId2trace = new ConcurrentHashMap<>();
+		this.traceId2trace = new LongObjectHashMap<>();
 	}
 
 	@Override
@@ -116,8 +177,10 @@ public abstract class AbstractEventRecordTraceReconstructionStage extends Abstra
 		if (this.hasTimeout) {
 			final Long timestamp = this.timestampsInputPort.receive();
 			if (timestamp != null) {
-				synchronized (this) {
-					if (this.hasTimeout) {
+				if (this.lockFree) {
+					this.processTimeoutQueue(timestamp);
+				} else {
+					synchronized (this) {
 						this.processTimeoutQueue(timestamp);
 					}
 				}
@@ -147,6 +210,16 @@ public abstract class AbstractEventRecordTraceReconstructionStage extends Abstra
 	 *            The new record to handle.
 	 */
 	protected void newFlowRecordEvent(final IFlowRecord record) {
+		if (this.lockFree) {
+			this.processFlowRecord(record);
+		} else {
+			synchronized (this) { // the open traces are also modified by the timeout cleanup
+				this.processFlowRecord(record);
+			}
+		}
+	}
+
+	private void processFlowRecord(final IFlowRecord record) {
 		if (record instanceof TraceMetadata) {
 			this.newTraceMetadataEvent((TraceMetadata) record);
 		} else if (record instanceof AbstractTraceEvent) {
@@ -159,60 +232,55 @@ public abstract class AbstractEventRecordTraceReconstructionStage extends Abstra
 
 	private void handleTrace(final TraceBuffer traceBuffer, final long traceId) {
 		if (traceBuffer.isFinished()) {
-			synchronized (this) { // has to be synchronized because of timeout cleanup
-				this.traceId2trace.remove(traceId);
+			this.traceId2trace.remove(traceId);
+			if (this.expiryIndex.contains(traceBuffer)) {
+				this.expiryIndex.remove(traceBuffer);
 			}
 			this.validTracesOutputPort.send(traceBuffer.toTraceEvents());
 		}
 	}
 
-	private void handleTimeoutQueue(final long loggingTimestamp) {
+	private void handleTimeoutQueue(final TraceBuffer traceBuffer, final long loggingTimestamp) {
 		if (this.hasTimeout) {
-			synchronized (this) {
-				// can we assume a rough order of logging timestamps? (yes, except with DB
-				// reader)
-				if (loggingTimestamp > this.maxEncounteredLoggingTimestamp) {
-					this.maxEncounteredLoggingTimestamp = loggingTimestamp;
-				}
-				this.processTimeoutQueue(this.maxEncounteredLoggingTimestamp);
+			if (this.expiryIndex.contains(traceBuffer)) {
+				this.expiryIndex.update(traceBuffer);
+			}
+			// can we assume a rough order of logging timestamps? (yes, except with DB
+			// reader)
+			if (loggingTimestamp > this.maxEncounteredLoggingTimestamp) {
+				this.maxEncounteredLoggingTimestamp = loggingTimestamp;
 			}
+			this.processTimeoutQueue(this.maxEncounteredLoggingTimestamp);
 		}
 	}
 
-	private void newTraceMetadataEvent(final TraceMetadata record) {
-		final Long traceId = record.getTraceId();
+	private TraceBuffer getTraceBuffer(final long traceId) {
 		TraceBuffer traceBuffer = this.traceId2trace.get(traceId);
 		if (traceBuffer == null) { // first record for this id!
-			synchronized (this) {
-				traceBuffer = this.traceId2trace.get(traceId);
-				if (traceBuffer == null) { // NOCS (DCL)
-					traceBuffer = new TraceBuffer();
-					traceBuffer.setRepairEventBasedTracesEnabled(this.repairEventBasedTraces);
-					this.traceId2trace.put(traceId, traceBuffer);
-				}
+			traceBuffer = new TraceBuffer(traceId);
+			traceBuffer.setRepairEventBasedTracesEnabled(this.repairEventBasedTraces);
+			this.traceId2trace.put(traceId, traceBuffer);
+			if (this.hasTimeout) {
+				this.expiryIndex.add(traceBuffer);
 			}
 		}
+		return traceBuffer;
+	}
+
+	private void newTraceMetadataEvent(final TraceMetadata record) {
+		final long traceId = record.getTraceId();
+		final TraceBuffer traceBuffer = this.getTraceBuffer(traceId);
 		traceBuffer.setTrace(record);
 		this.handleTrace(traceBuffer, traceId);
-		this.handleTimeoutQueue(-1);
+		this.handleTimeoutQueue(traceBuffer, -1);
 	}
 
 	private void newAbstractTraceEvent(final AbstractTraceEvent event) {
-		final Long traceId = event.getTraceId();
-		TraceBuffer traceBuffer = this.traceId2trace.get(traceId);
-		if (traceBuffer == null) { // first record for this id!
-			synchronized (this) {
-				traceBuffer = this.traceId2trace.get(traceId);
-				if (traceBuffer == null) { // NOCS (DCL)
-					traceBuffer = new TraceBuffer();
-					traceBuffer.setRepairEventBasedTracesEnabled(this.repairEventBasedTraces);
-					this.traceId2trace.put(traceId, traceBuffer);
-				}
-			}
-		}
+		final long traceId = event.getTraceId();
+		final TraceBuffer traceBuffer = this.getTraceBuffer(traceId);
 		traceBuffer.insertEvent(event);
 		this.handleTrace(traceBuffer, traceId);
-		this.handleTimeoutQueue(event.getTimestamp());
+		this.handleTimeoutQueue(traceBuffer, event.getTimestamp());
 	}
 
 	/**
@@ -220,46 +288,61 @@ public abstract class AbstractEventRecordTraceReconstructionStage extends Abstra
 	 */
 	@Override
 	protected void onTerminating() {
-		synchronized (this) {
-			final Collection<Long> sortedTraceIds = this.getSortedTraceIds(this.traceId2trace.keySet());
+		if (this.lockFree) {
+			this.sendOpenTraces();
+		} else {
+			synchronized (this) {
+				this.sendOpenTraces();
+			}
+		}
+		super.onTerminating();
+	}
 
-			for (final Long traceId : sortedTraceIds) {
-				final TraceBuffer traceBuffer = this.traceId2trace.get(traceId);
-				if (this.repairEventBasedTraces && !traceBuffer.getEventStack().isEmpty()) {
-					traceBuffer.repairAllBeforeEventsLeftInStackAtTermination();
-				}
+	private void sendOpenTraces() {
+		final long[] sortedTraceIds = this.getSortedTraceIds();
 
-				if (traceBuffer.isInvalid()) {
-					this.invalidTracesOutputPort.send(traceBuffer.toTraceEvents());
-				} else {
-					this.validTracesOutputPort.send(traceBuffer.toTraceEvents());
-				}
+		for (final long traceId : sortedTraceIds) {
+			final TraceBuffer traceBuffer = this.traceId2trace.get(traceId);
+			if (this.repairEventBasedTraces && !traceBuffer.getEventStack().isEmpty()) {
+				traceBuffer.repairAllBeforeEventsLeftInStackAtTermination();
 			}
 
-			// this.traceId2trace.clear();
+			if (traceBuffer.isInvalid()) {
+				this.invalidTracesOutputPort.send(traceBuffer.toTraceEvents());
+			} else {
+				this.validTracesOutputPort.send(traceBuffer.toTraceEvents());
+			}
 		}
-		super.onTerminating();
+
+		// this.traceId2trace.clear();
 	}
 
-	// only called within synchronized! We assume timestamps >= 0
+	// only called within synchronized unless lock-free! We assume timestamps >= 0
 	private void processTimeoutQueue(final long timestamp) {
 		final long duration = timestamp - this.maxTraceDuration;
 		final long traceTimeout = timestamp - this.maxTraceTimeout;
 
-		final Collection<Long> sortedTraceIds = this.getSortedTraceIds(this.traceId2trace.keySet());
-
-		for (final Long traceId : sortedTraceIds) {
-			final TraceBuffer traceBuffer = this.traceId2trace.get(traceId);
-			if ((traceBuffer.getMaxLoggingTimestamp() <= traceTimeout) // long time no see
-					|| (traceBuffer.getMinLoggingTimestamp() <= duration)) { // max duration is gone
+		// only the traces which time out are taken from the index: long time no see or max duration is gone
+		TraceBuffer traceBuffer = (TraceBuffer) this.expiryIndex.pollExpired(duration, traceTimeout);
+		if (traceBuffer == null) {
+			return;
+		}
 
-				if (traceBuffer.isInvalid()) {
-					this.invalidTracesOutputPort.send(traceBuffer.toTraceEvents());
-				} else {
-					this.validTracesOutputPort.send(traceBuffer.toTraceEvents());
-				}
+		final List<TraceBuffer> timedOutTraces = new ArrayList<>();
+		while (traceBuffer != null) {
+			timedOutTraces.add(traceBuffer);
+			this.traceId2trace.remove(traceBuffer.getKey());
+			traceBuffer = (TraceBuffer) this.expiryIndex.pollExpired(duration, traceTimeout);
+		}
+		if (this.sortTimedOutTraces) {
+			Collections.sort(timedOutTraces, TRACE_ID_COMPARATOR);
+		}
 
-				this.traceId2trace.remove(traceId);
+		for (final TraceBuffer timedOutTrace : timedOutTraces) {
+			if (timedOutTrace.isInvalid()) {
+				this.invalidTracesOutputPort.send(timedOutTrace.toTraceEvents());
+			} else {
+				this.validTracesOutputPort.send(timedOutTrace.toTraceEvents());
 			}
 		}
 	}
@@ -271,20 +354,19 @@ public abstract class AbstractEventRecordTraceReconstructionStage extends Abstra
 	 * In future, we should better sort according to the start timestamp of each
 	 * trace.
 	 */
-	private Collection<Long> getSortedTraceIds(final Set<Long> keys) {
-		final List<Long> copiedKeys = new ArrayList<>(keys);
-		Collections.sort(copiedKeys);
+	private long[] getSortedTraceIds() {
+		final long[] keys = this.traceId2trace.keys().toArray();
+		Arrays.sort(keys);
 
-		return copiedKeys;
-		// return keys;
+		return keys;
 	}
 
 	/**
-	 * The TraceBuffer is synchronized to prevent problems with concurrent access.
+	 * The TraceBuffer is only accessed while holding the lock of its stage, or by the thread of a lock-free stage.
 	 *
 	 * @author Jan Waller
 	 */
-	private static final class TraceBuffer {
+	private static final class TraceBuffer extends TraceExpiryIndex.Entry {
 		private static final Logger LOGGER = LoggerFactory.getLogger(TraceBuffer.class);
 		private static final Comparator<AbstractTraceEvent> COMPARATOR = new TraceEventComperator();
 
@@ -300,6 +382,8 @@ public abstract class AbstractEventRecordTraceReconstructionStage extends Abstra
 		private long maxLoggingTimestamp = -1;
 
 		private long traceId = -1;
+		/** the trace id this buffer is registered with. */
+		private final long key;
 
 		private boolean beforeEventStackEmptyAtTermination;
 		private boolean repairEventBasedTracesEnabled;
@@ -309,9 +393,16 @@ public abstract class AbstractEventRecordTraceReconstructionStage extends Abstra
 
 		/**
 		 * Creates a new instance of this class.
+		 *
+		 * @param key
+		 *            the trace id this buffer is registered with
 		 */
-		public TraceBuffer() {
-			// default empty constructor
+		public TraceBuffer(final long key) {
+			this.key = key;
+		}
+
+		public long getKey() {
+			return this.key;
 		}
 
 		public void insertEvent(final AbstractTraceEvent event) {
@@ -326,41 +417,39 @@ public abstract class AbstractEventRecordTraceReconstructionStage extends Abstra
 			} else {
 				this.eventQueue.add(event);
 			}
-			synchronized (this) {
-				while (!this.eventQueue.isEmpty()) {
-					final AbstractTraceEvent receivedEvent = this.eventQueue.removeFirst();
-					if (this.traceId == -1) {
-						this.traceId = myTraceId;
-					} else if (this.traceId != myTraceId) {
-						LOGGER.error("Invalid traceId! Expected: {} but found: {} in event {}", this.traceId, myTraceId,
-								event.toString());
-						this.damaged = true;
-					}
-					final long loggingTimestamp = receivedEvent.getTimestamp();
-					if (loggingTimestamp > this.maxLoggingTimestamp) {
-						this.maxLoggingTimestamp = loggingTimestamp;
-					}
-					if (loggingTimestamp < this.minLoggingTimestamp) {
-						this.minLoggingTimestamp = loggingTimestamp;
-					}
-					final int orderIndex = receivedEvent.getOrderIndex();
-					if (orderIndex > this.maxOrderIndex) {
-						this.maxOrderIndex = orderIndex;
-					}
-					if (receivedEvent instanceof BeforeOperationEvent) {
-						if (orderIndex == 0) {
-							this.closeable = true;
-						}
-						this.openEvents++;
-					} else if (receivedEvent instanceof AfterOperationEvent) {
-						this.openEvents--;
-					} else if (receivedEvent instanceof AfterOperationFailedEvent) {
-						this.openEvents--;
-					}
-					if (!this.events.add(receivedEvent)) {
-						LOGGER.error("Duplicate entry for orderIndex {} with traceId {}", orderIndex, myTraceId);
-						this.damaged = true;
+			while (!this.eventQueue.isEmpty()) {
+				final AbstractTraceEvent receivedEvent = this.eventQueue.removeFirst();
+				if (this.traceId == -1) {
+					this.traceId = myTraceId;
+				} else if (this.traceId != myTraceId) {
+					LOGGER.error("Invalid traceId! Expected: {} but found: {} in event {}", this.traceId, myTraceId,
+							event.toString());
+					this.damaged = true;
+				}
+				final long loggingTimestamp = receivedEvent.getTimestamp();
+				if (loggingTimestamp > this.maxLoggingTimestamp) {
+					this.maxLoggingTimestamp = loggingTimestamp;
+				}
+				if (loggingTimestamp < this.minLoggingTimestamp) {
+					this.minLoggingTimestamp = loggingTimestamp;
+				}
+				final int orderIndex = receivedEvent.getOrderIndex();
+				if (orderIndex > this.maxOrderIndex) {
+					this.maxOrderIndex = orderIndex;
+				}
+				if (receivedEvent instanceof BeforeOperationEvent) {
+					if (orderIndex == 0) {
+						this.closeable = true;
 					}
+					this.openEvents++;
+				} else if (receivedEvent instanceof AfterOperationEvent) {
+					this.openEvents--;
+				} else if (receivedEvent instanceof AfterOperationFailedEvent) {
+					this.openEvents--;
+				}
+				if (!this.events.add(receivedEvent)) {
+					LOGGER.error("Duplicate entry for orderIndex {} with traceId {}", orderIndex, myTraceId);
+					this.damaged = true;
 				}
 			}
 		}
@@ -483,53 +572,43 @@ public abstract class AbstractEventRecordTraceReconstructionStage extends Abstra
 
 		public void setTrace(final TraceMetadata trace) {
 			final long myTraceId = trace.getTraceId();
-			synchronized (this) {
-				if (this.traceId == -1) {
-					this.traceId = myTraceId;
-				} else if (this.traceId != myTraceId) {
-					LOGGER.error("Invalid traceId! Expected: {} but found: {} in trace {}", this.traceId, myTraceId,
-							trace.toString());
-					this.damaged = true;
-				}
-				if (this.trace == null) {
-					this.trace = trace;
-				} else {
-					LOGGER.error("Duplicate Trace entry for traceId {}", myTraceId);
-					this.damaged = true;
-				}
+			if (this.traceId == -1) {
+				this.traceId = myTraceId;
+			} else if (this.traceId != myTraceId) {
+				LOGGER.error("Invalid traceId! Expected: {} but found: {} in trace {}", this.traceId, myTraceId,
+						trace.toString());
+				this.damaged = true;
+			}
+			if (this.trace == null) {
+				this.trace = trace;
+			} else {
+				LOGGER.error("Duplicate Trace entry for traceId {}", myTraceId);
+				this.damaged = true;
 			}
 		}
 
 		public boolean isFinished() {
-			synchronized (this) {
-				return this.closeable && !this.isInvalid();
-			}
+			return this.closeable && !this.isInvalid();
 		}
 
 		public boolean isInvalid() {
-			synchronized (this) {
-				return (this.trace == null) || this.damaged || (this.openEvents != 0)
-						|| (((this.maxOrderIndex + 1) != this.events.size()) || this.events.isEmpty());
-			}
+			return (this.trace == null) || this.damaged || (this.openEvents != 0)
+					|| (((this.maxOrderIndex + 1) != this.events.size()) || this.events.isEmpty());
 		}
 
 		public TraceEventRecords toTraceEvents() {
-			synchronized (this) {
-				return new TraceEventRecords(this.trace,
-						this.events.toArray(new AbstractTraceEvent[this.events.size()]));
-			}
+			return new TraceEventRecords(this.trace,
+					this.events.toArray(new AbstractTraceEvent[this.events.size()]));
 		}
 
+		@Override
 		public long getMaxLoggingTimestamp() {
-			synchronized (this) {
-				return this.maxLoggingTimestamp;
-			}
+			return this.maxLoggingTimestamp;
 		}
 
+		@Override
 		public long getMinLoggingTimestamp() {
-			synchronized (this) {
-				return this.minLoggingTimestamp;
-			}
+			return this.minLoggingTimestamp;
 		}
 
 		public void setRepairEventBasedTracesEnabled(final boolean isEnabled) {
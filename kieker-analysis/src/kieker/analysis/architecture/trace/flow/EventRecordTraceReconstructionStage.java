@@ -51,6 +51,50 @@ public final class EventRecordTraceReconstructionStage extends AbstractEventReco
 		super(timeUnit, repairEventBasedTraces, maxTraceDuration, maxTraceTimeout);
 	}
 
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 *
+	 * @param timeUnit
+	 *            property determining the time unit
+	 * @param repairEventBasedTraces
+	 *            repair traces where AfterEvents are missing
+	 * @param maxTraceDuration
+	 *            max trace duration
+	 * @param maxTraceTimeout
+	 *            max trace timeout, if set to Long.MAX_VALUE no timeout is used
+	 * @param sortTimedOutTraces
+	 *            send the traces timed out at once ordered by their trace id
+	 *
+	 * @since 2.0.0
+	 */
+	public EventRecordTraceReconstructionStage(final TimeUnit timeUnit, final boolean repairEventBasedTraces, final long maxTraceDuration,
+			final long maxTraceTimeout, final boolean sortTimedOutTraces) {
+		super(timeUnit, repairEventBasedTraces, maxTraceDuration, maxTraceTimeout, sortTimedOutTraces);
+	}
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 *
+	 * @param timeUnit
+	 *            property determining the time unit
+	 * @param repairEventBasedTraces
+	 *            repair traces where AfterEvents are missing
+	 * @param maxTraceDuration
+	 *            max trace duration
+	 * @param maxTraceTimeout
+	 *            max trace timeout, if set to Long.MAX_VALUE no timeout is used
+	 * @param sortTimedOutTraces
+	 *            send the traces timed out at once ordered by their trace id
+	 * @param lockFree
+	 *            do not lock per record, which requires that only the thread of this stage accesses it
+	 *
+	 * @since 2.0.0
+	 */
+	public EventRecordTraceReconstructionStage(final TimeUnit timeUnit, final boolean repairEventBasedTraces, final long maxTraceDuration,
+			final long maxTraceTimeout, final boolean sortTimedOutTraces, final boolean lockFree) {
+		super(timeUnit, repairEventBasedTraces, maxTraceDuration, maxTraceTimeout, sortTimedOutTraces, lockFree);
+	}
+
 	@Override
 	protected void execute() throws Exception {
 		super.execute();
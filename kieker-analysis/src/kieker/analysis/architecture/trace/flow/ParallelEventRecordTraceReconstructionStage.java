@@ -0,0 +1,126 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.architecture.trace.flow;
+
+import java.util.concurrent.TimeUnit;
+
+import kieker.common.record.flow.IFlowRecord;
+
+import teetime.framework.CompositeStage;
+import teetime.framework.InputPort;
+import teetime.framework.OutputPort;
+import teetime.stage.basic.distributor.Distributor;
+import teetime.stage.basic.distributor.strategy.CopyByReferenceStrategy;
+import teetime.stage.basic.merger.Merger;
+
+/**
+ * Reconstructs event based (flow) traces like the {@link EventRecordTraceReconstructionStage}, but distributes the
+ * traces over several worker stages, each running in its own thread.
+ *
+ * <p>
+ * Incoming records are partitioned by their trace id, so each trace is reconstructed by exactly one worker which owns
+ * all state of that trace. Hence, the workers run without locks. The valid and invalid traces of all workers are merged
+ * into one output port each. The order of traces from different workers is not deterministic. If a timeout is used,
+ * the timestamps are sent to all workers, which process the timeouts in their own threads.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class ParallelEventRecordTraceReconstructionStage extends CompositeStage {
+
+	private final InputPort<IFlowRecord> traceRecordsInputPort;
+	private final InputPort<Long> timestampsInputPort;
+
+	private final OutputPort<TraceEventRecords> validTracesOutputPort;
+	private final OutputPort<TraceEventRecords> invalidTracesOutputPort;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 *
+	 * @param numberOfWorkers
+	 *            number of worker stages, usually the number of available cores
+	 * @param timeUnit
+	 *            property determining the time unit
+	 * @param repairEventBasedTraces
+	 *            repair traces where AfterEvents are missing
+	 * @param maxTraceDuration
+	 *            max trace duration
+	 * @param maxTraceTimeout
+	 *            max trace timeout, if set to Long.MAX_VALUE no timeout is used
+	 */
+	public ParallelEventRecordTraceReconstructionStage(final int numberOfWorkers, final TimeUnit timeUnit, final boolean repairEventBasedTraces,
+			final long maxTraceDuration, final long maxTraceTimeout) {
+		final TraceIdPartitionStage partitionStage = new TraceIdPartitionStage(numberOfWorkers);
+		final Merger<TraceEventRecords> validTracesMerger = new Merger<>();
+		final Merger<TraceEventRecords> invalidTracesMerger = new Merger<>();
+		// the mergers are fed by all workers, hence they must run in threads of their own
+		validTracesMerger.declareActive();
+		invalidTracesMerger.declareActive();
+		final Distributor<Long> timestampsDistributor;
+
+		this.traceRecordsInputPort = this.createInputPort(partitionStage.getInputPort());
+		this.validTracesOutputPort = this.createOutputPort(validTracesMerger.getOutputPort());
+		this.invalidTracesOutputPort = this.createOutputPort(invalidTracesMerger.getOutputPort());
+
+		final boolean hasTimeout = (maxTraceTimeout != Long.MAX_VALUE) || (maxTraceDuration != Long.MAX_VALUE);
+		if (hasTimeout) {
+			timestampsDistributor = new Distributor<>(new CopyByReferenceStrategy());
+			this.timestampsInputPort = this.createInputPort(timestampsDistributor.getInputPort());
+		} else {
+			timestampsDistributor = null;
+			this.timestampsInputPort = null;
+		}
+
+		for (final OutputPort<IFlowRecord> partitionPort : partitionStage.getPartitionOutputPorts()) {
+			// the order of timed out traces is not deterministic across workers anyway
+			final EventRecordTraceReconstructionStage worker = new EventRecordTraceReconstructionStage(timeUnit, repairEventBasedTraces,
+					maxTraceDuration, maxTraceTimeout, false, true);
+			worker.declareActive();
+
+			this.connectPorts(partitionPort, worker.getTraceRecordsInputPort());
+			this.connectPorts(worker.getValidTracesOutputPort(), validTracesMerger.getNewInputPort());
+			this.connectPorts(worker.getInvalidTracesOutputPort(), invalidTracesMerger.getNewInputPort());
+			if (timestampsDistributor != null) {
+				this.connectPorts(timestampsDistributor.getNewOutputPort(), worker.getTimestampsInputPort());
+			}
+		}
+	}
+
+	/**
+	 * @return input port for the flow records
+	 */
+	public InputPort<IFlowRecord> getTraceRecordsInputPort() {
+		return this.traceRecordsInputPort;
+	}
+
+	/**
+	 * @return input port for a periodic time signal, null if no timeout is used
+	 */
+	public InputPort<Long> getTimestampsInputPort() {
+		return this.timestampsInputPort;
+	}
+
+	public OutputPort<TraceEventRecords> getValidTracesOutputPort() {
+		return this.validTracesOutputPort;
+	}
+
+	public OutputPort<TraceEventRecords> getInvalidTracesOutputPort() {
+		return this.invalidTracesOutputPort;
+	}
+}
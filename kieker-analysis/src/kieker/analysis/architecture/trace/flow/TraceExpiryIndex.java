@@ -0,0 +1,270 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.architecture.trace.flow;
+
+import java.util.Arrays;
+
+/**
+ * Index of open traces ordered by the logging timestamps of their first and last event. It allows to find the traces
+ * exceeding the maximal trace duration or the trace timeout without looking at any other trace.
+ *
+ * <p>
+ * The index consists of two indexed binary min-heaps, one ordered by the first-seen (minimal) and one ordered by the
+ * last-seen (maximal) logging timestamp. Each entry knows its position in both heaps, so that updating the timestamps
+ * of a trace and removing a finished trace take O(log n). The index is not thread-safe.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+final class TraceExpiryIndex {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private Entry[] firstSeenHeap = new Entry[INITIAL_CAPACITY];
+	private Entry[] lastSeenHeap = new Entry[INITIAL_CAPACITY];
+	private int size;
+
+	/**
+	 * Create an empty index.
+	 */
+	public TraceExpiryIndex() {
+		// empty default constructor
+	}
+
+	/**
+	 * @return number of indexed traces
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @param entry
+	 *            an entry
+	 * @return true if the entry is part of this index
+	 */
+	public boolean contains(final Entry entry) {
+		return entry.firstSeenPosition >= 0;
+	}
+
+	/**
+	 * Add a trace to the index.
+	 *
+	 * @param entry
+	 *            entry which is not yet indexed
+	 */
+	public void add(final Entry entry) {
+		if (this.size == this.firstSeenHeap.length) {
+			this.firstSeenHeap = Arrays.copyOf(this.firstSeenHeap, this.size * 2);
+			this.lastSeenHeap = Arrays.copyOf(this.lastSeenHeap, this.size * 2);
+		}
+		entry.firstSeenKey = entry.getMinLoggingTimestamp();
+		entry.lastSeenKey = entry.getMaxLoggingTimestamp();
+		this.firstSeenHeap[this.size] = entry;
+		entry.firstSeenPosition = this.size;
+		this.lastSeenHeap[this.size] = entry;
+		entry.lastSeenPosition = this.size;
+		this.size++;
+		this.siftUpFirstSeen(entry.firstSeenPosition);
+		this.siftUpLastSeen(entry.lastSeenPosition);
+	}
+
+	/**
+	 * Restore the heap order after the timestamps of an indexed trace have changed.
+	 *
+	 * @param entry
+	 *            indexed entry
+	 */
+	public void update(final Entry entry) {
+		final long minLoggingTimestamp = entry.getMinLoggingTimestamp();
+		if (minLoggingTimestamp != entry.firstSeenKey) {
+			entry.firstSeenKey = minLoggingTimestamp;
+			this.siftDownFirstSeen(this.siftUpFirstSeen(entry.firstSeenPosition));
+		}
+		final long maxLoggingTimestamp = entry.getMaxLoggingTimestamp();
+		if (maxLoggingTimestamp != entry.lastSeenKey) {
+			entry.lastSeenKey = maxLoggingTimestamp;
+			this.siftDownLastSeen(this.siftUpLastSeen(entry.lastSeenPosition));
+		}
+	}
+
+	/**
+	 * Remove an indexed trace.
+	 *
+	 * @param entry
+	 *            indexed entry
+	 */
+	public void remove(final Entry entry) {
+		this.size--;
+
+		final int firstSeenPosition = entry.firstSeenPosition;
+		final Entry lastFirstSeen = this.firstSeenHeap[this.size];
+		this.firstSeenHeap[this.size] = null;
+		if (lastFirstSeen != entry) { // NOPMD (compare references)
+			this.firstSeenHeap[firstSeenPosition] = lastFirstSeen;
+			lastFirstSeen.firstSeenPosition = firstSeenPosition;
+			this.siftDownFirstSeen(this.siftUpFirstSeen(firstSeenPosition));
+		}
+
+		final int lastSeenPosition = entry.lastSeenPosition;
+		final Entry lastLastSeen = this.lastSeenHeap[this.size];
+		this.lastSeenHeap[this.size] = null;
+		if (lastLastSeen != entry) { // NOPMD (compare references)
+			this.lastSeenHeap[lastSeenPosition] = lastLastSeen;
+			lastLastSeen.lastSeenPosition = lastSeenPosition;
+			this.siftDownLastSeen(this.siftUpLastSeen(lastSeenPosition));
+		}
+
+		entry.firstSeenPosition = -1;
+		entry.lastSeenPosition = -1;
+	}
+
+	/**
+	 * Remove and return a trace whose first event is not younger than the duration limit or whose last event is not
+	 * younger than the timeout limit.
+	 *
+	 * @param durationLimit
+	 *            traces with a minimal logging timestamp less or equal to this limit are expired
+	 * @param timeoutLimit
+	 *            traces with a maximal logging timestamp less or equal to this limit are expired
+	 * @return an expired trace or null if there is none
+	 */
+	public Entry pollExpired(final long durationLimit, final long timeoutLimit) {
+		if (this.size == 0) {
+			return null;
+		}
+		final Entry entry;
+		if (this.firstSeenHeap[0].firstSeenKey <= durationLimit) {
+			entry = this.firstSeenHeap[0];
+		} else if (this.lastSeenHeap[0].lastSeenKey <= timeoutLimit) {
+			entry = this.lastSeenHeap[0];
+		} else {
+			return null;
+		}
+		this.remove(entry);
+		return entry;
+	}
+
+	private int siftUpFirstSeen(final int start) {
+		final Entry entry = this.firstSeenHeap[start];
+		int position = start;
+		while (position > 0) {
+			final int parent = (position - 1) >>> 1;
+			final Entry parentEntry = this.firstSeenHeap[parent];
+			if (parentEntry.firstSeenKey <= entry.firstSeenKey) {
+				break;
+			}
+			this.firstSeenHeap[position] = parentEntry;
+			parentEntry.firstSeenPosition = position;
+			position = parent;
+		}
+		this.firstSeenHeap[position] = entry;
+		entry.firstSeenPosition = position;
+		return position;
+	}
+
+	private void siftDownFirstSeen(final int start) {
+		final Entry entry = this.firstSeenHeap[start];
+		int position = start;
+		while (true) {
+			int child = (2 * position) + 1;
+			if (child >= this.size) {
+				break;
+			}
+			if (((child + 1) < this.size) && (this.firstSeenHeap[child + 1].firstSeenKey < this.firstSeenHeap[child].firstSeenKey)) {
+				child++;
+			}
+			final Entry childEntry = this.firstSeenHeap[child];
+			if (entry.firstSeenKey <= childEntry.firstSeenKey) {
+				break;
+			}
+			this.firstSeenHeap[position] = childEntry;
+			childEntry.firstSeenPosition = position;
+			position = child;
+		}
+		this.firstSeenHeap[position] = entry;
+		entry.firstSeenPosition = position;
+	}
+
+	private int siftUpLastSeen(final int start) {
+		final Entry entry = this.lastSeenHeap[start];
+		int position = start;
+		while (position > 0) {
+			final int parent = (position - 1) >>> 1;
+			final Entry parentEntry = this.lastSeenHeap[parent];
+			if (parentEntry.lastSeenKey <= entry.lastSeenKey) {
+				break;
+			}
+			this.lastSeenHeap[position] = parentEntry;
+			parentEntry.lastSeenPosition = position;
+			position = parent;
+		}
+		this.lastSeenHeap[position] = entry;
+		entry.lastSeenPosition = position;
+		return position;
+	}
+
+	private void siftDownLastSeen(final int start) {
+		final Entry entry = this.lastSeenHeap[start];
+		int position = start;
+		while (true) {
+			int child = (2 * position) + 1;
+			if (child >= this.size) {
+				break;
+			}
+			if (((child + 1) < this.size) && (this.lastSeenHeap[child + 1].lastSeenKey < this.lastSeenHeap[child].lastSeenKey)) {
+				child++;
+			}
+			final Entry childEntry = this.lastSeenHeap[child];
+			if (entry.lastSeenKey <= childEntry.lastSeenKey) {
+				break;
+			}
+			this.lastSeenHeap[position] = childEntry;
+			childEntry.lastSeenPosition = position;
+			position = child;
+		}
+		this.lastSeenHeap[position] = entry;
+		entry.lastSeenPosition = position;
+	}
+
+	/**
+	 * An indexed trace. The index keeps a copy of the timestamps, so that changed timestamps can be detected in
+	 * {@link TraceExpiryIndex#update(Entry)}.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 2.0.0
+	 */
+	abstract static class Entry {
+		private int firstSeenPosition = -1;
+		private int lastSeenPosition = -1;
+		private long firstSeenKey;
+		private long lastSeenKey;
+
+		/**
+		 * @return the logging timestamp of the earliest event of the trace
+		 */
+		public abstract long getMinLoggingTimestamp();
+
+		/**
+		 * @return the logging timestamp of the latest event of the trace
+		 */
+		public abstract long getMaxLoggingTimestamp();
+	}
+}
@@ -0,0 +1,88 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.architecture.trace.flow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import kieker.common.record.flow.IFlowRecord;
+import kieker.common.record.flow.trace.AbstractTraceEvent;
+import kieker.common.record.flow.trace.TraceMetadata;
+
+import teetime.framework.AbstractConsumerStage;
+import teetime.framework.OutputPort;
+
+/**
+ * Distributes flow records over a fixed number of output ports based on their trace id, i.e., all records of one trace
+ * are sent to the same output port. Records without a trace id are sent to the first output port.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class TraceIdPartitionStage extends AbstractConsumerStage<IFlowRecord> {
+
+	private final List<OutputPort<IFlowRecord>> outputPorts;
+
+	/**
+	 * Create a new partition stage.
+	 *
+	 * @param numberOfPartitions
+	 *            number of output ports, must be positive
+	 */
+	public TraceIdPartitionStage(final int numberOfPartitions) {
+		if (numberOfPartitions <= 0) {
+			throw new IllegalArgumentException("The number of partitions must be positive, but is " + numberOfPartitions);
+		}
+		final List<OutputPort<IFlowRecord>> ports = new ArrayList<>(numberOfPartitions);
+		for (int i = 0; i < numberOfPartitions; i++) {
+			ports.add(this.createOutputPort(IFlowRecord.class));
+		}
+		this.outputPorts = Collections.unmodifiableList(ports);
+	}
+
+	@Override
+	protected void execute(final IFlowRecord record) throws Exception {
+		if (record instanceof TraceMetadata) {
+			this.outputPorts.get(this.getPartition(((TraceMetadata) record).getTraceId())).send(record);
+		} else if (record instanceof AbstractTraceEvent) {
+			this.outputPorts.get(this.getPartition(((AbstractTraceEvent) record).getTraceId())).send(record);
+		} else {
+			this.outputPorts.get(0).send(record);
+		}
+	}
+
+	/**
+	 * Returns the partition of a trace. Trace ids are mixed before, as they are often sequential and share their upper
+	 * bits.
+	 *
+	 * @param traceId
+	 *            trace id
+	 * @return index of the output port
+	 */
+	public int getPartition(final long traceId) {
+		return Math.floorMod(Long.hashCode(traceId) * 0x9E3779B9, this.outputPorts.size());
+	}
+
+	/**
+	 * @return the output ports, one per partition; named differently from {@link #getOutputPorts()} which returns all ports
+	 */
+	public List<OutputPort<IFlowRecord>> getPartitionOutputPorts() {
+		return this.outputPorts;
+	}
+}
@@ -52,6 +52,27 @@ public class TraceRecordsTraceReconstructionStage extends AbstractEventRecordTra
 		super(timeUnit, repairEventBasedTraces, maxTraceDuration, maxTraceTimeout);
 	}
 
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 *
+	 * @param timeUnit
+	 *            property determining the time unit
+	 * @param repairEventBasedTraces
+	 *            repair traces where AfterEvents are missing
+	 * @param maxTraceDuration
+	 *            max trace duration
+	 * @param maxTraceTimeout
+	 *            max trace timeout, if set to Long.MAX_VALUE no timeout is used
+	 * @param sortTimedOutTraces
+	 *            send the traces timed out at once ordered by their trace id
+	 *
+	 * @since 2.0.0
+	 */
+	public TraceRecordsTraceReconstructionStage(final TimeUnit timeUnit, final boolean repairEventBasedTraces, final long maxTraceDuration,
+			final long maxTraceTimeout, final boolean sortTimedOutTraces) {
+		super(timeUnit, repairEventBasedTraces, maxTraceDuration, maxTraceTimeout, sortTimedOutTraces);
+	}
+
 	@Override
 	protected void execute() throws Exception {
 		super.execute();
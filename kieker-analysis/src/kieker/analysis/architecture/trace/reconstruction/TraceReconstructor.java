@@ -18,11 +18,11 @@ package kieker.analysis.architecture.trace.reconstruction;
 
 import java.time.temporal.TemporalUnit;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
+import com.carrotsearch.hppc.LongObjectHashMap;
+
 import kieker.common.record.flow.trace.TraceMetadata;
 import kieker.common.record.flow.trace.operation.AfterOperationEvent;
 import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
@@ -41,8 +41,8 @@ import kieker.model.analysismodel.trace.Trace;
 final class TraceReconstructor {
 
 	private final DeploymentModel deploymentModel;
-	private final Map<Long, TraceReconstructionBuffer> traceBuffers = new HashMap<>(); // NOPMD (no concurrent access
-																						// intended)
+	/** open traces by trace id, a primitive map avoids boxing the id of every record. */
+	private final LongObjectHashMap<TraceReconstructionBuffer> traceBuffers = new LongObjectHashMap<>(); // NOPMD (no concurrent access intended)
 	private final List<TraceReconstructionBuffer> faultyTraceBuffers = new ArrayList<>();
 	// private final boolean activateAdditionalLogChecks;
 	private int danglingRecords;
@@ -15,6 +15,8 @@
  ***************************************************************************/
 package kieker.analysis.generic.clustering;
 
+import java.util.concurrent.ForkJoinPool;
+
 import kieker.analysis.generic.clustering.mtree.MTreeGeneratorStage;
 import kieker.analysis.generic.clustering.optics.OpticsData;
 import kieker.analysis.generic.clustering.optics.OpticsStage;
@@ -44,6 +46,27 @@ public class ClusteringCompositeStage<T> extends CompositeStage {
 
 	public ClusteringCompositeStage(final double clusteringDistance, final int minPts, final Integer maxAmount,
 			final OPTICSDataGED<T> distanceFunction) {
+		this(clusteringDistance, minPts, maxAmount, distanceFunction, null);
+	}
+
+	/**
+	 * Create a clustering stage which bulk loads the M-Tree and computes the OPTICS neighborhoods in parallel.
+	 *
+	 * @param clusteringDistance
+	 *            the maximal distance of two neighbors
+	 * @param minPts
+	 *            the minimal amount of neighbors of a core-object
+	 * @param maxAmount
+	 *            maximal number of collected models, or null for no limit
+	 * @param distanceFunction
+	 *            distance function, must be thread-safe if a pool is used
+	 * @param pool
+	 *            fork-join pool used for the M-Tree and OPTICS, or null to compute both sequentially
+	 *
+	 * @since 2.0.0
+	 */
+	public ClusteringCompositeStage(final double clusteringDistance, final int minPts, final Integer maxAmount,
+			final OPTICSDataGED<T> distanceFunction, final ForkJoinPool pool) {
 
 		final DataCollectorStage<OpticsData<T>> dataCollectorStage;
 		if (maxAmount != null) {
@@ -52,9 +75,9 @@ public class ClusteringCompositeStage<T> extends CompositeStage {
 			dataCollectorStage = new DataCollectorStage<>();
 		}
 
-		final MTreeGeneratorStage<OpticsData<T>> mTreeGeneratorStage = new MTreeGeneratorStage<>(distanceFunction);
+		final MTreeGeneratorStage<OpticsData<T>> mTreeGeneratorStage = new MTreeGeneratorStage<>(distanceFunction, pool);
 
-		final OpticsStage<T> opticsStage = new OpticsStage<>(clusteringDistance, minPts);
+		final OpticsStage<T> opticsStage = new OpticsStage<>(clusteringDistance, minPts, pool);
 
 		final ExtractDBScanClustersStage<T> clustering = new ExtractDBScanClustersStage<>(clusteringDistance);
 
@@ -0,0 +1,299 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.generic.clustering.mtree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import kieker.analysis.exception.InternalErrorException;
+import kieker.analysis.generic.clustering.mtree.nodes.AbstractNode;
+import kieker.analysis.generic.clustering.mtree.nodes.NodeFactory;
+
+/**
+ * Builds an M-Tree top-down from all data objects at once instead of inserting them one by one. For every node, the
+ * pivots of its children are chosen by a farthest-first traversal starting with the routing object of the node. Each
+ * data object is then assigned to its nearest pivot which has capacity left, such that all subtrees have the same
+ * height and the sizes of sibling subtrees differ by at most one object.
+ *
+ * The distances to the pivots of a node are calculated in parallel and the subtrees are partitioned in parallel on a
+ * fork-join pool. The nodes are created afterwards by the calling thread.
+ *
+ * @param <T>
+ *            The type of data indexed by the M-Tree.
+ *
+ * @author Kieker Project
+ * @since 2.0.0
+ */
+class BulkLoader<T> {
+
+	/** number of distances calculated by one task. */
+	private static final int DISTANCE_BATCH_SIZE = 64;
+
+	private final MTree<T> mtree;
+	private final ForkJoinPool pool;
+
+	BulkLoader(final MTree<T> mtree, final ForkJoinPool pool) {
+		this.mtree = mtree;
+		this.pool = pool;
+	}
+
+	/**
+	 * Build the tree for the given data objects.
+	 *
+	 * @param data
+	 *            data objects, must not be empty
+	 * @return the root node
+	 * @throws InternalErrorException
+	 *             on internal error
+	 */
+	public AbstractNode<T> load(final List<T> data) throws InternalErrorException {
+		final T rootData = data.get(0);
+		final double[] rootDistances = new double[data.size()];
+		this.pool.invoke(new DistanceTask(rootData, data, rootDistances, 0, data.size()));
+
+		final int maxNodeCapacity = this.mtree.getMaxNodeCapacity();
+		if (data.size() <= maxNodeCapacity) {
+			final AbstractNode<T> root = NodeFactory.createRootLeafNode(this.mtree, rootData);
+			this.fillLeaf(root, data, rootDistances);
+			return root;
+		}
+
+		int height = 1;
+		long capacity = (long) maxNodeCapacity * maxNodeCapacity;
+		while (capacity < data.size()) {
+			height++;
+			capacity *= maxNodeCapacity;
+		}
+
+		final Partition rootPartition = new Partition(rootData, 0, data, rootDistances, 0);
+		this.pool.invoke(new PartitionTask(rootPartition, height));
+
+		final AbstractNode<T> root = NodeFactory.createRootNode(this.mtree, rootData);
+		this.addChildren(root, rootPartition, height);
+		return root;
+	}
+
+	private void addChildren(final AbstractNode<T> node, final Partition partition, final int height) throws InternalErrorException {
+		for (final Partition childPartition : partition.children) {
+			final AbstractNode<T> child;
+			if (height == 1) {
+				child = NodeFactory.createLeafNode(this.mtree, childPartition.routingObject);
+				this.fillLeaf(child, childPartition.data, childPartition.distances);
+			} else {
+				child = NodeFactory.createInternalNode(this.mtree, childPartition.routingObject);
+				this.addChildren(child, childPartition, height - 1);
+			}
+			// the radius of the child is complete at this point
+			node.addChild(child, childPartition.distanceToParent);
+		}
+	}
+
+	private void fillLeaf(final AbstractNode<T> leaf, final List<T> data, final double[] distances) throws InternalErrorException {
+		for (int i = 0; i < data.size(); i++) {
+			leaf.addData(data.get(i), distances[i]);
+		}
+	}
+
+	/**
+	 * The data objects of a subtree and their distances to its routing object.
+	 */
+	private final class Partition {
+
+		private final T routingObject;
+		private final int routingIndex;
+		private final List<T> data;
+		private final double[] distances;
+		private final double distanceToParent;
+		private final List<Partition> children = new ArrayList<>();
+
+		public Partition(final T routingObject, final int routingIndex, final List<T> data, final double[] distances,
+				final double distanceToParent) {
+			this.routingObject = routingObject;
+			this.routingIndex = routingIndex;
+			this.data = data;
+			this.distances = distances;
+			this.distanceToParent = distanceToParent;
+		}
+	}
+
+	/**
+	 * Splits the data objects of a partition into the partitions of its children.
+	 */
+	private final class PartitionTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Partition partition;
+		private final int height;
+
+		public PartitionTask(final Partition partition, final int height) {
+			this.partition = partition;
+			this.height = height;
+		}
+
+		@Override
+		protected void compute() {
+			final List<T> data = this.partition.data;
+			final int size = data.size();
+
+			long childCapacity = 1;
+			for (int i = 0; i < this.height; i++) {
+				childCapacity *= BulkLoader.this.mtree.getMaxNodeCapacity();
+			}
+			final int numChildren = (int) Math.min(size, Math.max(2, ((size + childCapacity) - 1) / childCapacity));
+
+			// farthest-first traversal, the routing object is the first pivot
+			final int[] pivots = new int[numChildren];
+			final double[][] pivotDistances = new double[numChildren][];
+			pivots[0] = this.partition.routingIndex;
+			pivotDistances[0] = this.partition.distances;
+			final double[] minDistances = Arrays.copyOf(this.partition.distances, size);
+			minDistances[pivots[0]] = -1;
+			for (int p = 1; p < numChildren; p++) {
+				int next = 0;
+				for (int i = 1; i < size; i++) {
+					if (minDistances[i] > minDistances[next]) {
+						next = i;
+					}
+				}
+				pivots[p] = next;
+				pivotDistances[p] = new double[size];
+				new DistanceTask(data.get(next), data, pivotDistances[p], 0, size).invoke();
+				minDistances[next] = -1;
+				for (int i = 0; i < size; i++) {
+					if (minDistances[i] >= 0) {
+						minDistances[i] = Math.min(minDistances[i], pivotDistances[p][i]);
+					}
+				}
+			}
+
+			final int[] assignment = this.assign(pivots, pivotDistances, size);
+
+			final List<PartitionTask> tasks = new ArrayList<>(numChildren);
+			for (int p = 0; p < numChildren; p++) {
+				final List<T> childData = new ArrayList<>();
+				final double[] childDistances = new double[size];
+				int routingIndex = 0;
+				for (int i = 0; i < size; i++) {
+					if (assignment[i] == p) {
+						if (i == pivots[p]) {
+							routingIndex = childData.size();
+						}
+						childDistances[childData.size()] = pivotDistances[p][i];
+						childData.add(data.get(i));
+					}
+				}
+				final Partition child = new Partition(data.get(pivots[p]), routingIndex, childData,
+						Arrays.copyOf(childDistances, childData.size()), this.partition.distances[pivots[p]]);
+				this.partition.children.add(child);
+				if (this.height > 1) {
+					tasks.add(new PartitionTask(child, this.height - 1));
+				}
+			}
+			RecursiveAction.invokeAll(tasks);
+		}
+
+		/**
+		 * Assign every data object to its nearest pivot with capacity left. The objects closest to any pivot are
+		 * assigned first. The capacities sum up to the number of objects, hence all children are filled up.
+		 */
+		private int[] assign(final int[] pivots, final double[][] pivotDistances, final int size) {
+			final int numChildren = pivots.length;
+			final int[] capacities = new int[numChildren];
+			for (int p = 0; p < numChildren; p++) {
+				capacities[p] = (size / numChildren) + ((p < (size % numChildren)) ? 1 : 0); // NOCS
+			}
+
+			final int[] assignment = new int[size];
+			Arrays.fill(assignment, -1);
+			for (int p = 0; p < numChildren; p++) {
+				assignment[pivots[p]] = p;
+				capacities[p]--;
+			}
+
+			final double[] nearestDistances = new double[size];
+			final Integer[] order = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+				double nearest = Double.POSITIVE_INFINITY;
+				for (int p = 0; p < numChildren; p++) {
+					nearest = Math.min(nearest, pivotDistances[p][i]);
+				}
+				nearestDistances[i] = nearest;
+			}
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(final Integer index1, final Integer index2) {
+					return Double.compare(nearestDistances[index1], nearestDistances[index2]);
+				}
+			});
+
+			for (final int i : order) {
+				if (assignment[i] < 0) {
+					int chosen = -1;
+					for (int p = 0; p < numChildren; p++) {
+						if ((capacities[p] > 0) && ((chosen < 0) || (pivotDistances[p][i] < pivotDistances[chosen][i]))) {
+							chosen = p;
+						}
+					}
+					assignment[i] = chosen;
+					capacities[chosen]--;
+				}
+			}
+			return assignment;
+		}
+	}
+
+	/**
+	 * Calculates the distances of a range of data objects to a pivot, splits large ranges into subtasks.
+	 */
+	private final class DistanceTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final T pivot;
+		private final List<T> data;
+		private final double[] distances;
+		private final int from;
+		private final int to;
+
+		public DistanceTask(final T pivot, final List<T> data, final double[] distances, final int from, final int to) {
+			this.pivot = pivot;
+			this.data = data;
+			this.distances = distances;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if ((this.to - this.from) <= DISTANCE_BATCH_SIZE) {
+				final IDistanceFunction<? super T> distanceFunction = BulkLoader.this.mtree.getDistanceFunction();
+				for (int i = this.from; i < this.to; i++) {
+					this.distances[i] = distanceFunction.calculate(this.pivot, this.data.get(i));
+				}
+			} else {
+				final int middle = (this.from + this.to) >>> 1;
+				RecursiveAction.invokeAll(new DistanceTask(this.pivot, this.data, this.distances, this.from, middle),
+						new DistanceTask(this.pivot, this.data, this.distances, middle, this.to));
+			}
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.generic.clustering.mtree;
+
+/**
+ * A distance function which can stop the calculation as soon as the distance exceeds a given bound. This is used
+ * by range queries, which discard all objects farther away than the query range anyway.
+ *
+ * @param <T>
+ *            The type of the data objects.
+ *
+ * @author Kieker Project
+ * @since 2.0.0
+ */
+public interface IBoundedDistanceFunction<T> extends IDistanceFunction<T> {
+
+	/**
+	 * Calculate the distance between two data objects, unless it exceeds the given bound.
+	 *
+	 * @param data1
+	 *            first data object
+	 * @param data2
+	 *            second data object
+	 * @param bound
+	 *            the largest distance of interest
+	 * @return the exact distance if it is less than or equal to the bound, otherwise a value greater than the bound
+	 */
+	double calculate(T data1, T data2, double bound);
+
+}
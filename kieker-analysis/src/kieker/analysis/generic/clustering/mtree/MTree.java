@@ -15,6 +15,9 @@
  ***************************************************************************/
 package kieker.analysis.generic.clustering.mtree;
 
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
 import kieker.analysis.exception.InternalErrorException;
 import kieker.analysis.generic.clustering.mtree.nodes.AbstractNode;
 import kieker.analysis.generic.clustering.mtree.nodes.IndexItem;
@@ -151,6 +154,30 @@ public class MTree<T> {
 		}
 	}
 
+	/**
+	 * Adds and indexes the given data objects. If the M-Tree is empty, it is bulk loaded, i.e., the tree is built
+	 * top-down from all objects at once and the distances are calculated in parallel on the given pool. Otherwise, the
+	 * objects are added one by one.
+	 *
+	 * @param data
+	 *            The data objects to index.
+	 * @param pool
+	 *            fork-join pool used to calculate the distances
+	 * @throws InternalErrorException
+	 *             on internal error
+	 *
+	 * @since 2.0.0
+	 */
+	public void addAll(final List<T> data, final ForkJoinPool pool) throws InternalErrorException {
+		if ((this.root == null) && !data.isEmpty()) {
+			this.root = new BulkLoader<>(this, pool).load(data);
+		} else {
+			for (final T element : data) {
+				this.add(element);
+			}
+		}
+	}
+
 	/**
 	 * Removes a data object from the M-Tree.
 	 *
@@ -16,6 +16,7 @@
 package kieker.analysis.generic.clustering.mtree;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import teetime.stage.basic.AbstractTransformation;
 
@@ -37,12 +38,29 @@ public class MTreeGeneratorStage<T> extends AbstractTransformation<List<T>, MTre
 	private int minNodeCapacity = 25;
 	private int maxNodeCapacity = 49;
 
+	private final ForkJoinPool pool;
+
 	public MTreeGeneratorStage(final IDistanceFunction<T> distanceFunction) {
+		this(distanceFunction, null);
+	}
+
+	/**
+	 * Create an M-Tree generator which bulk loads the tree.
+	 *
+	 * @param distanceFunction
+	 *            distance function
+	 * @param pool
+	 *            fork-join pool used to bulk load the tree, or null to insert the models one by one
+	 *
+	 * @since 2.0.0
+	 */
+	public MTreeGeneratorStage(final IDistanceFunction<T> distanceFunction, final ForkJoinPool pool) {
 		this.distanceFunction = distanceFunction;
+		this.pool = pool;
 	}
 
 	public MTreeGeneratorStage(final IDistanceFunction<T> distanceFunction, final int minNodeCapacity, final int maxNodeCapacity) {
-		this.distanceFunction = distanceFunction;
+		this(distanceFunction);
 		this.minNodeCapacity = minNodeCapacity;
 		this.maxNodeCapacity = maxNodeCapacity;
 	}
@@ -53,8 +71,12 @@ public class MTreeGeneratorStage<T> extends AbstractTransformation<List<T>, MTre
 
 		if (models != null) {
 			this.logger.debug("Received {} new models", models.size());
-			for (final T model : models) {
-				mtree.add(model);
+			if (this.pool != null) {
+				mtree.addAll(models, this.pool);
+			} else {
+				for (final T model : models) {
+					mtree.add(model);
+				}
 			}
 			this.logger.debug("Created MTree");
 
@@ -19,6 +19,8 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.PriorityQueue;
 
+import kieker.analysis.generic.clustering.mtree.IBoundedDistanceFunction;
+import kieker.analysis.generic.clustering.mtree.IDistanceFunction;
 import kieker.analysis.generic.clustering.mtree.nodes.AbstractNode;
 import kieker.analysis.generic.clustering.mtree.nodes.Entry;
 import kieker.analysis.generic.clustering.mtree.nodes.IndexItem;
@@ -108,7 +110,8 @@ public final class ResultsIterator<T> implements Iterator<ResultItem<T>> {
 
 			for (final IndexItem<T> child : node.getChildren().values()) {
 				if ((Math.abs(pending.distance - child.getDistanceToParent()) - child.getRadius()) <= this.query.getRange()) {
-					final double childDistance = this.query.getMTree().getDistanceFunction().calculate(this.query.getData(), child.getData());
+					// children farther away than the range plus their radius are discarded anyway
+					final double childDistance = this.calculateDistance(child.getData(), this.query.getRange() + child.getRadius());
 					final double childMinDistance = Math.max(childDistance - child.getRadius(), 0.0);
 					if (childMinDistance <= this.query.getRange()) {
 						if (child instanceof Entry) {
@@ -132,6 +135,17 @@ public final class ResultsIterator<T> implements Iterator<ResultItem<T>> {
 		this.finished = true;
 	}
 
+	private double calculateDistance(final T data, final double bound) {
+		final IDistanceFunction<? super T> distanceFunction = this.query.getMTree().getDistanceFunction();
+		if (distanceFunction instanceof IBoundedDistanceFunction) {
+			@SuppressWarnings("unchecked")
+			final IBoundedDistanceFunction<? super T> boundedDistanceFunction = (IBoundedDistanceFunction<? super T>) distanceFunction;
+			return boundedDistanceFunction.calculate(this.query.getData(), data, bound);
+		} else {
+			return distanceFunction.calculate(this.query.getData(), data);
+		}
+	}
+
 	private boolean prepareNextNearest() {
 		if (!this.nearestQueue.isEmpty()) {
 			final ItemWithDistances<Entry<T>> nextNearest = this.nearestQueue.peek();
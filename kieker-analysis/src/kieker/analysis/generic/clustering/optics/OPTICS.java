@@ -17,8 +17,12 @@ package kieker.analysis.generic.clustering.optics;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import kieker.analysis.generic.clustering.mtree.MTree;
 import kieker.analysis.generic.clustering.mtree.query.Query;
@@ -28,6 +32,10 @@ import kieker.analysis.generic.clustering.mtree.query.ResultItem;
  * An implementation of the OPTICS algorithm. A detailed explanation of the algorithm can be found
  * in the paper "OPTICS: ordering points to identify the clustering structure".
  *
+ * The neighborhood of every model is queried once from the M-Tree. Optionally, the neighborhoods of all models are
+ * computed in parallel on a fork-join pool before the models are ordered. The ordering itself is sequential, hence
+ * the result does not depend on the parallelism.
+ *
  * @param <T>
  *            model type
  *
@@ -50,6 +58,9 @@ public class OPTICS<T> {
 	private final MTree<OpticsData<T>> mtree;
 	private final List<OpticsData<T>> models;
 	private final List<OpticsData<T>> resultList = new ArrayList<>();
+	private final ForkJoinPool pool;
+	/** neighbors of a model within the max distance in ascending order of their distance. */
+	private final Map<OpticsData<T>, List<ResultItem<OpticsData<T>>>> neighborhoods = new IdentityHashMap<>();
 
 	/**
 	 *
@@ -65,19 +76,42 @@ public class OPTICS<T> {
 	 */
 	public OPTICS(final MTree<OpticsData<T>> mtree, final double maxDistance, final int minPTs,
 			final List<OpticsData<T>> models) {
+		this(mtree, maxDistance, minPTs, models, null);
+	}
+
+	/**
+	 *
+	 * @param mtree
+	 *            The M-Tree with the behavior models to be clustered
+	 * @param maxDistance
+	 *            The maximal distance two neighbors can have (the epsilon value of the algorithm)
+	 * @param minPTs
+	 *            The minimal amount of neighbors a object must have to be called a core-object
+	 * @param models
+	 *            A list of all models to be clustered. They have to be the same as the models in
+	 *            the M-Tree
+	 * @param pool
+	 *            fork-join pool to compute the neighborhoods of all models in advance, or null to compute each
+	 *            neighborhood when it is needed
+	 *
+	 * @since 2.0.0
+	 */
+	public OPTICS(final MTree<OpticsData<T>> mtree, final double maxDistance, final int minPTs,
+			final List<OpticsData<T>> models, final ForkJoinPool pool) {
 		this.mtree = mtree;
 		this.maxDistance = maxDistance;
 		this.minPTs = minPTs;
 		this.models = models;
+		this.pool = pool;
 	}
 
-	private double reachabilityDistance(final OpticsData<T> model1, final OpticsData<T> model2) {
+	private double reachabilityDistance(final OpticsData<T> model1, final ResultItem<OpticsData<T>> model2) {
 		final double coreDistance = model1.getCoreDistance();
 		if (coreDistance == OpticsData.UNDEFINED) {
 			return OpticsData.UNDEFINED;
 		}
-		final double distance = model1.distanceTo(model2);
-		return Math.max(distance, coreDistance);
+		// the query result contains the distance from model1 to model2
+		return Math.max(model2.getDistance(), coreDistance);
 	}
 
 	/**
@@ -87,38 +121,48 @@ public class OPTICS<T> {
 	 *
 	 * @param model
 	 *            The model, of which the core distance should be updated.
+	 * @param neighbors
+	 *            The neighbors of the model in ascending order of their distance.
 	 */
-	private void updateCoreDistance(final OpticsData<T> model) {
-
-		int resultAmount = 0;
-		OpticsData<T> last = null;
-
-		final Query<OpticsData<T>> v = this.getMtree()
-				.getNearest(model, this.getMaxDistance(), this.getMinPTs());
-
-		for (final ResultItem<OpticsData<T>> element : v) {
-			resultAmount++;
-			last = element.getData();
-		}
-
-		if (resultAmount < this.getMinPTs()) {
+	private void updateCoreDistance(final OpticsData<T> model, final List<ResultItem<OpticsData<T>>> neighbors) {
+		if (neighbors.size() < this.getMinPTs()) {
 			model.setCoreDistance(OpticsData.UNDEFINED);
 		} else {
-			model.setCoreDistance(model.distanceTo(last));
+			model.setCoreDistance(neighbors.get(this.getMinPTs() - 1).getDistance());
 		}
+	}
 
+	private List<ResultItem<OpticsData<T>>> getNeighbors(final OpticsData<T> model) {
+		final List<ResultItem<OpticsData<T>>> neighbors = this.neighborhoods.remove(model);
+		if (neighbors != null) {
+			return neighbors;
+		} else {
+			return this.queryNeighbors(model);
+		}
 	}
 
-	private List<OpticsData<T>> getNeighbors(final OpticsData<T> model) {
+	private List<ResultItem<OpticsData<T>>> queryNeighbors(final OpticsData<T> model) {
 		final Query<OpticsData<T>> query = this.mtree.getNearestByRange(model, this.maxDistance);
-		final List<OpticsData<T>> neighbors = new ArrayList<>();
+		final List<ResultItem<OpticsData<T>>> neighbors = new ArrayList<>();
 
 		for (final ResultItem<OpticsData<T>> element : query) {
-			neighbors.add(element.getData());
+			neighbors.add(element);
 		}
 
 		return neighbors;
+	}
 
+	/**
+	 * Queries the neighborhoods of all models in parallel. The M-Tree is only read, hence it can be queried
+	 * concurrently as long as the distance function is thread-safe.
+	 */
+	private void computeNeighborhoods() {
+		@SuppressWarnings("unchecked")
+		final List<ResultItem<OpticsData<T>>>[] results = new List[this.models.size()];
+		this.pool.invoke(new NeighborhoodTask(results, 0, results.length));
+		for (int i = 0; i < results.length; i++) {
+			this.neighborhoods.put(this.models.get(i), results[i]);
+		}
 	}
 
 	/**
@@ -128,6 +172,9 @@ public class OPTICS<T> {
 	 *         important for the evaluation.
 	 */
 	public List<OpticsData<T>> calculate() {
+		if (this.pool != null) {
+			this.computeNeighborhoods();
+		}
 		for (final OpticsData<T> model : this.models) {
 			if (!model.isVisited()) {
 				this.expandClusterOrder(model);
@@ -148,13 +195,14 @@ public class OPTICS<T> {
 	 * @param seeds
 	 *            The current Priority Queue
 	 */
-	private void update(final List<OpticsData<T>> neighbors, final OpticsData<T> centerModel,
+	private void update(final List<ResultItem<OpticsData<T>>> neighbors, final OpticsData<T> centerModel,
 			final PriorityQueue<OpticsData<T>> seeds) {
 
-		for (final OpticsData<T> model : neighbors) {
+		for (final ResultItem<OpticsData<T>> neighbor : neighbors) {
+			final OpticsData<T> model = neighbor.getData();
 			if (!model.isVisited()) {
 
-				final double newReachDistance = this.reachabilityDistance(centerModel, model);
+				final double newReachDistance = this.reachabilityDistance(centerModel, neighbor);
 
 				if (model.getReachabilityDistance() == OpticsData.UNDEFINED) {
 					model.setReachabilityDistance(newReachDistance);
@@ -182,11 +230,11 @@ public class OPTICS<T> {
 	 *            An unvisited behavior model.
 	 */
 	private void expandClusterOrder(final OpticsData<T> model1) {
-		final List<OpticsData<T>> neighbors1 = this.getNeighbors(model1);
+		final List<ResultItem<OpticsData<T>>> neighbors1 = this.getNeighbors(model1);
 
 		model1.setVisited(true);
 		model1.setReachabilityDistance(OpticsData.UNDEFINED);
-		this.updateCoreDistance(model1);
+		this.updateCoreDistance(model1, neighbors1);
 		this.resultList.add(model1);
 
 		if (model1.getCoreDistance() != OpticsData.UNDEFINED) {
@@ -195,8 +243,8 @@ public class OPTICS<T> {
 			while (!seeds.isEmpty()) {
 
 				final OpticsData<T> model2 = seeds.poll();
-				final List<OpticsData<T>> neighbors2 = this.getNeighbors(model2);
-				this.updateCoreDistance(model2);
+				final List<ResultItem<OpticsData<T>>> neighbors2 = this.getNeighbors(model2);
+				this.updateCoreDistance(model2, neighbors2);
 
 				model2.setVisited(true);
 				this.resultList.add(model2);
@@ -220,4 +268,34 @@ public class OPTICS<T> {
 		return this.mtree;
 	}
 
+	/**
+	 * Queries the neighborhoods of a range of models, splits large ranges into subtasks.
+	 */
+	private final class NeighborhoodTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<ResultItem<OpticsData<T>>>[] results;
+		private final int from;
+		private final int to;
+
+		public NeighborhoodTask(final List<ResultItem<OpticsData<T>>>[] results, final int from, final int to) {
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if ((this.to - this.from) <= 1) {
+				for (int i = this.from; i < this.to; i++) {
+					this.results[i] = OPTICS.this.queryNeighbors(OPTICS.this.models.get(i));
+				}
+			} else {
+				final int middle = (this.from + this.to) >>> 1;
+				RecursiveAction.invokeAll(new NeighborhoodTask(this.results, this.from, middle),
+						new NeighborhoodTask(this.results, middle, this.to));
+			}
+		}
+	}
 }
@@ -18,6 +18,7 @@ package kieker.analysis.generic.clustering.optics;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
 
 import kieker.analysis.generic.clustering.mtree.MTree;
 
@@ -46,10 +47,28 @@ public class OpticsStage<T> extends AbstractStage {
 
 	private final double epsilon;
 	private final int minPTs;
+	private final ForkJoinPool pool;
 
 	public OpticsStage(final double epsilon, final int minPTs) {
+		this(epsilon, minPTs, null);
+	}
+
+	/**
+	 * Create an OPTICS stage which computes the neighborhoods of the models in parallel.
+	 *
+	 * @param epsilon
+	 *            the maximal distance of two neighbors
+	 * @param minPTs
+	 *            the minimal amount of neighbors of a core-object
+	 * @param pool
+	 *            fork-join pool used to compute the neighborhoods, or null to compute them sequentially
+	 *
+	 * @since 2.0.0
+	 */
+	public OpticsStage(final double epsilon, final int minPTs, final ForkJoinPool pool) {
 		this.minPTs = minPTs;
 		this.epsilon = epsilon;
+		this.pool = pool;
 	}
 
 	@Override
@@ -70,7 +89,7 @@ public class OpticsStage<T> extends AbstractStage {
 			final MTree<OpticsData<T>> mtree = this.mTreeInputQueue.poll();
 			final List<OpticsData<T>> models = this.modelsInputQueue.poll();
 
-			final OPTICS<T> optics = new OPTICS<>(mtree, this.epsilon, this.minPTs, models);
+			final OPTICS<T> optics = new OPTICS<>(mtree, this.epsilon, this.minPTs, models, this.pool);
 
 			final List<OpticsData<T>> result = optics.calculate();
 
@@ -0,0 +1,199 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.generic.graph.clustering;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.MapMaker;
+import com.google.common.graph.MutableNetwork;
+
+import kieker.analysis.generic.clustering.mtree.IBoundedDistanceFunction;
+import kieker.analysis.generic.graph.IEdge;
+import kieker.analysis.generic.graph.INode;
+
+/**
+ * Calculates the same graph edit distance as {@link GraphEditDistance}, but looks up nodes and edges in an index
+ * instead of scanning the models. The index of a model maps each node id to the node, its insertion cost and its
+ * ingoing edges by source node id. It is created when a model is compared for the first time and cached as long
+ * as the model is referenced, i.e., the models must not be modified after they have been passed to this
+ * function. Unlike {@link GraphEditDistance}, an ingoing edge whose source node does not occur in the other
+ * model is counted as inserted instead of failing.
+ *
+ * In addition, the calculation stops as soon as the partial distance exceeds a given bound, e.g., the epsilon of
+ * OPTICS. This requires a cost function which never returns negative costs.
+ *
+ * @param <N>
+ *            node type
+ * @param <E>
+ *            edge type
+ *
+ * @author Kieker Project
+ * @since 2.0.0
+ */
+public class IndexedGraphEditDistance<N extends INode, E extends IEdge> implements IBoundedDistanceFunction<MutableNetwork<N, E>> {
+
+	private final BasicCostFunction<N, E> costFunction;
+
+	/** models are compared by identity and the index is dropped together with the model. */
+	private final ConcurrentMap<MutableNetwork<N, E>, ModelIndex<N, E>> indices = new MapMaker().weakKeys().makeMap();
+
+	/**
+	 * Create a new graph edit distance function.
+	 *
+	 * @param costFunction
+	 *            cost function, must not return negative costs
+	 */
+	public IndexedGraphEditDistance(final BasicCostFunction<N, E> costFunction) {
+		this.costFunction = costFunction;
+	}
+
+	@Override
+	public double calculate(final MutableNetwork<N, E> modelA, final MutableNetwork<N, E> modelB) {
+		return this.calculate(modelA, modelB, Double.POSITIVE_INFINITY);
+	}
+
+	@Override
+	public double calculate(final MutableNetwork<N, E> modelA, final MutableNetwork<N, E> modelB, final double bound) {
+		final ModelIndex<N, E> indexA = this.getIndex(modelA);
+		final ModelIndex<N, E> indexB = this.getIndex(modelB);
+
+		double distance = 0;
+
+		// check if nodes from model1 are in model2
+		for (final NodeIndex<N, E> nodeA : indexA.nodes) {
+			final NodeIndex<N, E> nodeB = indexB.nodeIds.get(nodeA.node.getId());
+			if (nodeB == null) { // node only occurs in one objects => must be inserted
+				distance += nodeA.insertionCost;
+			} else { // node occurs in both objects => must be compared
+				distance += this.nodeDistance(nodeA, nodeB);
+			}
+			if (distance > bound) {
+				return distance;
+			}
+		}
+
+		// check if nodes from model2 are in model1
+		for (final NodeIndex<N, E> nodeB : indexB.nodes) {
+			if (!indexA.nodeIds.containsKey(nodeB.node.getId())) {
+				distance += nodeB.insertionCost;
+				if (distance > bound) {
+					return distance;
+				}
+			}
+		}
+		return distance;
+	}
+
+	/**
+	 * Calculates the distance between two nodes with the same id including the distance between their ingoing
+	 * edges. Edges are matched by the id of their source node.
+	 */
+	private double nodeDistance(final NodeIndex<N, E> nodeA, final NodeIndex<N, E> nodeB) {
+		double distance = this.costFunction.nodeAnnotationDistance(nodeA.node, nodeB.node);
+		for (int i = 0; i < nodeA.inEdges.size(); i++) {
+			final E edgeA = nodeA.inEdges.get(i);
+			final E edgeB = nodeB.inEdgeSources.get(nodeA.sourceIds.get(i));
+			if (edgeB != null) { // edge occurs in both nodes => must be compared
+				distance += this.costFunction.edgeAnnotationDistance(edgeA, edgeB);
+			} else { // edge only occurs in one node => must be inserted
+				distance += this.costFunction.computeEdgeInsertionCost(edgeA);
+			}
+		}
+		for (int i = 0; i < nodeB.inEdges.size(); i++) {
+			// edge only occurs in one node => must be inserted
+			if (!nodeA.inEdgeSources.containsKey(nodeB.sourceIds.get(i))) {
+				distance += this.costFunction.computeEdgeInsertionCost(nodeB.inEdges.get(i));
+			}
+		}
+		return distance;
+	}
+
+	private ModelIndex<N, E> getIndex(final MutableNetwork<N, E> model) {
+		ModelIndex<N, E> index = this.indices.get(model);
+		if (index == null) {
+			index = new ModelIndex<>(model, this.costFunction);
+			// concurrent callers may index the same model, the indices are equal
+			final ModelIndex<N, E> existingIndex = this.indices.putIfAbsent(model, index);
+			if (existingIndex != null) {
+				index = existingIndex;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * The nodes of one model in their iteration order and by their id.
+	 *
+	 * @param <N>
+	 *            node type
+	 * @param <E>
+	 *            edge type
+	 */
+	private static final class ModelIndex<N extends INode, E extends IEdge> {
+
+		private final List<NodeIndex<N, E>> nodes;
+		private final Map<String, NodeIndex<N, E>> nodeIds;
+
+		public ModelIndex(final MutableNetwork<N, E> model, final BasicCostFunction<N, E> costFunction) {
+			this.nodes = new ArrayList<>(model.nodes().size());
+			this.nodeIds = new HashMap<>(model.nodes().size() * 2);
+			for (final N node : model.nodes()) {
+				final NodeIndex<N, E> nodeIndex = new NodeIndex<>(model, node, costFunction);
+				this.nodes.add(nodeIndex);
+				this.nodeIds.putIfAbsent(node.getId(), nodeIndex);
+			}
+		}
+	}
+
+	/**
+	 * A node together with its insertion cost, its ingoing edges and the ids of their source nodes.
+	 *
+	 * @param <N>
+	 *            node type
+	 * @param <E>
+	 *            edge type
+	 */
+	private static final class NodeIndex<N extends INode, E extends IEdge> {
+
+		private final N node;
+		private final List<E> inEdges;
+		private final List<String> sourceIds;
+		private final Map<String, E> inEdgeSources;
+		private final double insertionCost;
+
+		public NodeIndex(final MutableNetwork<N, E> model, final N node, final BasicCostFunction<N, E> costFunction) {
+			this.node = node;
+			final int inDegree = model.inDegree(node);
+			this.inEdges = new ArrayList<>(inDegree);
+			this.sourceIds = new ArrayList<>(inDegree);
+			this.inEdgeSources = new HashMap<>(inDegree * 2);
+			double cost = costFunction.computeNodeInsertionCost(node);
+			for (final E edge : model.inEdges(node)) {
+				final String sourceId = model.incidentNodes(edge).source().getId();
+				this.inEdges.add(edge);
+				this.sourceIds.add(sourceId);
+				// like GraphEditDistance, parallel edges are all matched with the first edge of the other model
+				this.inEdgeSources.putIfAbsent(sourceId, edge);
+				cost += costFunction.computeEdgeInsertionCost(edge);
+			}
+			this.insertionCost = cost;
+		}
+	}
+}
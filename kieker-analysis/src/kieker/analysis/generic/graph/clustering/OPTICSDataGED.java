@@ -15,10 +15,11 @@
  ***************************************************************************/
 package kieker.analysis.generic.graph.clustering;
 
+import kieker.analysis.generic.clustering.mtree.IBoundedDistanceFunction;
 import kieker.analysis.generic.clustering.mtree.IDistanceFunction;
 import kieker.analysis.generic.clustering.optics.OpticsData;
 
-public class OPTICSDataGED<T> implements IDistanceFunction<OpticsData<T>> {
+public class OPTICSDataGED<T> implements IBoundedDistanceFunction<OpticsData<T>> {
 
 	private final IDistanceFunction<T> distanceFunction;
 
@@ -31,4 +32,13 @@ public class OPTICSDataGED<T> implements IDistanceFunction<OpticsData<T>> {
 		return this.distanceFunction.calculate(model1.getData(), model2.getData());
 	}
 
+	@Override
+	public double calculate(final OpticsData<T> model1, final OpticsData<T> model2, final double bound) {
+		if (this.distanceFunction instanceof IBoundedDistanceFunction) {
+			return ((IBoundedDistanceFunction<T>) this.distanceFunction).calculate(model1.getData(), model2.getData(), bound);
+		} else {
+			return this.distanceFunction.calculate(model1.getData(), model2.getData());
+		}
+	}
+
 }
@@ -19,33 +19,53 @@ import java.io.IOException;
 import java.net.BindException;
 import java.net.InetSocketAddress;
 import java.nio.channels.ClosedByInterruptException;
-import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
 
 import kieker.analysis.generic.source.rewriter.ITraceMetadataRewriter;
 import kieker.common.record.IMonitoringRecord;
+import kieker.monitoring.queue.MpscRingBufferQueue;
 
 import teetime.framework.AbstractProducerStage;
 
 /**
  * This is a multi connection tcp source stage.
  *
+ * <p>
+ * With a single reader, one {@link ReaderThread} reads and decodes the records of all connections and passes them to
+ * the output port, while the stage accepts new connections. With several readers, each connection is assigned to the
+ * reader with the fewest connections. The readers put the decoded records into a bounded lock-free queue, which is
+ * drained by the stage. The stage rewrites and sends the records, so the record rewriter and the output port are only
+ * used by one thread. The records of one connection keep their order, whereas the records of different connections
+ * are interleaved.
+ * </p>
+ *
  * @author Reiner Jung
  * @since 1.15
  */
 public class MultipleConnectionTcpSourceStage extends AbstractProducerStage<IMonitoringRecord> {
 
+	/** capacity of the queue between the readers and the stage. */
+	private static final int QUEUE_CAPACITY = 64 * 1024;
+	/** time the stage waits for decoded records before it accepts new connections again. */
+	private static final long POLL_TIMEOUT_IN_MS = 10;
+	/** maximal number of records sent before the stage accepts new connections again. */
+	private static final int MAX_RECORDS_PER_POLL = 4096;
+
 	/** server input port. */
 	private final int inputPort;
 	private final int bufferSize;
+	private final int numberOfReaders;
 
 	private final ITraceMetadataRewriter recordRewriter;
 
-	private ReaderThread reader;
+	private ReaderThread[] readers;
+	private int nextReader;
+	private MpscRingBufferQueue<ReceivedRecord> receivedRecords;
 
-	private boolean allowNewConnection;
+	private volatile boolean allowNewConnection; // NOPMD (AvoidUsingVolatile)
 
 	/**
 	 * Create a single threaded multi connection tcp reader stage.
@@ -59,39 +79,62 @@ public class MultipleConnectionTcpSourceStage extends AbstractProducerStage<IMon
 	 */
 	public MultipleConnectionTcpSourceStage(final int inputPort, final int bufferSize,
 			final ITraceMetadataRewriter recordRewriter) {
+		this(inputPort, bufferSize, recordRewriter, 1);
+	}
+
+	/**
+	 * Create a multi connection tcp reader stage which reads and decodes the connections with several threads.
+	 *
+	 * @param inputPort
+	 *            used to accept <code>IMonitoringRecord</code>s and string registry entries.
+	 * @param bufferSize
+	 *            capacity of the receiving buffer of each connection
+	 * @param recordRewriter
+	 *            rewriting records, it is only called by the stage thread
+	 * @param numberOfReaders
+	 *            number of reader threads, at least 1
+	 *
+	 * @since 2.0.0
+	 */
+	public MultipleConnectionTcpSourceStage(final int inputPort, final int bufferSize,
+			final ITraceMetadataRewriter recordRewriter, final int numberOfReaders) {
+		if (numberOfReaders < 1) {
+			throw new IllegalArgumentException("At least one reader is required, but got " + numberOfReaders);
+		}
 		this.inputPort = inputPort;
 		this.bufferSize = bufferSize;
 		this.recordRewriter = recordRewriter;
+		this.numberOfReaders = numberOfReaders;
 	}
 
 	@Override
 	protected void execute() {
-		try {
-			final ServerSocketChannel serverSocket = ServerSocketChannel.open();
+		try (final ServerSocketChannel serverSocket = ServerSocketChannel.open()) {
 			serverSocket.bind(new InetSocketAddress(this.inputPort));
-			serverSocket.configureBlocking(true);
-			final Selector readSelector = Selector.open();
-			this.reader = new ReaderThread(this.logger, readSelector, this.recordRewriter, this.outputPort);
-			this.reader.start();
+			this.startReaders();
 
 			this.allowNewConnection = true;
 
-			while (this.allowNewConnection && !this.shouldBeTerminated()) {
-				final SocketChannel socketChannel = serverSocket.accept();
-
-				if (socketChannel != null) {
-					this.logger.debug("Connection from {}.", socketChannel.getRemoteAddress().toString());
-					// add socketChannel to list of channels
-					socketChannel.configureBlocking(false);
-
-					readSelector.wakeup();
-					final SelectionKey key = socketChannel.register(readSelector, SelectionKey.OP_READ);
-					final Connection connection = new Connection(socketChannel, this.bufferSize);
-					key.attach(connection);
+			if (this.receivedRecords == null) {
+				serverSocket.configureBlocking(true);
+				while (this.allowNewConnection && !this.shouldBeTerminated()) {
+					final SocketChannel socketChannel = serverSocket.accept();
+					if (socketChannel != null) {
+						this.addConnection(socketChannel);
+					}
+				}
+			} else {
+				serverSocket.configureBlocking(false);
+				while (this.allowNewConnection && !this.shouldBeTerminated()) {
+					SocketChannel socketChannel = serverSocket.accept();
+					while (socketChannel != null) {
+						this.addConnection(socketChannel);
+						socketChannel = serverSocket.accept();
+					}
+					this.sendReceivedRecords();
 				}
 			}
-			this.reader.terminate();
-			this.reader.join();
+			this.terminateReaders();
 		} catch (final ClosedByInterruptException e) {
 			this.logger.info("External shutdown called");
 		} catch (final BindException e) {
@@ -105,6 +148,99 @@ public class MultipleConnectionTcpSourceStage extends AbstractProducerStage<IMon
 		}
 	}
 
+	private void startReaders() throws IOException {
+		this.readers = new ReaderThread[this.numberOfReaders];
+		if (this.numberOfReaders == 1) {
+			this.readers[0] = new ReaderThread(this.logger, Selector.open(), this.recordRewriter, this.outputPort);
+		} else {
+			this.receivedRecords = new MpscRingBufferQueue<>(QUEUE_CAPACITY);
+			for (int i = 0; i < this.numberOfReaders; i++) {
+				this.readers[i] = new ReaderThread(this.logger, Selector.open(), this.receivedRecords);
+			}
+		}
+		for (final ReaderThread reader : this.readers) {
+			reader.start();
+		}
+	}
+
+	private void addConnection(final SocketChannel socketChannel) throws IOException {
+		this.logger.debug("Connection from {}.", socketChannel.getRemoteAddress().toString());
+		socketChannel.configureBlocking(false);
+
+		// least connections first, ties are resolved round-robin
+		ReaderThread selectedReader = null;
+		for (int i = 0; i < this.readers.length; i++) {
+			final ReaderThread reader = this.readers[(this.nextReader + i) % this.readers.length];
+			if ((selectedReader == null) || (reader.getNumberOfConnections() < selectedReader.getNumberOfConnections())) {
+				selectedReader = reader;
+			}
+		}
+		this.nextReader = (this.nextReader + 1) % this.readers.length;
+
+		selectedReader.addConnection(socketChannel, this.bufferSize);
+	}
+
+	/**
+	 * Wait for decoded records and send them.
+	 *
+	 * @return true if at least one record was received
+	 */
+	private boolean sendReceivedRecords() throws InterruptedException {
+		ReceivedRecord receivedRecord = this.receivedRecords.poll(POLL_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
+		if (receivedRecord == null) {
+			return false;
+		}
+		int numberOfRecords = 0;
+		while (receivedRecord != null) {
+			this.sendReceivedRecord(receivedRecord);
+			numberOfRecords++;
+			if (numberOfRecords == MAX_RECORDS_PER_POLL) {
+				break;
+			}
+			receivedRecord = this.receivedRecords.poll();
+		}
+		return true;
+	}
+
+	private void sendReceivedRecord(final ReceivedRecord receivedRecord) {
+		final Connection connection = receivedRecord.getConnection();
+		try {
+			if (receivedRecord.isEndOfConnection()) {
+				connection.getChannel().close();
+			} else {
+				this.recordRewriter.rewrite(connection, receivedRecord.getRecord(), receivedRecord.getLoggingTimestamp(), this.outputPort);
+			}
+		} catch (final IOException e) {
+			this.logger.info("IO error while rewriting a record of a connection.");
+		}
+	}
+
+	/**
+	 * Terminate all readers. Records which are decoded in the meantime are still sent, so that no reader is blocked by
+	 * a full queue.
+	 */
+	private void terminateReaders() throws InterruptedException {
+		if (this.readers == null) {
+			return;
+		}
+		for (final ReaderThread reader : this.readers) {
+			reader.terminate();
+		}
+		for (final ReaderThread reader : this.readers) {
+			if (this.receivedRecords != null) {
+				while (reader.isAlive()) {
+					this.sendReceivedRecords();
+				}
+			}
+			reader.join();
+		}
+		if (this.receivedRecords != null) {
+			while (this.sendReceivedRecords()) { // NOPMD (empty while loop)
+				// send all remaining records
+			}
+		}
+	}
+
 	public void rejectNewConnection() {
 		this.allowNewConnection = false;
 	}
@@ -112,13 +248,10 @@ public class MultipleConnectionTcpSourceStage extends AbstractProducerStage<IMon
 	@Override
 	protected void onTerminating() {
 		this.rejectNewConnection();
-		if (this.reader.isAlive()) {
-			this.reader.terminate();
-			try {
-				this.reader.join();
-			} catch (final InterruptedException e) {
-				this.logger.warn("Reader termination was interrupted.");
-			}
+		try {
+			this.terminateReaders();
+		} catch (final InterruptedException e) {
+			this.logger.warn("Reader termination was interrupted.");
 		}
 
 		super.onTerminating();
@@ -16,6 +16,7 @@
 package kieker.analysis.generic.source.tcp;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedSelectorException;
@@ -25,7 +26,11 @@ import java.nio.channels.SocketChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 
@@ -39,7 +44,9 @@ import kieker.common.record.factory.IRecordFactory;
 import teetime.framework.OutputPort;
 
 /**
- * This is the reader for the MultipleConnectionTcpSourceStage.
+ * This is the reader for the MultipleConnectionTcpSourceStage. It reads and decodes the records of all connections
+ * registered with its selector. The records are either passed to the record rewriter directly or, if the stage uses
+ * several readers, put into a queue which is drained by the stage.
  *
  * @author Reiner Jung
  * @since 1.15
@@ -57,7 +64,12 @@ final class ReaderThread extends Thread {
 
 	private final ITraceMetadataRewriter recordRewriter;
 	private final OutputPort<IMonitoringRecord> outputPort;
-	private boolean active;
+	private final BlockingQueue<ReceivedRecord> receivedRecords;
+	private volatile boolean active; // NOPMD (AvoidUsingVolatile)
+
+	/** connections handed over by the stage, which are registered by this thread. */
+	private final Queue<Connection> newConnections = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger numberOfConnections = new AtomicInteger();
 
 	/**
 	 * Create a multi stream reader thread.
@@ -78,6 +90,55 @@ final class ReaderThread extends Thread {
 		this.logger = logger;
 		this.recordRewriter = recordRewriter;
 		this.outputPort = outputPort;
+		this.receivedRecords = null;
+	}
+
+	/**
+	 * Create a reader thread which puts the decoded records into a queue instead of passing them to a rewriter. The
+	 * end of a connection is marked by a {@link ReceivedRecord} without a record; the connection's channel is left
+	 * open until the consumer of the queue has seen this marker.
+	 *
+	 * @param logger
+	 *            logger for the multi tcp reader
+	 * @param readSelector
+	 *            channel selector
+	 * @param receivedRecords
+	 *            queue for the decoded records
+	 *
+	 * @since 2.0.0
+	 */
+	public ReaderThread(final Logger logger, final Selector readSelector, final BlockingQueue<ReceivedRecord> receivedRecords) {
+		this.readSelector = readSelector;
+		this.logger = logger;
+		this.recordRewriter = null;
+		this.outputPort = null;
+		this.receivedRecords = receivedRecords;
+	}
+
+	/**
+	 * Hand over a new connection to this reader. The channel is registered with the selector by the reader thread,
+	 * as registering blocks while another thread selects.
+	 *
+	 * @param channel
+	 *            non-blocking channel of the connection
+	 * @param bufferSize
+	 *            buffer size for reading the connection
+	 *
+	 * @since 2.0.0
+	 */
+	public void addConnection(final SocketChannel channel, final int bufferSize) {
+		this.numberOfConnections.incrementAndGet();
+		this.newConnections.add(new Connection(channel, bufferSize));
+		this.readSelector.wakeup();
+	}
+
+	/**
+	 * @return number of open connections handed over to this reader
+	 *
+	 * @since 2.0.0
+	 */
+	public int getNumberOfConnections() {
+		return this.numberOfConnections.get();
 	}
 
 	@Override
@@ -86,6 +147,7 @@ final class ReaderThread extends Thread {
 		while (this.isAlive() && this.active) {
 			try {
 				final int readReady = this.readSelector.select();
+				this.registerNewConnections();
 
 				if (readReady > 0) {
 					final Set<SelectionKey> selectedKeys = this.readSelector.selectedKeys();
@@ -100,19 +162,26 @@ final class ReaderThread extends Thread {
 					}
 
 					selectedKeys.clear();
-				} else {
-					Thread.sleep(100); // wait for the registration of the new key in MultipleConnectionTypSourceStage
 				}
 			} catch (final ClosedSelectorException e1) {
 				this.logger.error("Selector has already been closed.", e1);
+			} catch (final InterruptedIOException e) {
+				this.logger.warn("Reader was interrupted while waiting for the stage.");
+				this.active = false;
 			} catch (final IOException e2) {
 				this.logger.info("IO error while reading from connection.");
-			} catch (final InterruptedException e) {
-				this.logger.warn("Thread.sleep was interrupted.");
 			}
 		}
 	}
 
+	private void registerNewConnections() throws IOException {
+		Connection connection = this.newConnections.poll();
+		while (connection != null) {
+			connection.getChannel().register(this.readSelector, SelectionKey.OP_READ, connection);
+			connection = this.newConnections.poll();
+		}
+	}
+
 	private void readFromSocket(final SelectionKey key) throws IOException {
 		boolean endOfStreamReached = false;
 		final Connection connection = (Connection) key.attachment();
@@ -133,7 +202,13 @@ final class ReaderThread extends Thread {
 			this.logger.debug("Socket closed: " + socketChannel.getRemoteAddress().toString());
 			key.attach(null);
 			key.cancel();
-			key.channel().close();
+			this.numberOfConnections.decrementAndGet();
+			if (this.receivedRecords == null) {
+				key.channel().close();
+			} else {
+				// the stage may still need the channel to rewrite the records of this connection
+				this.enqueue(new ReceivedRecord(connection, null, 0));
+			}
 		}
 	}
 
@@ -232,7 +307,11 @@ final class ReaderThread extends Thread {
 					try {
 						final IMonitoringRecord record = recordFactory.create(connection.getValueDeserializer());
 
-						this.recordRewriter.rewrite(connection, record, loggingTimestamp, this.outputPort);
+						if (this.receivedRecords == null) {
+							this.recordRewriter.rewrite(connection, record, loggingTimestamp, this.outputPort);
+						} else {
+							this.enqueue(new ReceivedRecord(connection, record, loggingTimestamp));
+						}
 						return true;
 					} catch (final RecordInstantiationException ex) {
 						this.logger.error("Failed to create: " + recordClassName, ex);
@@ -246,6 +325,16 @@ final class ReaderThread extends Thread {
 		}
 	}
 
+	private void enqueue(final ReceivedRecord receivedRecord) throws InterruptedIOException {
+		try {
+			// blocks while the queue is full, which lets TCP flow control slow down the writers
+			this.receivedRecords.put(receivedRecord);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for free space in the queue."); // NOPMD (interrupt is restored)
+		}
+	}
+
 	public void terminate() {
 		this.active = false;
 		this.readSelector.wakeup();
@@ -0,0 +1,68 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.generic.source.tcp;
+
+import kieker.common.record.IMonitoringRecord;
+
+/**
+ * A record decoded by a {@link ReaderThread} together with its connection, which is passed to the
+ * {@link MultipleConnectionTcpSourceStage} when several readers are used.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+final class ReceivedRecord {
+
+	private final Connection connection;
+	private final IMonitoringRecord record;
+	private final long loggingTimestamp;
+
+	/**
+	 * Create a received record.
+	 *
+	 * @param connection
+	 *            connection the record was read from
+	 * @param record
+	 *            the record, or null to mark the end of the connection
+	 * @param loggingTimestamp
+	 *            logging timestamp sent with the record
+	 */
+	public ReceivedRecord(final Connection connection, final IMonitoringRecord record, final long loggingTimestamp) {
+		this.connection = connection;
+		this.record = record;
+		this.loggingTimestamp = loggingTimestamp;
+	}
+
+	public Connection getConnection() {
+		return this.connection;
+	}
+
+	public IMonitoringRecord getRecord() {
+		return this.record;
+	}
+
+	public long getLoggingTimestamp() {
+		return this.loggingTimestamp;
+	}
+
+	/**
+	 * @return true if this marks the end of the connection
+	 */
+	public boolean isEndOfConnection() {
+		return this.record == null;
+	}
+}
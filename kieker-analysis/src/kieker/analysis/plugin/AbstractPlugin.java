@@ -22,6 +22,7 @@ import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -69,6 +70,14 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 	private final Map<String, OutputPort> outputPorts;
 	private final Map<String, InputPort> inputPorts;
 
+	/**
+	 * Dispatchers of the output ports, which are compiled when the plugin starts. They are published by the volatile write
+	 * of the state.
+	 */
+	private Map<String, OutputPortDispatcher> outputPortDispatchers;
+	/** Dispatcher of the last used output port. The race between threads is benign, as the dispatchers are thread-safe. */
+	private OutputPortDispatcher lastOutputPortDispatcher;
+
 	// Shutdown mechanism
 	private final List<AbstractPlugin> incomingPlugins;
 	private final List<AbstractPlugin> outgoingPlugins;
@@ -175,6 +184,33 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 			return true;
 		}
 
+		final Map<String, OutputPortDispatcher> dispatchers = this.outputPortDispatchers;
+		if (dispatchers == null) {
+			return this.deliverReflectively(outputPortName, data);
+		}
+		OutputPortDispatcher dispatcher = this.lastOutputPortDispatcher;
+		// port names are usually constants, hence comparing the identity avoids most lookups
+		if ((dispatcher == null) || (dispatcher.getOutputPortName() != outputPortName)) { // NOPMD (identity comparison intended)
+			dispatcher = dispatchers.get(outputPortName);
+			if (dispatcher == null) {
+				return false;
+			}
+			this.lastOutputPortDispatcher = dispatcher;
+		}
+		return dispatcher.deliver(data);
+	}
+
+	/**
+	 * Delivers the given data to all registered input ports of the given output port by reflection. This is used before
+	 * the dispatchers are compiled.
+	 *
+	 * @param outputPortName
+	 *            The output port to be used to send the given data.
+	 * @param data
+	 *            The data to be send; must not be null.
+	 * @return true if and only if the given output port does exist and if it suits the port's event types.
+	 */
+	private boolean deliverReflectively(final String outputPortName, final Object data) {
 		// First step: Get the output port.
 		final OutputPort outputPort = this.outputPorts.get(outputPortName);
 		if (outputPort == null) {
@@ -546,10 +582,33 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 		if (this.state != STATE.READY) {
 			return false;
 		}
+		this.compileOutputPortDispatchers();
 		this.state = STATE.RUNNING;
 		return this.init();
 	}
 
+	/**
+	 * Resolves the connections of all output ports, which cannot change any more after the plugin left the state
+	 * {@link STATE#READY}.
+	 */
+	private void compileOutputPortDispatchers() {
+		final Map<String, OutputPortDispatcher> dispatchers = new HashMap<>();
+		for (final OutputPort outputPort : this.outputPorts.values()) {
+			dispatchers.put(outputPort.name(), new OutputPortDispatcher(this, outputPort, this.outputPortTypes.get(outputPort),
+					this.registeredMethods.get(outputPort.name()), this.logger));
+		}
+		this.outputPortDispatchers = dispatchers;
+	}
+
+	/**
+	 * Discards the compiled dispatchers, such that the data is delivered by reflection. This is only used to compare both
+	 * kinds of delivery.
+	 */
+	final void useReflectiveDelivery() {
+		this.outputPortDispatchers = null; // NOPMD (null assignment)
+		this.lastOutputPortDispatcher = null; // NOPMD (null assignment)
+	}
+
 	/**
 	 * Initializes a shutdown of this and all incoming plugins.
 	 *
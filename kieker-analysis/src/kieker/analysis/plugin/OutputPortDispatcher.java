@@ -0,0 +1,347 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.plugin;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+
+import kieker.analysis.plugin.IPlugin.PluginInputPortReference;
+import kieker.analysis.plugin.annotation.OutputPort;
+
+/**
+ * Delivers the data of one output port to the connected input ports. The connections are resolved once when the plugin
+ * starts: each input port method is compiled into a direct invoker, and the type checks of the output port and the
+ * input ports are performed once per concrete class of the data and cached.
+ *
+ * <p>
+ * The dispatcher behaves exactly like the reflective delivery in {@link AbstractPlugin}. Exceptions of the input ports
+ * are logged as warnings and errors are rethrown. Data which the parameter of an input port method does not accept,
+ * e.g., due to inconsistent event types, is still passed by reflection, such that the failed invocation is logged as
+ * before.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@SuppressWarnings("deprecation")
+final class OutputPortDispatcher {
+
+	/** Marks classes which do not match the event types of the output port. */
+	private static final InputPortInvoker[] REJECTED = new InputPortInvoker[0];
+
+	private final String outputPortName;
+	private final Class<?>[] outputPortTypes;
+	private final InputPortInvoker[] compiledInvokers;
+	private final InputPortInvoker[] reflectiveInvokers;
+	private final ConcurrentHashMap<Class<?>, InputPortInvoker[]> invokersByType = new ConcurrentHashMap<>();
+
+	/** Invokers of the last delivered class. The race between threads is benign, as the cached entries are immutable. */
+	private CachedInvokers lastInvokers;
+
+	/**
+	 * Creates a dispatcher for the given output port and compiles the invokers of its connections.
+	 *
+	 * @param source
+	 *            plugin owning the output port
+	 * @param outputPort
+	 *            the output port
+	 * @param outputPortTypes
+	 *            event types of the output port
+	 * @param connections
+	 *            connected input ports
+	 * @param logger
+	 *            logger of the plugin, which is used to report failed deliveries
+	 */
+	public OutputPortDispatcher(final AbstractPlugin source, final OutputPort outputPort, final Class<?>[] outputPortTypes,
+			final List<PluginInputPortReference> connections, final Logger logger) {
+		this.outputPortName = outputPort.name();
+		this.outputPortTypes = outputPortTypes;
+		this.compiledInvokers = new InputPortInvoker[connections.size()];
+		this.reflectiveInvokers = new InputPortInvoker[connections.size()];
+		final String sourceName = source.getClass().getName();
+		for (int i = 0; i < this.compiledInvokers.length; i++) {
+			this.reflectiveInvokers[i] = new ReflectiveInvoker(connections.get(i), sourceName, this.outputPortName, logger);
+			this.compiledInvokers[i] = OutputPortDispatcher.compile(connections.get(i), sourceName, this.outputPortName, logger);
+		}
+	}
+
+	/**
+	 * @return name of the output port
+	 */
+	public String getOutputPortName() {
+		return this.outputPortName;
+	}
+
+	/**
+	 * Delivers the data to all connected input ports accepting it.
+	 *
+	 * @param data
+	 *            data to deliver, must not be null
+	 * @return true if and only if the data suits the event types of the output port
+	 */
+	public boolean deliver(final Object data) {
+		final Class<?> type = data.getClass();
+		InputPortInvoker[] invokers;
+		final CachedInvokers cached = this.lastInvokers;
+		if ((cached != null) && (cached.type == type)) {
+			invokers = cached.invokers;
+		} else {
+			invokers = this.invokersByType.get(type);
+			if (invokers == null) {
+				invokers = this.resolveInvokers(type);
+				this.invokersByType.putIfAbsent(type, invokers);
+			}
+			this.lastInvokers = new CachedInvokers(type, invokers);
+		}
+
+		if (invokers == REJECTED) { // NOPMD (identity of the marker)
+			return false;
+		}
+		for (final InputPortInvoker invoker : invokers) {
+			invoker.deliver(data);
+		}
+		return true;
+	}
+
+	private InputPortInvoker[] resolveInvokers(final Class<?> type) {
+		if (!OutputPortDispatcher.matchesAny(this.outputPortTypes, type)) {
+			return REJECTED;
+		}
+		final List<InputPortInvoker> invokers = new ArrayList<>(this.compiledInvokers.length);
+		for (int i = 0; i < this.compiledInvokers.length; i++) {
+			final InputPortInvoker compiledInvoker = this.compiledInvokers[i];
+			Class<?>[] eventTypes = compiledInvoker.getConnection().getEventTypes();
+			if (eventTypes.length == 0) {
+				eventTypes = new Class<?>[] { Object.class };
+			}
+			if (OutputPortDispatcher.matchesAny(eventTypes, type)) {
+				// only the reflective invocation handles data not accepted by the parameter of the input port
+				invokers.add(compiledInvoker.accepts(type) ? compiledInvoker : this.reflectiveInvokers[i]); // NOCS (inline ?)
+			}
+		}
+		return invokers.toArray(new InputPortInvoker[invokers.size()]);
+	}
+
+	private static boolean matchesAny(final Class<?>[] eventTypes, final Class<?> type) {
+		for (final Class<?> eventType : eventTypes) {
+			if (eventType.isAssignableFrom(type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compiles the input port method of the connection into an invoker. A generated implementation of
+	 * {@link IInputPortSink} is preferred, as it calls the method like regular code. It requires that the method can be
+	 * linked from this package. Otherwise, the method is called by a method handle or, if even this fails, by reflection.
+	 */
+	private static InputPortInvoker compile(final PluginInputPortReference connection, final String sourceName, final String outputPortName,
+			final Logger logger) {
+		final Method method = connection.getInputPortMethod();
+		final Class<?> parameterType = MethodType.methodType(method.getParameterTypes()[0]).wrap().returnType();
+		final MethodHandles.Lookup lookup = MethodHandles.lookup();
+		final MethodHandle methodHandle;
+		try {
+			// the input port method has been made accessible when connecting the plugins
+			methodHandle = lookup.unreflect(method);
+		} catch (final IllegalAccessException e) {
+			logger.debug("Input port {} is invoked by reflection", method, e);
+			return new ReflectiveInvoker(connection, sourceName, outputPortName, logger);
+		}
+
+		if (OutputPortDispatcher.isLinkable(method.getDeclaringClass()) && OutputPortDispatcher.isLinkable(parameterType)
+				&& Modifier.isPublic(method.getModifiers())) {
+			try {
+				final CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept",
+						MethodType.methodType(IInputPortSink.class, method.getDeclaringClass()),
+						MethodType.methodType(void.class, Object.class), methodHandle, MethodType.methodType(void.class, parameterType));
+				final IInputPortSink sink = (IInputPortSink) callSite.getTarget().invoke(connection.getPlugin());
+				return new SinkInvoker(connection, sourceName, outputPortName, logger, parameterType, sink);
+			} catch (final Throwable t) { // NOPMD NOCS (the metafactory may fail in various ways)
+				logger.debug("Input port {} is invoked by a method handle", method, t);
+			}
+		}
+		final MethodHandle boundHandle = methodHandle.bindTo(connection.getPlugin()).asType(MethodType.methodType(void.class, Object.class));
+		return new MethodHandleInvoker(connection, sourceName, outputPortName, logger, parameterType, boundHandle);
+	}
+
+	/**
+	 * A class can be linked by generated code in this package if it is public, including its enclosing classes, and if
+	 * it is visible to the class loader of this package.
+	 */
+	private static boolean isLinkable(final Class<?> type) {
+		for (Class<?> current = type; current != null; current = current.getEnclosingClass()) {
+			if (!Modifier.isPublic(current.getModifiers())) {
+				return false;
+			}
+		}
+		try {
+			return Class.forName(type.getName(), false, OutputPortDispatcher.class.getClassLoader()) == type;
+		} catch (final ClassNotFoundException | LinkageError e) { // NOPMD (not linkable)
+			return false;
+		}
+	}
+
+	/**
+	 * Input port method compiled into an implementation of this interface.
+	 */
+	public interface IInputPortSink {
+		void accept(Object data);
+	}
+
+	/**
+	 * Invokes one connected input port and handles its failures.
+	 */
+	private abstract static class InputPortInvoker {
+
+		private final PluginInputPortReference connection;
+		private final String sourceName;
+		private final String outputPortName;
+		private final Logger logger;
+		private final Class<?> parameterType;
+
+		public InputPortInvoker(final PluginInputPortReference connection, final String sourceName, final String outputPortName, final Logger logger,
+				final Class<?> parameterType) {
+			this.connection = connection;
+			this.sourceName = sourceName;
+			this.outputPortName = outputPortName;
+			this.logger = logger;
+			this.parameterType = parameterType;
+		}
+
+		public PluginInputPortReference getConnection() {
+			return this.connection;
+		}
+
+		public boolean accepts(final Class<?> type) {
+			return this.parameterType.isAssignableFrom(type);
+		}
+
+		public abstract void deliver(Object data);
+
+		protected void handleFailure(final Throwable cause) {
+			if (cause instanceof Error) {
+				// This is a severe case and there is little chance to terminate appropriately
+				throw (Error) cause;
+			} else {
+				this.logger.warn("Caught exception when sending data from {}: OutputPort {} to {}'s InputPort {}", this.sourceName, this.outputPortName,
+						this.connection.getPlugin().getClass().getName(), this.connection.getInputPortMethod().getName(), cause);
+			}
+		}
+
+		protected void handleInvocationFailure(final Exception e) {
+			this.logger.error("Caught exception when invoking {}'s InputPort {}", this.connection.getPlugin().getClass().getName(),
+					this.connection.getInputPortMethod().getName(), e);
+		}
+	}
+
+	/**
+	 * Invokes the input port by a generated sink.
+	 */
+	private static final class SinkInvoker extends InputPortInvoker {
+
+		private final IInputPortSink sink;
+
+		public SinkInvoker(final PluginInputPortReference connection, final String sourceName, final String outputPortName, final Logger logger,
+				final Class<?> parameterType, final IInputPortSink sink) {
+			super(connection, sourceName, outputPortName, logger, parameterType);
+			this.sink = sink;
+		}
+
+		@Override
+		public void deliver(final Object data) {
+			try {
+				this.sink.accept(data);
+			} catch (final Throwable t) { // NOPMD NOCS (input ports may throw anything)
+				this.handleFailure(t);
+			}
+		}
+	}
+
+	/**
+	 * Invokes the input port by a method handle bound to the plugin.
+	 */
+	private static final class MethodHandleInvoker extends InputPortInvoker {
+
+		private final MethodHandle methodHandle;
+
+		public MethodHandleInvoker(final PluginInputPortReference connection, final String sourceName, final String outputPortName,
+				final Logger logger, final Class<?> parameterType, final MethodHandle methodHandle) {
+			super(connection, sourceName, outputPortName, logger, parameterType);
+			this.methodHandle = methodHandle;
+		}
+
+		@Override
+		public void deliver(final Object data) {
+			try {
+				this.methodHandle.invokeExact(data);
+			} catch (final Throwable t) { // NOPMD NOCS (input ports may throw anything)
+				this.handleFailure(t);
+			}
+		}
+	}
+
+	/**
+	 * Invokes the input port by reflection, like {@link AbstractPlugin} does without a dispatcher.
+	 */
+	private static final class ReflectiveInvoker extends InputPortInvoker {
+
+		public ReflectiveInvoker(final PluginInputPortReference connection, final String sourceName, final String outputPortName,
+				final Logger logger) {
+			super(connection, sourceName, outputPortName, logger, Object.class);
+		}
+
+		@Override
+		public void deliver(final Object data) {
+			try {
+				this.getConnection().getInputPortMethod().invoke(this.getConnection().getPlugin(), data);
+			} catch (final InvocationTargetException e) {
+				// This is an exception wrapped by invoke
+				this.handleFailure(e.getCause());
+			} catch (final Exception e) { // NOPMD NOCS (catch multiple)
+				// This is an exception wrapped by invoke
+				this.handleInvocationFailure(e);
+			}
+		}
+	}
+
+	/**
+	 * Invokers resolved for a class.
+	 */
+	private static final class CachedInvokers {
+
+		private final Class<?> type;
+		private final InputPortInvoker[] invokers;
+
+		public CachedInvokers(final Class<?> type, final InputPortInvoker[] invokers) {
+			this.type = type;
+			this.invokers = invokers;
+		}
+	}
+}
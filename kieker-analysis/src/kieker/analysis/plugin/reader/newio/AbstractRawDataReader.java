@@ -44,6 +44,7 @@ public abstract class AbstractRawDataReader extends AbstractReaderPlugin {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractRawDataReader.class.getCanonicalName());
 
+	private final String deserializerClassName;
 	private final IMonitoringRecordDeserializer deserializer;
 
 	/**
@@ -60,6 +61,7 @@ public abstract class AbstractRawDataReader extends AbstractReaderPlugin {
 			final String deserializerClassName) {
 		super(configuration, projectContext);
 
+		this.deserializerClassName = deserializerClassName;
 		this.deserializer = this.createDeserializer(deserializerClassName, configuration, projectContext);
 	}
 
@@ -96,6 +98,18 @@ public abstract class AbstractRawDataReader extends AbstractReaderPlugin {
 		LOGGER.error("The deserializer class '{}' could not be instantiated.", className, e);
 	}
 
+	/**
+	 * Creates another deserializer of the configured type, e.g., to decode raw data in another thread. The
+	 * deserializers are not thread-safe and keep their own state.
+	 *
+	 * @return the new deserializer, or null if it cannot be instantiated
+	 *
+	 * @since 2.0.0
+	 */
+	protected IMonitoringRecordDeserializer createDeserializer() {
+		return this.createDeserializer(this.deserializerClassName, this.configuration, this.projectContext);
+	}
+
 	/**
 	 * Decodes the given raw data using the configured deserializer and delivers
 	 * them to the given output port.
@@ -0,0 +1,104 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.plugin.reader.newio.deserializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import kieker.common.registry.reader.ReaderRegistry;
+
+/**
+ * String dictionary of one stream of the dictionary binary format. The dictionary grows with each chunk and is
+ * restarted when the serializer resets its dictionary.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+class DeserializerStringDictionary extends ReaderRegistry<String> {
+
+	private final List<String> values = new ArrayList<>();
+	private int epoch;
+	private boolean synced;
+
+	DeserializerStringDictionary() {
+		super();
+	}
+
+	@Override
+	public String get(final long key) {
+		if ((key < 0) || (key >= this.values.size())) {
+			return null;
+		}
+		return this.values.get((int) key);
+	}
+
+	@Override
+	public Long getKey(final String value) {
+		final int index = this.values.indexOf(value);
+		return (index < 0) ? null : Long.valueOf(index); // NOCS (inline ?)
+	}
+
+	/**
+	 * Registers a string. As the IDs are assigned sequentially, the key must be the size of the dictionary.
+	 */
+	@Override
+	public String register(final long key, final String value) {
+		if (key != this.values.size()) {
+			throw new IllegalArgumentException("Expected the key " + this.values.size() + ", but got " + key + ".");
+		}
+		this.values.add(value);
+		return null;
+	}
+
+	/**
+	 * Returns the number of strings in the dictionary.
+	 */
+	public int size() {
+		return this.values.size();
+	}
+
+	/**
+	 * Returns whether the dictionary is synchronized with the serializer, i.e., whether it can decode chunks of the
+	 * given epoch starting with a new string of the given ID.
+	 */
+	public boolean isSyncedWith(final int chunkEpoch, final int firstIdOfChunk) {
+		return this.synced && (this.epoch == chunkEpoch) && (this.values.size() == firstIdOfChunk);
+	}
+
+	/**
+	 * Returns whether the dictionary was synchronized with the serializer before.
+	 */
+	public boolean isSynced() {
+		return this.synced;
+	}
+
+	/**
+	 * Starts the dictionary of a new epoch.
+	 */
+	public void restart(final int newEpoch) {
+		this.values.clear();
+		this.epoch = newEpoch;
+		this.synced = true;
+	}
+
+	/**
+	 * Marks the dictionary as not synchronized, as a chunk of its stream was missed.
+	 */
+	public void desync() {
+		this.synced = false;
+	}
+}
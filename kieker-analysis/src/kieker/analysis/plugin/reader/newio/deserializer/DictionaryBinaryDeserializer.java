@@ -0,0 +1,192 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.plugin.reader.newio.deserializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.analysis.IProjectContext;
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.factory.IRecordFactory;
+import kieker.common.record.io.BinaryValueDeserializer;
+import kieker.common.util.dataformat.FormatIdentifier;
+import kieker.common.util.dataformat.VariableLengthEncoding;
+
+/**
+ * Deserializer for the binary record format with a string dictionary spanning several chunks, as written by
+ * {@code kieker.monitoring.writer.serializer.DictionaryBinarySerializer}. The deserializer keeps a dictionary per
+ * stream, i.e., per serializer, and extends it by the new strings of each chunk.
+ *
+ * <p>
+ * Chunks which cannot be decoded, because the deserializer joined the stream late or missed a chunk, are skipped until
+ * the serializer resets its dictionary. The chunks of each stream must be passed in the order they were written.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class DictionaryBinaryDeserializer extends AbstractContainerFormatDeserializer {
+
+	/** Format identifier. */
+	public static final int FORMAT_IDENTIFIER = FormatIdentifier.DICTIONARY_BINARY_FORMAT.getIdentifierValue();
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DictionaryBinaryDeserializer.class);
+
+	/** Encoding to use for Strings. */
+	private static final String ENCODING_NAME = "UTF-8";
+
+	/** Charset for the encoding. */
+	private static final Charset CHARSET = Charset.forName(ENCODING_NAME);
+
+	private final CachedRecordFactoryCatalog cachedRecordFactoryCatalog = CachedRecordFactoryCatalog.getInstance();
+
+	private final Map<Long, DeserializerStringDictionary> dictionaries = new HashMap<>(); // NOPMD (no concurrent access)
+
+	/**
+	 * Creates a new record deserializer.
+	 *
+	 * @param configuration
+	 *            The configuration to use
+	 * @param projectContext
+	 *            The project context to use
+	 */
+	public DictionaryBinaryDeserializer(final Configuration configuration, final IProjectContext projectContext) {
+		super(configuration, projectContext);
+	}
+
+	@Override
+	protected int getFormatIdentifier() {
+		return FORMAT_IDENTIFIER;
+	}
+
+	@Override
+	protected List<IMonitoringRecord> decodeRecords(final ByteBuffer buffer, final int dataSize) throws InvalidFormatException {
+		final int baseOffset = buffer.position();
+		final int endOffset = baseOffset + dataSize;
+
+		// Retrieve the size of the record data (last four bytes of the data)
+		buffer.position(endOffset - 4);
+		final int recordDataSize = buffer.getInt();
+
+		// Position the buffer and update the dictionary
+		final int dictionaryUpdateOffset = baseOffset + recordDataSize;
+		buffer.position(dictionaryUpdateOffset);
+		final DeserializerStringDictionary dictionary = this.updateDictionary(buffer);
+		if (dictionary == null) {
+			buffer.position(endOffset);
+			return Collections.emptyList();
+		}
+
+		// Position the buffer and decode the records
+		buffer.position(baseOffset);
+		final List<IMonitoringRecord> records = this.decodeMonitoringRecords(buffer, dictionary, dictionaryUpdateOffset);
+		buffer.position(endOffset);
+		return records;
+	}
+
+	/**
+	 * Adds the new strings of the chunk to the dictionary of its stream.
+	 *
+	 * @return the dictionary or null if the chunk cannot be decoded
+	 */
+	private DeserializerStringDictionary updateDictionary(final ByteBuffer buffer) {
+		final long streamId = buffer.getLong();
+		final int epoch = buffer.getInt();
+		final int firstIdOfChunk = VariableLengthEncoding.decodeInt(buffer);
+
+		DeserializerStringDictionary dictionary = this.dictionaries.get(streamId);
+		if (dictionary == null) {
+			dictionary = new DeserializerStringDictionary();
+			this.dictionaries.put(streamId, dictionary);
+		}
+		if (firstIdOfChunk == 0) {
+			// The serializer reset its dictionary
+			dictionary.restart(epoch);
+		} else if (!dictionary.isSyncedWith(epoch, firstIdOfChunk)) {
+			if (dictionary.isSynced()) {
+				LOGGER.warn("Missed a chunk of stream {}, skipping chunks until its dictionary is reset.", streamId);
+			} else {
+				LOGGER.debug("Skipping chunk of stream {} until its dictionary is reset.", streamId);
+			}
+			dictionary.desync();
+			return null;
+		}
+
+		final int numberOfEntries = VariableLengthEncoding.decodeInt(buffer);
+		for (int entryIndex = 0; entryIndex < numberOfEntries; entryIndex++) {
+			final int entryLength = VariableLengthEncoding.decodeInt(buffer);
+			final byte[] entryDataBytes = new byte[entryLength];
+			buffer.get(entryDataBytes);
+
+			dictionary.register(firstIdOfChunk + entryIndex, new String(entryDataBytes, CHARSET));
+		}
+
+		return dictionary;
+	}
+
+	private List<IMonitoringRecord> decodeMonitoringRecords(final ByteBuffer buffer, final DeserializerStringDictionary dictionary,
+			final int endOffset) {
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		int currentOffset = buffer.position();
+
+		final CachedRecordFactoryCatalog recordFactoryCatalog = this.cachedRecordFactoryCatalog;
+		final BinaryValueDeserializer deserializer = BinaryValueDeserializer.create(buffer, dictionary);
+
+		while (currentOffset < endOffset) {
+			final int recordTypeId = buffer.getInt();
+			final String recordTypeName = dictionary.get(recordTypeId);
+			final long loggingTimestamp = buffer.getLong();
+
+			final IRecordFactory<? extends IMonitoringRecord> recordFactory = recordFactoryCatalog.get(recordTypeName);
+			final IMonitoringRecord record = recordFactory.create(deserializer);
+			record.setLoggingTimestamp(loggingTimestamp);
+
+			records.add(record);
+
+			currentOffset = buffer.position();
+		}
+
+		// The record data must end exactly at the given end offset
+		if (currentOffset != endOffset) {
+			throw new InvalidFormatException("Invalid record data found, should have ended at offset " + endOffset
+					+ ", but ended at offset " + currentOffset + ".");
+		}
+
+		return records;
+	}
+
+	@Override
+	public void init() throws Exception {
+		// Nothing to do
+	}
+
+	@Override
+	public void terminate() {
+		// Nothing to do
+	}
+
+}
@@ -28,6 +28,7 @@ import kieker.analysis.architecture.recovery.signature.JavaOperationSignatureExt
 import kieker.model.analysismodel.source.SourceFactory;
 import kieker.model.analysismodel.source.SourceModel;
 import kieker.model.analysismodel.type.ComponentType;
+import kieker.model.analysismodel.type.OperationType;
 import kieker.model.analysismodel.type.TypeFactory;
 import kieker.model.analysismodel.type.TypeModel;
 
@@ -41,6 +42,8 @@ public class OperationTypeModelAssemblerTest { // NOCS test do not need construc
 	private static final String COMPONENT_TYPE_SIGNATURE = "component.name";
 	private static final String OPERATION_TYPE_SIGNATURE = "int function(Parameter a)";
 	private static final String HOSTNAME = "test-host";
+	private static final String SECOND_LABEL = "SECOND";
+	private static final String SECOND_OPERATION_TYPE_SIGNATURE = "void other()";
 	private TypeModel typeModel;
 	private SourceModel sourceModel;
 
@@ -91,4 +94,41 @@ public class OperationTypeModelAssemblerTest { // NOCS test do not need construc
 		Assert.assertEquals("Label is not " + OperationTypeModelAssemblerTest.LABEL, OperationTypeModelAssemblerTest.LABEL, list2.get(0));
 	}
 
+	/**
+	 * Repeated events must not change the models, while new operations of a known component and a second assembler
+	 * with another label must still be recorded.
+	 */
+	@Test
+	public void testRepeatedEventsAndSecondLabel() {
+		final OperationTypeModelAssembler assembler = new OperationTypeModelAssembler(this.typeModel, this.sourceModel, OperationTypeModelAssemblerTest.LABEL,
+				new JavaComponentSignatureExtractor(), new JavaOperationSignatureExtractor());
+		final OperationTypeModelAssembler secondAssembler = new OperationTypeModelAssembler(this.typeModel, this.sourceModel, SECOND_LABEL,
+				new JavaComponentSignatureExtractor(), new JavaOperationSignatureExtractor());
+
+		for (int i = 0; i < 3; i++) {
+			assembler.assemble(new OperationEvent(OperationTypeModelAssemblerTest.HOSTNAME, OperationTypeModelAssemblerTest.COMPONENT_TYPE_SIGNATURE,
+					OperationTypeModelAssemblerTest.OPERATION_TYPE_SIGNATURE));
+		}
+		assembler.assemble(new OperationEvent(OperationTypeModelAssemblerTest.HOSTNAME, OperationTypeModelAssemblerTest.COMPONENT_TYPE_SIGNATURE,
+				SECOND_OPERATION_TYPE_SIGNATURE));
+		secondAssembler.assemble(new OperationEvent(OperationTypeModelAssemblerTest.HOSTNAME, OperationTypeModelAssemblerTest.COMPONENT_TYPE_SIGNATURE,
+				OperationTypeModelAssemblerTest.OPERATION_TYPE_SIGNATURE));
+
+		Assert.assertEquals("Number of component types must be 1", 1, this.typeModel.getComponentTypes().size());
+		final ComponentType type = this.typeModel.getComponentTypes().get(OperationTypeModelAssemblerTest.COMPONENT_TYPE_SIGNATURE);
+		Assert.assertEquals("Number of operation types must be 2", 2, type.getProvidedOperations().size());
+
+		final EList<String> typeLabels = this.sourceModel.getSources().get(type);
+		Assert.assertEquals("Number of labels must be 2", 2, typeLabels.size());
+
+		final OperationType operationType = type.getProvidedOperations().get(OperationTypeModelAssemblerTest.OPERATION_TYPE_SIGNATURE);
+		final EList<String> operationLabels = this.sourceModel.getSources().get(operationType);
+		Assert.assertEquals("Number of labels must be 2", 2, operationLabels.size());
+		Assert.assertEquals("Label is not " + OperationTypeModelAssemblerTest.LABEL, OperationTypeModelAssemblerTest.LABEL, operationLabels.get(0));
+		Assert.assertEquals("Label is not " + SECOND_LABEL, SECOND_LABEL, operationLabels.get(1));
+
+		final OperationType secondOperationType = type.getProvidedOperations().get(SECOND_OPERATION_TYPE_SIGNATURE);
+		Assert.assertEquals("Number of labels must be 1", 1, this.sourceModel.getSources().get(secondOperationType).size());
+	}
+
 }
@@ -0,0 +1,126 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.architecture.trace.flow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.flow.IFlowRecord;
+import kieker.common.record.flow.trace.AbstractTraceEvent;
+
+import kieker.test.analysis.util.stage.BookstoreEventRecordFactory;
+
+import teetime.framework.Configuration;
+import teetime.framework.Execution;
+import teetime.stage.CollectorSink;
+import teetime.stage.InitialElementProducer;
+
+/**
+ * Executes the {@link ParallelEventRecordTraceReconstructionStage} with its worker threads.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class ParallelEventRecordTraceReconstructionStageTest {
+
+	private static final int NUMBER_OF_WORKERS = 4;
+	private static final int NUMBER_OF_VALID_TRACES = 100;
+	private static final int NUMBER_OF_INVALID_TRACES = 20;
+
+	/** Default constructor. */
+	public ParallelEventRecordTraceReconstructionStageTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testValidAndInvalidTracesOfAllWorkersAreMerged() {
+		final List<IFlowRecord> records = new ArrayList<>();
+		final List<TraceEventRecords> validTraces = new ArrayList<>();
+		final List<TraceEventRecords> invalidTraces = new ArrayList<>();
+		for (int traceId = 0; traceId < (NUMBER_OF_VALID_TRACES + NUMBER_OF_INVALID_TRACES); traceId++) {
+			final TraceEventRecords trace = BookstoreEventRecordFactory.validSyncTraceBeforeAfterEvents(traceId, traceId, "test-session",
+					"test-host");
+			final AbstractTraceEvent[] events = trace.getTraceEvents();
+			records.add(trace.getTraceMetadata());
+			if (traceId < NUMBER_OF_VALID_TRACES) {
+				Collections.addAll(records, events);
+				validTraces.add(trace);
+			} else {
+				// the last event is missing, hence the trace is incomplete on termination
+				final AbstractTraceEvent[] sentEvents = new AbstractTraceEvent[events.length - 1];
+				System.arraycopy(events, 0, sentEvents, 0, sentEvents.length);
+				Collections.addAll(records, sentEvents);
+				invalidTraces.add(new TraceEventRecords(trace.getTraceMetadata(), sentEvents));
+			}
+		}
+
+		final ReconstructionConfiguration configuration = new ReconstructionConfiguration(records);
+		new Execution<>(configuration).executeBlocking();
+
+		Assert.assertThat(ParallelEventRecordTraceReconstructionStageTest.sortByTraceId(configuration.getValidTraces()),
+				CoreMatchers.is(validTraces));
+		Assert.assertThat(ParallelEventRecordTraceReconstructionStageTest.sortByTraceId(configuration.getInvalidTraces()),
+				CoreMatchers.is(invalidTraces));
+	}
+
+	/**
+	 * The order of the traces of different workers is not deterministic.
+	 */
+	private static List<TraceEventRecords> sortByTraceId(final List<TraceEventRecords> traces) {
+		final List<TraceEventRecords> sortedTraces = new ArrayList<>(traces);
+		Collections.sort(sortedTraces, new Comparator<TraceEventRecords>() {
+			@Override
+			public int compare(final TraceEventRecords trace1, final TraceEventRecords trace2) {
+				return Long.compare(trace1.getTraceMetadata().getTraceId(), trace2.getTraceMetadata().getTraceId());
+			}
+		});
+		return sortedTraces;
+	}
+
+	/**
+	 * Sends the records to the reconstruction stage and collects its valid and invalid traces.
+	 */
+	private static class ReconstructionConfiguration extends Configuration {
+		private final CollectorSink<TraceEventRecords> validTracesCollector = new CollectorSink<>();
+		private final CollectorSink<TraceEventRecords> invalidTracesCollector = new CollectorSink<>();
+
+		public ReconstructionConfiguration(final List<IFlowRecord> records) {
+			final InitialElementProducer<IFlowRecord> producer = new InitialElementProducer<>(records);
+			final ParallelEventRecordTraceReconstructionStage reconstruction = new ParallelEventRecordTraceReconstructionStage(NUMBER_OF_WORKERS,
+					TimeUnit.NANOSECONDS, false, Long.MAX_VALUE, Long.MAX_VALUE);
+
+			this.connectPorts(producer.getOutputPort(), reconstruction.getTraceRecordsInputPort());
+			this.connectPorts(reconstruction.getValidTracesOutputPort(), this.validTracesCollector.getInputPort());
+			this.connectPorts(reconstruction.getInvalidTracesOutputPort(), this.invalidTracesCollector.getInputPort());
+		}
+
+		public List<TraceEventRecords> getValidTraces() {
+			return this.validTracesCollector.getElements();
+		}
+
+		public List<TraceEventRecords> getInvalidTraces() {
+			return this.invalidTracesCollector.getElements();
+		}
+	}
+}
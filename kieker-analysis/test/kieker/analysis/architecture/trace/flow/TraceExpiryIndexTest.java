@@ -0,0 +1,148 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.architecture.trace.flow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link TraceExpiryIndex} against a linear scan over all traces.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class TraceExpiryIndexTest {
+
+	/** Default constructor. */
+	public TraceExpiryIndexTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testPollsOnlyExpiredTraces() {
+		final TraceExpiryIndex index = new TraceExpiryIndex();
+		final TestEntry young = new TestEntry(90, 100);
+		final TestEntry idle = new TestEntry(10, 20);
+		final TestEntry longRunning = new TestEntry(5, 95);
+		index.add(young);
+		index.add(idle);
+		index.add(longRunning);
+
+		// timeout: last seen <= 50, duration: first seen <= 0
+		Assert.assertSame(idle, index.pollExpired(0, 50));
+		Assert.assertNull(index.pollExpired(0, 50));
+		// duration: first seen <= 5
+		Assert.assertSame(longRunning, index.pollExpired(5, 50));
+		Assert.assertNull(index.pollExpired(5, 50));
+		Assert.assertThat(index.size(), CoreMatchers.is(1));
+		Assert.assertTrue(index.contains(young));
+		Assert.assertFalse(index.contains(idle));
+	}
+
+	@Test
+	public void testUpdatedTimestampsAreRespected() {
+		final TraceExpiryIndex index = new TraceExpiryIndex();
+		final TestEntry first = new TestEntry(10, 10);
+		final TestEntry second = new TestEntry(20, 20);
+		index.add(first);
+		index.add(second);
+
+		first.max = 30; // new event for the first trace
+		index.update(first);
+
+		Assert.assertSame(second, index.pollExpired(-1, 25));
+		Assert.assertNull(index.pollExpired(-1, 25));
+		Assert.assertSame(first, index.pollExpired(10, 25));
+	}
+
+	@Test
+	public void testEquivalentToLinearScan() {
+		final Random random = new Random(42);
+		final TraceExpiryIndex index = new TraceExpiryIndex();
+		final List<TestEntry> openTraces = new ArrayList<>();
+		long now = 0;
+
+		for (int step = 0; step < 100000; step++) {
+			final int operation = random.nextInt(10);
+			if ((operation < 4) || openTraces.isEmpty()) {
+				final TestEntry entry = new TestEntry(now - random.nextInt(10), now);
+				openTraces.add(entry);
+				index.add(entry);
+			} else if (operation < 8) {
+				final TestEntry entry = openTraces.get(random.nextInt(openTraces.size()));
+				final long timestamp = now - random.nextInt(20); // events may arrive out of order
+				entry.min = Math.min(entry.min, timestamp);
+				entry.max = Math.max(entry.max, timestamp);
+				index.update(entry);
+			} else if (operation < 9) {
+				final TestEntry entry = openTraces.remove(random.nextInt(openTraces.size())); // finished trace
+				index.remove(entry);
+			} else {
+				final long durationLimit = now - 200;
+				final long timeoutLimit = now - 50;
+				final List<TestEntry> expected = new ArrayList<>();
+				for (final TestEntry entry : openTraces) {
+					if ((entry.max <= timeoutLimit) || (entry.min <= durationLimit)) {
+						expected.add(entry);
+					}
+				}
+				final List<TestEntry> actual = new ArrayList<>();
+				TestEntry entry = (TestEntry) index.pollExpired(durationLimit, timeoutLimit);
+				while (entry != null) {
+					actual.add(entry);
+					entry = (TestEntry) index.pollExpired(durationLimit, timeoutLimit);
+				}
+				Assert.assertThat(actual.size(), CoreMatchers.is(expected.size()));
+				Assert.assertTrue(actual.containsAll(expected));
+				openTraces.removeAll(expected);
+			}
+			Assert.assertThat(index.size(), CoreMatchers.is(openTraces.size()));
+			now += random.nextInt(3);
+		}
+	}
+
+	/**
+	 * Entry with mutable timestamps.
+	 *
+	 * @author Kieker Project
+	 */
+	private static final class TestEntry extends TraceExpiryIndex.Entry {
+		long min; // NOCS (test)
+		long max; // NOCS (test)
+
+		public TestEntry(final long min, final long max) {
+			this.min = min;
+			this.max = max;
+		}
+
+		@Override
+		public long getMinLoggingTimestamp() {
+			return this.min;
+		}
+
+		@Override
+		public long getMaxLoggingTimestamp() {
+			return this.max;
+		}
+	}
+}
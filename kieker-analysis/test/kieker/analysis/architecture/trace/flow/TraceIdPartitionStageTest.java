@@ -0,0 +1,101 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.architecture.trace.flow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.flow.IFlowRecord;
+import kieker.common.record.flow.trace.AbstractTraceEvent;
+import kieker.common.record.flow.trace.TraceMetadata;
+
+import kieker.test.analysis.util.stage.BookstoreEventRecordFactory;
+
+import teetime.framework.test.StageTester;
+
+/**
+ * Tests the {@link TraceIdPartitionStage}.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class TraceIdPartitionStageTest {
+
+	private static final int NUMBER_OF_PARTITIONS = 4;
+	private static final int NUMBER_OF_TRACES = 100;
+
+	/** Default constructor. */
+	public TraceIdPartitionStageTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testSequentialTraceIdsAreSpread() {
+		final TraceIdPartitionStage stage = new TraceIdPartitionStage(NUMBER_OF_PARTITIONS);
+		final int[] tracesPerPartition = new int[NUMBER_OF_PARTITIONS];
+		for (long traceId = 0; traceId < 10000; traceId++) {
+			tracesPerPartition[stage.getPartition((1L << 32) | traceId)]++;
+		}
+		for (final int traces : tracesPerPartition) {
+			Assert.assertTrue("Unbalanced partitions: " + traces, (traces > 2000) && (traces < 3000));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoPartitionsAreRejected() {
+		new TraceIdPartitionStage(0);
+	}
+
+	@Test
+	public void testRecordsOfOneTraceAreSentToOnePort() {
+		final TraceIdPartitionStage stage = new TraceIdPartitionStage(NUMBER_OF_PARTITIONS);
+		final List<IFlowRecord> records = new ArrayList<>();
+		for (int traceId = 0; traceId < NUMBER_OF_TRACES; traceId++) {
+			final TraceEventRecords trace = BookstoreEventRecordFactory.validSyncTraceBeforeAfterEvents(traceId, traceId, "test-session",
+					"test-host");
+			records.add(trace.getTraceMetadata());
+			for (final AbstractTraceEvent event : trace.getTraceEvents()) {
+				records.add(event);
+			}
+		}
+
+		final List<List<IFlowRecord>> partitions = new ArrayList<>();
+		StageTester tester = StageTester.test(stage).and().send(records).to(stage.getInputPort());
+		for (int i = 0; i < NUMBER_OF_PARTITIONS; i++) {
+			final List<IFlowRecord> partition = new ArrayList<>();
+			partitions.add(partition);
+			tester = tester.and().receive(partition).from(stage.getPartitionOutputPorts().get(i));
+		}
+		tester.start();
+
+		int numberOfRecords = 0;
+		for (int i = 0; i < NUMBER_OF_PARTITIONS; i++) {
+			for (final IFlowRecord record : partitions.get(i)) {
+				final long traceId = (record instanceof TraceMetadata) ? ((TraceMetadata) record).getTraceId() // NOCS
+						: ((AbstractTraceEvent) record).getTraceId();
+				Assert.assertThat(stage.getPartition(traceId), CoreMatchers.is(i));
+			}
+			numberOfRecords += partitions.get(i).size();
+		}
+		Assert.assertThat(numberOfRecords, CoreMatchers.is(records.size()));
+	}
+}
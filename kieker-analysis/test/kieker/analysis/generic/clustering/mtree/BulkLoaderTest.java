@@ -0,0 +1,143 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.generic.clustering.mtree;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.analysis.exception.InternalErrorException;
+import kieker.analysis.generic.clustering.mtree.nodes.AbstractNode;
+import kieker.analysis.generic.clustering.mtree.nodes.Entry;
+import kieker.analysis.generic.clustering.mtree.nodes.IndexItem;
+import kieker.analysis.generic.clustering.mtree.query.ResultItem;
+
+/**
+ * Tests the bulk loading of an {@link MTree}.
+ *
+ * @author Kieker Project
+ * @since 2.0.0
+ */
+public class BulkLoaderTest {
+
+	private static final int MIN_NODE_CAPACITY = 4;
+	private static final int MAX_NODE_CAPACITY = 8;
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	/** Default constructor. */
+	public BulkLoaderTest() {
+		// empty default constructor
+	}
+
+	@After
+	public void tearDown() {
+		this.pool.shutdown();
+	}
+
+	@Test
+	public void testTreeStructure() throws InternalErrorException {
+		for (final int size : new int[] { 1, MAX_NODE_CAPACITY, MAX_NODE_CAPACITY + 1, 100, 3000 }) {
+			final MTree<Data> mtree = this.createTree(BulkLoaderTest.createData(size));
+			mtree.check();
+			Assert.assertThat(this.checkNode(mtree, mtree.getRoot()), CoreMatchers.is(size));
+		}
+	}
+
+	@Test
+	public void testRangeQueries() throws InternalErrorException {
+		final List<Data> data = BulkLoaderTest.createData(3000);
+		final MTree<Data> mtree = this.createTree(data);
+		this.checkRangeQueries(mtree, data);
+	}
+
+	@Test
+	public void testAddAfterBulkLoad() throws InternalErrorException {
+		final List<Data> data = BulkLoaderTest.createData(2000);
+		final MTree<Data> mtree = this.createTree(data.subList(0, 1000));
+		mtree.addAll(data.subList(1000, 2000), this.pool);
+		mtree.check();
+		this.checkRangeQueries(mtree, data);
+	}
+
+	private MTree<Data> createTree(final List<Data> data) throws InternalErrorException {
+		final MTree<Data> mtree = new MTree<>(MIN_NODE_CAPACITY, MAX_NODE_CAPACITY, DistanceFunctionFactory.EUCLIDEAN, null);
+		mtree.addAll(data, this.pool);
+		return mtree;
+	}
+
+	private void checkRangeQueries(final MTree<Data> mtree, final List<Data> data) {
+		final double range = 300;
+		for (final Data query : data.subList(0, 50)) {
+			final Set<Data> expected = new HashSet<>();
+			for (final Data element : data) {
+				if (DistanceFunctionFactory.EUCLIDEAN.calculate(query, element) <= range) {
+					expected.add(element);
+				}
+			}
+			final Set<Data> found = new HashSet<>();
+			double lastDistance = 0;
+			for (final ResultItem<Data> item : mtree.getNearestByRange(query, range)) {
+				Assert.assertTrue(item.getDistance() >= lastDistance);
+				lastDistance = item.getDistance();
+				found.add(item.getData());
+			}
+			Assert.assertThat(found, CoreMatchers.is(expected));
+		}
+	}
+
+	/**
+	 * Checks the capacities, distances and radii of a subtree.
+	 *
+	 * @return number of data objects in the subtree
+	 */
+	private int checkNode(final MTree<Data> mtree, final AbstractNode<Data> node) {
+		Assert.assertTrue(node.getChildren().size() <= MAX_NODE_CAPACITY);
+		int count = 0;
+		for (final IndexItem<Data> child : node.getChildren().values()) {
+			Assert.assertThat(child.getDistanceToParent(),
+					CoreMatchers.is(mtree.getDistanceFunction().calculate(node.getData(), child.getData())));
+			Assert.assertTrue((child.getDistanceToParent() + child.getRadius()) <= node.getRadius());
+			if (child instanceof Entry) {
+				count++;
+			} else {
+				count += this.checkNode(mtree, (AbstractNode<Data>) child);
+			}
+		}
+		return count;
+	}
+
+	private static List<Data> createData(final int size) {
+		final Random random = new Random(42);
+		final Set<Data> data = new HashSet<>();
+		final List<Data> result = new ArrayList<>(size);
+		while (result.size() < size) {
+			final Data element = new Data(random.nextInt(10000), random.nextInt(10000));
+			if (data.add(element)) {
+				result.add(element);
+			}
+		}
+		return result;
+	}
+}
@@ -17,10 +17,13 @@ package kieker.analysis.generic.clustering.optics;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import kieker.analysis.exception.InternalErrorException;
 import kieker.analysis.generic.clustering.ClusteringHelper;
 import kieker.analysis.generic.clustering.mtree.MTree;
 import kieker.analysis.generic.graph.clustering.OPTICSDataGED;
@@ -46,4 +49,37 @@ public class OPTICSTest {
 		Assert.assertEquals(7, results.size());
 	}
 
+	@Test
+	public void testParallelNeighborhoodsKeepOrder() throws InternalErrorException {
+		final OPTICSDataGED<Integer> ged = new OPTICSDataGED<>(ClusteringHelper.integerDistanceFunction());
+		final Random random = new Random(42);
+		final List<OpticsData<Integer>> models = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			models.add(new OpticsData<>(random.nextInt(5000), ged));
+		}
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			final MTree<OpticsData<Integer>> mtree = new MTree<>(ClusteringHelper.opticsIntegerDistanceFunction(),
+					ClusteringHelper.opticsIntegerSplitFunction());
+			mtree.addAll(models, pool);
+
+			final List<OpticsData<Integer>> sequentialResults = new ArrayList<>(new OPTICS<>(mtree, 5, 3, models).calculate());
+			final double[] reachabilityDistances = new double[sequentialResults.size()];
+			for (int i = 0; i < reachabilityDistances.length; i++) {
+				reachabilityDistances[i] = sequentialResults.get(i).getReachabilityDistance();
+			}
+			for (final OpticsData<Integer> model : models) {
+				model.reset();
+			}
+
+			final List<OpticsData<Integer>> parallelResults = new OPTICS<>(mtree, 5, 3, models, pool).calculate();
+
+			Assert.assertEquals(sequentialResults, parallelResults);
+			for (int i = 0; i < reachabilityDistances.length; i++) {
+				Assert.assertEquals(reachabilityDistances[i], parallelResults.get(i).getReachabilityDistance(), 0);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
 }
@@ -0,0 +1,146 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.generic.graph.clustering;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+
+import kieker.analysis.behavior.TestHelper;
+import kieker.analysis.exception.InternalErrorException;
+import kieker.analysis.generic.clustering.mtree.MTree;
+import kieker.analysis.generic.clustering.mtree.query.ResultItem;
+import kieker.analysis.generic.clustering.optics.OpticsData;
+import kieker.analysis.generic.graph.IEdge;
+import kieker.analysis.generic.graph.INode;
+
+/**
+ * Tests the {@link IndexedGraphEditDistance} against the {@link GraphEditDistance}.
+ *
+ * @author Kieker Project
+ * @since 2.0.0
+ */
+public class IndexedGraphEditDistanceTest {
+
+	private static final int NUM_NODES = 8;
+	private static final int NUM_MODELS = 200;
+
+	private final GraphEditDistance<INode, IEdge> ged = new GraphEditDistance<>(new BasicCostFunction<>(1, 1));
+	private final IndexedGraphEditDistance<INode, IEdge> indexedGed = new IndexedGraphEditDistance<>(new BasicCostFunction<>(1, 1));
+
+	/** Default constructor. */
+	public IndexedGraphEditDistanceTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testSameDistanceAsGraphEditDistance() {
+		final List<MutableNetwork<INode, IEdge>> models = new ArrayList<>();
+		models.add(TestHelper.createBehaviorModelA());
+		models.add(TestHelper.createBehaviorModelD());
+		models.add(TestHelper.createBehaviorModelE());
+		models.add(TestHelper.createBehaviorModelA());
+
+		for (final MutableNetwork<INode, IEdge> modelA : models) {
+			for (final MutableNetwork<INode, IEdge> modelB : models) {
+				Assert.assertThat(this.indexedGed.calculate(modelA, modelB), CoreMatchers.is(this.ged.calculate(modelA, modelB)));
+			}
+		}
+
+		final List<MutableNetwork<INode, IEdge>> randomModels = IndexedGraphEditDistanceTest.createRandomModels(NUM_MODELS);
+		for (int i = 1; i < randomModels.size(); i++) {
+			final MutableNetwork<INode, IEdge> modelA = randomModels.get(i - 1);
+			final MutableNetwork<INode, IEdge> modelB = randomModels.get(i);
+			Assert.assertThat(this.indexedGed.calculate(modelA, modelB), CoreMatchers.is(this.ged.calculate(modelA, modelB)));
+		}
+	}
+
+	@Test
+	public void testCalculationStopsAtBound() {
+		final List<MutableNetwork<INode, IEdge>> models = IndexedGraphEditDistanceTest.createRandomModels(2);
+		final MutableNetwork<INode, IEdge> modelA = models.get(0);
+		final MutableNetwork<INode, IEdge> modelB = models.get(1);
+		final double distance = this.ged.calculate(modelA, modelB);
+		Assert.assertTrue(distance > 1);
+
+		Assert.assertThat(this.indexedGed.calculate(modelA, modelB, distance), CoreMatchers.is(distance));
+		final double bound = distance / 2;
+		final double boundedDistance = this.indexedGed.calculate(modelA, modelB, bound);
+		Assert.assertTrue(boundedDistance > bound);
+		Assert.assertTrue(boundedDistance <= distance);
+	}
+
+	@Test
+	public void testRangeQueryFindsSameNeighbors() throws InternalErrorException {
+		final OPTICSDataGED<MutableNetwork<INode, IEdge>> opticsGed = new OPTICSDataGED<>(this.indexedGed);
+		final List<OpticsData<MutableNetwork<INode, IEdge>>> models = new ArrayList<>();
+		final MTree<OpticsData<MutableNetwork<INode, IEdge>>> mtree = new MTree<>(4, 8, opticsGed, null);
+		for (final MutableNetwork<INode, IEdge> model : IndexedGraphEditDistanceTest.createRandomModels(NUM_MODELS)) {
+			final OpticsData<MutableNetwork<INode, IEdge>> data = new OpticsData<>(model, opticsGed);
+			models.add(data);
+			mtree.add(data);
+		}
+
+		final double range = 6;
+		for (final OpticsData<MutableNetwork<INode, IEdge>> query : models.subList(0, 20)) {
+			final Set<OpticsData<MutableNetwork<INode, IEdge>>> expected = new HashSet<>();
+			for (final OpticsData<MutableNetwork<INode, IEdge>> model : models) {
+				if (this.ged.calculate(query.getData(), model.getData()) <= range) {
+					expected.add(model);
+				}
+			}
+			final Set<OpticsData<MutableNetwork<INode, IEdge>>> found = new HashSet<>();
+			for (final ResultItem<OpticsData<MutableNetwork<INode, IEdge>>> item : mtree.getNearestByRange(query, range)) {
+				Assert.assertThat(item.getDistance(), CoreMatchers.is(this.ged.calculate(query.getData(), item.getData().getData())));
+				found.add(item.getData());
+			}
+			Assert.assertThat(found, CoreMatchers.is(expected));
+		}
+	}
+
+	/**
+	 * All models contain the same nodes, as the {@link GraphEditDistance} requires the source nodes of all edges of a
+	 * shared node to be present in both models.
+	 */
+	private static List<MutableNetwork<INode, IEdge>> createRandomModels(final int numModels) {
+		final Random random = new Random(42);
+		final List<MutableNetwork<INode, IEdge>> models = new ArrayList<>(numModels);
+		for (int m = 0; m < numModels; m++) {
+			final MutableNetwork<INode, IEdge> model = NetworkBuilder.directed().allowsSelfLoops(true).build();
+			for (int i = 0; i < NUM_NODES; i++) {
+				TestHelper.addNode(model, "N" + i);
+			}
+			for (int i = 0; i < NUM_NODES; i++) {
+				for (int j = 0; j < NUM_NODES; j++) {
+					if (random.nextInt(4) == 0) {
+						TestHelper.addEdge(model, "N" + i, "N" + j);
+					}
+				}
+			}
+			models.add(model);
+		}
+		return models;
+	}
+}
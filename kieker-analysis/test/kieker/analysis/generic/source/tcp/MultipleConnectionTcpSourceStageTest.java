@@ -0,0 +1,145 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.generic.source.tcp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.analysis.generic.source.rewriter.NoneTraceMetadataRewriter;
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.monitoring.writer.tcp.SingleSocketTcpWriter;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+import teetime.framework.test.StageTester;
+
+/**
+ * Load test of the {@link MultipleConnectionTcpSourceStage} with several readers, which receives the records of many
+ * TCP writers connected over the loopback device.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class MultipleConnectionTcpSourceStageTest extends AbstractKiekerTest {
+
+	private static final String HOSTNAME = "localhost";
+	private static final int PORT = 10446;
+	private static final int BUFFER_SIZE = 65536;
+	private static final int NUMBER_OF_READERS = 4;
+	private static final int NUMBER_OF_WRITERS = 16;
+	private static final int RECORDS_PER_WRITER = 20000;
+	private static final long TIMEOUT_IN_MS = 30000;
+
+	/** Default constructor. */
+	public MultipleConnectionTcpSourceStageTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testRecordsOfAllConnectionsAreReceivedInOrder() throws InterruptedException {
+		final MultipleConnectionTcpSourceStage stage = new MultipleConnectionTcpSourceStage(PORT, BUFFER_SIZE,
+				new NoneTraceMetadataRewriter(), NUMBER_OF_READERS);
+		final List<IMonitoringRecord> receivedRecords = Collections.synchronizedList(new ArrayList<IMonitoringRecord>());
+		final Thread stageThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				StageTester.test(stage).and().receive(receivedRecords).from(stage.getOutputPort()).start();
+			}
+		});
+		stageThread.start();
+
+		final List<Thread> writerThreads = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_WRITERS; i++) {
+			writerThreads.add(new WriterThread(i));
+		}
+		for (final Thread writerThread : writerThreads) {
+			writerThread.start();
+		}
+		for (final Thread writerThread : writerThreads) {
+			writerThread.join(TIMEOUT_IN_MS);
+		}
+
+		final int expectedRecords = NUMBER_OF_WRITERS * RECORDS_PER_WRITER;
+		final long deadline = System.currentTimeMillis() + TIMEOUT_IN_MS;
+		while ((receivedRecords.size() < expectedRecords) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(10);
+		}
+		stage.rejectNewConnection();
+		stageThread.join(TIMEOUT_IN_MS);
+
+		Assert.assertFalse("Stage did not terminate", stageThread.isAlive());
+		Assert.assertThat(receivedRecords.size(), CoreMatchers.is(expectedRecords));
+
+		// the records of each writer arrive in the order they were sent
+		final int[] nextOrderIndex = new int[NUMBER_OF_WRITERS];
+		for (final IMonitoringRecord record : receivedRecords) {
+			final BeforeOperationEvent event = (BeforeOperationEvent) record;
+			final int writer = (int) event.getTraceId();
+			Assert.assertThat(event.getOrderIndex(), CoreMatchers.is(nextOrderIndex[writer]));
+			nextOrderIndex[writer]++;
+		}
+	}
+
+	/**
+	 * Sends records with its index as trace id over its own connection.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 2.0.0
+	 */
+	private static class WriterThread extends Thread {
+
+		private final int index;
+
+		public WriterThread(final int index) {
+			this.index = index;
+		}
+
+		@Override
+		public void run() {
+			final Configuration configuration = new Configuration();
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_HOSTNAME, HOSTNAME);
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_PORT, PORT);
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_BUFFERSIZE, BUFFER_SIZE);
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_FLUSH, false);
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_CONN_TIMEOUT_IN_MS, TIMEOUT_IN_MS);
+
+			try {
+				final SingleSocketTcpWriter writer = new SingleSocketTcpWriter(configuration);
+				writer.onStarting();
+				try {
+					for (int i = 0; i < RECORDS_PER_WRITER; i++) {
+						writer.writeMonitoringRecord(new BeforeOperationEvent(i, this.index, i,
+								"public void kieker.test.Component" + (i % 10) + ".operation()", "kieker.test.Component" + (i % 10)));
+					}
+				} finally {
+					writer.onTerminating();
+				}
+			} catch (final IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
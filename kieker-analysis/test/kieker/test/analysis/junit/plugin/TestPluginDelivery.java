@@ -0,0 +1,234 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.test.analysis.junit.plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.analysis.AnalysisController;
+import kieker.analysis.IAnalysisController;
+import kieker.analysis.IProjectContext;
+import kieker.analysis.exception.AnalysisConfigurationException;
+import kieker.analysis.plugin.annotation.InputPort;
+import kieker.analysis.plugin.annotation.OutputPort;
+import kieker.analysis.plugin.annotation.Plugin;
+import kieker.analysis.plugin.filter.AbstractFilterPlugin;
+import kieker.analysis.plugin.reader.AbstractReaderPlugin;
+import kieker.common.configuration.Configuration;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests that the data is delivered from the output ports to the connected input ports, independent of whether the
+ * input port methods are accessible from the plugin framework or not.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@Deprecated
+public final class TestPluginDelivery extends AbstractKiekerTest {
+
+	/**
+	 * Default constructor.
+	 */
+	public TestPluginDelivery() {
+		// nothing to do...
+	}
+
+	/**
+	 * Tests a chain of filters with public and private input ports, where the output ports and input ports select the
+	 * data by their event types.
+	 *
+	 * @throws AnalysisConfigurationException
+	 *             If the analysis configuration is somehow invalid (should not happen).
+	 */
+	@Test
+	public void testChainOfFilters() throws AnalysisConfigurationException {
+		final IAnalysisController ctrl = new AnalysisController();
+		final DeliveryReader reader = new DeliveryReader(new Configuration(), ctrl, Arrays.<Object> asList("a", 1, 2L, "b", 3));
+		final PublicFilter publicFilter = new PublicFilter(new Configuration(), ctrl);
+		final PrivateFilter privateFilter = new PrivateFilter(new Configuration(), ctrl);
+		final PublicFilter lastFilter = new PublicFilter(new Configuration(), ctrl);
+
+		ctrl.connect(reader, DeliveryReader.OUTPUT_PORT_NAME, publicFilter, PublicFilter.INPUT_PORT_NAME);
+		ctrl.connect(publicFilter, PublicFilter.OUTPUT_PORT_NAME, privateFilter, PrivateFilter.INPUT_PORT_NAME);
+		ctrl.connect(privateFilter, PrivateFilter.OUTPUT_PORT_NAME, lastFilter, PublicFilter.INPUT_PORT_NAME);
+		ctrl.connect(privateFilter, PrivateFilter.OUTPUT_PORT_NAME, lastFilter, PublicFilter.NUMBER_INPUT_PORT_NAME);
+		ctrl.run();
+
+		Assert.assertEquals(AnalysisController.STATE.TERMINATED, ctrl.getState());
+		Assert.assertEquals(Arrays.asList(true, true, true, true, true), reader.delivered);
+		Assert.assertEquals(Arrays.<Object> asList("a", 1, 2L, "b", 3), publicFilter.received);
+		// the public filter forwards only strings and integers
+		Assert.assertEquals(Arrays.asList(true, true, false, true, true), publicFilter.delivered);
+		Assert.assertEquals(Arrays.<Object> asList("a", 1, "b", 3), privateFilter.received);
+		Assert.assertEquals(Arrays.<Object> asList("a", 1, "b", 3), lastFilter.received);
+		Assert.assertEquals(Arrays.<Object> asList(1, 3), lastFilter.receivedNumbers);
+	}
+
+	/**
+	 * Tests that an exception of an input port does neither stop the delivery to other input ports nor the delivery of
+	 * further data.
+	 *
+	 * @throws AnalysisConfigurationException
+	 *             If the analysis configuration is somehow invalid (should not happen).
+	 */
+	@Test
+	public void testExceptionInInputPort() throws AnalysisConfigurationException {
+		final IAnalysisController ctrl = new AnalysisController();
+		final DeliveryReader reader = new DeliveryReader(new Configuration(), ctrl, Arrays.<Object> asList("a", "b"));
+		final PublicFilter failingFilter = new PublicFilter(new Configuration(), ctrl);
+		final PublicFilter filter = new PublicFilter(new Configuration(), ctrl);
+		failingFilter.failure = new IllegalStateException("failing input port");
+
+		ctrl.connect(reader, DeliveryReader.OUTPUT_PORT_NAME, failingFilter, PublicFilter.INPUT_PORT_NAME);
+		ctrl.connect(reader, DeliveryReader.OUTPUT_PORT_NAME, filter, PublicFilter.INPUT_PORT_NAME);
+		ctrl.run();
+
+		Assert.assertEquals(AnalysisController.STATE.TERMINATED, ctrl.getState());
+		Assert.assertEquals(Arrays.asList(true, true), reader.delivered);
+		Assert.assertEquals(Arrays.<Object> asList("a", "b"), failingFilter.received);
+		Assert.assertEquals(Arrays.<Object> asList("a", "b"), filter.received);
+	}
+
+	/**
+	 * Tests that an error of an input port is passed to the reader, which terminates the analysis.
+	 *
+	 * @throws AnalysisConfigurationException
+	 *             If the analysis configuration is somehow invalid (should not happen).
+	 */
+	@Test
+	public void testErrorInInputPort() throws AnalysisConfigurationException {
+		final IAnalysisController ctrl = new AnalysisController();
+		final DeliveryReader reader = new DeliveryReader(new Configuration(), ctrl, Arrays.<Object> asList("a", "b"));
+		final PublicFilter failingFilter = new PublicFilter(new Configuration(), ctrl);
+		failingFilter.failure = new AssertionError("failing input port");
+
+		ctrl.connect(reader, DeliveryReader.OUTPUT_PORT_NAME, failingFilter, PublicFilter.INPUT_PORT_NAME);
+		ctrl.run();
+
+		Assert.assertEquals(AnalysisController.STATE.FAILED, ctrl.getState());
+		Assert.assertEquals(Arrays.<Object> asList("a"), failingFilter.received);
+		Assert.assertTrue(reader.delivered.isEmpty());
+	}
+
+	/**
+	 * @author Kieker Project
+	 */
+	@Plugin(programmaticOnly = true, outputPorts = { @OutputPort(name = DeliveryReader.OUTPUT_PORT_NAME) })
+	private static final class DeliveryReader extends AbstractReaderPlugin {
+		public static final String OUTPUT_PORT_NAME = "out";
+
+		final List<Boolean> delivered = new ArrayList<>(); // NOPMD NOCS package for inner class
+		private final List<Object> data;
+
+		public DeliveryReader(final Configuration configuration, final IProjectContext projectContext, final List<Object> data) {
+			super(configuration, projectContext);
+			this.data = data;
+		}
+
+		@Override
+		public void terminate(final boolean error) {
+			// nothing to do
+		}
+
+		@Override
+		public Configuration getCurrentConfiguration() {
+			return new Configuration();
+		}
+
+		@Override
+		public boolean read() {
+			for (final Object event : this.data) {
+				this.delivered.add(super.deliver(OUTPUT_PORT_NAME, event));
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * A filter whose input ports can be invoked from the plugin framework like regular methods.
+	 *
+	 * @author Kieker Project
+	 */
+	@Plugin(programmaticOnly = true, outputPorts = { @OutputPort(name = PublicFilter.OUTPUT_PORT_NAME, eventTypes = { String.class, Integer.class }) })
+	public static final class PublicFilter extends AbstractFilterPlugin {
+		public static final String OUTPUT_PORT_NAME = "out";
+		public static final String INPUT_PORT_NAME = "in";
+		public static final String NUMBER_INPUT_PORT_NAME = "numbers";
+
+		final List<Object> received = new ArrayList<>(); // NOPMD NOCS package for inner class
+		final List<Object> receivedNumbers = new ArrayList<>(); // NOPMD NOCS package for inner class
+		final List<Boolean> delivered = new ArrayList<>(); // NOPMD NOCS package for inner class
+		Throwable failure; // NOPMD NOCS package for inner class
+
+		public PublicFilter(final Configuration configuration, final IProjectContext projectContext) {
+			super(configuration, projectContext);
+		}
+
+		@Override
+		public Configuration getCurrentConfiguration() {
+			return new Configuration();
+		}
+
+		@InputPort(name = INPUT_PORT_NAME)
+		public void inputEvent(final Object event) throws Throwable { // NOPMD (the failure of the test)
+			this.received.add(event);
+			if (this.failure != null) {
+				throw this.failure;
+			}
+			this.delivered.add(super.deliver(OUTPUT_PORT_NAME, event));
+		}
+
+		@InputPort(name = NUMBER_INPUT_PORT_NAME, eventTypes = { Number.class })
+		public void inputNumber(final Number number) {
+			this.receivedNumbers.add(number);
+		}
+	}
+
+	/**
+	 * A filter whose input port is only accessible by reflection.
+	 *
+	 * @author Kieker Project
+	 */
+	@Plugin(programmaticOnly = true, outputPorts = { @OutputPort(name = PrivateFilter.OUTPUT_PORT_NAME) })
+	private static final class PrivateFilter extends AbstractFilterPlugin {
+		public static final String OUTPUT_PORT_NAME = "out";
+		public static final String INPUT_PORT_NAME = "in";
+
+		final List<Object> received = new ArrayList<>(); // NOPMD NOCS package for inner class
+
+		public PrivateFilter(final Configuration configuration, final IProjectContext projectContext) {
+			super(configuration, projectContext);
+		}
+
+		@Override
+		public Configuration getCurrentConfiguration() {
+			return new Configuration();
+		}
+
+		@InputPort(name = INPUT_PORT_NAME)
+		public void inputEvent(final Object event) {
+			this.received.add(event);
+			super.deliver(OUTPUT_PORT_NAME, event);
+		}
+	}
+}
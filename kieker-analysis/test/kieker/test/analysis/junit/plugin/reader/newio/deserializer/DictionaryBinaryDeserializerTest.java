@@ -0,0 +1,155 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.test.analysis.junit.plugin.reader.newio.deserializer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.analysis.plugin.reader.newio.deserializer.DictionaryBinaryDeserializer;
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.monitoring.writer.serializer.DictionaryBinarySerializer;
+
+/**
+ * Tests for the dictionary binary deserializer, using chunks written by the dictionary binary serializer.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class DictionaryBinaryDeserializerTest {
+
+	public DictionaryBinaryDeserializerTest() {
+		// Default constructor
+	}
+
+	/**
+	 * Tests that chunks transmit only strings which are not known from previous chunks.
+	 */
+	@Test
+	public void testDecodeSeveralChunks() {
+		final DictionaryBinarySerializer serializer = this.createSerializer(100);
+		final DictionaryBinaryDeserializer deserializer = new DictionaryBinaryDeserializer(null, null);
+
+		final List<IMonitoringRecord> firstChunk = this.createChunk("op()", 0);
+		final List<IMonitoringRecord> secondChunk = this.createChunk("op()", 2);
+		final List<IMonitoringRecord> thirdChunk = this.createChunk("otherOp()", 4);
+		final byte[] firstData = this.serialize(serializer, firstChunk);
+		final byte[] secondData = this.serialize(serializer, secondChunk);
+		final byte[] thirdData = this.serialize(serializer, thirdChunk);
+
+		Assert.assertEquals(firstChunk, this.deserialize(deserializer, firstData));
+		Assert.assertEquals(secondChunk, this.deserialize(deserializer, secondData));
+		Assert.assertEquals(thirdChunk, this.deserialize(deserializer, thirdData));
+
+		// the second chunk uses only strings of the first chunk and the third one adds a single string
+		final int sizeOfNewString = 1 + "otherOp()".length();
+		Assert.assertTrue(secondData.length < firstData.length);
+		Assert.assertEquals(secondData.length + sizeOfNewString, thirdData.length);
+	}
+
+	/**
+	 * Tests that a deserializer joining a stream late skips the chunks until the dictionary is reset.
+	 */
+	@Test
+	public void testLateJoiningDeserializer() {
+		final DictionaryBinarySerializer serializer = this.createSerializer(2);
+		final DictionaryBinaryDeserializer deserializer = new DictionaryBinaryDeserializer(null, null);
+
+		this.serialize(serializer, this.createChunk("op()", 0));
+		final byte[] missedData = this.serialize(serializer, this.createChunk("op()", 2));
+		final List<IMonitoringRecord> resetChunk = this.createChunk("op()", 4);
+		final byte[] resetData = this.serialize(serializer, resetChunk);
+
+		Assert.assertEquals(Collections.emptyList(), this.deserialize(deserializer, missedData));
+		Assert.assertEquals(resetChunk, this.deserialize(deserializer, resetData));
+	}
+
+	/**
+	 * Tests that a deserializer which missed a chunk with new strings skips the chunks until the dictionary is reset.
+	 */
+	@Test
+	public void testMissedChunk() {
+		final DictionaryBinarySerializer serializer = this.createSerializer(3);
+		final DictionaryBinaryDeserializer deserializer = new DictionaryBinaryDeserializer(null, null);
+
+		final List<IMonitoringRecord> firstChunk = this.createChunk("op()", 0);
+		final byte[] firstData = this.serialize(serializer, firstChunk);
+		this.serialize(serializer, this.createChunk("otherOp()", 2));
+		final byte[] thirdData = this.serialize(serializer, this.createChunk("op()", 4));
+		final List<IMonitoringRecord> resetChunk = this.createChunk("otherOp()", 6);
+		final byte[] resetData = this.serialize(serializer, resetChunk);
+
+		Assert.assertEquals(firstChunk, this.deserialize(deserializer, firstData));
+		Assert.assertEquals(Collections.emptyList(), this.deserialize(deserializer, thirdData));
+		Assert.assertEquals(resetChunk, this.deserialize(deserializer, resetData));
+	}
+
+	/**
+	 * Tests that the chunks of several streams can be interleaved.
+	 */
+	@Test
+	public void testInterleavedStreams() {
+		final DictionaryBinarySerializer firstSerializer = this.createSerializer(100);
+		final DictionaryBinarySerializer secondSerializer = this.createSerializer(100);
+		final DictionaryBinaryDeserializer deserializer = new DictionaryBinaryDeserializer(null, null);
+
+		final List<List<IMonitoringRecord>> chunks = new ArrayList<>();
+		final List<byte[]> data = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			chunks.add(this.createChunk("first" + i + "()", i));
+			data.add(this.serialize(firstSerializer, chunks.get(chunks.size() - 1)));
+			chunks.add(this.createChunk("second" + i + "()", i));
+			data.add(this.serialize(secondSerializer, chunks.get(chunks.size() - 1)));
+		}
+
+		for (int i = 0; i < chunks.size(); i++) {
+			Assert.assertEquals(chunks.get(i), this.deserialize(deserializer, data.get(i)));
+		}
+	}
+
+	private DictionaryBinarySerializer createSerializer(final int resetInterval) {
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(DictionaryBinarySerializer.CONFIG_RESET_INTERVAL, resetInterval);
+		return new DictionaryBinarySerializer(configuration);
+	}
+
+	private List<IMonitoringRecord> createChunk(final String operation, final long traceId) {
+		final IMonitoringRecord firstRecord = new OperationExecutionRecord(operation, "SESS-ID", traceId, 0, 1, "host", 0, 1);
+		firstRecord.setLoggingTimestamp(traceId);
+		final IMonitoringRecord secondRecord = new OperationExecutionRecord(operation, "SESS-ID", traceId + 1, 2, 3, "host", 0, 1);
+		secondRecord.setLoggingTimestamp(traceId + 1);
+		return Arrays.asList(firstRecord, secondRecord);
+	}
+
+	private byte[] serialize(final DictionaryBinarySerializer serializer, final List<IMonitoringRecord> records) {
+		final ByteBuffer buffer = ByteBuffer.allocate(4096);
+		final int bytesWritten = serializer.serializeRecords(records, buffer);
+		return Arrays.copyOf(buffer.array(), bytesWritten);
+	}
+
+	private List<IMonitoringRecord> deserialize(final DictionaryBinaryDeserializer deserializer, final byte[] data) {
+		return deserializer.deserializeRecords(ByteBuffer.wrap(data), data.length);
+	}
+
+}
@@ -0,0 +1,157 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.architecture.recovery.assembler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.analysis.architecture.recovery.events.OperationEvent;
+import kieker.analysis.architecture.recovery.signature.JavaComponentSignatureExtractor;
+import kieker.analysis.architecture.recovery.signature.JavaOperationSignatureExtractor;
+import kieker.model.analysismodel.assembly.AssemblyFactory;
+import kieker.model.analysismodel.assembly.AssemblyModel;
+import kieker.model.analysismodel.deployment.DeploymentFactory;
+import kieker.model.analysismodel.deployment.DeploymentModel;
+import kieker.model.analysismodel.source.SourceFactory;
+import kieker.model.analysismodel.source.SourceModel;
+import kieker.model.analysismodel.type.TypeFactory;
+import kieker.model.analysismodel.type.TypeModel;
+
+/**
+ * Measures the type, assembly and deployment model assemblers for operation events. Once the models contain all
+ * operations, each event only looks up the existing model elements, which is the common case during a long
+ * running analysis. In addition, the benchmark measures the assembly of new models. The results are given per
+ * event.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class ModelAssemblerBenchmark {
+
+	private static final int NUM_HOSTS = 2;
+	private static final int NUM_COMPONENTS = 50;
+	private static final int OPERATIONS_PER_COMPONENT = 10;
+	private static final int NUM_EVENTS = NUM_HOSTS * NUM_COMPONENTS * OPERATIONS_PER_COMPONENT;
+	private static final String SOURCE_LABEL = "benchmark";
+
+	private final List<OperationEvent> events = new ArrayList<>(NUM_EVENTS);
+	private Assemblers assemblers;
+
+	/** Default constructor. */
+	public ModelAssemblerBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Create the events and models containing all of their operations.
+	 */
+	@Setup
+	public void setUp() {
+		this.events.clear();
+		for (int host = 0; host < NUM_HOSTS; host++) {
+			for (int component = 0; component < NUM_COMPONENTS; component++) {
+				final String componentSignature = "kieker.benchmarks.package" + (component % 5) + ".Component" + component;
+				for (int operation = 0; operation < OPERATIONS_PER_COMPONENT; operation++) {
+					final String operationSignature = "public java.lang.String " + componentSignature + ".operation" + operation
+							+ "(java.lang.String, long)";
+					this.events.add(new OperationEvent("host" + host, componentSignature, operationSignature));
+				}
+			}
+		}
+		this.assemblers = new Assemblers();
+		this.assemblers.assemble(this.events);
+	}
+
+	/**
+	 * Assemble events whose operations are already part of the models.
+	 *
+	 * @return the assemblers
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NUM_EVENTS)
+	public Object assembleKnownOperations() {
+		this.assemblers.assemble(this.events);
+		return this.assemblers;
+	}
+
+	/**
+	 * Assemble all events into new models.
+	 *
+	 * @return the assemblers
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NUM_EVENTS)
+	public Object assembleNewOperations() {
+		final Assemblers newAssemblers = new Assemblers();
+		newAssemblers.assemble(this.events);
+		return newAssemblers;
+	}
+
+	/**
+	 * The assemblers and their models, connected as in the {@code StaticModelsAssemblerStage}.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 2.0.0
+	 */
+	private static final class Assemblers {
+
+		private final OperationTypeModelAssembler typeModelAssembler;
+		private final OperationAssemblyModelAssembler assemblyModelAssembler;
+		private final OperationDeploymentModelAssembler deploymentModelAssembler;
+
+		public Assemblers() {
+			final TypeModel typeModel = TypeFactory.eINSTANCE.createTypeModel();
+			final AssemblyModel assemblyModel = AssemblyFactory.eINSTANCE.createAssemblyModel();
+			final DeploymentModel deploymentModel = DeploymentFactory.eINSTANCE.createDeploymentModel();
+			final SourceModel sourceModel = SourceFactory.eINSTANCE.createSourceModel();
+
+			this.typeModelAssembler = new OperationTypeModelAssembler(typeModel, sourceModel, SOURCE_LABEL,
+					new JavaComponentSignatureExtractor(), new JavaOperationSignatureExtractor());
+			this.assemblyModelAssembler = new OperationAssemblyModelAssembler(typeModel, assemblyModel, sourceModel, SOURCE_LABEL);
+			this.deploymentModelAssembler = new OperationDeploymentModelAssembler(assemblyModel, deploymentModel, sourceModel,
+					SOURCE_LABEL);
+		}
+
+		public void assemble(final List<OperationEvent> events) {
+			for (final OperationEvent event : events) {
+				this.typeModelAssembler.assemble(event);
+				this.assemblyModelAssembler.assemble(event);
+				this.deploymentModelAssembler.assemble(event);
+			}
+		}
+	}
+}
@@ -0,0 +1,204 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.architecture.trace.flow;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.carrotsearch.hppc.LongObjectHashMap;
+
+import kieker.benchmarks.BenchmarkUtil;
+
+/**
+ * Compares the maps which keep the open traces of the trace reconstruction by their trace id: the primitive HPPC map
+ * used by {@link AbstractEventRecordTraceReconstructionStage} and the {@code TraceReconstructor}, and the boxed
+ * {@link HashMap} and {@link ConcurrentHashMap} they used before.
+ *
+ * <p>
+ * Run with {@code -prof gc}. For {@link #open()}, {@code gc.alloc.rate.norm} divided by {@link #openTraces} is the
+ * memory allocated per open trace, i.e., the map entry, the boxed key, and the share of the table including the
+ * tables discarded while growing. For {@link #lookup(Blackhole)}, it is the memory allocated by the lookups of the
+ * events of all open traces, which is the boxing of the trace id.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Thread)
+public class OpenTraceMapBenchmark {
+
+	/** trace ids are not within the cached {@link Long} values, as in practice. */
+	private static final long FIRST_TRACE_ID = 1L << 32;
+
+	/** map implementation, either hppc, hash or concurrent. */
+	@Param({ "hppc", "hash", "concurrent" })
+	public String map; // NOPMD (set by JMH)
+
+	/** number of open traces. */
+	@Param({ "1000", "100000" })
+	public int openTraces; // NOPMD (set by JMH)
+
+	private Object[] traceBuffers;
+	private IOpenTraces filledMap;
+
+	/** Default constructor. */
+	public OpenTraceMapBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Create the trace buffers, which are shared by all invocations, such that only the memory of the map is measured,
+	 * and a map containing all of them.
+	 */
+	@Setup
+	public void setUp() {
+		this.traceBuffers = new Object[this.openTraces];
+		for (int i = 0; i < this.openTraces; i++) {
+			this.traceBuffers[i] = new Object();
+		}
+		this.filledMap = this.open();
+	}
+
+	/**
+	 * Open all traces in a new map, i.e., add the buffer of each trace at its first record.
+	 *
+	 * @return map with all open traces
+	 */
+	@Benchmark
+	public IOpenTraces open() {
+		final IOpenTraces traces = this.createMap();
+		for (int i = 0; i < this.openTraces; i++) {
+			traces.put(FIRST_TRACE_ID + i, this.traceBuffers[i]);
+		}
+		return traces;
+	}
+
+	/**
+	 * Look up the buffer of each open trace for each of its further records.
+	 *
+	 * @param blackhole
+	 *            consumes the buffers
+	 */
+	@Benchmark
+	public void lookup(final Blackhole blackhole) {
+		for (int step = 1; step < BenchmarkUtil.RECORDS_PER_TRACE; step++) {
+			for (int i = 0; i < this.openTraces; i++) {
+				blackhole.consume(this.filledMap.get(FIRST_TRACE_ID + i));
+			}
+		}
+	}
+
+	private IOpenTraces createMap() {
+		switch (this.map) {
+		case "hppc":
+			return new HppcOpenTraces();
+		case "hash":
+			return new BoxedOpenTraces(new HashMap<Long, Object>());
+		case "concurrent":
+			return new BoxedOpenTraces(new ConcurrentHashMap<Long, Object>());
+		default:
+			throw new IllegalArgumentException("Unknown map implementation " + this.map);
+		}
+	}
+
+	/**
+	 * The operations of the trace reconstruction on its open traces. Only one implementation is used per fork, such
+	 * that the calls are monomorphic.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 2.0.0
+	 */
+	public interface IOpenTraces {
+
+		void put(long traceId, Object traceBuffer);
+
+		Object get(long traceId);
+	}
+
+	/**
+	 * Open traces in a primitive HPPC map.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 2.0.0
+	 */
+	private static final class HppcOpenTraces implements IOpenTraces {
+
+		private final LongObjectHashMap<Object> traces = new LongObjectHashMap<>();
+
+		public HppcOpenTraces() {
+			// empty default constructor
+		}
+
+		@Override
+		public void put(final long traceId, final Object traceBuffer) {
+			this.traces.put(traceId, traceBuffer);
+		}
+
+		@Override
+		public Object get(final long traceId) {
+			return this.traces.get(traceId);
+		}
+	}
+
+	/**
+	 * Open traces in a map with boxed trace ids.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 2.0.0
+	 */
+	private static final class BoxedOpenTraces implements IOpenTraces {
+
+		private final Map<Long, Object> traces;
+
+		public BoxedOpenTraces(final Map<Long, Object> traces) {
+			this.traces = traces;
+		}
+
+		@Override
+		public void put(final long traceId, final Object traceBuffer) {
+			this.traces.put(traceId, traceBuffer);
+		}
+
+		@Override
+		public Object get(final long traceId) {
+			return this.traces.get(traceId);
+		}
+	}
+}
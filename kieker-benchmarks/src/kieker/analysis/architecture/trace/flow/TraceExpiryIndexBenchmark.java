@@ -0,0 +1,154 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.architecture.trace.flow;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link TraceExpiryIndex} with many open traces. As a baseline, the benchmark also measures a scan over
+ * all open traces, which is how expired traces are found without the index.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class TraceExpiryIndexBenchmark {
+
+	/** number of open traces. */
+	@Param({ "1000000" })
+	public int openTraces; // NOPMD (set by JMH)
+
+	private TraceExpiryIndex index;
+	private BenchmarkEntry[] entries;
+	private int next;
+	private long time;
+
+	/** Default constructor. */
+	public TraceExpiryIndexBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Index the open traces, each with its own first and last timestamp.
+	 */
+	@Setup
+	public void setUp() {
+		this.index = new TraceExpiryIndex();
+		this.entries = new BenchmarkEntry[this.openTraces];
+		for (int i = 0; i < this.openTraces; i++) {
+			this.entries[i] = new BenchmarkEntry(i);
+			this.index.add(this.entries[i]);
+		}
+		this.next = 0;
+		this.time = this.openTraces;
+	}
+
+	/**
+	 * Add an event to an open trace, i.e., the trace moves from the oldest to the most recently seen trace.
+	 *
+	 * @return the updated entry
+	 */
+	@Benchmark
+	public Object update() {
+		final BenchmarkEntry entry = this.entries[this.next];
+		this.next = (this.next + 1) % this.openTraces;
+		entry.maxLoggingTimestamp = this.time++;
+		this.index.update(entry);
+		return entry;
+	}
+
+	/**
+	 * Remove the trace which timed out and add a new trace, such that the number of open traces stays the same.
+	 *
+	 * @return the expired entry
+	 */
+	@Benchmark
+	public Object pollExpired() {
+		final long timeoutLimit = this.time - this.openTraces;
+		final BenchmarkEntry entry = (BenchmarkEntry) this.index.pollExpired(Long.MIN_VALUE, timeoutLimit);
+		entry.minLoggingTimestamp = this.time;
+		entry.maxLoggingTimestamp = this.time;
+		this.time++;
+		this.index.add(entry);
+		return entry;
+	}
+
+	/**
+	 * Find the timed out trace by looking at all open traces, as there is no order to tell when to stop.
+	 *
+	 * @return number of expired traces
+	 */
+	@Benchmark
+	public int scanExpired() {
+		final long timeoutLimit = this.time - this.openTraces;
+		int expired = 0;
+		for (final BenchmarkEntry entry : this.entries) {
+			if (entry.maxLoggingTimestamp <= timeoutLimit) {
+				entry.minLoggingTimestamp = this.time;
+				entry.maxLoggingTimestamp = this.time;
+				expired++;
+			}
+		}
+		this.time++;
+		return expired;
+	}
+
+	/**
+	 * An open trace with freely settable timestamps.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 2.0.0
+	 */
+	private static final class BenchmarkEntry extends TraceExpiryIndex.Entry {
+
+		private long minLoggingTimestamp;
+		private long maxLoggingTimestamp;
+
+		public BenchmarkEntry(final long loggingTimestamp) {
+			this.minLoggingTimestamp = loggingTimestamp;
+			this.maxLoggingTimestamp = loggingTimestamp;
+		}
+
+		@Override
+		public long getMinLoggingTimestamp() {
+			return this.minLoggingTimestamp;
+		}
+
+		@Override
+		public long getMaxLoggingTimestamp() {
+			return this.maxLoggingTimestamp;
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.architecture.trace.flow;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import kieker.benchmarks.BenchmarkUtil;
+import kieker.benchmarks.BlackholeSink;
+import kieker.common.record.flow.IFlowRecord;
+
+import teetime.framework.Configuration;
+import teetime.framework.Execution;
+import teetime.framework.InputPort;
+import teetime.framework.OutputPort;
+import teetime.stage.InitialElementProducer;
+
+/**
+ * Measures the reconstruction of event based traces by the {@link EventRecordTraceReconstructionStage} and the
+ * {@link ParallelEventRecordTraceReconstructionStage}. The number of traces which are open at the same time is varied
+ * by interleaving the records of consecutive traces. The results are given per trace.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class TraceReconstructionBenchmark {
+
+	private static final int NUM_TRACES = 100000;
+
+	/** number of worker stages, 0 uses the sequential stage. */
+	@Param({ "0", "4" })
+	public int workers; // NOPMD (set by JMH)
+
+	/** number of traces whose records are interleaved. */
+	@Param({ "1", "1000", "100000" })
+	public int openTraces; // NOPMD (set by JMH)
+
+	private List<IFlowRecord> records;
+
+	/** Default constructor. */
+	public TraceReconstructionBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Create the records of all traces.
+	 */
+	@Setup
+	public void setUp() {
+		this.records = BenchmarkUtil.createTraces(NUM_TRACES, this.openTraces);
+	}
+
+	/**
+	 * Reconstruct all traces.
+	 *
+	 * @param blackhole
+	 *            consumes the traces
+	 * @return number of valid traces
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NUM_TRACES)
+	public long reconstruct(final Blackhole blackhole) {
+		final ReconstructionConfiguration configuration = new ReconstructionConfiguration(this.records, this.workers, blackhole);
+		new Execution<>(configuration).executeBlocking();
+		return configuration.getValidTracesSink().getNumElements();
+	}
+
+	/**
+	 * Passes the records to the reconstruction stage and its traces to sinks. Neither a trace duration nor a timeout
+	 * is used, such that all traces are complete.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 2.0.0
+	 */
+	private static final class ReconstructionConfiguration extends Configuration {
+
+		private final BlackholeSink<TraceEventRecords> validTracesSink;
+
+		public ReconstructionConfiguration(final List<IFlowRecord> records, final int workers, final Blackhole blackhole) {
+			final InitialElementProducer<IFlowRecord> producer = new InitialElementProducer<>(records);
+			this.validTracesSink = new BlackholeSink<>(blackhole);
+			final BlackholeSink<TraceEventRecords> invalidTracesSink = new BlackholeSink<>(blackhole);
+
+			final InputPort<IFlowRecord> traceRecordsInputPort;
+			final OutputPort<TraceEventRecords> validTracesOutputPort;
+			final OutputPort<TraceEventRecords> invalidTracesOutputPort;
+			if (workers == 0) {
+				final EventRecordTraceReconstructionStage reconstruction = new EventRecordTraceReconstructionStage(TimeUnit.NANOSECONDS,
+						false, Long.MAX_VALUE, Long.MAX_VALUE);
+				traceRecordsInputPort = reconstruction.getTraceRecordsInputPort();
+				validTracesOutputPort = reconstruction.getValidTracesOutputPort();
+				invalidTracesOutputPort = reconstruction.getInvalidTracesOutputPort();
+			} else {
+				final ParallelEventRecordTraceReconstructionStage reconstruction = new ParallelEventRecordTraceReconstructionStage(workers,
+						TimeUnit.NANOSECONDS, false, Long.MAX_VALUE, Long.MAX_VALUE);
+				traceRecordsInputPort = reconstruction.getTraceRecordsInputPort();
+				validTracesOutputPort = reconstruction.getValidTracesOutputPort();
+				invalidTracesOutputPort = reconstruction.getInvalidTracesOutputPort();
+			}
+
+			this.connectPorts(producer.getOutputPort(), traceRecordsInputPort);
+			this.connectPorts(validTracesOutputPort, this.validTracesSink.getInputPort());
+			this.connectPorts(invalidTracesOutputPort, invalidTracesSink.getInputPort());
+		}
+
+		public BlackholeSink<TraceEventRecords> getValidTracesSink() {
+			return this.validTracesSink;
+		}
+	}
+}
@@ -0,0 +1,186 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.generic.clustering.optics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.graph.MutableNetwork;
+
+import kieker.analysis.behavior.clustering.NaiveParameterWeighting;
+import kieker.analysis.behavior.clustering.UserBehaviorCostFunction;
+import kieker.analysis.behavior.model.UserBehaviorEdge;
+import kieker.analysis.exception.InternalErrorException;
+import kieker.analysis.generic.clustering.mtree.MTree;
+import kieker.analysis.generic.graph.INode;
+import kieker.analysis.generic.graph.clustering.IndexedGraphEditDistance;
+import kieker.analysis.generic.graph.clustering.OPTICSDataGED;
+import kieker.benchmarks.BenchmarkUtil;
+
+/**
+ * Measures the clustering of user behavior models with {@link OPTICS}, i.e., the creation of the {@link MTree} and
+ * the calculation of the cluster order. Both steps are measured sequentially as well as on a fork-join pool, as the
+ * behavior analysis does depending on its parallelism setting.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class OpticsBenchmark {
+
+	private static final int MIN_NODE_CAPACITY = 25;
+	private static final int MAX_NODE_CAPACITY = 49;
+
+	/** number of user sessions, i.e., behavior models. */
+	@Param({ "500", "2000" })
+	public int sessions; // NOPMD (set by JMH)
+
+	/** maximal distance of two neighbors. */
+	@Param({ "10" })
+	public double epsilon; // NOPMD (set by JMH)
+
+	/** minimal number of neighbors of a core object. */
+	@Param({ "5" })
+	public int minPTs; // NOPMD (set by JMH)
+
+	private List<MutableNetwork<INode, UserBehaviorEdge>> behaviorModels;
+	private OPTICSDataGED<MutableNetwork<INode, UserBehaviorEdge>> distanceFunction;
+	private ForkJoinPool pool;
+
+	/** Default constructor. */
+	public OpticsBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Create the models and the pool.
+	 */
+	@Setup
+	public void setUp() {
+		this.behaviorModels = BenchmarkUtil.createBehaviorModels(this.sessions, 42);
+		this.distanceFunction = new OPTICSDataGED<>(new IndexedGraphEditDistance<>(
+				new UserBehaviorCostFunction(1, 1, 1, new NaiveParameterWeighting())));
+		this.pool = new ForkJoinPool();
+	}
+
+	/**
+	 * Stop the pool.
+	 */
+	@TearDown
+	public void tearDown() {
+		this.pool.shutdown();
+	}
+
+	/**
+	 * Add the models to the M-Tree one by one.
+	 *
+	 * @return the M-Tree
+	 * @throws InternalErrorException
+	 *             on internal error of the M-Tree
+	 */
+	@Benchmark
+	public Object createMTree() throws InternalErrorException {
+		return this.createMTree(this.createData(), null);
+	}
+
+	/**
+	 * Bulk load the M-Tree on the pool.
+	 *
+	 * @return the M-Tree
+	 * @throws InternalErrorException
+	 *             on internal error of the M-Tree
+	 */
+	@Benchmark
+	public Object bulkLoadMTree() throws InternalErrorException {
+		return this.createMTree(this.createData(), this.pool);
+	}
+
+	/**
+	 * Create the M-Tree and calculate the cluster order sequentially.
+	 *
+	 * @return the cluster order
+	 * @throws InternalErrorException
+	 *             on internal error of the M-Tree
+	 */
+	@Benchmark
+	public List<OpticsData<MutableNetwork<INode, UserBehaviorEdge>>> cluster() throws InternalErrorException {
+		return this.cluster(null);
+	}
+
+	/**
+	 * Create the M-Tree and calculate the cluster order on the pool.
+	 *
+	 * @return the cluster order
+	 * @throws InternalErrorException
+	 *             on internal error of the M-Tree
+	 */
+	@Benchmark
+	public List<OpticsData<MutableNetwork<INode, UserBehaviorEdge>>> clusterParallel() throws InternalErrorException {
+		return this.cluster(this.pool);
+	}
+
+	private List<OpticsData<MutableNetwork<INode, UserBehaviorEdge>>> cluster(final ForkJoinPool clusteringPool)
+			throws InternalErrorException {
+		final List<OpticsData<MutableNetwork<INode, UserBehaviorEdge>>> data = this.createData();
+		final MTree<OpticsData<MutableNetwork<INode, UserBehaviorEdge>>> mtree = this.createMTree(data, clusteringPool);
+		return new OPTICS<>(mtree, this.epsilon, this.minPTs, data, clusteringPool).calculate();
+	}
+
+	/** OPTICS marks the data objects while it runs, hence each run needs new ones. */
+	private List<OpticsData<MutableNetwork<INode, UserBehaviorEdge>>> createData() {
+		final List<OpticsData<MutableNetwork<INode, UserBehaviorEdge>>> data = new ArrayList<>(this.behaviorModels.size());
+		for (final MutableNetwork<INode, UserBehaviorEdge> model : this.behaviorModels) {
+			data.add(new OpticsData<>(model, this.distanceFunction));
+		}
+		return data;
+	}
+
+	private MTree<OpticsData<MutableNetwork<INode, UserBehaviorEdge>>> createMTree(
+			final List<OpticsData<MutableNetwork<INode, UserBehaviorEdge>>> data, final ForkJoinPool clusteringPool)
+			throws InternalErrorException {
+		final MTree<OpticsData<MutableNetwork<INode, UserBehaviorEdge>>> mtree = new MTree<>(MIN_NODE_CAPACITY, MAX_NODE_CAPACITY,
+				this.distanceFunction, null);
+		if (clusteringPool != null) {
+			mtree.addAll(data, clusteringPool);
+		} else {
+			for (final OpticsData<MutableNetwork<INode, UserBehaviorEdge>> element : data) {
+				mtree.add(element);
+			}
+		}
+		return mtree;
+	}
+}
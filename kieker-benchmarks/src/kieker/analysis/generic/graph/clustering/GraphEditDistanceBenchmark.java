@@ -0,0 +1,117 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.generic.graph.clustering;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.graph.MutableNetwork;
+
+import kieker.analysis.behavior.clustering.NaiveParameterWeighting;
+import kieker.analysis.behavior.clustering.UserBehaviorCostFunction;
+import kieker.analysis.behavior.model.UserBehaviorEdge;
+import kieker.analysis.generic.graph.INode;
+import kieker.benchmarks.BenchmarkUtil;
+
+/**
+ * Measures the {@link GraphEditDistance} and the {@link IndexedGraphEditDistance} between user behavior models. The
+ * indexed distance is measured with and without a bound, as OPTICS uses it in its range queries. Each invocation
+ * compares the next pair of models.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class GraphEditDistanceBenchmark {
+
+	/** number of compared models. */
+	@Param({ "2000" })
+	public int models; // NOPMD (set by JMH)
+
+	/** bound of the bounded distance. */
+	@Param({ "10" })
+	public double bound; // NOPMD (set by JMH)
+
+	private GraphEditDistance<INode, UserBehaviorEdge> graphEditDistance;
+	private IndexedGraphEditDistance<INode, UserBehaviorEdge> indexedGraphEditDistance;
+	private List<MutableNetwork<INode, UserBehaviorEdge>> behaviorModels;
+	private int next;
+
+	/** Default constructor. */
+	public GraphEditDistanceBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Create the models and the distance functions with the cost function of the behavior analysis.
+	 */
+	@Setup
+	public void setUp() {
+		this.behaviorModels = BenchmarkUtil.createBehaviorModels(this.models, 42);
+		this.graphEditDistance = new GraphEditDistance<>(new UserBehaviorCostFunction(1, 1, 1, new NaiveParameterWeighting()));
+		this.indexedGraphEditDistance = new IndexedGraphEditDistance<>(
+				new UserBehaviorCostFunction(1, 1, 1, new NaiveParameterWeighting()));
+		this.next = 0;
+	}
+
+	/**
+	 * @return distance of the next pair of models
+	 */
+	@Benchmark
+	public double graphEditDistance() {
+		return this.graphEditDistance.calculate(this.nextModel(), this.behaviorModels.get(this.next));
+	}
+
+	/**
+	 * @return distance of the next pair of models
+	 */
+	@Benchmark
+	public double indexedGraphEditDistance() {
+		return this.indexedGraphEditDistance.calculate(this.nextModel(), this.behaviorModels.get(this.next));
+	}
+
+	/**
+	 * @return distance of the next pair of models, or a larger value than the bound if the models are farther apart
+	 */
+	@Benchmark
+	public double boundedGraphEditDistance() {
+		return this.indexedGraphEditDistance.calculate(this.nextModel(), this.behaviorModels.get(this.next), this.bound);
+	}
+
+	private MutableNetwork<INode, UserBehaviorEdge> nextModel() {
+		final MutableNetwork<INode, UserBehaviorEdge> model = this.behaviorModels.get(this.next);
+		this.next = (this.next + 1) % this.models;
+		return model;
+	}
+}
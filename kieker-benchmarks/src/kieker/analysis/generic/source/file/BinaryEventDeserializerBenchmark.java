@@ -0,0 +1,166 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.generic.source.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import kieker.benchmarks.BenchmarkUtil;
+import kieker.benchmarks.BlackholeSink;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.IFlowRecord;
+import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.reader.ReaderRegistry;
+import kieker.common.registry.writer.WriterRegistry;
+import kieker.monitoring.writer.WriterUtil;
+import kieker.monitoring.writer.compression.NoneCompressionFilter;
+import kieker.monitoring.writer.filesystem.BinaryLogStreamHandler;
+
+import teetime.framework.AbstractProducerStage;
+import teetime.framework.Configuration;
+import teetime.framework.Execution;
+
+/**
+ * Measures the {@link BinaryEventDeserializer} on a binary log which is written by the
+ * {@link BinaryLogStreamHandler} of the file writer. The results are given per record.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class BinaryEventDeserializerBenchmark {
+
+	private static final int NUM_RECORDS = 100000;
+
+	private final ReaderRegistry<String> registry = new ReaderRegistry<>();
+	private byte[] log;
+
+	/** Default constructor. */
+	public BinaryEventDeserializerBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Write the binary log and collect its string registry.
+	 *
+	 * @throws IOException
+	 *             when the log cannot be written
+	 */
+	@Setup
+	public void setUp() throws IOException {
+		final WriterRegistry writerRegistry = new WriterRegistry(new IRegistryListener<String>() {
+			@Override
+			public void onNewRegistryEntry(final String value, final int id) {
+				BinaryEventDeserializerBenchmark.this.registry.register(id, value);
+			}
+		});
+		final BinaryLogStreamHandler handler = new BinaryLogStreamHandler(false, 65536, StandardCharsets.UTF_8,
+				new NoneCompressionFilter(null), writerRegistry);
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		handler.initialize(stream, Paths.get("benchmark.bin"));
+		for (final IFlowRecord record : BenchmarkUtil.createTraces(NUM_RECORDS / BenchmarkUtil.RECORDS_PER_TRACE, 1)) {
+			handler.serialize(record, writerRegistry.getId(WriterUtil.getRecordClassName(record)));
+		}
+		handler.close();
+		this.log = stream.toByteArray();
+	}
+
+	/**
+	 * Deserialize the binary log.
+	 *
+	 * @param blackhole
+	 *            consumes the records
+	 * @return number of deserialized records
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NUM_RECORDS)
+	public long deserialize(final Blackhole blackhole) {
+		final DeserializationConfiguration configuration = new DeserializationConfiguration(this.log, this.registry, blackhole);
+		new Execution<>(configuration).executeBlocking();
+		return configuration.getSink().getNumElements();
+	}
+
+	/**
+	 * Passes the records of the log to a sink.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 2.0.0
+	 */
+	private static final class DeserializationConfiguration extends Configuration {
+
+		private final BlackholeSink<IMonitoringRecord> sink;
+
+		public DeserializationConfiguration(final byte[] log, final ReaderRegistry<String> registry, final Blackhole blackhole) {
+			final DeserializerStage deserializer = new DeserializerStage(log, registry);
+			this.sink = new BlackholeSink<>(blackhole);
+			this.connectPorts(deserializer.getOutputPort(), this.sink.getInputPort());
+		}
+
+		public BlackholeSink<IMonitoringRecord> getSink() {
+			return this.sink;
+		}
+	}
+
+	/**
+	 * Deserializes a log held in memory.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 2.0.0
+	 */
+	private static final class DeserializerStage extends AbstractProducerStage<IMonitoringRecord> {
+
+		private final byte[] log;
+		private final ReaderRegistry<String> registry;
+
+		public DeserializerStage(final byte[] log, final ReaderRegistry<String> registry) {
+			this.log = log;
+			this.registry = registry;
+		}
+
+		@Override
+		protected void execute() throws Exception {
+			final BinaryEventDeserializer deserializer = new BinaryEventDeserializer(BinaryEventDeserializer.DEFAULT_BUFFER_SIZE,
+					this.registry);
+			deserializer.processDataStream(new ByteArrayInputStream(this.log), this.outputPort);
+			this.workCompleted();
+		}
+	}
+}
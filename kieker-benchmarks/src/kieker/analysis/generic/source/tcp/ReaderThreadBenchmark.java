@@ -0,0 +1,173 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.generic.source.tcp;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.analysis.generic.source.rewriter.ITraceMetadataRewriter;
+import kieker.benchmarks.BenchmarkUtil;
+import kieker.common.record.IMonitoringRecord;
+
+import teetime.framework.OutputPort;
+
+/**
+ * Measures the decoding of the {@link ReaderThread} of the {@link MultipleConnectionTcpSourceStage}. The benchmark
+ * sends records over a local connection and waits until the reader has decoded all of them, i.e., the results
+ * include the transfer over the loopback device. The results are given per record.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class ReaderThreadBenchmark {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReaderThreadBenchmark.class);
+
+	private static final int NUM_RECORDS = 100000;
+	private static final int BUFFER_SIZE = 65536;
+
+	private final CountingRewriter rewriter = new CountingRewriter();
+	private byte[] data;
+	private ServerSocketChannel serverChannel;
+	private SocketChannel clientChannel;
+	private Selector selector;
+	private ReaderThread reader;
+
+	/** Default constructor. */
+	public ReaderThreadBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Connect to the reader thread as the {@link MultipleConnectionTcpSourceStage} does.
+	 *
+	 * @throws IOException
+	 *             when the connection cannot be established
+	 */
+	@Setup
+	public void setUp() throws IOException {
+		this.data = BenchmarkUtil.serializeWithRegistryEntries(BenchmarkUtil.createTraces(NUM_RECORDS / BenchmarkUtil.RECORDS_PER_TRACE, 1));
+
+		this.serverChannel = ServerSocketChannel.open();
+		this.serverChannel.bind(new InetSocketAddress("localhost", 0));
+		this.clientChannel = SocketChannel.open(this.serverChannel.getLocalAddress());
+
+		final SocketChannel channel = this.serverChannel.accept();
+		channel.configureBlocking(false);
+		this.selector = Selector.open();
+		final SelectionKey key = channel.register(this.selector, SelectionKey.OP_READ);
+		key.attach(new Connection(channel, BUFFER_SIZE));
+
+		this.reader = new ReaderThread(LOGGER, this.selector, this.rewriter, null);
+		this.reader.start();
+	}
+
+	/**
+	 * Stop the reader thread and close all channels.
+	 *
+	 * @throws IOException
+	 *             when a channel cannot be closed
+	 * @throws InterruptedException
+	 *             when interrupted while waiting for the reader thread
+	 */
+	@TearDown
+	public void tearDown() throws IOException, InterruptedException {
+		this.reader.terminate();
+		this.clientChannel.close();
+		this.selector.wakeup();
+		this.reader.join();
+		this.selector.close();
+		this.serverChannel.close();
+	}
+
+	/**
+	 * Send the records and wait until all of them are decoded. The string registry entries are sent each time, the
+	 * reader registers them again.
+	 *
+	 * @return number of decoded records
+	 * @throws IOException
+	 *             when the records cannot be sent
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NUM_RECORDS)
+	public long decode() throws IOException {
+		final long expectedRecords = this.rewriter.getNumRecords() + NUM_RECORDS;
+		final ByteBuffer buffer = ByteBuffer.wrap(this.data);
+		while (buffer.hasRemaining()) {
+			this.clientChannel.write(buffer);
+		}
+		while (this.rewriter.getNumRecords() < expectedRecords) {
+			Thread.yield();
+		}
+		return expectedRecords;
+	}
+
+	/**
+	 * Counts the decoded records instead of passing them to an output port.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 2.0.0
+	 */
+	private static final class CountingRewriter implements ITraceMetadataRewriter {
+
+		private volatile long numRecords; // NOPMD (only written by the reader thread)
+		private IMonitoringRecord lastRecord; // NOPMD (keeps the decoded record alive)
+
+		public CountingRewriter() {
+			// empty default constructor
+		}
+
+		@Override
+		public void rewrite(final Connection connection, final IMonitoringRecord record, final long loggingTimestamp,
+				final OutputPort<IMonitoringRecord> outputPort) throws IOException {
+			this.lastRecord = record;
+			this.numRecords++; // NOPMD NOCS (single writer)
+		}
+
+		public long getNumRecords() {
+			return this.numRecords;
+		}
+	}
+}
@@ -0,0 +1,168 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.plugin;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.analysis.AnalysisController;
+import kieker.analysis.IProjectContext;
+import kieker.analysis.exception.AnalysisConfigurationException;
+import kieker.analysis.plugin.annotation.InputPort;
+import kieker.analysis.plugin.annotation.OutputPort;
+import kieker.analysis.plugin.annotation.Plugin;
+import kieker.analysis.plugin.filter.AbstractFilterPlugin;
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+
+/**
+ * Measures the delivery of a record through a chain of filters of the old plugin API, either by the compiled
+ * dispatchers of the output ports or by reflection.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@SuppressWarnings("deprecation")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class PluginDeliveryBenchmark {
+
+	private static final int NUM_FILTERS = 10;
+
+	/** how the output ports deliver the records. */
+	@Param({ "compiled", "reflective" })
+	public String delivery; // NOPMD (set by JMH)
+
+	private ForwardingFilter head;
+	private ForwardingFilter tail;
+	private IMonitoringRecord record;
+
+	/** Default constructor. */
+	public PluginDeliveryBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Connect and start the chain of filters. The analysis itself is not run, as the benchmark passes the records to the
+	 * first filter.
+	 *
+	 * @throws AnalysisConfigurationException
+	 *             when the filters cannot be connected
+	 */
+	@Setup
+	public void setUp() throws AnalysisConfigurationException {
+		final AnalysisController controller = new AnalysisController();
+		final ForwardingFilter[] filters = new ForwardingFilter[NUM_FILTERS];
+		for (int i = 0; i < NUM_FILTERS; i++) {
+			filters[i] = new ForwardingFilter(new Configuration(), controller);
+			if (i > 0) {
+				controller.connect(filters[i - 1], ForwardingFilter.OUTPUT_PORT_NAME, filters[i], ForwardingFilter.INPUT_PORT_NAME);
+			}
+		}
+		for (final ForwardingFilter filter : filters) {
+			filter.start();
+			if ("reflective".equals(this.delivery)) {
+				// the method is not inherited by filters outside of this package
+				((AbstractPlugin) filter).useReflectiveDelivery();
+			}
+		}
+		this.head = filters[0];
+		this.tail = filters[NUM_FILTERS - 1];
+		this.record = new BeforeOperationEvent(1L, 1L, 0, "public void kieker.benchmarks.Service.call()", "kieker.benchmarks.Service");
+	}
+
+	/**
+	 * Pass a record through all filters.
+	 *
+	 * @return number of records received by the last filter
+	 */
+	@Benchmark
+	public long deliver() {
+		this.head.inputRecord(this.record);
+		return this.tail.getNumRecords();
+	}
+
+	/**
+	 * Forwards all records to its output port.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 2.0.0
+	 */
+	@Plugin(programmaticOnly = true, outputPorts = { @OutputPort(name = ForwardingFilter.OUTPUT_PORT_NAME, eventTypes = IMonitoringRecord.class) })
+	public static final class ForwardingFilter extends AbstractFilterPlugin {
+
+		/** name of the output port. */
+		public static final String OUTPUT_PORT_NAME = "out";
+		/** name of the input port. */
+		public static final String INPUT_PORT_NAME = "in";
+
+		private long numRecords;
+
+		/**
+		 * Create a filter.
+		 *
+		 * @param configuration
+		 *            configuration of the filter
+		 * @param projectContext
+		 *            analysis the filter belongs to
+		 */
+		public ForwardingFilter(final Configuration configuration, final IProjectContext projectContext) {
+			super(configuration, projectContext);
+		}
+
+		/**
+		 * Forward a record.
+		 *
+		 * @param record
+		 *            received record
+		 */
+		@InputPort(name = INPUT_PORT_NAME, eventTypes = IMonitoringRecord.class)
+		public void inputRecord(final IMonitoringRecord record) {
+			this.numRecords++;
+			super.deliver(OUTPUT_PORT_NAME, record);
+		}
+
+		/**
+		 * @return number of received records
+		 */
+		public long getNumRecords() {
+			return this.numRecords;
+		}
+
+		@Override
+		public Configuration getCurrentConfiguration() {
+			return new Configuration();
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+
+import kieker.analysis.behavior.events.EntryCallEvent;
+import kieker.analysis.behavior.model.UserBehaviorEdge;
+import kieker.analysis.generic.graph.INode;
+import kieker.analysis.generic.graph.impl.NodeImpl;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.IFlowRecord;
+import kieker.common.record.flow.trace.TraceMetadata;
+import kieker.common.record.flow.trace.operation.AfterOperationEvent;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.io.BinaryValueSerializer;
+import kieker.common.record.misc.RegistryRecord;
+import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.writer.WriterRegistry;
+
+/**
+ * Creates the monitoring data the benchmarks work on.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public final class BenchmarkUtil {
+
+	/** number of records of each trace created by {@link #createTraces(int, int)}. */
+	public static final int RECORDS_PER_TRACE = 5;
+
+	private static final int NUM_COMPONENTS = 20;
+	private static final String HOSTNAME = "benchmark-host";
+	private static final int NUM_PAGES = 10;
+	private static final int NUM_BEHAVIORS = 8;
+	private static final String[][] PARAMETERS = { {}, { "id" }, { "id", "query" } };
+	private static final String[][] VALUES = { {}, { "42" }, { "42", "kieker" } };
+
+	private BenchmarkUtil() {
+		// utility class
+	}
+
+	/**
+	 * Create the records of the given number of traces. Each trace consists of its metadata and two nested operation
+	 * executions. The records of the given number of consecutive traces are interleaved, such that this many traces
+	 * are open at the same time during the reconstruction.
+	 *
+	 * @param numTraces
+	 *            number of traces
+	 * @param openTraces
+	 *            number of traces whose records are interleaved
+	 * @return records in the order they are monitored
+	 */
+	public static List<IFlowRecord> createTraces(final int numTraces, final int openTraces) {
+		final List<IFlowRecord> records = new ArrayList<>(numTraces * RECORDS_PER_TRACE);
+		long timestamp = 0;
+		for (int first = 0; first < numTraces; first += openTraces) {
+			final int last = Math.min(numTraces, first + openTraces);
+			for (int step = 0; step < RECORDS_PER_TRACE; step++) {
+				for (int trace = first; trace < last; trace++) {
+					final IFlowRecord record = BenchmarkUtil.createTraceRecord(trace, step, timestamp);
+					record.setLoggingTimestamp(timestamp);
+					records.add(record);
+					timestamp++;
+				}
+			}
+		}
+		return records;
+	}
+
+	private static IFlowRecord createTraceRecord(final long traceId, final int step, final long timestamp) {
+		final int component = (int) (traceId % NUM_COMPONENTS);
+		final String outerClass = "kieker.benchmarks.component" + component + ".Facade";
+		final String outerOperation = "public void " + outerClass + ".handle(java.lang.String)";
+		final String innerClass = "kieker.benchmarks.component" + component + ".Repository";
+		final String innerOperation = "public java.lang.String " + innerClass + ".find(long)";
+		switch (step) {
+		case 0:
+			return new TraceMetadata(traceId, 1L, TraceMetadata.NO_SESSION_ID, HOSTNAME, traceId, -1);
+		case 1:
+			return new BeforeOperationEvent(timestamp, traceId, 0, outerOperation, outerClass);
+		case 2:
+			return new BeforeOperationEvent(timestamp, traceId, 1, innerOperation, innerClass);
+		case 3:
+			return new AfterOperationEvent(timestamp, traceId, 2, innerOperation, innerClass);
+		default:
+			return new AfterOperationEvent(timestamp, traceId, 3, outerOperation, outerClass);
+		}
+	}
+
+	/**
+	 * Serialize the records as the TCP writers send them, i.e., each record is preceded by the registry entries of the
+	 * strings it uses for the first time.
+	 *
+	 * @param records
+	 *            records to serialize
+	 * @return serialized records
+	 */
+	public static byte[] serializeWithRegistryEntries(final List<? extends IMonitoringRecord> records) {
+		int size = 0;
+		for (final IMonitoringRecord record : records) {
+			size += 4 + 8 + record.getSize();
+		}
+		final ByteBuffer buffer = ByteBuffer.allocate(size + (1 << 16));
+		final WriterRegistry registry = new WriterRegistry(new IRegistryListener<String>() {
+			@Override
+			public void onNewRegistryEntry(final String value, final int id) {
+				final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				buffer.putInt(RegistryRecord.CLASS_ID);
+				buffer.putInt(id);
+				buffer.putInt(bytes.length);
+				buffer.put(bytes);
+			}
+		});
+		// registry entries are written while a record is serialized, hence each record is buffered first
+		final ByteBuffer recordBuffer = ByteBuffer.allocate(1 << 16);
+		final BinaryValueSerializer serializer = BinaryValueSerializer.create(recordBuffer, registry);
+		for (final IMonitoringRecord record : records) {
+			serializer.putString(record.getClass().getName());
+			serializer.putLong(record.getLoggingTimestamp());
+			record.serialize(serializer);
+			recordBuffer.flip();
+			buffer.put(recordBuffer);
+			recordBuffer.clear();
+		}
+		return Arrays.copyOf(buffer.array(), buffer.position());
+	}
+
+	/**
+	 * Create random user behavior models. Each model is a variation of one of a few typical behaviors, in which some
+	 * edges are added or removed, such that the models form clusters. All models contain the same pages as nodes, as
+	 * the graph edit distance requires the source nodes of all edges of a shared node to be present in both models.
+	 *
+	 * @param numModels
+	 *            number of models
+	 * @param seed
+	 *            seed of the random generator
+	 * @return behavior models
+	 */
+	public static List<MutableNetwork<INode, UserBehaviorEdge>> createBehaviorModels(final int numModels, final long seed) {
+		final Random random = new Random(seed);
+		// a typical behavior assigns each edge the parameters of its event, or -1 if the edge does not exist
+		final int[][][] behaviors = new int[NUM_BEHAVIORS][NUM_PAGES][NUM_PAGES];
+		for (final int[][] behavior : behaviors) {
+			for (final int[] edges : behavior) {
+				for (int target = 0; target < NUM_PAGES; target++) {
+					edges[target] = BenchmarkUtil.randomEdge(random);
+				}
+			}
+		}
+
+		final List<MutableNetwork<INode, UserBehaviorEdge>> models = new ArrayList<>(numModels);
+		for (int m = 0; m < numModels; m++) {
+			final int[][] behavior = behaviors[random.nextInt(NUM_BEHAVIORS)];
+			final MutableNetwork<INode, UserBehaviorEdge> model = NetworkBuilder.directed().allowsSelfLoops(true).build();
+			final INode[] pages = new INode[NUM_PAGES];
+			for (int i = 0; i < NUM_PAGES; i++) {
+				pages[i] = new NodeImpl("page" + i);
+				model.addNode(pages[i]);
+			}
+			for (int source = 0; source < NUM_PAGES; source++) {
+				for (int target = 0; target < NUM_PAGES; target++) {
+					final int parameters = random.nextInt(NUM_PAGES * NUM_PAGES) < 2 ? BenchmarkUtil.randomEdge(random) // NOCS (inline ?)
+							: behavior[source][target];
+					if (parameters >= 0) {
+						final String page = pages[target].getId();
+						final EntryCallEvent event = new EntryCallEvent(0, 1, page, "kieker.benchmarks.Page", "session", HOSTNAME,
+								PARAMETERS[parameters], VALUES[parameters], 0);
+						model.addEdge(pages[source], pages[target], new UserBehaviorEdge(pages[source].getId() + ":" + page, event));
+					}
+				}
+			}
+			models.add(model);
+		}
+		return models;
+	}
+
+	private static int randomEdge(final Random random) {
+		return random.nextInt(4) == 0 ? random.nextInt(PARAMETERS.length) : -1; // NOCS (inline ?)
+	}
+
+	/**
+	 * Delete a directory with all its contents.
+	 *
+	 * @param directory
+	 *            directory to delete
+	 * @throws IOException
+	 *             when a file cannot be deleted
+	 */
+	public static void deleteRecursively(final Path directory) throws IOException {
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+}
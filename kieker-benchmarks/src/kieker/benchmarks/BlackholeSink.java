@@ -0,0 +1,59 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.benchmarks;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import teetime.framework.AbstractConsumerStage;
+
+/**
+ * Consumes all elements of a pipeline, such that the JIT compiler cannot remove their computation.
+ *
+ * @param <T>
+ *            element type
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class BlackholeSink<T> extends AbstractConsumerStage<T> {
+
+	private final Blackhole blackhole;
+	private long numElements;
+
+	/**
+	 * Create a sink.
+	 *
+	 * @param blackhole
+	 *            blackhole of the benchmark
+	 */
+	public BlackholeSink(final Blackhole blackhole) {
+		this.blackhole = blackhole;
+	}
+
+	@Override
+	protected void execute(final T element) throws Exception {
+		this.blackhole.consume(element);
+		this.numElements++;
+	}
+
+	/**
+	 * @return number of received elements
+	 */
+	public long getNumElements() {
+		return this.numElements;
+	}
+}
@@ -0,0 +1,79 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.benchmarks;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A local server for the TCP writer benchmarks which accepts a single connection and discards everything it receives.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public final class DiscardingServer extends Thread {
+
+	private final ServerSocketChannel serverChannel;
+
+	/**
+	 * Binds the server to a free local port and starts accepting.
+	 *
+	 * @throws IOException
+	 *             if the server socket cannot be bound
+	 */
+	public DiscardingServer() throws IOException {
+		super("kieker-benchmark-discarding-server");
+		this.serverChannel = ServerSocketChannel.open();
+		this.serverChannel.bind(new InetSocketAddress("localhost", 0));
+		this.setDaemon(true);
+		this.start();
+	}
+
+	/**
+	 * @return the port the server is bound to
+	 * @throws IOException
+	 *             if the server socket is closed
+	 */
+	public int getPort() throws IOException {
+		return ((InetSocketAddress) this.serverChannel.getLocalAddress()).getPort();
+	}
+
+	@Override
+	public void run() {
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+		try (SocketChannel channel = this.serverChannel.accept()) {
+			while (channel.read(buffer) >= 0) {
+				buffer.clear();
+			}
+		} catch (final IOException e) { // NOPMD (the connection ends when the writer terminates)
+			// nothing to be done
+		}
+	}
+
+	/**
+	 * Closes the server socket.
+	 *
+	 * @throws IOException
+	 *             if the server socket cannot be closed
+	 */
+	public void close() throws IOException {
+		this.serverChannel.close();
+	}
+}
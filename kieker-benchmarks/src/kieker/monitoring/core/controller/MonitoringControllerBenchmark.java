@@ -0,0 +1,191 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.core.controller;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.benchmarks.BenchmarkUtil;
+import kieker.benchmarks.DiscardingServer;
+import kieker.common.configuration.Configuration;
+import kieker.monitoring.core.configuration.ConfigurationConstants;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.pool.RecordPools;
+import kieker.monitoring.timer.ITimeSource;
+import kieker.monitoring.writer.dump.DumpWriter;
+import kieker.monitoring.writer.filesystem.BinaryLogStreamHandler;
+import kieker.monitoring.writer.filesystem.FileWriter;
+import kieker.monitoring.writer.filesystem.MappedBinaryLogStreamHandler;
+import kieker.monitoring.writer.filesystem.TextLogStreamHandler;
+import kieker.monitoring.writer.tcp.DoubleBufferedTcpWriter;
+import kieker.monitoring.writer.tcp.SingleSocketTcpWriter;
+
+/**
+ * Measures the cost of {@link MonitoringController#newMonitoringRecord(kieker.common.record.IMonitoringRecord)} as seen
+ * by a probe, i.e., including the creation of the record, for each writer, queue, and insert behavior. The TCP writers
+ * send to a local server which discards all data. Use JMH's <code>-t</code> option to measure the contention of
+ * several application threads.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class MonitoringControllerBenchmark {
+
+	private static final String OPERATION_SIGNATURE = "public void kieker.benchmarks.Service.operation(java.lang.String)";
+	private static final String CLASS_SIGNATURE = "kieker.benchmarks.Service";
+
+	/** writer to benchmark. */
+	@Param({ "dump", "file-text", "file-binary", "file-mapped", "tcp-single", "tcp-double" })
+	public String writer; // NOPMD (set by JMH)
+
+	/** queue implementation between the application threads and the writer thread. */
+	@Param({ "org.jctools.queues.MpscArrayQueue", "kieker.monitoring.queue.MpscRingBufferQueue" })
+	public String queue; // NOPMD (set by JMH)
+
+	/** 1: block on a full queue, 2: discard records on a full queue, 5: bypass the queue. */
+	@Param({ "1", "2", "5" })
+	public int insertBehavior; // NOPMD (set by JMH)
+
+	/** records per thread-local buffer, 1 disables the buffers. */
+	@Param({ "1" })
+	public int threadLocalBufferSize; // NOPMD (set by JMH)
+
+	/** records per pooled record type, 0 disables record pooling. */
+	@Param({ "0" })
+	public int recordPoolSize; // NOPMD (set by JMH)
+
+	private Path storagePath;
+	private DiscardingServer server;
+	private MonitoringController controller;
+	private ITimeSource timeSource;
+
+	/** Default constructor. */
+	public MonitoringControllerBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Start the monitoring controller and, for the TCP writers, the receiving server.
+	 *
+	 * @throws IOException
+	 *             when the storage directory or the server socket cannot be created
+	 */
+	@Setup
+	public void setUp() throws IOException {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationConstants.CONTROLLER_NAME, "KIEKER-BENCHMARK");
+		configuration.setProperty(ConfigurationConstants.USE_SHUTDOWN_HOOK, false);
+		configuration.setProperty(WriterController.PREFIX + WriterController.RECORD_QUEUE_FQN, this.queue);
+		configuration.setProperty(WriterController.PREFIX + WriterController.RECORD_QUEUE_INSERT_BEHAVIOR, this.insertBehavior);
+		configuration.setProperty(WriterController.PREFIX + WriterController.THREAD_LOCAL_BUFFER_SIZE, this.threadLocalBufferSize);
+		configuration.setProperty(WriterController.PREFIX + WriterController.RECORD_POOL_SIZE, this.recordPoolSize);
+
+		switch (this.writer) {
+		case "dump":
+			configuration.setProperty(ConfigurationConstants.WRITER_CLASSNAME, DumpWriter.class.getName());
+			break;
+		case "file-text":
+			this.configureFileWriter(configuration, TextLogStreamHandler.class.getName());
+			break;
+		case "file-binary":
+			this.configureFileWriter(configuration, BinaryLogStreamHandler.class.getName());
+			break;
+		case "file-mapped":
+			this.configureFileWriter(configuration, MappedBinaryLogStreamHandler.class.getName());
+			break;
+		case "tcp-single":
+			this.server = new DiscardingServer();
+			configuration.setProperty(ConfigurationConstants.WRITER_CLASSNAME, SingleSocketTcpWriter.class.getName());
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_HOSTNAME, "localhost");
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_PORT, this.server.getPort());
+			break;
+		case "tcp-double":
+			this.server = new DiscardingServer();
+			configuration.setProperty(ConfigurationConstants.WRITER_CLASSNAME, DoubleBufferedTcpWriter.class.getName());
+			configuration.setProperty(DoubleBufferedTcpWriter.CONFIG_HOSTNAME, "localhost");
+			configuration.setProperty(DoubleBufferedTcpWriter.CONFIG_PORT, this.server.getPort());
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown writer " + this.writer);
+		}
+
+		this.controller = MonitoringController.createInstance(configuration);
+		this.timeSource = this.controller.getTimeSource();
+	}
+
+	private void configureFileWriter(final Configuration configuration, final String logStreamHandler) throws IOException {
+		this.storagePath = Files.createTempDirectory("kieker-benchmark");
+		configuration.setProperty(ConfigurationConstants.WRITER_CLASSNAME, FileWriter.class.getName());
+		configuration.setProperty(FileWriter.CONFIG_PATH, this.storagePath.toString());
+		configuration.setProperty(FileWriter.CONFIG_LOG_STREAM_HANDLER, logStreamHandler);
+		configuration.setProperty(FileWriter.CONFIG_MAXENTRIESINFILE, 1000000);
+		// keep the disk usage bounded, the oldest log files are deleted
+		configuration.setProperty(FileWriter.CONFIG_MAXLOGFILES, 4);
+	}
+
+	/**
+	 * Terminate the monitoring controller and remove all written data.
+	 *
+	 * @throws InterruptedException
+	 *             when interrupted while waiting for the writer
+	 * @throws IOException
+	 *             when the written data cannot be removed
+	 */
+	@TearDown
+	public void tearDown() throws InterruptedException, IOException {
+		this.controller.terminateMonitoring();
+		this.controller.waitForTermination(10000);
+		if (this.server != null) {
+			this.server.close();
+		}
+		if (this.storagePath != null) {
+			BenchmarkUtil.deleteRecursively(this.storagePath);
+		}
+	}
+
+	/**
+	 * Create a record like the operation execution probes do and pass it to the controller.
+	 *
+	 * @return whether the record was accepted
+	 */
+	@Benchmark
+	public boolean newMonitoringRecord() {
+		return this.controller.newMonitoringRecord(RecordPools.INSTANCE.newBeforeOperationEvent(this.timeSource.getTime(), 1L, 0,
+				MonitoringControllerBenchmark.OPERATION_SIGNATURE, MonitoringControllerBenchmark.CLASS_SIGNATURE));
+	}
+}
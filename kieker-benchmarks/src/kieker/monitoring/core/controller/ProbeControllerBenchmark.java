@@ -0,0 +1,184 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.core.controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.common.configuration.Configuration;
+import kieker.monitoring.core.configuration.ConfigurationConstants;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.writer.dump.DumpWriter;
+
+/**
+ * Measures {@link MonitoringController#isProbeActivated(String)} with adaptive monitoring enabled. With the signature
+ * cache, repeated signatures are answered from the cache; without it, each call evaluates the probe patterns.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class ProbeControllerBenchmark {
+
+	private static final String[] PACKAGES = { "a", "a.b", "a.b.c", "a.c", "x.y", "x.y.z" };
+	private static final String[] CLASSES = { "Service", "Helper", "Outer$Inner", "ServiceImpl", "Repository" };
+	private static final String[] METHODS = { "doIt", "format", "get", "set", "<init>" };
+
+	private static final int NUM_SIGNATURES = 1024;
+
+	/** number of probe patterns. */
+	@Param({ "10", "1500" })
+	public int patterns; // NOPMD (set by JMH)
+
+	/** whether the results are cached per signature. */
+	@Param({ "true", "false" })
+	public boolean signatureCache; // NOPMD (set by JMH)
+
+	private final String[] signatures = new String[NUM_SIGNATURES];
+	private int nextSignature;
+
+	private Path configFile;
+	private MonitoringController controller;
+
+	/** Default constructor. */
+	public ProbeControllerBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Write the generated patterns to the adaptive monitoring configuration and start the controller.
+	 *
+	 * @throws IOException
+	 *             when the configuration file cannot be written
+	 */
+	@Setup
+	public void setUp() throws IOException {
+		final Random random = new Random(42);
+		final List<String> lines = new ArrayList<>(this.patterns + 1);
+		lines.add("+*");
+		for (int i = 0; i < this.patterns; i++) {
+			lines.add((random.nextBoolean() ? '+' : '-') + ProbeControllerBenchmark.createPattern(random)); // NOCS (inline ?)
+		}
+		for (int i = 0; i < NUM_SIGNATURES; i++) {
+			this.signatures[i] = ProbeControllerBenchmark.createSignature(random);
+		}
+
+		this.configFile = Files.createTempFile("kieker-benchmark", ".patterns");
+		Files.write(this.configFile, lines, StandardCharsets.UTF_8);
+
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationConstants.CONTROLLER_NAME, "KIEKER-BENCHMARK");
+		configuration.setProperty(ConfigurationConstants.USE_SHUTDOWN_HOOK, false);
+		configuration.setProperty(ConfigurationConstants.WRITER_CLASSNAME, DumpWriter.class.getName());
+		configuration.setProperty(ConfigurationConstants.ADAPTIVE_MONITORING_ENABLED, true);
+		configuration.setProperty(ConfigurationConstants.ADAPTIVE_MONITORING_CONFIG_FILE, this.configFile.toString());
+		configuration.setProperty(ConfigurationConstants.ADAPTIVE_MONITORING_CONFIG_FILE_UPDATE, false);
+		configuration.setProperty(ConfigurationConstants.ADAPTIVE_MONITORING_CONFIG_FILE_READ_INTERVALL, 0);
+		if (this.signatureCache) {
+			configuration.setProperty(ConfigurationConstants.ADAPTIVE_MONITORING_MAX_CACHE_SIZE, -1);
+		} else {
+			// a cache which keeps a single signature and ignores all others
+			configuration.setProperty(ConfigurationConstants.ADAPTIVE_MONITORING_MAX_CACHE_SIZE, 1);
+			configuration.setProperty(ConfigurationConstants.ADAPTIVE_MONITORING_BOUNDED_CACHE_BEHAVIOUR, 0);
+		}
+		this.controller = MonitoringController.createInstance(configuration);
+	}
+
+	/**
+	 * Terminate the controller and remove the configuration file.
+	 *
+	 * @throws IOException
+	 *             when the configuration file cannot be removed
+	 */
+	@TearDown
+	public void tearDown() throws IOException {
+		this.controller.terminateMonitoring();
+		Files.deleteIfExists(this.configFile);
+	}
+
+	/**
+	 * Check the next signature, as a probe does on each invocation.
+	 *
+	 * @return whether the probe is active
+	 */
+	@Benchmark
+	public boolean isProbeActivated() {
+		final String signature = this.signatures[this.nextSignature];
+		this.nextSignature = (this.nextSignature + 1) & (NUM_SIGNATURES - 1);
+		return this.controller.isProbeActivated(signature);
+	}
+
+	private static String createPattern(final Random random) {
+		final String method = METHODS[random.nextInt(METHODS.length)];
+		final String type;
+		switch (random.nextInt(5)) {
+		case 0:
+			type = "*." + CLASSES[random.nextInt(CLASSES.length)];
+			break;
+		case 1:
+			type = PACKAGES[random.nextInt(PACKAGES.length)] + ".*";
+			break;
+		case 2:
+			type = PACKAGES[random.nextInt(PACKAGES.length)] + "..*";
+			break;
+		default:
+			type = PACKAGES[random.nextInt(PACKAGES.length)] + "." + CLASSES[random.nextInt(CLASSES.length)];
+			break;
+		}
+		if ("<init>".equals(method)) {
+			return "new " + type + ".<init>(..)";
+		}
+		if (random.nextInt(10) == 0) {
+			return "* " + type + ".*(..)";
+		}
+		return "* " + type + "." + method + "(..)";
+	}
+
+	private static String createSignature(final Random random) {
+		final String type = PACKAGES[random.nextInt(PACKAGES.length)] + "." + CLASSES[random.nextInt(CLASSES.length)];
+		final String method = METHODS[random.nextInt(METHODS.length)];
+		final String params = random.nextBoolean() ? "int" : ""; // NOCS (inline ?)
+		if ("<init>".equals(method)) {
+			return "public " + type + ".<init>(" + params + ")";
+		}
+		return "public void " + type + "." + method + "(" + params + ")";
+	}
+}
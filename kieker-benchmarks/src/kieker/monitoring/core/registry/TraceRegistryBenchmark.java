@@ -0,0 +1,107 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.core.registry;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import kieker.common.record.flow.trace.ApplicationTraceMetadata;
+import kieker.monitoring.probe.concurrency.TracePropagation;
+
+/**
+ * Measures the registration of traces in the {@link TraceRegistry} and the propagation of a trace to a task. The
+ * registry keeps its state per thread, use JMH's <code>-t</code> option to check that it scales with the number of
+ * threads. The trace propagation uses the singleton monitoring controller, which is configured to use the
+ * {@link kieker.monitoring.writer.dump.DumpWriter} in <code>META-INF/kieker.monitoring.properties</code>.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class TraceRegistryBenchmark {
+
+	private static final TraceRegistry REGISTRY = TraceRegistry.INSTANCE;
+
+	private final Runnable task = new Runnable() {
+		@Override
+		public void run() {
+			TraceRegistryBenchmark.REGISTRY.registerTrace();
+			TraceRegistryBenchmark.REGISTRY.unregisterTrace();
+		}
+	};
+
+	/** Default constructor. */
+	public TraceRegistryBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Register and unregister a trace, as an operation execution probe does at the entry of a trace.
+	 *
+	 * @return the registered trace
+	 */
+	@Benchmark
+	public ApplicationTraceMetadata registerTrace() {
+		final ApplicationTraceMetadata trace = REGISTRY.registerTrace();
+		REGISTRY.unregisterTrace();
+		return trace;
+	}
+
+	/**
+	 * Register and unregister a trace within another trace.
+	 *
+	 * @return the nested trace
+	 */
+	@Benchmark
+	public ApplicationTraceMetadata registerNestedTrace() {
+		REGISTRY.registerTrace();
+		final ApplicationTraceMetadata inner = REGISTRY.registerTrace();
+		REGISTRY.unregisterTrace();
+		REGISTRY.unregisterTrace();
+		return inner;
+	}
+
+	/**
+	 * Wrap a task within a trace and run it in the same thread, which continues the trace in the task.
+	 *
+	 * @param blackhole
+	 *            consumes the wrapped task
+	 */
+	@Benchmark
+	public void propagateTrace(final Blackhole blackhole) {
+		REGISTRY.registerTrace();
+		final Runnable wrapped = TracePropagation.wrap(this.task);
+		wrapped.run();
+		REGISTRY.unregisterTrace();
+		blackhole.consume(wrapped);
+	}
+}
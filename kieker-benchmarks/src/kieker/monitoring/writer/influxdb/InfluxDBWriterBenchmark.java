@@ -0,0 +1,112 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.influxdb;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.benchmarks.BenchmarkUtil;
+import kieker.common.configuration.Configuration;
+import kieker.common.record.flow.IFlowRecord;
+
+/**
+ * Measures the throughput of the {@link InfluxDBWriter} writing to the {@link InfluxDBStandIn}, which answers like
+ * InfluxDB without storing the points. The results are given per record and include the time the writer is blocked
+ * because the maximal number of batches is in flight.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class InfluxDBWriterBenchmark {
+
+	private static final int BATCH_SIZE = 1000;
+
+	/** Whether the writer runs in batch mode or writes each point with the InfluxDB client. */
+	@Param({ "true", "false" })
+	public boolean batchMode; // NOPMD (set by JMH)
+
+	private List<IFlowRecord> records;
+	private InfluxDBStandIn standIn;
+	private InfluxDBWriter writer;
+
+	/** Default constructor. */
+	public InfluxDBWriterBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Start the stand-in and the writer.
+	 *
+	 * @throws IOException
+	 *             if the stand-in cannot be started
+	 */
+	@Setup
+	public void setUp() throws IOException {
+		this.records = BenchmarkUtil.createTraces(BATCH_SIZE / BenchmarkUtil.RECORDS_PER_TRACE, 1);
+		this.standIn = new InfluxDBStandIn(false);
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_DB_URL, this.standIn.getUrl());
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_DB_PORT, this.standIn.getPort());
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_DB_USERNAME, "root");
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_DB_PASSWORD, "root");
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_DB_NAME, "kieker");
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_BATCH_MODE, this.batchMode);
+		this.writer = new InfluxDBWriter(configuration);
+		this.writer.onStarting();
+	}
+
+	/**
+	 * Stop the writer and the stand-in.
+	 */
+	@TearDown
+	public void tearDown() {
+		this.writer.onTerminating();
+		this.standIn.close();
+	}
+
+	/**
+	 * Write a batch of records.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void write() {
+		for (final IFlowRecord record : this.records) {
+			this.writer.writeMonitoringRecord(record);
+		}
+	}
+}
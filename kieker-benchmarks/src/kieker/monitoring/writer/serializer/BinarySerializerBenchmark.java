@@ -0,0 +1,131 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.serializer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.benchmarks.BenchmarkUtil;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.io.BinaryValueSerializer;
+import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.writer.WriterRegistry;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.writer.WriterUtil;
+
+/**
+ * Measures the binary serialization of records with the container formats of the {@link BinarySerializer} and of the
+ * {@link DictionaryBinarySerializer}, and with a {@link BinaryValueSerializer} which is kept across records, as the file
+ * and TCP writers do. The results are given per record.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class BinarySerializerBenchmark {
+
+	private static final int BATCH_SIZE = 1000;
+
+	private List<IMonitoringRecord> records;
+	private ByteBuffer buffer;
+	private BinarySerializer binarySerializer;
+	private DictionaryBinarySerializer dictionaryBinarySerializer;
+	private BinaryValueSerializer valueSerializer;
+
+	/** Default constructor. */
+	public BinarySerializerBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Create the records and the serializers.
+	 */
+	@Setup
+	public void setUp() {
+		this.records = new ArrayList<IMonitoringRecord>(BenchmarkUtil.createTraces(BATCH_SIZE / BenchmarkUtil.RECORDS_PER_TRACE, 1));
+		this.buffer = ByteBuffer.allocateDirect(BenchmarkUtil.serializeWithRegistryEntries(this.records).length * 2);
+		this.binarySerializer = new BinarySerializer(ConfigurationFactory.createDefaultConfiguration());
+		this.dictionaryBinarySerializer = new DictionaryBinarySerializer(ConfigurationFactory.createDefaultConfiguration());
+		final WriterRegistry registry = new WriterRegistry(new IRegistryListener<String>() {
+			@Override
+			public void onNewRegistryEntry(final String value, final int id) {
+				// the writers send registry entries separately
+			}
+		});
+		this.valueSerializer = BinaryValueSerializer.create(this.buffer, registry);
+	}
+
+	/**
+	 * Serialize a batch of records into a container.
+	 *
+	 * @return number of written bytes
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public int binarySerializer() {
+		this.buffer.clear();
+		return this.binarySerializer.serializeRecords(this.records, this.buffer);
+	}
+
+	/**
+	 * Serialize a batch of records into a container, which transmits only the strings unknown from previous batches.
+	 *
+	 * @return number of written bytes
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public int dictionaryBinarySerializer() {
+		this.buffer.clear();
+		return this.dictionaryBinarySerializer.serializeRecords(this.records, this.buffer);
+	}
+
+	/**
+	 * Serialize a batch of records with a value serializer and a string registry kept across batches.
+	 *
+	 * @return number of written bytes
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public int binaryValueSerializer() {
+		this.buffer.clear();
+		for (final IMonitoringRecord record : this.records) {
+			this.valueSerializer.putString(WriterUtil.getRecordClassName(record));
+			this.valueSerializer.putLong(record.getLoggingTimestamp());
+			record.serialize(this.valueSerializer);
+		}
+		return this.buffer.position();
+	}
+}
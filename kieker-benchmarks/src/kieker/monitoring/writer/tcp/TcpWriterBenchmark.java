@@ -0,0 +1,145 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.tcp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.benchmarks.BenchmarkUtil;
+import kieker.benchmarks.DiscardingServer;
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.monitoring.writer.AbstractMonitoringWriter;
+
+/**
+ * Compares the throughput of the {@link DoubleBufferedTcpWriter} with the {@link SingleSocketTcpWriter} when sending to
+ * a local server which discards all data. The writers are called directly, as by the writer thread, so the results
+ * contain the serialization and the time the writer thread is blocked by sending.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class TcpWriterBenchmark {
+
+	private static final int BATCH_SIZE = 1000;
+	private static final int BUFFER_SIZE = 65535;
+
+	/** writer to benchmark. */
+	@Param({ "tcp-single", "tcp-double" })
+	public String writer; // NOPMD (set by JMH)
+
+	/** Whether the records are passed to the writer as one batch or one by one. */
+	@Param({ "true", "false" })
+	public boolean batchMode; // NOPMD (set by JMH)
+
+	/** Whether the writers send their buffer after each write call. */
+	@Param({ "false", "true" })
+	public boolean flush; // NOPMD (set by JMH)
+
+	private List<IMonitoringRecord> records;
+	private DiscardingServer server;
+	private AbstractMonitoringWriter monitoringWriter;
+
+	/** Default constructor. */
+	public TcpWriterBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Start the discarding server and the writer.
+	 *
+	 * @throws IOException
+	 *             if the server socket cannot be created
+	 */
+	@Setup
+	public void setUp() throws IOException {
+		this.records = new ArrayList<IMonitoringRecord>(BenchmarkUtil.createTraces(BATCH_SIZE / BenchmarkUtil.RECORDS_PER_TRACE, 1));
+		this.server = new DiscardingServer();
+
+		final Configuration configuration = new Configuration();
+		switch (this.writer) {
+		case "tcp-single":
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_HOSTNAME, "localhost");
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_PORT, this.server.getPort());
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_BUFFERSIZE, BUFFER_SIZE);
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_FLUSH, this.flush);
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_CONN_TIMEOUT_IN_MS, 5000);
+			this.monitoringWriter = new SingleSocketTcpWriter(configuration);
+			break;
+		case "tcp-double":
+			configuration.setProperty(DoubleBufferedTcpWriter.CONFIG_HOSTNAME, "localhost");
+			configuration.setProperty(DoubleBufferedTcpWriter.CONFIG_PORT, this.server.getPort());
+			configuration.setProperty(DoubleBufferedTcpWriter.CONFIG_BUFFERSIZE, BUFFER_SIZE);
+			configuration.setProperty(DoubleBufferedTcpWriter.CONFIG_FLUSH, this.flush);
+			configuration.setProperty(DoubleBufferedTcpWriter.CONFIG_CONN_TIMEOUT_IN_MS, 5000);
+			this.monitoringWriter = new DoubleBufferedTcpWriter(configuration);
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown writer " + this.writer);
+		}
+		this.monitoringWriter.onStarting();
+	}
+
+	/**
+	 * Stop the writer and the server.
+	 *
+	 * @throws IOException
+	 *             if the server socket cannot be closed
+	 */
+	@TearDown
+	public void tearDown() throws IOException {
+		this.monitoringWriter.onTerminating();
+		this.server.close();
+	}
+
+	/**
+	 * Write a batch of records.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void write() {
+		if (this.batchMode) {
+			this.monitoringWriter.writeMonitoringRecords(this.records);
+		} else {
+			for (final IMonitoringRecord record : this.records) {
+				this.monitoringWriter.writeMonitoringRecord(record);
+			}
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.tools.opad.timeseries;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link DoubleRingBufferTimeSeries} with the bounded {@link TimeSeries} as a forecasting window: a value
+ * is appended and the values of the window are read, as a forecaster fitted to the window does.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class TimeSeriesBenchmark {
+
+	/** capacity of the window. */
+	@Param({ "60", "1000" })
+	public int capacity; // NOPMD (set by JMH)
+
+	private DoubleRingBufferTimeSeries ringBufferTimeSeries;
+	private TimeSeries<Double> timeSeries;
+	private double value;
+
+	/** Default constructor. */
+	public TimeSeriesBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Create both time series and fill them completely.
+	 */
+	@Setup
+	public void setUp() {
+		this.ringBufferTimeSeries = new DoubleRingBufferTimeSeries(0, TimeUnit.MILLISECONDS, 1000, this.capacity, this.capacity);
+		this.timeSeries = new TimeSeries<>(0, TimeUnit.MILLISECONDS, 1000, this.capacity, this.capacity);
+		for (int i = 0; i < this.capacity; i++) {
+			this.ringBufferTimeSeries.appendValue(i);
+			this.timeSeries.append((double) i);
+		}
+		this.value = this.capacity;
+	}
+
+	/**
+	 * @return the ring buffer time series
+	 */
+	@Benchmark
+	public Object appendRingBuffer() {
+		this.ringBufferTimeSeries.appendValue(this.value++);
+		return this.ringBufferTimeSeries;
+	}
+
+	/**
+	 * @return the new time series point
+	 */
+	@Benchmark
+	public Object appendTimeSeries() {
+		return this.timeSeries.append(this.value++);
+	}
+
+	/**
+	 * @return sum of all values of the window
+	 */
+	@Benchmark
+	public double appendAndReadRingBuffer() {
+		this.ringBufferTimeSeries.appendValue(this.value++);
+		double sum = 0;
+		for (int i = 0; i < this.ringBufferTimeSeries.size(); i++) {
+			sum += this.ringBufferTimeSeries.getValue(i);
+		}
+		return sum;
+	}
+
+	/**
+	 * @return sum of all values of the window
+	 */
+	@Benchmark
+	public double appendAndReadTimeSeries() {
+		this.timeSeries.append(this.value++);
+		double sum = 0;
+		final List<Double> values = this.timeSeries.getValues();
+		for (final Double windowValue : values) {
+			sum += windowValue;
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,119 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.tools.opad.timeseries.forecast;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.tools.opad.timeseries.DoubleRingBufferTimeSeries;
+import kieker.tools.opad.timeseries.ForecastMethod;
+
+/**
+ * Measures the forecast of the next value of many time series, as the {@code ForecastingFilter} computes it for each
+ * measurement. Incremental forecasters are kept per time series and updated with the new value, all other forecasters
+ * are fitted to the window of the time series for each forecast.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class ForecasterBenchmark {
+
+	/** forecast method, {@link ForecastMethod#MEANJAVA} is not incremental. */
+	@Param({ "SESJAVA", "ETSJAVA", "ARIMA101JAVA", "MEANJAVA" })
+	public String method; // NOPMD (set by JMH)
+
+	/** number of time series. */
+	@Param({ "10000" })
+	public int series; // NOPMD (set by JMH)
+
+	/** capacity of the window of each time series. */
+	@Param({ "60" })
+	public int capacity; // NOPMD (set by JMH)
+
+	private final Random random = new Random(42);
+	private DoubleRingBufferTimeSeries[] windows;
+	private IForecaster<Double>[] forecasters;
+	private ForecastMethod forecastMethod;
+	private int next;
+
+	/** Default constructor. */
+	public ForecasterBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Fill the windows of all time series and create their forecasters.
+	 */
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		this.forecastMethod = ForecastMethod.valueOf(this.method);
+		this.windows = new DoubleRingBufferTimeSeries[this.series];
+		this.forecasters = new IForecaster[this.series];
+		for (int i = 0; i < this.series; i++) {
+			this.windows[i] = new DoubleRingBufferTimeSeries(0, TimeUnit.MILLISECONDS, 1000, this.capacity, this.capacity);
+			for (int j = 0; j < this.capacity; j++) {
+				this.windows[i].appendValue(this.nextValue());
+			}
+			this.forecasters[i] = this.forecastMethod.getForecaster(this.windows[i]);
+		}
+		this.next = 0;
+	}
+
+	/**
+	 * Append a new value to the next time series and forecast its next value.
+	 *
+	 * @return forecast result
+	 */
+	@Benchmark
+	public IForecastResult forecast() {
+		final int index = this.next;
+		this.next = (this.next + 1) % this.series;
+
+		final double value = this.nextValue();
+		this.windows[index].appendValue(value);
+		final IForecaster<Double> forecaster = this.forecasters[index];
+		if (forecaster instanceof IIncrementalForecaster) {
+			((IIncrementalForecaster) forecaster).update(value);
+			return forecaster.forecast(1);
+		} else {
+			return this.forecastMethod.getForecaster(this.windows[index]).forecast(1);
+		}
+	}
+
+	private double nextValue() {
+		return 100 + (10 * this.random.nextGaussian());
+	}
+}
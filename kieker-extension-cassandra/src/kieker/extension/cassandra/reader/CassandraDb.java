@@ -16,6 +16,7 @@
 package kieker.extension.cassandra.reader;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -28,6 +29,8 @@ import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Session;
+import com.datastax.driver.core.TableMetadata;
+import com.datastax.driver.core.TokenRange;
 import com.datastax.driver.core.exceptions.AuthenticationException;
 import com.datastax.driver.core.exceptions.InvalidQueryException;
 import com.datastax.driver.core.exceptions.NoHostAvailableException;
@@ -123,6 +126,59 @@ public class CassandraDb {
 		return this.execute(this.makeBoundStatement(statement.toString()));
 	}
 
+	/**
+	 * Select the data of the given token range of the partition key from the Cassandra cluster. The statement is
+	 * prepared only once per table.
+	 *
+	 * @param fields
+	 *            selected columns
+	 * @param table
+	 *            table name
+	 * @param partitionKey
+	 *            columns of the partition key of the table
+	 * @param range
+	 *            token range, which must not wrap around the ring
+	 * @return returns a result set
+	 */
+	public ResultSet selectTokenRange(final List<String> fields, final String table, final List<String> partitionKey, final TokenRange range) {
+		final String token = "token(" + String.join(",", partitionKey) + ")";
+		final String statement = "SELECT " + String.join(",", fields) + " FROM " + table + " WHERE " + token + " > ? AND " + token + " <= ?";
+
+		final BoundStatement boundStatement = this.makeBoundStatement(statement);
+		boundStatement.setToken(0, range.getStart());
+		boundStatement.setToken(1, range.getEnd());
+		return this.execute(boundStatement);
+	}
+
+	/**
+	 * Returns the token ranges of the ring, split where they wrap around, such that each range can be used in a
+	 * query.
+	 *
+	 * @return token ranges covering the ring, or an empty list if the ring consists of a single range
+	 */
+	public List<TokenRange> getTokenRanges() {
+		final List<TokenRange> ranges = new ArrayList<>();
+		for (final TokenRange range : this.cluster.getMetadata().getTokenRanges()) {
+			ranges.addAll(range.unwrap());
+		}
+		// a single range starts and ends at the same token, which cannot be queried as range
+		if (ranges.size() <= 1) {
+			ranges.clear();
+		}
+		return ranges;
+	}
+
+	/**
+	 * Returns the metadata of a table of the keyspace.
+	 *
+	 * @param table
+	 *            table name
+	 * @return metadata of the table, or null if the table does not exist
+	 */
+	public TableMetadata getTableMetadata(final String table) {
+		return this.cluster.getMetadata().getKeyspace(this.keyspace).getTable(table);
+	}
+
 	/**
 	 * Returns a BoundStatement from the given String. Uses the given Session.
 	 *
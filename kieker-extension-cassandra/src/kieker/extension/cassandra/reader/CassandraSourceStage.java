@@ -17,64 +17,115 @@ package kieker.extension.cassandra.reader;
 
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import com.datastax.driver.core.ColumnMetadata;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
+import com.datastax.driver.core.TableMetadata;
+import com.datastax.driver.core.TokenRange;
 
-import kieker.common.exception.ConfigurationException;
+import kieker.common.exception.RecordInstantiationException;
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.factory.CachedRecordFactoryCatalog;
 import kieker.common.record.factory.IRecordFactory;
+import kieker.common.util.thread.DaemonThreadFactory;
 import kieker.extension.cassandra.CassandraUtils;
 import kieker.extension.cassandra.CassandraValueDeserializer;
 
 import teetime.framework.AbstractProducerStage;
 
 /**
- * Reader from Cassandra DB.
+ * Reader from Cassandra DB. The tables are scanned by several workers in parallel, each scanning one token range of
+ * a table at a time. The records are sent by the stage thread, hence the records of different tables and ranges are
+ * interleaved, while the records of one range keep their order.
  * 
  * @author Armin Moebius, Sven Ulrich, Reiner Jung
  * @since 1.16
  */
 public class CassandraSourceStage extends AbstractProducerStage<IMonitoringRecord> {
-	
+
+	private static final int FETCH_SIZE = 10000;
+	private static final int QUEUE_CAPACITY = 4 * FETCH_SIZE;
+	private static final long POLL_TIMEOUT_IN_MS = 100;
+	private static final String VALUE_COLUMN_PREFIX = "c";
+
 	private final CachedRecordFactoryCatalog recordFactories = CachedRecordFactoryCatalog.getInstance();
 	
 	private final String keyspace;
 	private final List<InetSocketAddress> contactPoints;
 	private final String tablePrefix;
+	private final int parallelism;
 	
 	public CassandraSourceStage(final String keyspace, final String[] contactPoints, final String tablePrefix) {
+		this(keyspace, contactPoints, tablePrefix, 1);
+	}
+
+	/**
+	 * Create a reader which scans the token ranges of the tables with the given number of workers.
+	 *
+	 * @param keyspace
+	 *            keyspace containing the tables
+	 * @param contactPoints
+	 *            contact points of the cluster as host:port
+	 * @param tablePrefix
+	 *            name of the index table and prefix of the record tables
+	 * @param parallelism
+	 *            number of workers, where 1 reads each table in one scan
+	 *
+	 * @since 2.0.0
+	 */
+	public CassandraSourceStage(final String keyspace, final String[] contactPoints, final String tablePrefix, final int parallelism) {
 		this.keyspace = keyspace;
 		this.contactPoints = CassandraUtils.computeDatabaseConnections(contactPoints);
 
 		this.tablePrefix = tablePrefix;
+		this.parallelism = parallelism;
 	}
 	
 	@Override
 	protected void execute() throws Exception {
 		CassandraDb database = null;
+		ExecutorService workers = null;
 		try {
 			database = new CassandraDb(this.keyspace, this.contactPoints);
 			database.connect();
 
-			// index table
-			final ResultSet rs = database.select(new ArrayList<String>(), this.tablePrefix, null);
-			final Iterator<Row> iterator = rs.iterator();
+			final List<TableScan> scans = this.createScans(database);
 
-			while (iterator.hasNext()) {
-				final Row r = iterator.next();
-
-				final String tablename = r.getString(1);
-				final String classname = r.getString(2);
+			final BlockingQueue<IMonitoringRecord> records = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+			final CountDownLatch completedScans = new CountDownLatch(scans.size());
+			workers = Executors.newFixedThreadPool(this.parallelism, new DaemonThreadFactory());
+			for (final TableScan scan : scans) {
+				workers.execute(new ScanWorker(database, scan, records, completedScans));
+			}
 
-				this.table2record(database, tablename, classname);
+			// all records of a scan are queued before the scan is counted as completed
+			while (completedScans.getCount() > 0) {
+				final IMonitoringRecord record = records.poll(POLL_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
+				if (record != null) {
+					this.outputPort.send(record);
+				}
+			}
+			IMonitoringRecord record = records.poll();
+			while (record != null) {
+				this.outputPort.send(record);
+				record = records.poll();
 			}
-		} catch (ConfigurationException exc) {
-			this.logger.error(exc.getMessage());
 		} finally {
+			if (workers != null) {
+				workers.shutdownNow();
+			}
 			if (database != null) {
 				database.disconnect();
 			}
@@ -82,39 +133,154 @@ public class CassandraSourceStage extends AbstractProducerStage<IMonitoringRecor
 			this.workCompleted();
 		}
 	}
-	
+
 	/**
-	 * This method uses the given table to read records and sends them to the output port.
+	 * Create the scans of all record tables listed in the index table. With several workers, each table is split
+	 * into the token ranges of the ring.
+	 */
+	private List<TableScan> createScans(final CassandraDb database) {
+		final List<TokenRange> ranges;
+		if (this.parallelism > 1) {
+			ranges = database.getTokenRanges();
+		} else {
+			ranges = Collections.emptyList();
+		}
+
+		final List<TableScan> scans = new ArrayList<>();
+		final ResultSet rs = database.select(new ArrayList<String>(), this.tablePrefix, null);
+		final Iterator<Row> iterator = rs.iterator();
+
+		while (iterator.hasNext()) {
+			final Row r = iterator.next();
+
+			final String tablename = r.getString("tablename");
+			final String classname = r.getString("classname");
+
+			final IRecordFactory<? extends IMonitoringRecord> eventTypeFactory = this.recordFactories.get(classname);
+			final TableMetadata table = database.getTableMetadata(tablename);
+			if (eventTypeFactory == null) {
+				this.logger.error("Class type {} was not found. Cannot instantiate event type.", classname);
+			} else if (table == null) {
+				this.logger.error("Table {} of event type {} does not exist.", tablename, classname);
+			} else if (ranges.isEmpty()) {
+				scans.add(new TableScan(table, eventTypeFactory, null));
+			} else {
+				for (final TokenRange range : ranges) {
+					scans.add(new TableScan(table, eventTypeFactory, range));
+				}
+			}
+		}
+		return scans;
+	}
+
+	/**
+	 * This method uses the given table to read records and passes them to the stage thread.
 	 *
 	 * @param database
 	 *            Connection to the database
-	 * @param tablename
-	 *            Table which contains the records
-	 * @param clazz
-	 *            Class of the monitoring records
-	 * @throws Exception
+	 * @param scan
+	 *            Table and token range which contain the records
+	 * @param records
+	 *            Queue of the records to send
+	 * @throws InterruptedException
+	 *             when interrupted while waiting for the stage thread
 	 */
-	private void table2record(final CassandraDb database, final String tablename, final String eventTypeName) throws ConfigurationException {
-		final ResultSet rs = database.select(new ArrayList<String>(), tablename, null);
+	private void table2record(final CassandraDb database, final TableScan scan, final BlockingQueue<IMonitoringRecord> records)
+			throws InterruptedException {
+		final ResultSet rs;
+		if (scan.range == null) {
+			rs = database.select(scan.columns, scan.tableName, null);
+		} else {
+			rs = database.selectTokenRange(scan.columns, scan.tableName, scan.partitionKey, scan.range);
+		}
+		if (rs == null) {
+			return;
+		}
 
 		for (final Row row : rs) {
-			if ((rs.getAvailableWithoutFetching() == 10000) && !rs.isFullyFetched()) {
+			// fetch the next page while the current one is processed
+			if ((rs.getAvailableWithoutFetching() == (FETCH_SIZE / 2)) && !rs.isFullyFetched()) {
 				rs.fetchMoreResults();
 			}
 
-			if (row != null) {
-				final CassandraValueDeserializer deserializer = new CassandraValueDeserializer(row);
-				final int loggingTimestamp = deserializer.getInt();
-				
-				final IRecordFactory<? extends IMonitoringRecord> eventTypeFactory = this.recordFactories.get(eventTypeName);
-				if (eventTypeFactory == null) {
-					this.logger.error("Class type {} was not found. Cannot instantiate event type.", eventTypeName);
-				} else {
-					final IMonitoringRecord record = eventTypeFactory.create(deserializer);
-					record.setLoggingTimestamp(loggingTimestamp);
-					this.outputPort.send(record);
+			// the deserializer starts after the benchmark id and the logging timestamp
+			final CassandraValueDeserializer deserializer = new CassandraValueDeserializer(row);
+			try {
+				final IMonitoringRecord record = scan.eventTypeFactory.create(deserializer);
+				record.setLoggingTimestamp(row.getLong(1));
+				records.put(record);
+			} catch (final RecordInstantiationException e) {
+				this.logger.error("Cannot instantiate record of table {}: {}", scan.tableName, e.getLocalizedMessage());
+			}
+		}
+	}
+
+	/**
+	 * Table and token range scanned by a worker.
+	 */
+	private static class TableScan {
+
+		private final String tableName;
+		private final IRecordFactory<? extends IMonitoringRecord> eventTypeFactory;
+		/** Benchmark id, logging timestamp, and the values in the order of the record. */
+		private final List<String> columns;
+		private final List<String> partitionKey;
+		private final TokenRange range;
+
+		public TableScan(final TableMetadata table, final IRecordFactory<? extends IMonitoringRecord> eventTypeFactory, final TokenRange range) {
+			this.tableName = table.getName();
+			this.eventTypeFactory = eventTypeFactory;
+			this.range = range;
+
+			this.partitionKey = new ArrayList<>();
+			for (final ColumnMetadata column : table.getPartitionKey()) {
+				this.partitionKey.add(column.getName());
+			}
+
+			// select the value columns explicitly, as Cassandra orders the other columns by name, i.e., c10 before c2
+			final Map<Integer, String> valueColumns = new TreeMap<>();
+			for (final ColumnMetadata column : table.getColumns()) {
+				final String name = column.getName();
+				if (name.startsWith(VALUE_COLUMN_PREFIX) && name.substring(1).matches("[0-9]+")) {
+					valueColumns.put(Integer.valueOf(name.substring(1)), name);
 				}
 			}
+			this.columns = new ArrayList<>();
+			this.columns.add("benchmark_id");
+			this.columns.add("timestamp");
+			this.columns.addAll(valueColumns.values());
+		}
+	}
+
+	/**
+	 * Scans a table or a token range of it.
+	 */
+	private class ScanWorker implements Runnable {
+
+		private final CassandraDb database;
+		private final TableScan scan;
+		private final BlockingQueue<IMonitoringRecord> records;
+		private final CountDownLatch completedScans;
+
+		public ScanWorker(final CassandraDb database, final TableScan scan, final BlockingQueue<IMonitoringRecord> records,
+				final CountDownLatch completedScans) {
+			this.database = database;
+			this.scan = scan;
+			this.records = records;
+			this.completedScans = completedScans;
+		}
+
+		@Override
+		public void run() {
+			try {
+				CassandraSourceStage.this.table2record(this.database, this.scan, this.records);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (final RuntimeException e) { // NOPMD (the remaining scans continue)
+				CassandraSourceStage.this.logger.error("Scanning table {} failed: {}", this.scan.tableName, e.getLocalizedMessage());
+			} finally {
+				this.completedScans.countDown();
+			}
 		}
 	}
 
@@ -0,0 +1,190 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.extension.cassandra.writer;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.DriverException;
+
+import kieker.common.util.thread.DaemonThreadFactory;
+
+/**
+ * Executes insert statements asynchronously in unlogged batches. Each batch contains only statements of the same
+ * partition, such that a batch is applied by the replicas of this partition without being coordinated across nodes.
+ * A batch is executed when it contains the configured number of statements, when the flush interval elapsed, or when
+ * {@link #flush()} is called. At most the configured number of batches is executed at the same time; adding a statement
+ * blocks while this limit is reached.
+ *
+ * <p>
+ * Statements are added by the writer thread only, while the flush timer competes for the pending batches. The session
+ * may be any implementation, e.g., a stub recording the executed statements.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class CassandraBatchInserter {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CassandraBatchInserter.class);
+
+	private static final long TERMINATION_TIMEOUT_SECONDS = 10;
+
+	/** Runs the completion callbacks in the thread of the driver which completes the future. */
+	private static final Executor DIRECT_EXECUTOR = new Executor() {
+		@Override
+		public void execute(final Runnable command) {
+			command.run();
+		}
+	};
+
+	private final Session session;
+	private final int batchSize;
+	private final int maxInFlightBatches;
+	private final Semaphore inFlightBatches;
+	private final ScheduledExecutorService flushTimer;
+
+	/** Pending batches by partition, guarded by this inserter; the partitions are compared by equality of their keys. */
+	private final Map<Object, BatchStatement> pendingBatches = new HashMap<>(); // NOPMD (guarded by this inserter)
+
+	/**
+	 * Creates a new inserter.
+	 *
+	 * @param session
+	 *            session used to execute the batches
+	 * @param batchSize
+	 *            maximal number of statements of a batch
+	 * @param flushInterval
+	 *            interval in milliseconds after which pending batches are executed
+	 * @param maxInFlightBatches
+	 *            maximal number of batches executed at the same time
+	 */
+	public CassandraBatchInserter(final Session session, final int batchSize, final long flushInterval, final int maxInFlightBatches) {
+		this.session = session;
+		this.batchSize = batchSize;
+		this.maxInFlightBatches = maxInFlightBatches;
+		this.inFlightBatches = new Semaphore(maxInFlightBatches);
+
+		this.flushTimer = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory());
+		this.flushTimer.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				CassandraBatchInserter.this.flush();
+			}
+		}, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Adds an insert statement to the batch of its partition.
+	 *
+	 * @param partitionKey
+	 *            key of the partition the statement inserts into, e.g., the table and the values of the partition key
+	 * @param statement
+	 *            the statement
+	 */
+	public void add(final Object partitionKey, final Statement statement) {
+		synchronized (this) {
+			BatchStatement batch = this.pendingBatches.get(partitionKey);
+			if (batch == null) {
+				batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+				this.pendingBatches.put(partitionKey, batch);
+			}
+			batch.add(statement);
+
+			if (batch.size() >= this.batchSize) {
+				this.pendingBatches.remove(partitionKey);
+				this.execute(batch);
+			}
+		}
+	}
+
+	/**
+	 * Executes all pending batches.
+	 */
+	public void flush() {
+		synchronized (this) {
+			final Iterator<BatchStatement> iterator = this.pendingBatches.values().iterator();
+			while (iterator.hasNext()) {
+				this.execute(iterator.next());
+				iterator.remove();
+			}
+		}
+	}
+
+	private void execute(final BatchStatement batch) {
+		try {
+			// blocks while the maximal number of batches is in flight
+			this.inFlightBatches.acquire();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOGGER.error("Interrupted while waiting for batches to complete. Dropping {} records.", batch.size());
+			return;
+		}
+
+		final ResultSetFuture future;
+		try {
+			future = this.session.executeAsync(batch);
+		} catch (final DriverException e) { // NOPMD (executeAsync may fail without returning a future)
+			this.inFlightBatches.release();
+			LOGGER.error("Inserting {} records failed: {}", batch.size(), e.getLocalizedMessage());
+			return;
+		}
+		future.addListener(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					future.getUninterruptibly();
+				} catch (final DriverException e) { // NOPMD (failures of batches are logged only)
+					LOGGER.error("Inserting {} records failed: {}", batch.size(), e.getLocalizedMessage());
+				} finally {
+					CassandraBatchInserter.this.inFlightBatches.release();
+				}
+			}
+		}, DIRECT_EXECUTOR);
+	}
+
+	/**
+	 * Executes all pending batches and waits until all batches are completed.
+	 */
+	public void close() {
+		this.flushTimer.shutdownNow();
+		this.flush();
+		try {
+			if (this.inFlightBatches.tryAcquire(this.maxInFlightBatches, TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				this.inFlightBatches.release(this.maxInFlightBatches);
+			} else {
+				LOGGER.warn("Not all batches were completed within {} s.", TERMINATION_TIMEOUT_SECONDS);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOGGER.warn("Interrupted while waiting for batches to complete.");
+		}
+	}
+}
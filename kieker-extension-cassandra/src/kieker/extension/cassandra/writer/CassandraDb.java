@@ -27,6 +27,8 @@ import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.exceptions.AuthenticationException;
 import com.datastax.driver.core.exceptions.InvalidQueryException;
 import com.datastax.driver.core.exceptions.NoHostAvailableException;
@@ -106,8 +108,7 @@ public class CassandraDb {
 					.withMaxSchemaAgreementWaitSeconds(60)
 					.build();
 
-			this.session = this.cluster.connect(this.keyspace);
-			this.createIndexTable();
+			this.connect(this.cluster.connect(this.keyspace));
 			return true;
 		} catch (final NoHostAvailableException | AuthenticationException | InvalidQueryException | IllegalStateException exc) {
 			LOGGER.error("Opening Connection to Database failed. {}", exc.getLocalizedMessage());
@@ -115,6 +116,18 @@ public class CassandraDb {
 		}
 	}
 
+	/**
+	 * Uses the given session, which is connected to the keyspace, and creates the index table if necessary. The session
+	 * may be a stub.
+	 *
+	 * @param connectedSession
+	 *            session connected to the keyspace
+	 */
+	void connect(final Session connectedSession) {
+		this.session = connectedSession;
+		this.createIndexTable();
+	}
+
 	/**
 	 * Closes all open connections to the database.
 	 */
@@ -123,6 +136,15 @@ public class CassandraDb {
 		this.cluster.close();
 	}
 
+	/**
+	 * Returns the session connected to the keyspace, e.g., to execute statements asynchronously.
+	 *
+	 * @return the session, or null when not connected
+	 */
+	public Session getSession() {
+		return this.session;
+	}
+
 	/**
 	 * Insert a record into the database.
 	 * 
@@ -134,14 +156,31 @@ public class CassandraDb {
 	 *             failed to insert the record or creating and registring the record table in the first place.
 	 */
 	public void insert(final IMonitoringRecord record, final String benchmarkId) throws MonitoringRecordException {
+		this.session.execute(this.bind(record, benchmarkId));
+	}
+
+	/**
+	 * Binds the values of a record to the insert statement of its record type. The insert statement is prepared only
+	 * once per record type.
+	 *
+	 * @param record
+	 *            the record
+	 * @param benchmarkId
+	 *            the current benchmarkId
+	 * @return the statement inserting the record
+	 * @throws MonitoringRecordException
+	 *             failed creating and registring the record table in the first place.
+	 */
+	public BoundStatement bind(final IMonitoringRecord record, final String benchmarkId) throws MonitoringRecordException {
 		final Class<? extends IMonitoringRecord> recordClass = record.getClass();
-		final BoundStatement boundStatement = this.getBoundStatement(this.getPreparedStatement(recordClass, benchmarkId));
-		
+		final BoundStatement boundStatement = this.getBoundStatement(this.getPreparedStatement(recordClass));
+		boundStatement.setString(0, benchmarkId);
+
 		final IValueSerializer cassandraSerializer = new CassandraValueSerializer(boundStatement);
 		cassandraSerializer.putLong(record.getLoggingTimestamp());
 		record.serialize(cassandraSerializer);
 
-		this.session.execute(boundStatement);
+		return boundStatement;
 	}
 
 	/**
@@ -149,18 +188,18 @@ public class CassandraDb {
 	 *
 	 * @param recordClass
 	 *            record class type
-	 * @param benchmarkId
-	 *            benchmark id
 	 * @return returns prepared statement
 	 * @throws MonitoringRecordException
 	 *             when the creation of a new entry or the table for the record itself failed.
 	 */
-	private PreparedStatement getPreparedStatement(final Class<? extends IMonitoringRecord> recordClass, final String benchmarkId)
-			throws MonitoringRecordException {
+	private PreparedStatement getPreparedStatement(final Class<? extends IMonitoringRecord> recordClass) throws MonitoringRecordException {
 		PreparedStatement statement = this.classes.get(recordClass);
 		if (statement == null) {
-			statement = this.createRecordInsertStatement(recordClass.getSimpleName(), benchmarkId, recordClass);
-			this.classes.put(recordClass, statement);
+			statement = this.createRecordInsertStatement(recordClass.getSimpleName(), recordClass);
+			final PreparedStatement existingStatement = this.classes.putIfAbsent(recordClass, statement);
+			if (existingStatement != null) {
+				statement = existingStatement;
+			}
 		}
 		return statement;
 	}
@@ -170,14 +209,12 @@ public class CassandraDb {
 	 *
 	 * @param className
 	 *            class name for the table
-	 * @param benchmarkId
-	 *            benchmark id
 	 * @param recordClass
 	 *            the record class
 	 * @return a prepared statement
 	 */
-	private PreparedStatement createRecordInsertStatement(final String className, final String benchmarkId,
-			final Class<? extends IMonitoringRecord> recordClass) throws MonitoringRecordException {
+	private PreparedStatement createRecordInsertStatement(final String className, final Class<? extends IMonitoringRecord> recordClass)
+			throws MonitoringRecordException {
 		Class<?>[] typeArray = null;
 		try {
 			typeArray = AbstractMonitoringRecord.typesForClass(recordClass);
@@ -185,13 +222,13 @@ public class CassandraDb {
 			LOGGER.error("Failed to get types of record: {}", exc.getLocalizedMessage());
 		}
 
-		final String tableName = this.createTable(className, typeArray);
-		final StringBuilder values = new StringBuilder();
-		values.append("'" + benchmarkId + "',?");
+		final String tableName = this.createTable(className, recordClass.getName(), typeArray);
+		final StringBuilder values = new StringBuilder("?,?");
 
 		final StringBuilder fields = new StringBuilder("benchmark_id,timestamp");
 
-		for (int i = 1; i <= typeArray.length; i++) {
+		// the value columns are numbered from 0 as in the table
+		for (int i = 0; i < typeArray.length; i++) {
 			values.append(",?");
 			fields.append(",c");
 			fields.append(i);
@@ -206,7 +243,7 @@ public class CassandraDb {
 	private void initializeDatabaseTypeMapping() {
 		final Class<?>[] primitiveTypes = { String.class, int.class, Integer.class, long.class, Long.class, float.class, Float.class, double.class,
 			Double.class, boolean.class, Boolean.class, char.class, Character.class };
-		final String[] databaseTypes = { DB_TEXT, DB_INT, DB_INT, DB_BIGINT, DB_BIGINT, DB_FLOAT, DB_FLOAT, DB_DOUBLE, DB_DOUBLE, DB_INT, DB_INT, DB_BOOLEAN, DB_BOOLEAN,
+		final String[] databaseTypes = { DB_TEXT, DB_INT, DB_INT, DB_BIGINT, DB_BIGINT, DB_FLOAT, DB_FLOAT, DB_DOUBLE, DB_DOUBLE, DB_BOOLEAN, DB_BOOLEAN,
 			DB_VARCHAR, DB_VARCHAR };
 		for (int i = 0; i < primitiveTypes.length; i++) {
 			this.databaseTypeMap.put(primitiveTypes[i], databaseTypes[i]);
@@ -214,13 +251,13 @@ public class CassandraDb {
 	}
 
 	/**
-	 * Returns a BoundStatement from the given String. Uses the default Session to the keyspace.
+	 * Returns a statement from the given String. The statement is not prepared, as it is executed only once.
 	 *
 	 * @param statement
-	 * @return
+	 * @return statement
 	 */
-	private BoundStatement getBoundStatement(final String statement) {
-		return new BoundStatement(this.session.prepare(statement));
+	private Statement getSimpleStatement(final String statement) {
+		return new SimpleStatement(statement);
 	}
 
 	/**
@@ -250,7 +287,7 @@ public class CassandraDb {
 	private void dropTable(final String tableName) {
 		final String dropStatement = "DROP TABLE " + tableName;
 
-		final BoundStatement boundStatement = this.getBoundStatement(dropStatement);
+		final Statement boundStatement = this.getSimpleStatement(dropStatement);
 		try {
 			this.session.execute(boundStatement);
 		} catch (final NoHostAvailableException | QueryExecutionException | QueryValidationException | UnsupportedFeatureException exc) {
@@ -261,7 +298,7 @@ public class CassandraDb {
 	private void createTableClassLookupTable() {
 		final String createStatement = String.format("CREATE TABLE %s ( tablename text, classname text, PRIMARY KEY (tablename) )",
 				this.tablePrefix);
-		final BoundStatement boundStatement = this.getBoundStatement(createStatement);
+		final Statement boundStatement = this.getSimpleStatement(createStatement);
 
 		try {
 			this.session.execute(boundStatement);
@@ -272,7 +309,7 @@ public class CassandraDb {
 
 	private boolean doesTableExist(final String tableName) {
 		final String selectStatement = "SELECT * FROM " + tableName;
-		final BoundStatement boundStatement = this.getBoundStatement(selectStatement);
+		final Statement boundStatement = this.getSimpleStatement(selectStatement + " LIMIT 1");
 		try {
 			return this.session.execute(boundStatement) != null;
 		} catch (final NoHostAvailableException | QueryExecutionException | QueryValidationException | UnsupportedFeatureException exc) {
@@ -284,19 +321,20 @@ public class CassandraDb {
 	 * Creates a table in the keyspace with the given parameters.
 	 *
 	 * @param className
+	 * @param recordClassName
 	 * @param columns
 	 * @return returns the name of the table
 	 * @throws ConfigurationException
 	 *             on errors
 	 */
-	private String createTable(final String className, final Class<?>... columns) throws MonitoringRecordException {
+	private String createTable(final String className, final String recordClassName, final Class<?>... columns) throws MonitoringRecordException {
 		final String tableName = this.createTableName(className);
 
 		if (this.dropTables) {
 			this.dropTable(tableName);
-			this.createClassTable(tableName, className, columns);
+			this.createClassTable(tableName, recordClassName, columns);
 		} else if (!this.doesTableExist(tableName)) {
-			this.createClassTable(tableName, className, columns);
+			this.createClassTable(tableName, recordClassName, columns);
 		}
 
 		return tableName;
@@ -306,8 +344,8 @@ public class CassandraDb {
 		return this.tablePrefix + "_" + className;
 	}
 
-	private void createClassTable(final String tableName, final String className, final Class<?>[] attributeTypes) throws MonitoringRecordException {
-		final BoundStatement boundStatement = this.getBoundStatement(createClassTableString(tableName, attributeTypes));
+	private void createClassTable(final String tableName, final String recordClassName, final Class<?>[] attributeTypes) throws MonitoringRecordException {
+		final Statement boundStatement = this.getSimpleStatement(this.createClassTableString(tableName, attributeTypes));
 
 		try {
 			this.session.execute(boundStatement);
@@ -315,8 +353,8 @@ public class CassandraDb {
 			throw new MonitoringRecordException(String.format("Creating table %s failed!", tableName), exc);
 		}
 
-		final String addIndex = String.format("INSERT INTO %s (tablename, classname) VALUES('%s','%s')", this.tablePrefix, tableName, className);
-		final BoundStatement index = this.getBoundStatement(addIndex);
+		final String addIndex = String.format("INSERT INTO %s (tablename, classname) VALUES('%s','%s')", this.tablePrefix, tableName, recordClassName);
+		final Statement index = this.getSimpleStatement(addIndex);
 
 		try {
 			this.session.execute(index);
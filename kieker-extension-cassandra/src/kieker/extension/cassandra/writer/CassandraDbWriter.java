@@ -38,16 +38,35 @@ public class CassandraDbWriter extends AbstractMonitoringWriter { // NOPMD DataC
 	public static final String CONFIG_TABLE_PREFIX = PREFIX + "tablePrefix";
 	public static final String CONFIG_OVERWRITE = PREFIX + "dropTables";
 	public static final String CONFIG_BENCHMARK_ID = PREFIX + "benchmarkId";
+	/** Whether records are inserted asynchronously in batches instead of one synchronous insert per record. */
+	public static final String CONFIG_ASYNCHRONOUS = PREFIX + "asynchronous";
+	/** Maximal number of records of a batch in asynchronous mode. */
+	public static final String CONFIG_BATCH_SIZE = PREFIX + "batchSize";
+	/** Interval in milliseconds at which incomplete batches are inserted by a timer in asynchronous mode. */
+	public static final String CONFIG_FLUSH_INTERVAL = PREFIX + "flushInterval";
+	/** Maximal number of batches inserted at the same time in asynchronous mode. */
+	public static final String CONFIG_MAX_IN_FLIGHT_BATCHES = PREFIX + "maxInFlightBatches";
 	
 	private static final String DEFAULT_KEYSPACE = "kieker";
 
 	private static final String DEFAULT_TABLE_PREFIX = "kieker";
 
+	private static final int DEFAULT_BATCH_SIZE = 100;
+
+	private static final int DEFAULT_FLUSH_INTERVAL = 1000;
+
+	private static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = 8;
+
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(CassandraDbWriter.class);
 
 	private final CassandraDb database;
 	private final String benchmarkId;
+	private final boolean asynchronous;
+	private final int batchSize;
+	private final int flushInterval;
+	private final int maxInFlightBatches;
+	private CassandraBatchInserter batchInserter;
 
 	/**
 	 * Creates a new instance of this class using the given parameter.
@@ -63,19 +82,31 @@ public class CassandraDbWriter extends AbstractMonitoringWriter { // NOPMD DataC
 		final String tablePrefix = configuration.getStringProperty(CONFIG_TABLE_PREFIX, DEFAULT_TABLE_PREFIX);
 		final boolean dropTables = configuration.getBooleanProperty(CONFIG_OVERWRITE);
 		this.benchmarkId = configuration.getStringProperty(CONFIG_BENCHMARK_ID);
+		this.asynchronous = configuration.getBooleanProperty(CONFIG_ASYNCHRONOUS, false);
+		this.batchSize = configuration.getIntProperty(CONFIG_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+		this.flushInterval = configuration.getIntProperty(CONFIG_FLUSH_INTERVAL, DEFAULT_FLUSH_INTERVAL);
+		this.maxInFlightBatches = configuration.getIntProperty(CONFIG_MAX_IN_FLIGHT_BATCHES, DEFAULT_MAX_IN_FLIGHT_BATCHES);
 		
 		this.database = new CassandraDb(keyspace, CassandraUtils.computeDatabaseConnections(contactPointParameters), tablePrefix, dropTables);
 	}
 
 	@Override
 	public void onStarting() {
-		this.database.connect();
+		if (this.database.connect() && this.asynchronous) {
+			this.batchInserter = new CassandraBatchInserter(this.database.getSession(), this.batchSize, this.flushInterval,
+					this.maxInFlightBatches);
+		}
 	}
 
 	@Override
 	public void writeMonitoringRecord(final IMonitoringRecord record) {
 		try {
-			this.database.insert(record, benchmarkId);
+			if (this.batchInserter != null) {
+				// all records of a type share the partition of the benchmark id in the table of the type
+				this.batchInserter.add(record.getClass(), this.database.bind(record, this.benchmarkId));
+			} else {
+				this.database.insert(record, this.benchmarkId);
+			}
 		} catch (MonitoringRecordException e) {
 			LOGGER.error("Error inserting monitoring record: {}", e.getLocalizedMessage());
 		}
@@ -83,6 +114,9 @@ public class CassandraDbWriter extends AbstractMonitoringWriter { // NOPMD DataC
 
 	@Override
 	public void onTerminating() {
+		if (this.batchInserter != null) {
+			this.batchInserter.close();
+		}
 		this.database.disconnect();
 	}
 
@@ -0,0 +1,257 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.extension.cassandra.writer;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Tests the {@link CassandraBatchInserter} with a stubbed session, which records the executed batches and completes
+ * them only when told so.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class CassandraBatchInserterTest {
+
+	private static final long NO_FLUSH = 3600000;
+	private static final long WAIT_MILLIS = 200;
+	private static final long TEST_TIMEOUT = 10000;
+
+	private final List<BatchStatement> executedBatches = new ArrayList<>();
+	private final List<StubResultSetFuture> futures = new ArrayList<>();
+	private Session session;
+
+	/** Default constructor. */
+	public CassandraBatchInserterTest() {
+		// empty default constructor
+	}
+
+	/**
+	 * Create the stubbed session.
+	 */
+	@Before
+	public void setUp() {
+		this.session = Mockito.mock(Session.class);
+		Mockito.when(this.session.executeAsync(Mockito.any(Statement.class))).thenAnswer(new Answer<ResultSetFuture>() {
+			@Override
+			public ResultSetFuture answer(final InvocationOnMock invocation) {
+				final StubResultSetFuture future = new StubResultSetFuture();
+				synchronized (CassandraBatchInserterTest.this) {
+					CassandraBatchInserterTest.this.executedBatches.add(invocation.getArgument(0));
+					CassandraBatchInserterTest.this.futures.add(future);
+					CassandraBatchInserterTest.this.notifyAll();
+				}
+				return future;
+			}
+		});
+	}
+
+	/**
+	 * Test that each batch is unlogged and contains only the statements of one partition.
+	 *
+	 * @throws ReflectiveOperationException
+	 *             if the type of a batch cannot be read
+	 */
+	@Test
+	public void testBatchesContainTheStatementsOfOnePartition() throws ReflectiveOperationException {
+		final CassandraBatchInserter inserter = new CassandraBatchInserter(this.session, 2, NO_FLUSH, 4);
+		final Statement first = new SimpleStatement("first");
+		final Statement second = new SimpleStatement("second");
+		final Statement third = new SimpleStatement("third");
+
+		inserter.add("a", first);
+		inserter.add("b", second);
+		Assert.assertThat(this.getNumberOfExecutedBatches(), CoreMatchers.is(0));
+		inserter.add("a", third);
+
+		Assert.assertThat(this.getNumberOfExecutedBatches(), CoreMatchers.is(1));
+		this.assertBatch(this.executedBatches.get(0), first, third);
+
+		inserter.flush();
+
+		Assert.assertThat(this.getNumberOfExecutedBatches(), CoreMatchers.is(2));
+		this.assertBatch(this.executedBatches.get(1), second);
+		this.completeAll();
+		inserter.close();
+	}
+
+	/**
+	 * Test that the flush timer executes incomplete batches.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 * @throws ReflectiveOperationException
+	 *             if the type of a batch cannot be read
+	 */
+	@Test(timeout = TEST_TIMEOUT)
+	public void testFlushTimerExecutesIncompleteBatches() throws InterruptedException, ReflectiveOperationException {
+		final CassandraBatchInserter inserter = new CassandraBatchInserter(this.session, 100, 10, 4);
+		final Statement statement = new SimpleStatement("statement");
+
+		inserter.add("a", statement);
+
+		this.awaitExecutedBatches(1);
+		this.assertBatch(this.executedBatches.get(0), statement);
+		this.completeAll();
+		inserter.close();
+	}
+
+	/**
+	 * Test that adding a statement blocks while the maximal number of batches is in flight.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	@Test(timeout = TEST_TIMEOUT)
+	public void testNumberOfBatchesInFlightIsBounded() throws InterruptedException {
+		final CassandraBatchInserter inserter = new CassandraBatchInserter(this.session, 1, NO_FLUSH, 2);
+		inserter.add("a", new SimpleStatement("first"));
+		inserter.add("a", new SimpleStatement("second"));
+
+		final Thread writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				inserter.add("a", new SimpleStatement("third"));
+			}
+		});
+		writer.start();
+		writer.join(WAIT_MILLIS);
+
+		Assert.assertThat(writer.isAlive(), CoreMatchers.is(true));
+		Assert.assertThat(this.getNumberOfExecutedBatches(), CoreMatchers.is(2));
+
+		this.futures.get(0).complete();
+		writer.join();
+
+		Assert.assertThat(this.getNumberOfExecutedBatches(), CoreMatchers.is(3));
+		this.completeAll();
+		inserter.close();
+	}
+
+	/**
+	 * Test that closing the inserter executes the pending batches and waits until all batches are completed.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	@Test(timeout = TEST_TIMEOUT)
+	public void testCloseWaitsForBatchesInFlight() throws InterruptedException {
+		final CassandraBatchInserter inserter = new CassandraBatchInserter(this.session, 100, NO_FLUSH, 2);
+		inserter.add("a", new SimpleStatement("statement"));
+
+		final Thread closer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				inserter.close();
+			}
+		});
+		closer.start();
+		this.awaitExecutedBatches(1);
+		closer.join(WAIT_MILLIS);
+
+		Assert.assertThat(closer.isAlive(), CoreMatchers.is(true));
+
+		this.completeAll();
+		closer.join();
+	}
+
+	private void assertBatch(final BatchStatement batch, final Statement... statements) throws ReflectiveOperationException {
+		Assert.assertThat(batch.getStatements().size(), CoreMatchers.is(statements.length));
+		int i = 0;
+		for (final Statement statement : batch.getStatements()) {
+			Assert.assertThat(statement, CoreMatchers.is(statements[i++]));
+		}
+		// the driver does not expose the type of a batch
+		final Field batchType = BatchStatement.class.getDeclaredField("batchType");
+		batchType.setAccessible(true);
+		Assert.assertThat(batchType.get(batch), CoreMatchers.is(BatchStatement.Type.UNLOGGED));
+	}
+
+	private synchronized int getNumberOfExecutedBatches() {
+		return this.executedBatches.size();
+	}
+
+	private synchronized void awaitExecutedBatches(final int numberOfBatches) throws InterruptedException {
+		while (this.executedBatches.size() < numberOfBatches) {
+			this.wait();
+		}
+	}
+
+	private synchronized void completeAll() {
+		for (final StubResultSetFuture future : this.futures) {
+			future.complete();
+		}
+	}
+
+	/**
+	 * Result of an asynchronously executed statement, which is completed by the test.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 2.0.0
+	 */
+	private static class StubResultSetFuture extends AbstractFuture<ResultSet> implements ResultSetFuture {
+
+		public StubResultSetFuture() {
+			// empty default constructor
+		}
+
+		public void complete() {
+			this.set(Mockito.mock(ResultSet.class));
+		}
+
+		@Override
+		public ResultSet getUninterruptibly() {
+			try {
+				return Uninterruptibles.getUninterruptibly(this);
+			} catch (final ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+
+		@Override
+		public ResultSet getUninterruptibly(final long timeout, final TimeUnit unit) throws TimeoutException {
+			try {
+				return Uninterruptibles.getUninterruptibly(this, timeout, unit);
+			} catch (final ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.extension.cassandra.writer;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+
+import kieker.common.exception.MonitoringRecordException;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.misc.KiekerMetadataRecord;
+
+/**
+ * Tests the binding of records to insert statements by the {@link CassandraDb} with a stubbed session.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class CassandraDbTest {
+
+	private static final String BENCHMARK_ID = "benchmark";
+
+	private Session session;
+	private BoundStatement boundStatement;
+	private CassandraDb database;
+
+	/** Default constructor. */
+	public CassandraDbTest() {
+		// empty default constructor
+	}
+
+	/**
+	 * Connect the database to a stubbed session, which prepares stubbed statements, and bind the values to a mocked
+	 * statement.
+	 */
+	@Before
+	public void setUp() {
+		this.session = Mockito.mock(Session.class);
+		Mockito.when(this.session.prepare(Mockito.anyString())).thenAnswer(new Answer<PreparedStatement>() {
+			@Override
+			public PreparedStatement answer(final InvocationOnMock invocation) {
+				return Mockito.mock(PreparedStatement.class);
+			}
+		});
+		this.boundStatement = Mockito.mock(BoundStatement.class);
+		this.database = new CassandraDb("kieker", Collections.emptyList(), "kieker", false) {
+			@Override
+			public BoundStatement getBoundStatement(final PreparedStatement statement) {
+				return CassandraDbTest.this.boundStatement;
+			}
+		};
+		this.database.connect(this.session);
+	}
+
+	/**
+	 * Test that the insert statement of each record type is prepared once.
+	 *
+	 * @throws MonitoringRecordException
+	 *             on binding errors
+	 */
+	@Test
+	public void testInsertStatementIsPreparedOncePerRecordType() throws MonitoringRecordException {
+		this.database.bind(new OperationExecutionRecord("op", "session", 1, 2, 3, "host", 0, 0), BENCHMARK_ID);
+		this.database.bind(new OperationExecutionRecord("op", "session", 4, 5, 6, "host", 1, 1), BENCHMARK_ID);
+		this.database.bind(new BeforeOperationEvent(7, 8, 0, "op", "class"), BENCHMARK_ID);
+		this.database.bind(new BeforeOperationEvent(9, 8, 1, "op", "class"), BENCHMARK_ID);
+
+		final ArgumentCaptor<String> queries = ArgumentCaptor.forClass(String.class);
+		Mockito.verify(this.session, Mockito.times(2)).prepare(queries.capture());
+		Assert.assertThat(queries.getAllValues().get(0), CoreMatchers.is(
+				"INSERT INTO kieker_OperationExecutionRecord ( benchmark_id,timestamp,c0,c1,c2,c3,c4,c5,c6,c7 )  VALUES (?,?,?,?,?,?,?,?,?,?)"));
+		Assert.assertThat(queries.getAllValues().get(1), CoreMatchers.is(
+				"INSERT INTO kieker_BeforeOperationEvent ( benchmark_id,timestamp,c0,c1,c2,c3,c4 )  VALUES (?,?,?,?,?,?,?)"));
+	}
+
+	/**
+	 * Test that the table has the columns of the insert statement, and that the record type is registered in the index
+	 * table.
+	 *
+	 * @throws MonitoringRecordException
+	 *             on binding errors
+	 */
+	@Test
+	public void testTableHasTheColumnsOfTheRecordType() throws MonitoringRecordException {
+		this.database.bind(new OperationExecutionRecord("op", "session", 1, 2, 3, "host", 0, 0), BENCHMARK_ID);
+
+		final ArgumentCaptor<Statement> statements = ArgumentCaptor.forClass(Statement.class);
+		Mockito.verify(this.session, Mockito.atLeastOnce()).execute(statements.capture());
+		final List<Statement> executed = statements.getAllValues();
+		Assert.assertThat(((SimpleStatement) executed.get(executed.size() - 2)).getQueryString(), CoreMatchers.is(
+				"CREATE TABLE kieker_OperationExecutionRecord (benchmark_id text, timestamp bigint, c0 text, c1 text, c2 bigint, c3 bigint, "
+						+ "c4 bigint, c5 text, c6 int, c7 int, PRIMARY KEY (benchmark_id, timestamp)) "));
+		Assert.assertThat(((SimpleStatement) executed.get(executed.size() - 1)).getQueryString(), CoreMatchers.is(
+				"INSERT INTO kieker (tablename, classname) VALUES('kieker_OperationExecutionRecord','" + OperationExecutionRecord.class.getName() + "')"));
+	}
+
+	/**
+	 * Test that the benchmark id, the logging timestamp and the values of the record are bound to the columns in this
+	 * order.
+	 *
+	 * @throws MonitoringRecordException
+	 *             on binding errors
+	 */
+	@Test
+	public void testValuesAreBoundInColumnOrder() throws MonitoringRecordException {
+		final OperationExecutionRecord record = new OperationExecutionRecord("op", "session", 1, 2, 3, "host", 4, 5);
+		record.setLoggingTimestamp(6);
+
+		final BoundStatement statement = this.database.bind(record, BENCHMARK_ID);
+
+		Assert.assertThat(statement, CoreMatchers.is(this.boundStatement));
+		final InOrder inOrder = Mockito.inOrder(this.boundStatement);
+		inOrder.verify(this.boundStatement).setString(0, BENCHMARK_ID);
+		inOrder.verify(this.boundStatement).setLong(1, 6L);
+		inOrder.verify(this.boundStatement).setString(2, "op");
+		inOrder.verify(this.boundStatement).setString(3, "session");
+		inOrder.verify(this.boundStatement).setLong(4, 1L);
+		inOrder.verify(this.boundStatement).setLong(5, 2L);
+		inOrder.verify(this.boundStatement).setLong(6, 3L);
+		inOrder.verify(this.boundStatement).setString(7, "host");
+		inOrder.verify(this.boundStatement).setInt(8, 4);
+		inOrder.verify(this.boundStatement).setInt(9, 5);
+		Mockito.verifyNoMoreInteractions(this.boundStatement);
+	}
+
+	/**
+	 * Test that boolean values are stored in boolean columns.
+	 *
+	 * @throws MonitoringRecordException
+	 *             on binding errors
+	 */
+	@Test
+	public void testBooleanValuesAreBoundToBooleanColumns() throws MonitoringRecordException {
+		this.database.bind(new KiekerMetadataRecord("2.0.0", "controller", "host", 1, true, 0, "NANOSECONDS", 2), BENCHMARK_ID);
+
+		final ArgumentCaptor<Statement> statements = ArgumentCaptor.forClass(Statement.class);
+		Mockito.verify(this.session, Mockito.atLeastOnce()).execute(statements.capture());
+		final List<Statement> executed = statements.getAllValues();
+		Assert.assertThat(((SimpleStatement) executed.get(executed.size() - 2)).getQueryString(), CoreMatchers.is(
+				"CREATE TABLE kieker_KiekerMetadataRecord (benchmark_id text, timestamp bigint, c0 text, c1 text, c2 text, c3 int, "
+						+ "c4 boolean, c5 bigint, c6 text, c7 bigint, PRIMARY KEY (benchmark_id, timestamp)) "));
+		Mockito.verify(this.boundStatement).setBool(6, true);
+	}
+}
@@ -15,18 +15,28 @@
  ***************************************************************************/
 package kieker.analysis.plugin.reader.kafka;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
 
 import kieker.analysis.IProjectContext;
 import kieker.analysis.plugin.annotation.OutputPort;
 import kieker.analysis.plugin.annotation.Plugin;
 import kieker.analysis.plugin.annotation.Property;
 import kieker.analysis.plugin.reader.newio.AbstractRawDataReader;
+import kieker.analysis.plugin.reader.newio.deserializer.IMonitoringRecordDeserializer;
 import kieker.common.configuration.Configuration;
 import kieker.common.record.IMonitoringRecord;
 
@@ -50,7 +60,11 @@ import kieker.common.record.IMonitoringRecord;
 			@Property(name = KafkaReader.CONFIG_PROPERTY_GROUP_ID, defaultValue = "kieker", description = "Group ID for the Kafka consumer group"),
 			@Property(name = KafkaReader.CONFIG_PROPERTY_AUTO_COMMIT, defaultValue = "true", description = "Auto-commit the current position?"),
 			@Property(name = KafkaReader.CONFIG_PROPERTY_AUTO_COMMIT_INTERVAL_MS, defaultValue = "1000", description = "Auto commit interval in milliseconds"),
-			@Property(name = KafkaReader.CONFIG_PROPERTY_SESSION_TIMEOUT_MS, defaultValue = "30000", description = "Session timeout interval in milliseconds")
+			@Property(name = KafkaReader.CONFIG_PROPERTY_SESSION_TIMEOUT_MS, defaultValue = "30000", description = "Session timeout interval in milliseconds"),
+			@Property(name = KafkaReader.CONFIG_PROPERTY_PARTITION_CONSUMERS, defaultValue = "false",
+					description = "Read each partition with a consumer thread of its own instead of subscribing to the topic?"),
+			@Property(name = KafkaReader.CONFIG_PROPERTY_PARTITIONS, defaultValue = "",
+					description = "Comma-separated partitions read by the partition consumers, all partitions of the topic if empty")
 		})
 public class KafkaReader extends AbstractRawDataReader {
 
@@ -71,6 +85,13 @@ public class KafkaReader extends AbstractRawDataReader {
 	public static final String CONFIG_PROPERTY_AUTO_COMMIT_INTERVAL_MS = "autoCommitIntervalMs";
 	/** The name of the configuration property for the session timeout interval. */
 	public static final String CONFIG_PROPERTY_SESSION_TIMEOUT_MS = "sessionTimeoutMs";
+	/** The name of the configuration property for the partition consumer mode. */
+	public static final String CONFIG_PROPERTY_PARTITION_CONSUMERS = "partitionConsumers";
+	/** The name of the configuration property for the partitions read in partition consumer mode. */
+	public static final String CONFIG_PROPERTY_PARTITIONS = "partitions";
+
+	private static final long POLL_TIMEOUT_IN_MS = 100;
+	private static final int CHUNKS_PER_PARTITION = 64;
 
 	private final String topicName;
 	private final String bootstrapServers;
@@ -78,7 +99,10 @@ public class KafkaReader extends AbstractRawDataReader {
 	private final boolean enableAutoCommit;
 	private final int autoCommitIntervalMs;
 	private final int sessionTimeoutMs;
+	private final boolean partitionConsumers;
+	private final String[] partitions;
 
+	private Properties consumerProperties;
 	private KafkaConsumer<String, byte[]> consumer;
 
 	private volatile boolean terminated = false; // NOPMD
@@ -100,6 +124,8 @@ public class KafkaReader extends AbstractRawDataReader {
 		this.enableAutoCommit = configuration.getBooleanProperty(CONFIG_PROPERTY_AUTO_COMMIT);
 		this.autoCommitIntervalMs = configuration.getIntProperty(CONFIG_PROPERTY_AUTO_COMMIT_INTERVAL_MS);
 		this.sessionTimeoutMs = configuration.getIntProperty(CONFIG_PROPERTY_SESSION_TIMEOUT_MS);
+		this.partitionConsumers = configuration.getBooleanProperty(CONFIG_PROPERTY_PARTITION_CONSUMERS, false);
+		this.partitions = configuration.getStringArrayProperty(CONFIG_PROPERTY_PARTITIONS, ",");
 	}
 
 	@Override
@@ -116,6 +142,8 @@ public class KafkaReader extends AbstractRawDataReader {
 		configuration.setProperty(CONFIG_PROPERTY_AUTO_COMMIT, this.enableAutoCommit);
 		configuration.setProperty(CONFIG_PROPERTY_AUTO_COMMIT_INTERVAL_MS, this.autoCommitIntervalMs);
 		configuration.setProperty(CONFIG_PROPERTY_SESSION_TIMEOUT_MS, this.sessionTimeoutMs);
+		configuration.setProperty(CONFIG_PROPERTY_PARTITION_CONSUMERS, this.partitionConsumers);
+		configuration.setProperty(CONFIG_PROPERTY_PARTITIONS, String.join(",", this.partitions));
 
 		return configuration;
 	}
@@ -139,6 +167,7 @@ public class KafkaReader extends AbstractRawDataReader {
 		properties.put("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
 		properties.put("value.deserializer", "org.apache.kafka.common.serialization.ByteArrayDeserializer");
 
+		this.consumerProperties = properties;
 		this.consumer = new KafkaConsumer<String, byte[]>(properties);
 
 		return true;
@@ -146,6 +175,10 @@ public class KafkaReader extends AbstractRawDataReader {
 
 	@Override
 	public boolean read() {
+		if (this.partitionConsumers) {
+			return this.readPartitions();
+		}
+
 		this.consumer.subscribe(Arrays.asList(this.topicName));
 
 		try {
@@ -169,9 +202,103 @@ public class KafkaReader extends AbstractRawDataReader {
 		}
 	}
 
+	/**
+	 * Reads each partition with a consumer thread of its own, which decodes the records with a deserializer of its own.
+	 * The decoded records are delivered by the calling thread, such that the records of each partition keep their
+	 * order.
+	 */
+	private boolean readPartitions() {
+		final List<TopicPartition> topicPartitions = new ArrayList<>();
+		try {
+			if (this.partitions.length == 0) {
+				for (final PartitionInfo partition : this.consumer.partitionsFor(this.topicName)) {
+					topicPartitions.add(new TopicPartition(this.topicName, partition.partition()));
+				}
+			} else {
+				for (final String partition : this.partitions) {
+					topicPartitions.add(new TopicPartition(this.topicName, Integer.parseInt(partition.trim())));
+				}
+			}
+		} finally {
+			this.consumer.close();
+		}
+
+		final BlockingQueue<List<IMonitoringRecord>> decodedChunks = new ArrayBlockingQueue<>(
+				CHUNKS_PER_PARTITION * Math.max(1, topicPartitions.size()));
+		final List<Thread> consumerThreads = new ArrayList<>(topicPartitions.size());
+		for (final TopicPartition topicPartition : topicPartitions) {
+			final Thread thread = new Thread(new PartitionConsumer(topicPartition, decodedChunks), "KafkaReader-" + topicPartition);
+			thread.setDaemon(true);
+			thread.start();
+			consumerThreads.add(thread);
+		}
+
+		try {
+			while (!this.terminated || !decodedChunks.isEmpty()) {
+				final List<IMonitoringRecord> records = decodedChunks.poll(POLL_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
+				if (records != null) {
+					for (final IMonitoringRecord record : records) {
+						this.deliver(OUTPUT_PORT_NAME_RECORDS, record);
+					}
+				}
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			this.logger.warn("Interrupted while waiting for records.");
+		} finally {
+			// consumers blocked on the full queue are interrupted
+			for (final Thread thread : consumerThreads) {
+				thread.interrupt();
+			}
+		}
+
+		return true;
+	}
+
 	@Override
 	public void terminate(final boolean error) {
 		this.terminated = true;
 	}
 
+	/**
+	 * Consumes a single partition and decodes its records.
+	 */
+	private class PartitionConsumer implements Runnable {
+
+		private final TopicPartition topicPartition;
+		private final BlockingQueue<List<IMonitoringRecord>> decodedChunks;
+
+		public PartitionConsumer(final TopicPartition topicPartition, final BlockingQueue<List<IMonitoringRecord>> decodedChunks) {
+			this.topicPartition = topicPartition;
+			this.decodedChunks = decodedChunks;
+		}
+
+		@Override
+		public void run() {
+			final KafkaReader reader = KafkaReader.this;
+			final IMonitoringRecordDeserializer deserializer = reader.createDeserializer();
+			if (deserializer == null) {
+				return;
+			}
+
+			final KafkaConsumer<String, byte[]> partitionConsumer = new KafkaConsumer<String, byte[]>(reader.consumerProperties);
+			try {
+				partitionConsumer.assign(Collections.singletonList(this.topicPartition));
+				while (!reader.terminated) {
+					final ConsumerRecords<String, byte[]> records = partitionConsumer.poll(POLL_TIMEOUT_IN_MS);
+					for (final ConsumerRecord<String, byte[]> record : records) {
+						final byte[] valueAsBytes = record.value();
+						this.decodedChunks.put(deserializer.deserializeRecords(ByteBuffer.wrap(valueAsBytes), valueAsBytes.length));
+					}
+				}
+			} catch (final InterruptedException e) { // NOPMD (terminated while the queue is full)
+				Thread.currentThread().interrupt();
+			} catch (final RuntimeException e) { // NOPMD (the other partitions are still read)
+				reader.logger.error("Reading partition {} failed.", this.topicPartition, e);
+			} finally {
+				partitionConsumer.close();
+			}
+		}
+	}
+
 }
@@ -0,0 +1,350 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.kafka;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.exception.InvalidConfigurationException;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.flow.ITraceRecord;
+import kieker.common.record.flow.trace.TraceMetadata;
+import kieker.common.util.classpath.InstantiationFactory;
+import kieker.common.util.thread.DaemonThreadFactory;
+import kieker.monitoring.core.configuration.ConfigurationConstants;
+import kieker.monitoring.core.controller.ReceiveUnfilteredConfiguration;
+import kieker.monitoring.writer.AbstractMonitoringWriter;
+import kieker.monitoring.writer.serializer.IMonitoringRecordSerializer;
+
+/**
+ * Writer which sends chunks of monitoring records to the partitions of a Kafka topic, such that all records of a trace
+ * or of a host are sent to the same partition. Hence, consumers of different partitions can reconstruct traces
+ * independently. The records are collected per partition and serialized into chunks with a separate serializer per
+ * partition, which keeps the state of serializers spanning chunks local to the partition. A chunk is sent when it
+ * contains the configured number of records or when the deferred write delay elapsed. A chunk which does not fit into
+ * the output buffer is split, and a single record which does not fit is dropped.
+ *
+ * <p>
+ * Records without a trace id, e.g., system measurements, are sent to the partition of the host.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+@ReceiveUnfilteredConfiguration
+public class KafkaChunkWriter extends AbstractMonitoringWriter {
+
+	/** Partition by the trace id of the records. */
+	public static final String PARTITION_BY_TRACE_ID = "traceId";
+	/** Partition by the host, i.e., send all records of this writer to one partition. */
+	public static final String PARTITION_BY_HOSTNAME = "hostname";
+
+	private static final String DEFAULT_ACKS = "all";
+	private static final int DEFAULT_BATCH_SIZE = 16384;
+	private static final int DEFAULT_LINGER_MS = 1;
+	private static final int DEFAULT_BUFFER_MEMORY = 32 << 20;
+	private static final String DEFAULT_COMPRESSION_TYPE = "none";
+	private static final String DEFAULT_SERIALIZER = "kieker.monitoring.writer.serializer.BinarySerializer";
+	private static final int DEFAULT_CHUNK_SIZE = 64;
+	private static final int DEFAULT_OUTPUT_BUFFER_SIZE = 65536;
+	private static final int DEFAULT_DEFERRED_WRITE_DELAY = 500;
+
+	private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+	private static final String PREFIX = KafkaChunkWriter.class.getName() + ".";
+
+	/** The name of the configuration property for the bootstrap servers. */
+	public static final String CONFIG_PROPERTY_BOOTSTRAP_SERVERS = PREFIX + "bootstrapServers"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the topic name. */
+	public static final String CONFIG_PROPERTY_TOPIC_NAME = PREFIX + "topicName"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the acks parameter. */
+	public static final String CONFIG_PROPERTY_ACKS = PREFIX + "acks"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the batch size of the producer in bytes. */
+	public static final String CONFIG_PROPERTY_BATCH_SIZE = PREFIX + "batchSize"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the linger interval. */
+	public static final String CONFIG_PROPERTY_LINGER_MS = PREFIX + "lingerMs"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the buffer memory size. */
+	public static final String CONFIG_PROPERTY_BUFFER_MEMORY = PREFIX + "bufferMemory"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the compression type, i.e., none, gzip, snappy, or lz4. */
+	public static final String CONFIG_PROPERTY_COMPRESSION_TYPE = PREFIX + "compressionType"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the partitioning, i.e., traceId or hostname. */
+	public static final String CONFIG_PROPERTY_PARTITION_BY = PREFIX + "partitionBy"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the class name of the record serializer. */
+	public static final String CONFIG_PROPERTY_SERIALIZER = PREFIX + "serializer"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the number of records of a chunk. */
+	public static final String CONFIG_PROPERTY_CHUNK_SIZE = PREFIX + "chunkSize"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the size of the buffer chunks are serialized into. */
+	public static final String CONFIG_PROPERTY_OUTPUT_BUFFER_SIZE = PREFIX + "outputBufferSize"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the delay in milliseconds after which incomplete chunks are sent. */
+	public static final String CONFIG_PROPERTY_DEFERRED_WRITE_DELAY = PREFIX + "deferredWriteDelay"; // NOCS (afterPREFIX)
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(KafkaChunkWriter.class);
+
+	private final String bootstrapServers;
+	private final String topicName;
+	private final String acknowledges;
+	private final int batchSize;
+	private final int lingerMs;
+	private final int bufferMemory;
+	private final String compressionType;
+	private final boolean partitionByTraceId;
+	private final String serializerName;
+	private final int chunkSize;
+	private final int deferredWriteDelay;
+	private final String hostname;
+
+	/** Buffer the chunks are serialized into, which is reused after each send. */
+	private final ByteBuffer buffer;
+	private final ScheduledExecutorService flushTimer;
+
+	private Producer<String, byte[]> producer;
+	/** Pending records and serializer of each partition, guarded by this writer. */
+	private PartitionChunk[] chunks;
+	private int hostPartition;
+
+	/**
+	 * Creates a new Kafka chunk writer using the given configuration.
+	 *
+	 * @param configuration
+	 *            The configuration to use
+	 */
+	public KafkaChunkWriter(final Configuration configuration) {
+		super(configuration);
+		this.bootstrapServers = configuration.getStringProperty(CONFIG_PROPERTY_BOOTSTRAP_SERVERS);
+		this.topicName = configuration.getStringProperty(CONFIG_PROPERTY_TOPIC_NAME);
+		this.acknowledges = configuration.getStringProperty(CONFIG_PROPERTY_ACKS, DEFAULT_ACKS);
+		this.batchSize = configuration.getIntProperty(CONFIG_PROPERTY_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+		this.lingerMs = configuration.getIntProperty(CONFIG_PROPERTY_LINGER_MS, DEFAULT_LINGER_MS);
+		this.bufferMemory = configuration.getIntProperty(CONFIG_PROPERTY_BUFFER_MEMORY, DEFAULT_BUFFER_MEMORY);
+		this.compressionType = configuration.getStringProperty(CONFIG_PROPERTY_COMPRESSION_TYPE, DEFAULT_COMPRESSION_TYPE);
+		final String partitionBy = configuration.getStringProperty(CONFIG_PROPERTY_PARTITION_BY, PARTITION_BY_TRACE_ID);
+		this.partitionByTraceId = PARTITION_BY_TRACE_ID.equals(partitionBy);
+		this.serializerName = configuration.getStringProperty(CONFIG_PROPERTY_SERIALIZER, DEFAULT_SERIALIZER);
+		this.chunkSize = configuration.getIntProperty(CONFIG_PROPERTY_CHUNK_SIZE, DEFAULT_CHUNK_SIZE);
+		this.deferredWriteDelay = configuration.getIntProperty(CONFIG_PROPERTY_DEFERRED_WRITE_DELAY, DEFAULT_DEFERRED_WRITE_DELAY);
+		this.buffer = ByteBuffer.allocate(configuration.getIntProperty(CONFIG_PROPERTY_OUTPUT_BUFFER_SIZE, DEFAULT_OUTPUT_BUFFER_SIZE));
+		this.hostname = KafkaChunkWriter.getHostname(configuration);
+		this.flushTimer = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory());
+
+		if (this.bootstrapServers.isEmpty()) {
+			throw new InvalidConfigurationException("At least one bootstrap server must be provided.");
+		}
+		if (this.topicName.isEmpty()) {
+			throw new InvalidConfigurationException("A topic name must be provided.");
+		}
+		if (!this.partitionByTraceId && !PARTITION_BY_HOSTNAME.equals(partitionBy)) {
+			throw new InvalidConfigurationException("Records can be partitioned by " + PARTITION_BY_TRACE_ID + " or " + PARTITION_BY_HOSTNAME
+					+ ", but not by " + partitionBy + ".");
+		}
+	}
+
+	private static String getHostname(final Configuration configuration) {
+		final String configuredHostname = configuration.getStringProperty(ConfigurationConstants.HOST_NAME);
+		if (!configuredHostname.isEmpty()) {
+			return configuredHostname;
+		}
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (final UnknownHostException ex) {
+			LOGGER.warn("Failed to retrieve hostname", ex);
+			return "<UNKNOWN>";
+		}
+	}
+
+	@Override
+	public void onStarting() {
+		final Properties properties = new Properties();
+
+		properties.put("bootstrap.servers", this.bootstrapServers);
+		properties.put("acks", this.acknowledges);
+		properties.put("batch.size", this.batchSize);
+		properties.put("linger.ms", this.lingerMs);
+		properties.put("buffer.memory", this.bufferMemory);
+		properties.put("compression.type", this.compressionType);
+
+		this.start(new KafkaProducer<>(properties, new StringSerializer(), new ByteArraySerializer()));
+	}
+
+	/**
+	 * Starts sending the records with the given producer, which may be a mock.
+	 *
+	 * @param kafkaProducer
+	 *            producer sending the chunks
+	 */
+	void start(final Producer<String, byte[]> kafkaProducer) {
+		this.producer = kafkaProducer;
+
+		final int numberOfPartitions = this.producer.partitionsFor(this.topicName).size();
+		this.hostPartition = KafkaChunkWriter.partition(this.hostname.hashCode(), numberOfPartitions);
+
+		final InstantiationFactory factory = InstantiationFactory.getInstance(this.configuration);
+		synchronized (this) {
+			this.chunks = new PartitionChunk[numberOfPartitions];
+			for (int i = 0; i < numberOfPartitions; i++) {
+				final IMonitoringRecordSerializer serializer = factory.createAndInitialize(IMonitoringRecordSerializer.class, this.serializerName,
+						this.configuration);
+				serializer.onInitialization();
+				this.chunks[i] = new PartitionChunk(i, serializer, this.chunkSize);
+			}
+		}
+
+		this.flushTimer.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					KafkaChunkWriter.this.flush();
+				} catch (final RuntimeException e) { // NOPMD (an exception would cancel the timer)
+					LOGGER.error("Sending the pending chunks failed.", e);
+				}
+			}
+		}, this.deferredWriteDelay, this.deferredWriteDelay, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void writeMonitoringRecord(final IMonitoringRecord record) {
+		final int partition = this.getPartition(record);
+		synchronized (this) {
+			final PartitionChunk chunk = this.chunks[partition];
+			chunk.records.add(record);
+			if (chunk.records.size() >= this.chunkSize) {
+				this.send(chunk);
+			}
+		}
+	}
+
+	/**
+	 * Returns the partition the record is sent to.
+	 *
+	 * @param record
+	 *            the record
+	 * @return the partition of the trace of the record, or the partition of the host
+	 */
+	int getPartition(final IMonitoringRecord record) {
+		if (this.partitionByTraceId) {
+			final long traceId;
+			if (record instanceof ITraceRecord) {
+				traceId = ((ITraceRecord) record).getTraceId();
+			} else if (record instanceof TraceMetadata) {
+				traceId = ((TraceMetadata) record).getTraceId();
+			} else if (record instanceof OperationExecutionRecord) {
+				traceId = ((OperationExecutionRecord) record).getTraceId();
+			} else {
+				return this.hostPartition;
+			}
+			// trace ids are consecutive, hence they are mixed to spread neighboring traces
+			return KafkaChunkWriter.partition((int) ((traceId * GOLDEN_RATIO) >>> 32), this.chunks.length);
+		} else {
+			return this.hostPartition;
+		}
+	}
+
+	private static int partition(final int hash, final int numberOfPartitions) {
+		return (hash & Integer.MAX_VALUE) % numberOfPartitions;
+	}
+
+	/**
+	 * Sends the pending records of all partitions.
+	 */
+	private void flush() {
+		synchronized (this) {
+			for (final PartitionChunk chunk : this.chunks) {
+				if (!chunk.records.isEmpty()) {
+					this.send(chunk);
+				}
+			}
+		}
+	}
+
+	private void send(final PartitionChunk chunk) {
+		try {
+			this.send(chunk.partition, chunk.serializer, chunk.records);
+		} finally {
+			// the records are not sent again, even if sending failed
+			chunk.records.clear();
+		}
+	}
+
+	private void send(final int partition, final IMonitoringRecordSerializer serializer, final List<IMonitoringRecord> records) {
+		final ByteBuffer outputBuffer = this.buffer;
+		outputBuffer.clear();
+		final int bytesWritten;
+		try {
+			bytesWritten = serializer.serializeRecords(records, outputBuffer);
+		} catch (final BufferOverflowException e) {
+			if (records.size() > 1) {
+				final int half = records.size() / 2;
+				this.send(partition, serializer, records.subList(0, half));
+				this.send(partition, serializer, records.subList(half, records.size()));
+			} else {
+				LOGGER.error("A record of type {} does not fit into the output buffer of {} bytes. Dropping it.",
+						records.get(0).getClass().getName(), outputBuffer.capacity());
+			}
+			return;
+		}
+		outputBuffer.position(0);
+		final byte[] chunk = new byte[bytesWritten];
+		outputBuffer.get(chunk);
+
+		this.producer.send(new ProducerRecord<String, byte[]>(this.topicName, partition, null, chunk));
+	}
+
+	@Override
+	public void onTerminating() {
+		this.flushTimer.shutdownNow();
+		if (this.producer != null) {
+			this.flush();
+			for (final PartitionChunk chunk : this.chunks) {
+				chunk.serializer.onTermination();
+			}
+			this.producer.close();
+		}
+	}
+
+	/**
+	 * Pending records of a partition.
+	 */
+	private static class PartitionChunk {
+
+		private final int partition;
+		private final IMonitoringRecordSerializer serializer;
+		private final List<IMonitoringRecord> records;
+
+		public PartitionChunk(final int partition, final IMonitoringRecordSerializer serializer, final int chunkSize) {
+			this.partition = partition;
+			this.serializer = serializer;
+			this.records = new ArrayList<>(chunkSize);
+		}
+	}
+}
@@ -39,6 +39,7 @@ public class KafkaWriter implements IRawDataWriter {
 	private static final int DEFAULT_BATCH_SIZE = 16384;
 	private static final int DEFAULT_LINGER_MS = 1;
 	private static final int DEFAULT_BUFFER_MEMORY = 32 << 20;
+	private static final String DEFAULT_COMPRESSION_TYPE = "none";
 
 	private static final String PREFIX = KafkaWriter.class.getName() + ".";
 
@@ -50,6 +51,8 @@ public class KafkaWriter implements IRawDataWriter {
 	public static final String CONFIG_PROPERTY_BOOTSTRAP_SERVERS = PREFIX + "bootstrapServers"; // NOCS (afterPREFIX)
 	/** The name of the configuration property for the buffer memory size. */
 	public static final String CONFIG_PROPERTY_BUFFER_MEMORY = PREFIX + "bufferMemory"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the compression type, i.e., none, gzip, snappy, or lz4. */
+	public static final String CONFIG_PROPERTY_COMPRESSION_TYPE = PREFIX + "compressionType"; // NOCS (afterPREFIX)
 	/** The name of the configuration property for the linger interval. */
 	public static final String CONFIG_PROPERTY_LINGER_MS = PREFIX + "lingerMs"; // NOCS (afterPREFIX)
 	/** The name of the configuration property for the topic name. */
@@ -61,6 +64,7 @@ public class KafkaWriter implements IRawDataWriter {
 	private final int lingerMs;
 	private final int batchSize;
 	private final int bufferMemory;
+	private final String compressionType;
 
 	private Producer<String, byte[]> producer;
 
@@ -77,6 +81,7 @@ public class KafkaWriter implements IRawDataWriter {
 		this.lingerMs = configuration.getIntProperty(CONFIG_PROPERTY_LINGER_MS, DEFAULT_LINGER_MS);
 		this.batchSize = configuration.getIntProperty(CONFIG_PROPERTY_BATCH_SIZE, DEFAULT_BATCH_SIZE);
 		this.bufferMemory = configuration.getIntProperty(CONFIG_PROPERTY_BUFFER_MEMORY, DEFAULT_BUFFER_MEMORY);
+		this.compressionType = configuration.getStringProperty(CONFIG_PROPERTY_COMPRESSION_TYPE, DEFAULT_COMPRESSION_TYPE);
 
 		this.checkConfiguration();
 	}
@@ -102,6 +107,7 @@ public class KafkaWriter implements IRawDataWriter {
 		properties.put("batch.size", this.batchSize);
 		properties.put("linger.ms", this.lingerMs);
 		properties.put("buffer.memory", this.bufferMemory);
+		properties.put("compression.type", this.compressionType);
 
 		properties.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
 		properties.put("value.serializer", "org.apache.kafka.common.serialization.ByteArraySerializer");
@@ -0,0 +1,206 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.kafka;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.hamcrest.CoreMatchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.flow.trace.TraceMetadata;
+import kieker.common.record.flow.trace.operation.AfterOperationEvent;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.system.CPUUtilizationRecord;
+import kieker.monitoring.core.configuration.ConfigurationConstants;
+import kieker.monitoring.writer.serializer.BinarySerializer;
+
+/**
+ * Tests the partitioning and the sending of chunks by the {@link KafkaChunkWriter} with a mock producer.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class KafkaChunkWriterTest {
+
+	private static final String TOPIC = "kieker";
+	private static final String HOSTNAME = "host";
+	private static final int NUMBER_OF_PARTITIONS = 8;
+	private static final int OUTPUT_BUFFER_SIZE = 512;
+	private static final String NO_DELAY = "3600000";
+
+	private KafkaChunkWriter writer;
+	private MockProducer<String, byte[]> producer;
+
+	/** Default constructor. */
+	public KafkaChunkWriterTest() {
+		// empty default constructor
+	}
+
+	/**
+	 * Stop the flush timer of the writer.
+	 */
+	@After
+	public void tearDown() {
+		if (this.writer != null) {
+			this.writer.onTerminating();
+		}
+	}
+
+	/**
+	 * Test that all records of a trace are sent to the same partition.
+	 */
+	@Test
+	public void testRecordsOfATraceAreSentToOnePartition() {
+		this.startWriter(KafkaChunkWriter.PARTITION_BY_TRACE_ID, NUMBER_OF_PARTITIONS, 64);
+
+		for (long traceId = 0; traceId < 100; traceId++) {
+			final int partition = this.writer.getPartition(new TraceMetadata(traceId, 1, "session", HOSTNAME, -1, -1));
+			Assert.assertThat(this.writer.getPartition(new BeforeOperationEvent(1, traceId, 0, "op", "class")), CoreMatchers.is(partition));
+			Assert.assertThat(this.writer.getPartition(new AfterOperationEvent(2, traceId, 1, "op", "class")), CoreMatchers.is(partition));
+			Assert.assertThat(this.writer.getPartition(new OperationExecutionRecord("op", "session", traceId, 1, 2, HOSTNAME, 0, 0)),
+					CoreMatchers.is(partition));
+		}
+	}
+
+	/**
+	 * Test that records without a trace are sent to the partition of the host, and that all records are sent to it
+	 * when partitioning by host.
+	 */
+	@Test
+	public void testRecordsWithoutTraceAreSentToThePartitionOfTheHost() {
+		final int hostPartition = (HOSTNAME.hashCode() & Integer.MAX_VALUE) % NUMBER_OF_PARTITIONS;
+		this.startWriter(KafkaChunkWriter.PARTITION_BY_TRACE_ID, NUMBER_OF_PARTITIONS, 64);
+
+		Assert.assertThat(this.writer.getPartition(this.createMeasurement()), CoreMatchers.is(hostPartition));
+
+		this.writer.onTerminating();
+		this.startWriter(KafkaChunkWriter.PARTITION_BY_HOSTNAME, NUMBER_OF_PARTITIONS, 64);
+
+		Assert.assertThat(this.writer.getPartition(this.createMeasurement()), CoreMatchers.is(hostPartition));
+		for (long traceId = 0; traceId < 100; traceId++) {
+			Assert.assertThat(this.writer.getPartition(new BeforeOperationEvent(1, traceId, 0, "op", "class")), CoreMatchers.is(hostPartition));
+		}
+	}
+
+	/**
+	 * Test that consecutive trace ids are spread evenly over the partitions.
+	 */
+	@Test
+	public void testConsecutiveTraceIdsAreSpread() {
+		final int tracesPerPartition = 100;
+		this.startWriter(KafkaChunkWriter.PARTITION_BY_TRACE_ID, NUMBER_OF_PARTITIONS, 64);
+
+		final int[] tracesOfPartition = new int[NUMBER_OF_PARTITIONS];
+		for (long traceId = 0; traceId < (NUMBER_OF_PARTITIONS * tracesPerPartition); traceId++) {
+			tracesOfPartition[this.writer.getPartition(new BeforeOperationEvent(1, traceId, 0, "op", "class"))]++;
+		}
+
+		for (final int traces : tracesOfPartition) {
+			Assert.assertThat(Arrays.toString(tracesOfPartition), traces >= ((tracesPerPartition * 3) / 4), CoreMatchers.is(true));
+			Assert.assertThat(Arrays.toString(tracesOfPartition), traces <= ((tracesPerPartition * 5) / 4), CoreMatchers.is(true));
+		}
+	}
+
+	/**
+	 * Test that a chunk which does not fit into the output buffer is sent in parts.
+	 */
+	@Test
+	public void testChunkExceedingTheOutputBufferIsSplit() {
+		final int chunkSize = 4;
+		this.startWriter(KafkaChunkWriter.PARTITION_BY_HOSTNAME, 1, chunkSize);
+
+		// each record fits into the output buffer, but not all of them
+		for (int i = 0; i < chunkSize; i++) {
+			this.writer.writeMonitoringRecord(this.createRecord(OUTPUT_BUFFER_SIZE / 3, i));
+		}
+
+		final List<ProducerRecord<String, byte[]>> sentChunks = this.producer.history();
+		Assert.assertThat(sentChunks.size() > 1, CoreMatchers.is(true));
+		Assert.assertThat(sentChunks.size() <= chunkSize, CoreMatchers.is(true));
+		for (final ProducerRecord<String, byte[]> chunk : sentChunks) {
+			Assert.assertThat(chunk.partition(), CoreMatchers.is(0));
+		}
+	}
+
+	/**
+	 * Test that a record which does not fit into the output buffer is dropped, and that later records are sent.
+	 */
+	@Test
+	public void testRecordExceedingTheOutputBufferIsDropped() {
+		this.startWriter(KafkaChunkWriter.PARTITION_BY_HOSTNAME, 1, 1);
+
+		this.writer.writeMonitoringRecord(this.createRecord(OUTPUT_BUFFER_SIZE, 0));
+
+		Assert.assertThat(this.producer.history().size(), CoreMatchers.is(0));
+
+		this.writer.writeMonitoringRecord(this.createRecord(1, 1));
+
+		Assert.assertThat(this.producer.history().size(), CoreMatchers.is(1));
+	}
+
+	private void startWriter(final String partitionBy, final int numberOfPartitions, final int chunkSize) {
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(ConfigurationConstants.HOST_NAME, HOSTNAME);
+		configuration.setProperty(KafkaChunkWriter.CONFIG_PROPERTY_BOOTSTRAP_SERVERS, "localhost:9092");
+		configuration.setProperty(KafkaChunkWriter.CONFIG_PROPERTY_TOPIC_NAME, TOPIC);
+		configuration.setProperty(KafkaChunkWriter.CONFIG_PROPERTY_PARTITION_BY, partitionBy);
+		configuration.setProperty(KafkaChunkWriter.CONFIG_PROPERTY_SERIALIZER, BinarySerializer.class.getName());
+		configuration.setProperty(KafkaChunkWriter.CONFIG_PROPERTY_CHUNK_SIZE, String.valueOf(chunkSize));
+		configuration.setProperty(KafkaChunkWriter.CONFIG_PROPERTY_OUTPUT_BUFFER_SIZE, String.valueOf(OUTPUT_BUFFER_SIZE));
+		configuration.setProperty(KafkaChunkWriter.CONFIG_PROPERTY_DEFERRED_WRITE_DELAY, NO_DELAY);
+
+		final List<PartitionInfo> partitions = new ArrayList<>();
+		for (int i = 0; i < numberOfPartitions; i++) {
+			partitions.add(new PartitionInfo(TOPIC, i, null, new Node[0], new Node[0]));
+		}
+		final Cluster cluster = new Cluster("cluster", Collections.<Node> emptyList(), partitions, Collections.<String> emptySet(),
+				Collections.<String> emptySet());
+		this.producer = new MockProducer<>(cluster, true, null, new StringSerializer(), new ByteArraySerializer());
+
+		this.writer = new KafkaChunkWriter(configuration);
+		this.writer.start(this.producer);
+	}
+
+	private IMonitoringRecord createMeasurement() {
+		return new CPUUtilizationRecord(1, HOSTNAME, "cpu0", 0, 0, 0, 0, 0, 0, 1);
+	}
+
+	/** Creates a record whose operation signature has the given length, which is unique per record. */
+	private IMonitoringRecord createRecord(final int signatureLength, final int index) {
+		final StringBuilder signature = new StringBuilder(signatureLength);
+		signature.append(index);
+		while (signature.length() < signatureLength) {
+			signature.append('x');
+		}
+		return new BeforeOperationEvent(1, 1, index, signature.toString(), "class");
+	}
+}
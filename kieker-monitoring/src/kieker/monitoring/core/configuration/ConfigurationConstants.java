@@ -93,6 +93,17 @@ public final class ConfigurationConstants {
 	public static final String ADAPTIVE_MONITORING_BOUNDED_CACHE_BEHAVIOUR = ConfigurationConstants.PREFIX
 			+ "adaptiveMonitoring.boundedCacheBehaviour";
 
+	// Probe Sampling Controller
+	public static final String PROBE_SAMPLING_ENABLED = ConfigurationConstants.PREFIX + "probeSampling.enabled";
+	public static final String PROBE_SAMPLING_TRACE_RATE = ConfigurationConstants.PREFIX + "probeSampling.traceRate";
+	public static final String PROBE_SAMPLING_RATES = ConfigurationConstants.PREFIX + "probeSampling.rates";
+	public static final String PROBE_SAMPLING_RECORDS_PER_SECOND = ConfigurationConstants.PREFIX
+			+ "probeSampling.recordsPerSecond";
+	public static final String PROBE_SAMPLING_QUEUE_FILL_THRESHOLD = ConfigurationConstants.PREFIX
+			+ "probeSampling.queueFillThreshold";
+	public static final String PROBE_SAMPLING_ADJUST_INTERVAL = ConfigurationConstants.PREFIX
+			+ "probeSampling.adjustInterval";
+
 	/**
 	 * Factory class. Avoid instantiation.
 	 */
@@ -24,6 +24,7 @@ package kieker.monitoring.core.controller;
 public interface IMonitoringController extends
 		IRemoteController,
 		IProbeController,
+		IProbeSamplingController,
 		ISamplingController,
 		IStateController,
 		ITimeSourceController,
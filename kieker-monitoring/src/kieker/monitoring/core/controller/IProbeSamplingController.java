@@ -0,0 +1,130 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.core.controller;
+
+import java.util.Map;
+
+/**
+ * Controls which share of the invocations of activated probes is actually monitored. In contrast to
+ * {@link IProbeController}, probes are not switched on or off but sampled:
+ * <ul>
+ * <li>Whether a new trace is monitored is decided once when it is registered (head sampling). Nested probes, sub
+ * traces, and traces continued in other threads honor this decision.</li>
+ * <li>For signatures matching a sampling pattern, only the given share of invocations is monitored. A sampled out
+ * invocation is treated like an invocation of a deactivated probe.</li>
+ * <li>If a records-per-second budget is set or the writer queue fills up, the trace sampling rate is lowered
+ * automatically and raised again once the load has decreased.</li>
+ * </ul>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public interface IProbeSamplingController {
+
+	/** Name of the remote control parameter to set the sampling rate of a pattern. */
+	String SAMPLING_RATE_PARAMETER = "samplingRate";
+	/** Name of the remote control parameter to set the trace sampling rate; the pattern is ignored. */
+	String TRACE_SAMPLING_RATE_PARAMETER = "traceSamplingRate";
+	/** Name of the remote control parameter to set the records-per-second budget; the pattern is ignored. */
+	String RECORDS_PER_SECOND_PARAMETER = "recordsPerSecond";
+
+	/**
+	 * Decides whether the current invocation of the probe with the given signature is monitored. This test is ignorant
+	 * of the fact whether the probe is activated.
+	 *
+	 * @param signature
+	 *            signature of the probe
+	 * @return true if the invocation should be monitored
+	 *
+	 * @since 2.0.0
+	 */
+	boolean isProbeSampled(final String signature);
+
+	/**
+	 * Sets the sampling rate for all signatures matching the given pattern. Later patterns take precedence.
+	 *
+	 * @param pattern
+	 *            pattern for the probes
+	 * @param rate
+	 *            share of monitored invocations between 0 and 1
+	 * @return true on success
+	 *
+	 * @since 2.0.0
+	 */
+	boolean setSamplingRate(final String pattern, final double rate);
+
+	/**
+	 * Removes the sampling rate of the given pattern.
+	 *
+	 * @param pattern
+	 *            pattern for the probes
+	 * @return true if a sampling rate was set for the pattern
+	 *
+	 * @since 2.0.0
+	 */
+	boolean removeSamplingRate(final String pattern);
+
+	/**
+	 * @return the sampling rates of all patterns in the order of their precedence (lowest first)
+	 *
+	 * @since 2.0.0
+	 */
+	Map<String, Double> getSamplingRates();
+
+	/**
+	 * Sets the share of new traces which are monitored.
+	 *
+	 * @param rate
+	 *            share of monitored traces between 0 and 1
+	 *
+	 * @since 2.0.0
+	 */
+	void setTraceSamplingRate(final double rate);
+
+	/**
+	 * @return the configured share of new traces which are monitored
+	 *
+	 * @since 2.0.0
+	 */
+	double getTraceSamplingRate();
+
+	/**
+	 * @return the share of new traces which are currently monitored, i.e., the configured trace sampling rate lowered
+	 *         according to the records-per-second budget and the writer queue fill level
+	 *
+	 * @since 2.0.0
+	 */
+	double getEffectiveTraceSamplingRate();
+
+	/**
+	 * Sets the maximal number of records per second. If more records are created, the trace sampling rate is lowered.
+	 *
+	 * @param recordsPerSecond
+	 *            the budget; values &lt;= 0 disable the budget
+	 *
+	 * @since 2.0.0
+	 */
+	void setRecordsPerSecondBudget(final long recordsPerSecond);
+
+	/**
+	 * @return the maximal number of records per second or 0 if there is no budget
+	 *
+	 * @since 2.0.0
+	 */
+	long getRecordsPerSecondBudget();
+}
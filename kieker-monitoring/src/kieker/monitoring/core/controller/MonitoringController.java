@@ -56,6 +56,7 @@ public final class MonitoringController extends AbstractController implements IM
 	private final WriterController writerController;
 	private final TimeSourceController timeSourceController;
 	private final ProbeController probeController;
+	private final ProbeSamplingController probeSamplingController;
 	/**
 	 * Whether or not the {@link IMonitoringRecord#setLoggingTimestamp(long)} is
 	 * automatically set.
@@ -73,6 +74,7 @@ public final class MonitoringController extends AbstractController implements IM
 		this.stateController.setStateListener(this);
 		this.timeSourceController = new TimeSourceController(configuration);
 		this.probeController = new ProbeController(configuration);
+		this.probeSamplingController = new ProbeSamplingController(configuration);
 		this.autoSetLoggingTimestamp = configuration.getBooleanProperty(ConfigurationConstants.AUTO_SET_LOGGINGTSTAMP);
 	}
 
@@ -128,6 +130,10 @@ public final class MonitoringController extends AbstractController implements IM
 		if (monitoringController.probeController.isTerminated()) {
 			monitoringController.terminate();
 		}
+		monitoringController.probeSamplingController.setMonitoringController(monitoringController);
+		if (monitoringController.probeSamplingController.isTerminated()) {
+			monitoringController.terminate();
+		}
 		monitoringController.setMonitoringController(monitoringController);
 		if (monitoringController.isTerminated()) {
 			return monitoringController;
@@ -198,6 +204,7 @@ public final class MonitoringController extends AbstractController implements IM
 	protected void cleanup() {
 		MonitoringController.LOGGER.info("Shutting down Monitoring Controller ({})", this.getName());
 		// this.saveMetadataAsRecord();
+		this.probeSamplingController.terminate();
 		this.probeController.terminate();
 		this.timeSourceController.terminate();
 		this.writerController.terminate();
@@ -212,7 +219,8 @@ public final class MonitoringController extends AbstractController implements IM
 		final StringBuilder sb = new StringBuilder(2048).append("Current State of kieker.monitoring (")
 				.append(MonitoringController.getVersion()).append(") ").append(this.stateController.toString())
 				.append(this.jmxController.toString()).append(this.timeSourceController.toString())
-				.append(this.probeController.toString()).append(this.writerController.toString())
+				.append(this.probeController.toString()).append(this.probeSamplingController.toString())
+				.append(this.writerController.toString())
 				.append("\n\tAutomatic assignment of logging timestamps: '").append(this.autoSetLoggingTimestamp)
 				.append("'\n").append(this.samplingController.toString());
 		return sb.toString();
@@ -242,6 +250,10 @@ public final class MonitoringController extends AbstractController implements IM
 		return this.samplingController;
 	}
 
+	protected WriterController getWriterController() {
+		return this.writerController;
+	}
+
 	// DELEGATE TO OTHER CONTROLLERS
 	// #############################
 
@@ -314,6 +326,7 @@ public final class MonitoringController extends AbstractController implements IM
 		if (this.autoSetLoggingTimestamp) {
 			record.setLoggingTimestamp(this.getTimeSource().getTime());
 		}
+		this.probeSamplingController.countRecord();
 		return this.writerController.newMonitoringRecord(record);
 	}
 
@@ -398,6 +411,51 @@ public final class MonitoringController extends AbstractController implements IM
 		this.probeController.removePatternParameterValue(pattern, name, value);
 	}
 
+	@Override
+	public boolean isProbeSampled(final String signature) {
+		return this.probeSamplingController.isProbeSampled(signature);
+	}
+
+	@Override
+	public boolean setSamplingRate(final String pattern, final double rate) {
+		return this.probeSamplingController.setSamplingRate(pattern, rate);
+	}
+
+	@Override
+	public boolean removeSamplingRate(final String pattern) {
+		return this.probeSamplingController.removeSamplingRate(pattern);
+	}
+
+	@Override
+	public Map<String, Double> getSamplingRates() {
+		return this.probeSamplingController.getSamplingRates();
+	}
+
+	@Override
+	public void setTraceSamplingRate(final double rate) {
+		this.probeSamplingController.setTraceSamplingRate(rate);
+	}
+
+	@Override
+	public double getTraceSamplingRate() {
+		return this.probeSamplingController.getTraceSamplingRate();
+	}
+
+	@Override
+	public double getEffectiveTraceSamplingRate() {
+		return this.probeSamplingController.getEffectiveTraceSamplingRate();
+	}
+
+	@Override
+	public void setRecordsPerSecondBudget(final long recordsPerSecond) {
+		this.probeSamplingController.setRecordsPerSecondBudget(recordsPerSecond);
+	}
+
+	@Override
+	public long getRecordsPerSecondBudget() {
+		return this.probeSamplingController.getRecordsPerSecondBudget();
+	}
+
 	// GET SINGLETON INSTANCE
 	// #############################
 	public static IMonitoringController getInstance() {
@@ -34,7 +34,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
@@ -53,6 +52,7 @@ import kieker.common.util.map.BoundedConcurrentHashMap.BoundedCacheBehaviour;
 import kieker.monitoring.core.configuration.ConfigurationConstants;
 import kieker.monitoring.core.signaturePattern.InvalidPatternException;
 import kieker.monitoring.core.signaturePattern.PatternEntry;
+import kieker.monitoring.core.signaturePattern.PatternIndex;
 import kieker.monitoring.core.signaturePattern.PatternParser;
 
 /**
@@ -75,6 +75,8 @@ public class ProbeController extends AbstractController implements IProbeControl
 
 	private final ConcurrentMap<String, Boolean> signatureCache;
 	private final List<PatternEntry> patterns = new ArrayList<>(); // only accessed synchronized
+	/** Immutable snapshot of {@link #patterns}, replaced on each modification and read without locking. */
+	private volatile PatternIndex patternIndex = PatternIndex.EMPTY;
 	private final Map<String, Map<String, List<String>>> patternListParameters = new ConcurrentHashMap<>();
 
 	/**
@@ -246,10 +248,10 @@ public class ProbeController extends AbstractController implements IProbeControl
 
 		synchronized (this) {
 			this.patterns.clear();
-			this.signatureCache.clear();
 			for (final String pattern : strPatternList) {
 				this.addToPatternEntryList(pattern);
 			}
+			this.publishPatterns();
 			if (updateConfig && this.configFileUpdate) {
 				this.updatePatternFile();
 			}
@@ -395,27 +397,31 @@ public class ProbeController extends AbstractController implements IProbeControl
 
 	/**
 	 * This method tests if the given signature matches a pattern and completes
-	 * accordingly the signatureCache map.
+	 * accordingly the signatureCache map. The current pattern snapshot is evaluated
+	 * without holding the monitor of this controller.
 	 *
 	 * @param signature
 	 *            The signature to match.
 	 */
 	private boolean matchesPattern(final String signature) {
-		synchronized (this) {
-			final ListIterator<PatternEntry> patternListIterator = this.patterns.listIterator(this.patterns.size());
-			while (patternListIterator.hasPrevious()) {
-				final PatternEntry patternEntry = patternListIterator.previous();
-				if (patternEntry.getPattern().matcher(signature).matches()) {
-					final boolean value = patternEntry.isActivated();
-					this.signatureCache.put(signature, value);
-					return value;
-				}
-			}
+		final PatternIndex index = this.patternIndex;
+		final boolean value = index.isActivated(signature);
+		this.signatureCache.put(signature, value);
+		if (index != this.patternIndex) { // NOPMD (compare references)
+			// the patterns changed concurrently, the cached value might be outdated
+			this.signatureCache.remove(signature);
 		}
-		// Do not forget to remember this default value
-		this.signatureCache.put(signature, true);
+		return value;
+	}
 
-		return true; // if nothing matches, the default is true!
+	/**
+	 * Publishes a new snapshot of the pattern list and invalidates the cache. Must
+	 * be called within synchronized after each modification of the pattern list.
+	 */
+	private void publishPatterns() {
+		this.patternIndex = new PatternIndex(this.patterns);
+		// we must always clear the cache after publishing the new snapshot!
+		this.signatureCache.clear();
 	}
 
 	private boolean addPattern(final String strPattern, final boolean activated) {
@@ -424,8 +430,6 @@ public class ProbeController extends AbstractController implements IProbeControl
 			return false;
 		}
 		synchronized (this) {
-			// we must always clear the cache!
-			this.signatureCache.clear();
 			final Pattern pattern;
 			try {
 				pattern = PatternParser.parseToPattern(strPattern);
@@ -434,6 +438,7 @@ public class ProbeController extends AbstractController implements IProbeControl
 				return false;
 			}
 			this.patterns.add(new PatternEntry(strPattern, pattern, activated));
+			this.publishPatterns();
 			if (this.configFileUpdate) {
 				this.updatePatternFile();
 			}
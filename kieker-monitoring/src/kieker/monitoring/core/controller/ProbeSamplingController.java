@@ -0,0 +1,370 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.core.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.configuration.Configuration;
+import kieker.monitoring.core.configuration.ConfigurationConstants;
+import kieker.monitoring.core.signaturePattern.InvalidPatternException;
+import kieker.monitoring.core.signaturePattern.PatternParser;
+
+/**
+ * Samples the invocations of activated probes, see {@link IProbeSamplingController}.
+ *
+ * <p>
+ * The sampling rate of a signature is computed once from the sampling patterns and cached afterwards. The effective
+ * trace sampling rate is adjusted periodically by a task of the {@link SamplingController}: it is lowered
+ * proportionally if more records than the budget have been created, halved if the writer queue is filled beyond the
+ * configured threshold, and slowly raised again once both the record rate and the queue fill level are low.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public final class ProbeSamplingController extends AbstractController implements IProbeSamplingController {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProbeSamplingController.class);
+
+	/** the load factor never drops below this value to keep some visibility. */
+	private static final double MIN_LOAD_FACTOR = 0.001;
+	/** factor applied to the load factor if the writer queue is filled beyond the threshold. */
+	private static final double DECREASE_FACTOR = 0.5;
+	/** factor applied to the load factor if there are enough spare resources. */
+	private static final double INCREASE_FACTOR = 1.25;
+	/** share of the budget below which the load factor is raised again. */
+	private static final double BUDGET_HEADROOM = 0.9;
+
+	private final boolean enabled;
+	private final double queueFillThreshold;
+	private final long adjustIntervalInMs;
+
+	private final ConcurrentMap<String, Double> signatureCache = new ConcurrentHashMap<>();
+	private final Map<String, SamplingRule> rules = new LinkedHashMap<>(); // only accessed synchronized
+	/** Immutable snapshot of {@link #rules}, replaced on each modification and read without locking. */
+	private volatile SamplingRule[] ruleSnapshot = new SamplingRule[0];
+
+	private volatile double traceSamplingRate;
+	private volatile long recordsPerSecondBudget;
+	/** reduction of the trace sampling rate due to the current load; only written by the adjusting task. */
+	private volatile double loadFactor = 1.0;
+	private volatile double effectiveTraceSamplingRate;
+
+	private final LongAdder numRecords = new LongAdder();
+	private long lastAdjustmentTime; // only accessed by the adjusting task
+
+	/**
+	 * Creates a new instance of this class using the given configuration to initialize the class.
+	 *
+	 * @param configuration
+	 *            The configuration used to initialize this controller.
+	 */
+	protected ProbeSamplingController(final Configuration configuration) {
+		super(configuration);
+		this.enabled = configuration.getBooleanProperty(ConfigurationConstants.PROBE_SAMPLING_ENABLED, false);
+		this.queueFillThreshold = configuration.getDoubleProperty(ConfigurationConstants.PROBE_SAMPLING_QUEUE_FILL_THRESHOLD, 0.5);
+		this.adjustIntervalInMs = configuration.getLongProperty(ConfigurationConstants.PROBE_SAMPLING_ADJUST_INTERVAL, 1000);
+		this.recordsPerSecondBudget = Math.max(0, configuration.getLongProperty(ConfigurationConstants.PROBE_SAMPLING_RECORDS_PER_SECOND, 0));
+		this.traceSamplingRate = ProbeSamplingController.toRate(configuration.getDoubleProperty(ConfigurationConstants.PROBE_SAMPLING_TRACE_RATE, 1.0));
+		this.updateEffectiveTraceSamplingRate();
+
+		if (this.enabled) {
+			// entries have the form <rate>:<pattern> and are separated by '|'
+			for (final String entry : configuration.getStringArrayProperty(ConfigurationConstants.PROBE_SAMPLING_RATES)) {
+				final int separator = entry.indexOf(':');
+				if (separator == -1) {
+					LOGGER.warn("Sampling rates have to be given as <rate>:<pattern>. Ignoring: {}", entry);
+					continue;
+				}
+				try {
+					this.setSamplingRate(entry.substring(separator + 1).trim(), Double.parseDouble(entry.substring(0, separator).trim()));
+				} catch (final NumberFormatException ex) {
+					LOGGER.warn("'{}' is not a valid sampling rate. Ignoring: {}", entry.substring(0, separator), entry);
+				}
+			}
+		}
+	}
+
+	@Override
+	protected void init() {
+		if (this.enabled && (this.monitoringController != null)) {
+			final ScheduledThreadPoolExecutor scheduler = this.monitoringController.getSamplingController().periodicSensorsPoolExecutor;
+			if ((this.adjustIntervalInMs > 0) && (null != scheduler)) {
+				this.lastAdjustmentTime = System.nanoTime();
+				scheduler.scheduleAtFixedRate(new Runnable() {
+					@Override
+					public void run() {
+						ProbeSamplingController.this.adjust();
+					}
+				}, this.adjustIntervalInMs, this.adjustIntervalInMs, TimeUnit.MILLISECONDS);
+			} else if (this.adjustIntervalInMs > 0) {
+				LOGGER.warn("Failed to enable the adaptive trace sampling rate. '{}' must be > 0!",
+						ConfigurationConstants.PERIODIC_SENSORS_EXECUTOR_POOL_SIZE);
+			}
+		}
+	}
+
+	@Override
+	protected void cleanup() {
+		LOGGER.debug("Shutting down Probe Sampling Controller");
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder(255);
+		sb.append("ProbeSamplingController: ");
+		if (this.enabled) {
+			sb.append("\n\tTrace sampling rate: ");
+			sb.append(this.traceSamplingRate);
+			sb.append(" (effective: ");
+			sb.append(this.effectiveTraceSamplingRate);
+			sb.append(")\n\tRecords per second budget: ");
+			if (this.recordsPerSecondBudget > 0) {
+				sb.append(this.recordsPerSecondBudget);
+			} else {
+				sb.append("unlimited");
+			}
+			sb.append("\n\tSampling patterns: ");
+			sb.append(this.ruleSnapshot.length);
+		} else {
+			sb.append("disabled");
+		}
+		sb.append('\n');
+		return sb.toString();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isProbeSampled(final String signature) {
+		if (!this.enabled) {
+			return true;
+		}
+		final SamplingRule[] localRules = this.ruleSnapshot;
+		if (localRules.length == 0) {
+			return true;
+		}
+		Double rate = this.signatureCache.get(signature);
+		if (rate == null) {
+			rate = ProbeSamplingController.matchRate(localRules, signature);
+			this.signatureCache.put(signature, rate);
+			if (this.ruleSnapshot != localRules) { // NOPMD (compare references)
+				// the rules changed concurrently and the cache might have been cleared before the put
+				this.signatureCache.remove(signature);
+			}
+		}
+		final double value = rate;
+		return (value >= 1.0) || ((value > 0.0) && (ThreadLocalRandom.current().nextDouble() < value));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean setSamplingRate(final String pattern, final double rate) {
+		if (!this.enabled) {
+			LOGGER.warn("Probe sampling is disabled!");
+			return false;
+		}
+		final Pattern compiledPattern;
+		try {
+			compiledPattern = PatternParser.parseToPattern(pattern);
+		} catch (final InvalidPatternException ex) {
+			LOGGER.error("'{}' is not a valid pattern.", pattern, ex);
+			return false;
+		}
+		synchronized (this) {
+			// re-adding a pattern moves it to the end, i.e., it takes precedence
+			this.rules.remove(pattern);
+			this.rules.put(pattern, new SamplingRule(compiledPattern, ProbeSamplingController.toRate(rate)));
+			this.publishRules();
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean removeSamplingRate(final String pattern) {
+		synchronized (this) {
+			if (this.rules.remove(pattern) == null) {
+				return false;
+			}
+			this.publishRules();
+			return true;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, Double> getSamplingRates() {
+		synchronized (this) {
+			final Map<String, Double> rates = new LinkedHashMap<>(); // NOPMD (LinkedHashMap to keep the order)
+			for (final Map.Entry<String, SamplingRule> entry : this.rules.entrySet()) {
+				rates.put(entry.getKey(), entry.getValue().rate);
+			}
+			return rates;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setTraceSamplingRate(final double rate) {
+		this.traceSamplingRate = ProbeSamplingController.toRate(rate);
+		this.updateEffectiveTraceSamplingRate();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getTraceSamplingRate() {
+		return this.traceSamplingRate;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getEffectiveTraceSamplingRate() {
+		return this.effectiveTraceSamplingRate;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setRecordsPerSecondBudget(final long recordsPerSecond) {
+		this.recordsPerSecondBudget = Math.max(0, recordsPerSecond);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getRecordsPerSecondBudget() {
+		return this.recordsPerSecondBudget;
+	}
+
+	/**
+	 * Counts a record passed to the writer, used to compare the record rate against the budget.
+	 */
+	void countRecord() { // NOPMD (package-private)
+		if (this.enabled) {
+			this.numRecords.increment();
+		}
+	}
+
+	/**
+	 * Adjusts the load factor according to the records created since the last adjustment and the writer queue.
+	 */
+	void adjust() { // NOPMD (package-private)
+		final long now = System.nanoTime();
+		final long records = this.numRecords.sumThenReset();
+		final double queueFillLevel = this.monitoringController.getWriterController().getQueueFillLevel();
+		this.adjustLoadFactor(records, now - this.lastAdjustmentTime, queueFillLevel);
+		this.lastAdjustmentTime = now;
+	}
+
+	/**
+	 * Computes the new load factor. Package-private for testing.
+	 *
+	 * @param records
+	 *            the number of records created in the elapsed time
+	 * @param elapsedNanos
+	 *            the elapsed time
+	 * @param queueFillLevel
+	 *            the current share of occupied slots in the writer queue
+	 */
+	void adjustLoadFactor(final long records, final long elapsedNanos, final double queueFillLevel) { // NOPMD (package-private)
+		final long budget = this.recordsPerSecondBudget;
+		final double recordsPerSecond = (elapsedNanos > 0) ? (records * (double) TimeUnit.SECONDS.toNanos(1)) / elapsedNanos : 0.0; // NOCS
+		double factor = this.loadFactor;
+
+		if ((budget > 0) && (recordsPerSecond > budget)) {
+			factor *= budget / recordsPerSecond;
+		}
+		if (queueFillLevel > this.queueFillThreshold) {
+			factor *= DECREASE_FACTOR;
+		} else if (((budget <= 0) || (recordsPerSecond < (budget * BUDGET_HEADROOM))) && (queueFillLevel < (this.queueFillThreshold / 2))) {
+			factor *= INCREASE_FACTOR;
+		}
+
+		final double newFactor = Math.max(MIN_LOAD_FACTOR, Math.min(1.0, factor));
+		if ((newFactor != this.loadFactor) && LOGGER.isDebugEnabled()) { // NOPMD (compare doubles)
+			LOGGER.debug("Adjusted trace sampling load factor to {} ({} records/s, queue fill level {})", newFactor, recordsPerSecond, queueFillLevel);
+		}
+		this.loadFactor = newFactor;
+		this.updateEffectiveTraceSamplingRate();
+	}
+
+	private void updateEffectiveTraceSamplingRate() {
+		this.effectiveTraceSamplingRate = this.enabled ? this.traceSamplingRate * this.loadFactor : 1.0; // NOCS
+	}
+
+	private void publishRules() {
+		this.ruleSnapshot = this.rules.values().toArray(new SamplingRule[this.rules.size()]);
+		this.signatureCache.clear();
+	}
+
+	private static Double matchRate(final SamplingRule[] rules, final String signature) {
+		for (int i = rules.length - 1; i >= 0; i--) {
+			if (rules[i].pattern.matcher(signature).matches()) {
+				return rules[i].rate;
+			}
+		}
+		return 1.0; // if nothing matches, all invocations are sampled
+	}
+
+	private static double toRate(final double rate) {
+		if (Double.isNaN(rate) || (rate < 0.0)) {
+			return 0.0;
+		}
+		return Math.min(1.0, rate);
+	}
+
+	/**
+	 * @author Kieker Project
+	 */
+	private static final class SamplingRule {
+		final Pattern pattern; // NOCS (package visible for outer class)
+		final Double rate; // NOCS (package visible for outer class)
+
+		public SamplingRule(final Pattern pattern, final double rate) {
+			this.pattern = pattern;
+			this.rate = rate;
+		}
+	}
+}
@@ -28,6 +28,7 @@ import org.slf4j.LoggerFactory;
 import kieker.common.configuration.Configuration;
 import kieker.common.record.IMonitoringRecord;
 import kieker.monitoring.core.configuration.ConfigurationConstants;
+import kieker.monitoring.core.pool.RecordPools;
 import kieker.monitoring.queue.BlockingQueueDecorator;
 import kieker.monitoring.queue.behavior.BlockOnFailedInsertBehavior;
 import kieker.monitoring.queue.behavior.BypassQueueBehavior;
@@ -35,6 +36,7 @@ import kieker.monitoring.queue.behavior.CountOnFailedInsertBehavior;
 import kieker.monitoring.queue.behavior.DoNotInsertBehavior;
 import kieker.monitoring.queue.behavior.InsertBehavior;
 import kieker.monitoring.queue.behavior.TerminateOnFailedInsertBehavior;
+import kieker.monitoring.queue.behavior.ThreadLocalBufferInsertBehavior;
 import kieker.monitoring.queue.putstrategy.PutStrategy;
 import kieker.monitoring.queue.takestrategy.TakeStrategy;
 import kieker.monitoring.writer.AbstractMonitoringWriter;
@@ -67,6 +69,39 @@ public final class WriterController extends AbstractController implements IWrite
 	/** The fully qualified name of the take strategy */
 	public static final String QUEUE_TAKE_STRATEGY = "QueueTakeStrategy";
 
+	/**
+	 * The name of the configuration determining the maximal number of records the
+	 * writer thread passes to the writer at once. Values &lt;= 1 disable batching.
+	 */
+	public static final String MAX_BATCH_SIZE = "MaxBatchSize";
+
+	/**
+	 * The name of the configuration determining how long (in milliseconds) the
+	 * writer thread waits for further records before it writes an incomplete
+	 * batch.
+	 */
+	public static final String MAX_BATCH_LINGER_TIME = "MaxBatchLingerTimeInMs";
+
+	/**
+	 * The name of the configuration determining the number of records each
+	 * application thread collects in a thread-local buffer before it inserts them
+	 * into the queue at once. Values &lt;= 1 disable the thread-local buffers.
+	 */
+	public static final String THREAD_LOCAL_BUFFER_SIZE = "ThreadLocalBufferSize";
+
+	/**
+	 * The name of the configuration determining the maximal time (in
+	 * milliseconds) a record may remain in a thread-local buffer.
+	 */
+	public static final String THREAD_LOCAL_BUFFER_MAX_AGE = "ThreadLocalBufferMaxAgeInMs";
+
+	/**
+	 * The name of the configuration determining the number of recyclable records
+	 * per record type the operation execution probes may reuse. Values &lt;= 0
+	 * disable record pooling.
+	 */
+	public static final String RECORD_POOL_SIZE = "RecordPoolSize";
+
 	private static final Logger LOGGER = LoggerFactory.getLogger(WriterController.class);
 	/** Monitoring Writer. */
 	private AbstractMonitoringWriter monitoringWriter; // NOPMD (so far, cannot be made final due to the
@@ -87,6 +122,9 @@ public final class WriterController extends AbstractController implements IWrite
 	private InsertBehavior<IMonitoringRecord> insertBehavior; // NOPMD (so far, cannot be made final due to the
 																// MonitoringController)
 
+	/** the thread-local buffers in front of the queue, if enabled. */
+	private ThreadLocalBufferInsertBehavior threadLocalBufferInsertBehavior;
+
 	// private Disruptor<IMonitoringRecordEvent> disruptor;
 
 	// private RingBuffer<IMonitoringRecordEvent> ringBuffer;
@@ -107,6 +145,18 @@ public final class WriterController extends AbstractController implements IWrite
 		final String queueFqn = configuration
 				.getStringProperty(WriterController.PREFIX + WriterController.RECORD_QUEUE_FQN);
 
+		int recordQueueInsertBehavior = configuration
+				.getIntProperty(WriterController.PREFIX + WriterController.RECORD_QUEUE_INSERT_BEHAVIOR);
+		if ((recordQueueInsertBehavior < 0) || (recordQueueInsertBehavior > 5)) {
+			WriterController.LOGGER.warn("Unknown value '{}' for {}{}; using default value 0",
+					recordQueueInsertBehavior, WriterController.PREFIX, WriterController.RECORD_QUEUE_INSERT_BEHAVIOR);
+			recordQueueInsertBehavior = 0;
+		}
+		final int threadLocalBufferSize = configuration
+				.getIntProperty(WriterController.PREFIX + WriterController.THREAD_LOCAL_BUFFER_SIZE, 1);
+		// only behaviors which insert into the queue support thread-local buffers
+		final boolean useThreadLocalBuffers = (threadLocalBufferSize > 1) && (recordQueueInsertBehavior <= 2);
+
 		final Queue<IMonitoringRecord> queue = this.newQueue(queueFqn, this.queueCapacity);
 		if (queue instanceof BlockingQueue) {
 			this.writerQueue = (BlockingQueue<IMonitoringRecord>) queue;
@@ -129,15 +179,11 @@ public final class WriterController extends AbstractController implements IWrite
 			// throw new IllegalStateException("monitoringWriter may not be null");
 		}
 
-		this.monitoringWriterThread = new MonitoringWriterThread(this.monitoringWriter, this.writerQueue);
-
-		int recordQueueInsertBehavior = configuration
-				.getIntProperty(WriterController.PREFIX + WriterController.RECORD_QUEUE_INSERT_BEHAVIOR);
-		if ((recordQueueInsertBehavior < 0) || (recordQueueInsertBehavior > 5)) {
-			WriterController.LOGGER.warn("Unknown value '{}' for {}{}; using default value 0",
-					recordQueueInsertBehavior, WriterController.PREFIX, WriterController.RECORD_QUEUE_INSERT_BEHAVIOR);
-			recordQueueInsertBehavior = 0;
-		}
+		final int maxBatchSize = configuration.getIntProperty(WriterController.PREFIX + WriterController.MAX_BATCH_SIZE, 1);
+		final long maxBatchLingerTimeInMs = configuration
+				.getLongProperty(WriterController.PREFIX + WriterController.MAX_BATCH_LINGER_TIME, 0);
+		this.monitoringWriterThread = new MonitoringWriterThread(this.monitoringWriter, this.writerQueue, maxBatchSize,
+				maxBatchLingerTimeInMs);
 
 		switch (recordQueueInsertBehavior) {
 		case 1:
@@ -165,6 +211,32 @@ public final class WriterController extends AbstractController implements IWrite
 			this.insertBehavior = new TerminateOnFailedInsertBehavior<>(this.writerQueue);
 			break;
 		}
+
+		if (threadLocalBufferSize > 1) {
+			if (useThreadLocalBuffers) {
+				final long maxBufferAgeInMs = configuration
+						.getLongProperty(WriterController.PREFIX + WriterController.THREAD_LOCAL_BUFFER_MAX_AGE, 100);
+				this.threadLocalBufferInsertBehavior = new ThreadLocalBufferInsertBehavior(this.writerQueue, this.insertBehavior,
+						threadLocalBufferSize, maxBufferAgeInMs);
+				this.insertBehavior = this.threadLocalBufferInsertBehavior;
+			} else {
+				WriterController.LOGGER.warn("{}{} is ignored for {}={}", WriterController.PREFIX,
+						WriterController.THREAD_LOCAL_BUFFER_SIZE, WriterController.RECORD_QUEUE_INSERT_BEHAVIOR,
+						recordQueueInsertBehavior);
+			}
+		}
+
+		final int recordPoolSize = configuration.getIntProperty(WriterController.PREFIX + WriterController.RECORD_POOL_SIZE, 0);
+		if (recordPoolSize > 0) {
+			// records are only recycled by the writer thread, and only if they reach it
+			if ((recordQueueInsertBehavior <= 2) && this.monitoringWriter.supportsRecordRecycling()) {
+				RecordPools.INSTANCE.enable(Math.max(2, recordPoolSize));
+			} else {
+				WriterController.LOGGER.warn("{}{} is ignored for {}={} and writer {}", WriterController.PREFIX,
+						WriterController.RECORD_POOL_SIZE, WriterController.RECORD_QUEUE_INSERT_BEHAVIOR,
+						recordQueueInsertBehavior, this.monitoringWriter.getClass().getName());
+			}
+		}
 	}
 
 	// private void initDisruptor(final Configuration configuration) throws
@@ -248,6 +320,14 @@ public final class WriterController extends AbstractController implements IWrite
 		}
 	}
 
+	/**
+	 * @return the share of occupied slots in the writer queue
+	 */
+	// default
+	double getQueueFillLevel() { // NOPMD (package-private)
+		return (double) this.writerQueue.size() / this.queueCapacity;
+	}
+
 	// default
 	boolean isLogMetadataRecord() { // NOPMD (package-private)
 		return this.logMetadataRecord;
@@ -266,6 +346,13 @@ public final class WriterController extends AbstractController implements IWrite
 	protected void cleanup() {
 		WriterController.LOGGER.debug("Shutting down Writer Controller");
 
+		RecordPools.INSTANCE.disable();
+
+		if (this.threadLocalBufferInsertBehavior != null) {
+			// publish the buffered records before the end-of-monitoring token
+			this.threadLocalBufferInsertBehavior.terminate();
+		}
+
 		if (this.monitoringWriterThread != null) {
 			this.monitoringWriterThread.terminate();
 		}
@@ -0,0 +1,120 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.core.pool;
+
+import java.nio.BufferOverflowException;
+
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.io.IValueSerializer;
+
+/**
+ * Mutable counterpart of {@link kieker.common.record.flow.trace.operation.AbstractOperationEvent}. Subclasses
+ * serialize exactly like the immutable event they represent.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public abstract class AbstractRecyclableOperationEvent extends AbstractMonitoringRecord implements IRecyclableRecord {
+
+	private static final long serialVersionUID = 6087381093451786270L;
+
+	private long timestamp;
+	private long traceId;
+	private int orderIndex;
+	private String operationSignature;
+	private String classSignature;
+
+	/**
+	 * Creates a new empty event.
+	 */
+	protected AbstractRecyclableOperationEvent() {
+		super();
+	}
+
+	/**
+	 * Sets all fields of this event.
+	 *
+	 * @param timestamp
+	 *            timestamp
+	 * @param traceId
+	 *            traceId
+	 * @param orderIndex
+	 *            orderIndex
+	 * @param operationSignature
+	 *            operationSignature
+	 * @param classSignature
+	 *            classSignature
+	 */
+	protected final void setOperationEvent(final long timestamp, final long traceId, final int orderIndex, final String operationSignature, // NOPMD
+			final String classSignature) {
+		this.timestamp = timestamp;
+		this.traceId = traceId;
+		this.orderIndex = orderIndex;
+		this.operationSignature = (operationSignature == null) ? "" : operationSignature; // NOCS
+		this.classSignature = (classSignature == null) ? "" : classSignature; // NOCS
+	}
+
+	@Override
+	public void serialize(final IValueSerializer serializer) throws BufferOverflowException {
+		serializer.putLong(this.getTimestamp());
+		serializer.putLong(this.getTraceId());
+		serializer.putInt(this.getOrderIndex());
+		serializer.putString(this.getOperationSignature());
+		serializer.putString(this.getClassSignature());
+	}
+
+	public final long getTimestamp() {
+		return this.timestamp;
+	}
+
+	public final long getTraceId() {
+		return this.traceId;
+	}
+
+	public final int getOrderIndex() {
+		return this.orderIndex;
+	}
+
+	public final String getOperationSignature() {
+		return this.operationSignature;
+	}
+
+	public final String getClassSignature() {
+		return this.classSignature;
+	}
+
+	/**
+	 * Recycled events are identical only to themselves.
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		return this == obj;
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(this);
+	}
+
+	@Override
+	public String toString() {
+		final String recordClassName = this.getRecordClassName();
+		return recordClassName.substring(recordClassName.lastIndexOf('.') + 1) + ": timestamp = " + this.timestamp + ", traceId = " + this.traceId
+				+ ", orderIndex = " + this.orderIndex + ", operationSignature = " + this.operationSignature + ", classSignature = " + this.classSignature
+				+ ", ";
+	}
+}
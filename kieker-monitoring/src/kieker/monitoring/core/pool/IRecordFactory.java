@@ -0,0 +1,36 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.core.pool;
+
+/**
+ * Creates the records of a {@link RecordPool}.
+ *
+ * @author Kieker Project
+ *
+ * @param <T>
+ *            the type of the pooled records
+ *
+ * @since 2.0.0
+ */
+public interface IRecordFactory<T extends IRecyclableRecord> {
+
+	/**
+	 * @param pool
+	 *            the pool the new record is returned to
+	 * @return a new record
+	 */
+	T create(RecordPool<T> pool);
+}
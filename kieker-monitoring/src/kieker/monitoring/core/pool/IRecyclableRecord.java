@@ -0,0 +1,40 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.core.pool;
+
+import kieker.common.record.IMonitoringRecord;
+
+/**
+ * A mutable record which is claimed from a {@link RecordPool} by a probe and returned to it by the writer thread
+ * after it has been written. It is written with the type name of the immutable record it represents, hence analyses
+ * cannot distinguish it from that record.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public interface IRecyclableRecord extends IMonitoringRecord {
+
+	/**
+	 * @return the fully qualified class name of the record type this record is written as
+	 */
+	String getRecordClassName();
+
+	/**
+	 * Returns this record to its pool. The record must not be accessed afterwards.
+	 */
+	void recycle();
+}
@@ -0,0 +1,94 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.core.pool;
+
+import java.util.Queue;
+
+import org.jctools.queues.MpmcArrayQueue;
+
+/**
+ * A bounded pool of recyclable records. Records are claimed by arbitrary application threads and released by the
+ * writer thread; both operations are lock-free and do not allocate. If the pool is empty, a new record is created;
+ * records released to a full pool are left to the garbage collector.
+ *
+ * @author Kieker Project
+ *
+ * @param <T>
+ *            the type of the pooled records
+ *
+ * @since 2.0.0
+ */
+public final class RecordPool<T extends IRecyclableRecord> {
+
+	private final Queue<T> freeRecords;
+	private final IRecordFactory<T> factory;
+	private final int capacity;
+
+	/**
+	 * Creates a new pool and fills it with new records.
+	 *
+	 * @param capacity
+	 *            the maximal number of idle records kept by the pool
+	 * @param factory
+	 *            the factory to create new records of this pool
+	 */
+	public RecordPool(final int capacity, final IRecordFactory<T> factory) {
+		if (capacity < 2) {
+			throw new IllegalArgumentException("The capacity of a record pool must be at least 2, but was " + capacity);
+		}
+		this.capacity = capacity;
+		this.factory = factory;
+		this.freeRecords = new MpmcArrayQueue<>(capacity);
+		for (int i = 0; i < capacity; i++) {
+			if (!this.freeRecords.offer(factory.create(this))) {
+				break; // the queue may round the capacity up, but never down
+			}
+		}
+	}
+
+	/**
+	 * @return an idle record of this pool or a new one if the pool is empty
+	 */
+	public T claim() {
+		final T record = this.freeRecords.poll();
+		if (record == null) {
+			return this.factory.create(this);
+		}
+		return record;
+	}
+
+	/**
+	 * Returns a record to this pool.
+	 *
+	 * @param record
+	 *            a record which has been created by this pool and is no longer used
+	 */
+	public void release(final T record) {
+		this.freeRecords.offer(record); // NOPMD (a full pool drops the record)
+	}
+
+	/**
+	 * @return the number of currently idle records
+	 */
+	public int size() {
+		return this.freeRecords.size();
+	}
+
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+}
@@ -0,0 +1,111 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.core.pool;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.trace.operation.AfterOperationEvent;
+import kieker.common.record.flow.trace.operation.AfterOperationFailedEvent;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+
+/**
+ * Provides the records of the operation execution probes. If record pooling has been enabled by the
+ * {@link kieker.monitoring.core.controller.WriterController}, the records are claimed from pools and returned by the
+ * writer thread; otherwise, a new immutable record is created for each event.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public enum RecordPools { // Singleton (Effective Java #3)
+	/** The singleton instance. */
+	INSTANCE;
+
+	/** all pools or null if pooling is disabled; replaced as a whole to keep the pools consistent. */
+	private volatile Pools pools;
+
+	/**
+	 * Enables record pooling with the given number of records per record type.
+	 *
+	 * @param capacity
+	 *            the maximal number of idle records per record type
+	 */
+	public void enable(final int capacity) {
+		this.pools = new Pools(capacity);
+	}
+
+	/**
+	 * Disables record pooling. Records in use are left to the garbage collector when they are recycled.
+	 */
+	public void disable() {
+		this.pools = null;
+	}
+
+	public boolean isEnabled() {
+		return this.pools != null;
+	}
+
+	/**
+	 * @return an event with the given values, see {@link BeforeOperationEvent}
+	 */
+	public IMonitoringRecord newBeforeOperationEvent(final long timestamp, final long traceId, final int orderIndex, final String operationSignature,
+			final String classSignature) {
+		final Pools localPools = this.pools;
+		if (localPools == null) {
+			return new BeforeOperationEvent(timestamp, traceId, orderIndex, operationSignature, classSignature);
+		}
+		return localPools.beforeOperationEvents.claim().set(timestamp, traceId, orderIndex, operationSignature, classSignature);
+	}
+
+	/**
+	 * @return an event with the given values, see {@link AfterOperationEvent}
+	 */
+	public IMonitoringRecord newAfterOperationEvent(final long timestamp, final long traceId, final int orderIndex, final String operationSignature,
+			final String classSignature) {
+		final Pools localPools = this.pools;
+		if (localPools == null) {
+			return new AfterOperationEvent(timestamp, traceId, orderIndex, operationSignature, classSignature);
+		}
+		return localPools.afterOperationEvents.claim().set(timestamp, traceId, orderIndex, operationSignature, classSignature);
+	}
+
+	/**
+	 * @return an event with the given values, see {@link AfterOperationFailedEvent}
+	 */
+	public IMonitoringRecord newAfterOperationFailedEvent(final long timestamp, final long traceId, final int orderIndex, // NOPMD (long parameter list)
+			final String operationSignature, final String classSignature, final String cause) {
+		final Pools localPools = this.pools;
+		if (localPools == null) {
+			return new AfterOperationFailedEvent(timestamp, traceId, orderIndex, operationSignature, classSignature, cause);
+		}
+		return localPools.afterOperationFailedEvents.claim().set(timestamp, traceId, orderIndex, operationSignature, classSignature, cause);
+	}
+
+	/**
+	 * @author Kieker Project
+	 */
+	private static final class Pools {
+		final RecordPool<RecyclableBeforeOperationEvent> beforeOperationEvents; // NOCS (package visible for outer class)
+		final RecordPool<RecyclableAfterOperationEvent> afterOperationEvents; // NOCS (package visible for outer class)
+		final RecordPool<RecyclableAfterOperationFailedEvent> afterOperationFailedEvents; // NOCS (package visible for outer class)
+
+		public Pools(final int capacity) {
+			this.beforeOperationEvents = new RecordPool<>(capacity, RecyclableBeforeOperationEvent.FACTORY);
+			this.afterOperationEvents = new RecordPool<>(capacity, RecyclableAfterOperationEvent.FACTORY);
+			// failures are rare, a small pool suffices
+			this.afterOperationFailedEvents = new RecordPool<>(Math.max(2, capacity / 16), RecyclableAfterOperationFailedEvent.FACTORY);
+		}
+	}
+}
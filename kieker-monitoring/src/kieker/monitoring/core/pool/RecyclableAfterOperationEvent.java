@@ -0,0 +1,92 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.core.pool;
+
+import kieker.common.record.flow.trace.operation.AfterOperationEvent;
+
+/**
+ * Recyclable variant of {@link AfterOperationEvent} which is written as such.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public final class RecyclableAfterOperationEvent extends AbstractRecyclableOperationEvent {
+
+	/** The factory for pools of this event type. */
+	public static final IRecordFactory<RecyclableAfterOperationEvent> FACTORY = new IRecordFactory<RecyclableAfterOperationEvent>() {
+		@Override
+		public RecyclableAfterOperationEvent create(final RecordPool<RecyclableAfterOperationEvent> pool) {
+			return new RecyclableAfterOperationEvent(pool);
+		}
+	};
+
+	private static final long serialVersionUID = 4926346442024950873L;
+	private static final String RECORD_CLASS_NAME = AfterOperationEvent.class.getName();
+
+	private final transient RecordPool<RecyclableAfterOperationEvent> pool;
+
+	private RecyclableAfterOperationEvent(final RecordPool<RecyclableAfterOperationEvent> pool) {
+		super();
+		this.pool = pool;
+	}
+
+	/**
+	 * Sets all fields of this event.
+	 *
+	 * @param timestamp
+	 *            timestamp
+	 * @param traceId
+	 *            traceId
+	 * @param orderIndex
+	 *            orderIndex
+	 * @param operationSignature
+	 *            operationSignature
+	 * @param classSignature
+	 *            classSignature
+	 * @return this event
+	 */
+	public RecyclableAfterOperationEvent set(final long timestamp, final long traceId, final int orderIndex, final String operationSignature,
+			final String classSignature) {
+		this.setOperationEvent(timestamp, traceId, orderIndex, operationSignature, classSignature);
+		return this;
+	}
+
+	@Override
+	public String getRecordClassName() {
+		return RECORD_CLASS_NAME;
+	}
+
+	@Override
+	public void recycle() {
+		this.pool.release(this);
+	}
+
+	@Override
+	public Class<?>[] getValueTypes() {
+		return AfterOperationEvent.TYPES; // NOPMD
+	}
+
+	@Override
+	public String[] getValueNames() {
+		return AfterOperationEvent.VALUE_NAMES; // NOPMD
+	}
+
+	@Override
+	public int getSize() {
+		return AfterOperationEvent.SIZE;
+	}
+}
@@ -0,0 +1,115 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.core.pool;
+
+import java.nio.BufferOverflowException;
+
+import kieker.common.record.flow.trace.operation.AfterOperationFailedEvent;
+import kieker.common.record.io.IValueSerializer;
+
+/**
+ * Recyclable variant of {@link AfterOperationFailedEvent} which is written as such.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public final class RecyclableAfterOperationFailedEvent extends AbstractRecyclableOperationEvent {
+
+	/** The factory for pools of this event type. */
+	public static final IRecordFactory<RecyclableAfterOperationFailedEvent> FACTORY = new IRecordFactory<RecyclableAfterOperationFailedEvent>() {
+		@Override
+		public RecyclableAfterOperationFailedEvent create(final RecordPool<RecyclableAfterOperationFailedEvent> pool) {
+			return new RecyclableAfterOperationFailedEvent(pool);
+		}
+	};
+
+	private static final long serialVersionUID = -7217983617338427113L;
+	private static final String RECORD_CLASS_NAME = AfterOperationFailedEvent.class.getName();
+
+	private final transient RecordPool<RecyclableAfterOperationFailedEvent> pool;
+
+	private String cause;
+
+	private RecyclableAfterOperationFailedEvent(final RecordPool<RecyclableAfterOperationFailedEvent> pool) {
+		super();
+		this.pool = pool;
+	}
+
+	/**
+	 * Sets all fields of this event.
+	 *
+	 * @param timestamp
+	 *            timestamp
+	 * @param traceId
+	 *            traceId
+	 * @param orderIndex
+	 *            orderIndex
+	 * @param operationSignature
+	 *            operationSignature
+	 * @param classSignature
+	 *            classSignature
+	 * @param cause
+	 *            cause
+	 * @return this event
+	 */
+	public RecyclableAfterOperationFailedEvent set(final long timestamp, final long traceId, final int orderIndex, final String operationSignature, // NOPMD
+			final String classSignature, final String cause) {
+		this.setOperationEvent(timestamp, traceId, orderIndex, operationSignature, classSignature);
+		this.cause = (cause == null) ? "" : cause; // NOCS
+		return this;
+	}
+
+	public String getCause() {
+		return this.cause;
+	}
+
+	@Override
+	public void serialize(final IValueSerializer serializer) throws BufferOverflowException {
+		super.serialize(serializer);
+		serializer.putString(this.getCause());
+	}
+
+	@Override
+	public String getRecordClassName() {
+		return RECORD_CLASS_NAME;
+	}
+
+	@Override
+	public void recycle() {
+		this.pool.release(this);
+	}
+
+	@Override
+	public Class<?>[] getValueTypes() {
+		return AfterOperationFailedEvent.TYPES; // NOPMD
+	}
+
+	@Override
+	public String[] getValueNames() {
+		return AfterOperationFailedEvent.VALUE_NAMES; // NOPMD
+	}
+
+	@Override
+	public int getSize() {
+		return AfterOperationFailedEvent.SIZE;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "cause = " + this.cause + ", ";
+	}
+}
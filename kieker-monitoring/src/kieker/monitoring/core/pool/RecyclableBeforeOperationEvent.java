@@ -0,0 +1,92 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.core.pool;
+
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+
+/**
+ * Recyclable variant of {@link BeforeOperationEvent} which is written as such.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public final class RecyclableBeforeOperationEvent extends AbstractRecyclableOperationEvent {
+
+	/** The factory for pools of this event type. */
+	public static final IRecordFactory<RecyclableBeforeOperationEvent> FACTORY = new IRecordFactory<RecyclableBeforeOperationEvent>() {
+		@Override
+		public RecyclableBeforeOperationEvent create(final RecordPool<RecyclableBeforeOperationEvent> pool) {
+			return new RecyclableBeforeOperationEvent(pool);
+		}
+	};
+
+	private static final long serialVersionUID = -2585613386213702529L;
+	private static final String RECORD_CLASS_NAME = BeforeOperationEvent.class.getName();
+
+	private final transient RecordPool<RecyclableBeforeOperationEvent> pool;
+
+	private RecyclableBeforeOperationEvent(final RecordPool<RecyclableBeforeOperationEvent> pool) {
+		super();
+		this.pool = pool;
+	}
+
+	/**
+	 * Sets all fields of this event.
+	 *
+	 * @param timestamp
+	 *            timestamp
+	 * @param traceId
+	 *            traceId
+	 * @param orderIndex
+	 *            orderIndex
+	 * @param operationSignature
+	 *            operationSignature
+	 * @param classSignature
+	 *            classSignature
+	 * @return this event
+	 */
+	public RecyclableBeforeOperationEvent set(final long timestamp, final long traceId, final int orderIndex, final String operationSignature,
+			final String classSignature) {
+		this.setOperationEvent(timestamp, traceId, orderIndex, operationSignature, classSignature);
+		return this;
+	}
+
+	@Override
+	public String getRecordClassName() {
+		return RECORD_CLASS_NAME;
+	}
+
+	@Override
+	public void recycle() {
+		this.pool.release(this);
+	}
+
+	@Override
+	public Class<?>[] getValueTypes() {
+		return BeforeOperationEvent.TYPES; // NOPMD
+	}
+
+	@Override
+	public String[] getValueNames() {
+		return BeforeOperationEvent.VALUE_NAMES; // NOPMD
+	}
+
+	@Override
+	public int getSize() {
+		return BeforeOperationEvent.SIZE;
+	}
+}
@@ -17,8 +17,11 @@
 package kieker.monitoring.core.registry;
 
 import java.security.SecureRandom;
-import java.util.Stack;
-import java.util.WeakHashMap;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
@@ -26,9 +29,25 @@ import org.slf4j.LoggerFactory;
 
 import kieker.common.record.flow.trace.ApplicationTraceMetadata;
 import kieker.common.record.flow.trace.TraceMetadata;
+import kieker.monitoring.core.controller.IMonitoringController;
 import kieker.monitoring.core.controller.MonitoringController;
 
 /**
+ * Keeps track of the current trace of each thread.
+ *
+ * <p>
+ * All state of a thread is kept in a reusable per-thread {@link TraceContext}, enclosing traces are stored in an
+ * array-backed stack inside this context. Split points are handed over to a started thread via a concurrent map or,
+ * for tasks wrapped by the executing thread itself, directly via its context. Hence, apart from the trace records
+ * themselves, registering and unregistering traces neither allocates nor takes a global lock.
+ * </p>
+ *
+ * <p>
+ * Whether a trace is sampled is decided once when a trace without a parent is registered, according to the effective
+ * trace sampling rate of the {@link kieker.monitoring.core.controller.IProbeSamplingController}. Sub traces and traces
+ * continued at split points inherit the decision of their parent.
+ * </p>
+ *
  * @author Jan Waller
  *
  * @since 1.5
@@ -39,19 +58,20 @@ public enum TraceRegistry { // Singleton (Effective Java #3)
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(TraceRegistry.class); // NOPMD (enum logger)
 
+	/** number of pending split points after which split points of terminated threads are purged. */
+	private static final int PURGE_THRESHOLD = 1024;
+
+	private final IMonitoringController controller = MonitoringController.getInstance();
 	private final AtomicInteger nextTraceId = new AtomicInteger(0);
 	private final long unique = MonitoringController.getInstance().isDebug() ? 0 : ((long) new SecureRandom().nextInt()) << 32; // NOCS
 	/** the hostname is final after the instantiation of the monitoring controller. */
 	private final String hostname = MonitoringController.getInstance().getHostname();
 
-	/** the current trace; null if new trace. */
-	private final ThreadLocal<TraceMetadata> traceStorage = new ThreadLocal<>();
-
-	/** used to store the stack of enclosing traces; null if no sub trace created yet. */
-	private final ThreadLocal<Stack<TraceMetadata>> enclosingTraceStack = new ThreadLocal<>();
+	/** the trace context of each thread; created on first registration and reused afterwards. */
+	private final ThreadLocal<TraceContext> traceContext = new ThreadLocal<>();
 
-	/** store the parent Trace. */
-	private final WeakHashMap<Thread, TracePoint> parentTrace = new WeakHashMap<>();
+	/** split points which have not been consumed by the started thread yet. */
+	private final ConcurrentMap<Thread, TracePoint> parentTrace = new ConcurrentHashMap<>();
 
 	private final long getNewId() {
 		return this.unique | this.nextTraceId.getAndIncrement();
@@ -64,7 +84,29 @@ public enum TraceRegistry { // Singleton (Effective Java #3)
 	 *         Trace object or null
 	 */
 	public final TraceMetadata getTrace() {
-		return this.traceStorage.get();
+		final TraceContext context = this.traceContext.get();
+		return (context != null) ? context.currentTrace : null; // NOCS
+	}
+
+	/**
+	 * Returns whether the current trace of this thread is sampled, i.e., whether probes should create records for it.
+	 *
+	 * @return false if the current trace has been sampled out; true if it is sampled or no trace is active
+	 *
+	 * @since 2.0.0
+	 */
+	public final boolean isTraceSampled() {
+		final TraceContext context = this.traceContext.get();
+		return (context == null) || (context.currentTrace == null) || context.currentSampled;
+	}
+
+	private final TraceContext getOrCreateTraceContext() {
+		TraceContext context = this.traceContext.get();
+		if (context == null) {
+			context = new TraceContext();
+			this.traceContext.set(context);
+		}
+		return context;
 	}
 
 	/**
@@ -74,38 +116,49 @@ public enum TraceRegistry { // Singleton (Effective Java #3)
 	 *         Trace object
 	 */
 	public final ApplicationTraceMetadata registerTrace() {
-		final TraceMetadata enclosingTrace = this.getTrace();
+		final TraceContext context = this.getOrCreateTraceContext();
+		final TraceMetadata enclosingTrace = context.currentTrace;
 		if (enclosingTrace != null) { // we create a subtrace
-			Stack<TraceMetadata> localTraceStack = this.enclosingTraceStack.get();
-			if (localTraceStack == null) {
-				localTraceStack = new Stack<>();
-				this.enclosingTraceStack.set(localTraceStack);
-			}
-			localTraceStack.push(enclosingTrace);
+			context.push(enclosingTrace, context.currentSampled);
 		}
 		final Thread thread = Thread.currentThread();
-		final TracePoint tp = this.getAndRemoveParentTraceId(thread);
+		// a split point handed over via the map is consumed in any case, so that it cannot leak into a later trace
+		final TracePoint tp = this.parentTrace.isEmpty() ? null : this.parentTrace.remove(thread); // NOCS
 		final long traceId = this.getNewId();
 		final long parentTraceId;
 		final int parentOrderId;
-		if (tp != null) { // we have a known split point
+		final boolean sampled;
+		if (context.hasSplitPoint) { // we have a split point handed over to the current thread
+			if ((enclosingTrace != null) && (enclosingTrace.getTraceId() != context.splitTraceId)) {
+				LOGGER.error("Enclosing trace does not match split point. Found: {} expected: {}", enclosingTrace.getTraceId(), context.splitTraceId);
+			}
+			parentTraceId = context.splitTraceId;
+			parentOrderId = context.splitOrderId;
+			sampled = context.splitSampled;
+			context.hasSplitPoint = false;
+		} else if (tp != null) { // we have a known split point
 			if ((enclosingTrace != null) && (enclosingTrace.getTraceId() != tp.traceId)) {
-				LOGGER.error("Enclosing trace does not match split point. Found: {} expected: {}", enclosingTrace.getTraceId(), enclosingTrace.getTraceId());
+				LOGGER.error("Enclosing trace does not match split point. Found: {} expected: {}", enclosingTrace.getTraceId(), tp.traceId);
 			}
 			parentTraceId = tp.traceId;
 			parentOrderId = tp.orderId;
+			sampled = tp.sampled;
 		} else if (enclosingTrace != null) { // we create a sub trace without a known split point
 			parentTraceId = enclosingTrace.getTraceId();
 			parentOrderId = -1; // we could instead get the last orderId ... But this would make it harder to distinguish from known split points
+			sampled = context.currentSampled;
 		} else { // we create a new trace without a parent
 			parentTraceId = traceId;
 			parentOrderId = -1;
+			final double samplingRate = this.controller.getEffectiveTraceSamplingRate();
+			sampled = (samplingRate >= 1.0) || (ThreadLocalRandom.current().nextDouble() < samplingRate);
 		}
 		final String sessionId = SessionRegistry.INSTANCE.recallThreadLocalSessionId();
 		final String applicationName = MonitoringController.getInstance().getApplicationName();
 		final ApplicationTraceMetadata trace = new ApplicationTraceMetadata(traceId, thread.getId(), sessionId, this.hostname, parentTraceId, parentOrderId,
 				applicationName);
-		this.traceStorage.set(trace);
+		context.currentTrace = trace;
+		context.currentSampled = sampled;
 		return trace;
 	}
 
@@ -115,28 +168,17 @@ public enum TraceRegistry { // Singleton (Effective Java #3)
 	 * Future calls of getTrace() will either return null or the enclosing trace object.
 	 */
 	public final void unregisterTrace() {
-		final Stack<TraceMetadata> localTraceStack = this.enclosingTraceStack.get();
-		if (localTraceStack != null) { // we might have an enclosing trace and and are able to restore it
-			if (!localTraceStack.isEmpty()) { // we actually found something
-				this.traceStorage.set(localTraceStack.pop());
-			} else {
-				this.enclosingTraceStack.remove();
-				this.traceStorage.remove();
-			}
-		} else {
-			this.traceStorage.remove();
-		}
-	}
-
-	private final TracePoint getAndRemoveParentTraceId(final Thread t) {
-		synchronized (this) {
-			return this.parentTrace.remove(t);
+		final TraceContext context = this.traceContext.get();
+		if (context != null) {
+			// restores the enclosing trace if there is one
+			context.pop();
 		}
 	}
 
 	/**
 	 * Sets the parent for the next created trace inside this thread.
 	 * This method should be used by probes in connection with SpliEvents.
+	 * The new trace inherits the sampling decision of the current trace of the calling thread.
 	 *
 	 * @param t
 	 *            the thread the new trace belongs to
@@ -146,21 +188,174 @@ public enum TraceRegistry { // Singleton (Effective Java #3)
 	 *            the parent order id
 	 */
 	public final void setParentTraceId(final Thread t, final long traceId, final int orderId) {
-		synchronized (this) {
-			this.parentTrace.put(t, new TracePoint(traceId, orderId));
+		this.parentTrace.put(t, new TracePoint(traceId, orderId, this.isTraceSampled()));
+		if (this.parentTrace.size() > PURGE_THRESHOLD) {
+			this.purgeTerminatedThreads();
 		}
 	}
 
 	/**
+	 * Sets the parent for the next created trace inside the current thread. In contrast to
+	 * {@link #setParentTraceId(Thread, long, int)} this is meant to be called by the thread that executes a task on
+	 * behalf of another thread, e.g., by a task wrapper of an executor. The split point is only kept in the context of
+	 * the current thread and does not involve any shared state.
+	 *
+	 * @param traceId
+	 *            the parent trace id
+	 * @param orderId
+	 *            the parent order id
+	 *
+	 * @since 2.0.0
+	 */
+	public final void setParentTraceId(final long traceId, final int orderId) {
+		this.setParentTraceId(traceId, orderId, true);
+	}
+
+	/**
+	 * Sets the parent for the next created trace inside the current thread, see {@link #setParentTraceId(long, int)}.
+	 *
+	 * @param traceId
+	 *            the parent trace id
+	 * @param orderId
+	 *            the parent order id
+	 * @param sampled
+	 *            whether the parent trace is sampled, see {@link #isTraceSampled()}
+	 *
+	 * @since 2.0.0
+	 */
+	public final void setParentTraceId(final long traceId, final int orderId, final boolean sampled) {
+		final TraceContext context = this.getOrCreateTraceContext();
+		context.splitTraceId = traceId;
+		context.splitOrderId = orderId;
+		context.splitSampled = sampled;
+		context.hasSplitPoint = true;
+	}
+
+	/**
+	 * Removes a split point of the current thread set by {@link #setParentTraceId(long, int)} which has not been
+	 * consumed by a new trace.
+	 *
+	 * @since 2.0.0
+	 */
+	public final void clearParentTraceId() {
+		final TraceContext context = this.traceContext.get();
+		if (context != null) {
+			context.hasSplitPoint = false;
+		}
+	}
+
+	/**
+	 * Returns the split point of the current thread set by {@link #setParentTraceId(long, int, boolean)} which has not
+	 * been consumed by a new trace, e.g., to restore it with {@link #restoreParentTracePoint(TracePoint)} after running
+	 * a task with a split point of its own.
+	 *
+	 * @return the pending split point or null if there is none
+	 *
+	 * @since 2.0.0
+	 */
+	public final TracePoint getParentTracePoint() {
+		final TraceContext context = this.traceContext.get();
+		if ((context == null) || !context.hasSplitPoint) {
+			return null;
+		}
+		return new TracePoint(context.splitTraceId, context.splitOrderId, context.splitSampled);
+	}
+
+	/**
+	 * Replaces the pending split point of the current thread by one returned by {@link #getParentTracePoint()}.
+	 *
+	 * @param tracePoint
+	 *            the split point to restore, or null to remove the pending split point
+	 *
+	 * @since 2.0.0
+	 */
+	public final void restoreParentTracePoint(final TracePoint tracePoint) {
+		if (tracePoint == null) {
+			this.clearParentTraceId();
+		} else {
+			this.setParentTraceId(tracePoint.traceId, tracePoint.orderId, tracePoint.sampled);
+		}
+	}
+
+	/**
+	 * Removes split points of threads which terminated without registering a trace. These would otherwise never be
+	 * removed, as the map (in contrast to a weak map) keeps the threads reachable.
+	 */
+	private void purgeTerminatedThreads() {
+		final Iterator<Thread> threads = this.parentTrace.keySet().iterator();
+		while (threads.hasNext()) {
+			if (threads.next().getState() == Thread.State.TERMINATED) {
+				threads.remove();
+			}
+		}
+	}
+
+	/**
+	 * Trace state of a single thread. Only accessed by its own thread.
+	 *
+	 * @author Kieker Project
+	 */
+	private static final class TraceContext {
+		private static final int INITIAL_STACK_SIZE = 4;
+
+		/** the current trace; null if new trace. */
+		TraceMetadata currentTrace; // NOPMD NOCS (package visible for outer class)
+		/** whether the current trace is sampled. */
+		boolean currentSampled = true; // NOPMD NOCS (package visible for outer class)
+
+		/** whether a split point has been handed over to this thread which is not consumed yet. */
+		boolean hasSplitPoint; // NOPMD NOCS (package visible for outer class)
+		long splitTraceId; // NOPMD NOCS (package visible for outer class)
+		int splitOrderId; // NOPMD NOCS (package visible for outer class)
+		boolean splitSampled; // NOPMD NOCS (package visible for outer class)
+
+		/** the stack of enclosing traces and their sampling decisions. */
+		private TraceMetadata[] enclosingTraces = new TraceMetadata[INITIAL_STACK_SIZE];
+		private boolean[] enclosingSampled = new boolean[INITIAL_STACK_SIZE];
+		private int depth;
+
+		public TraceContext() {
+			// nothing to do
+		}
+
+		public void push(final TraceMetadata trace, final boolean sampled) {
+			if (this.depth == this.enclosingTraces.length) {
+				this.enclosingTraces = Arrays.copyOf(this.enclosingTraces, this.depth << 1);
+				this.enclosingSampled = Arrays.copyOf(this.enclosingSampled, this.depth << 1);
+			}
+			this.enclosingSampled[this.depth] = sampled;
+			this.enclosingTraces[this.depth++] = trace;
+		}
+
+		/**
+		 * Makes the top of the stack the current trace or clears the current trace if the stack is empty.
+		 */
+		public void pop() {
+			if (this.depth == 0) {
+				this.currentTrace = null;
+				this.currentSampled = true;
+				return;
+			}
+			this.currentTrace = this.enclosingTraces[--this.depth];
+			this.currentSampled = this.enclosingSampled[this.depth];
+			this.enclosingTraces[this.depth] = null; // do not retain finished traces
+		}
+	}
+
+	/**
+	 * A split point, i.e., the parent of the next trace created by a thread.
+	 *
 	 * @author Jan Waller
 	 */
-	private static final class TracePoint {
+	public static final class TracePoint {
 		public final long traceId; // NOCS (public no setters or getters)
 		public final int orderId; // NOCS (public no setters or getters)
+		public final boolean sampled; // NOCS (public no setters or getters)
 
-		public TracePoint(final long traceId, final int orderId) {
+		TracePoint(final long traceId, final int orderId, final boolean sampled) {
 			this.traceId = traceId;
 			this.orderId = orderId;
+			this.sampled = sampled;
 		}
 	}
 }
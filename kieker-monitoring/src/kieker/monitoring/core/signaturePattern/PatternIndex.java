@@ -0,0 +1,269 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.core.signaturePattern;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, precompiled view on an ordered list of {@link PatternEntry}s.
+ *
+ * <p>
+ * The result of {@link #isActivated(String)} is the same as testing all patterns from the last to the first one and
+ * taking the activation state of the first match (or {@code true} if none matches). To avoid running every regular
+ * expression against every signature, patterns are grouped by the declaring type they refer to:
+ * </p>
+ * <ul>
+ * <li>patterns with a fully literal type name (e.g. {@code * a.b.C.*(..)}) are only tested for signatures of that
+ * type,</li>
+ * <li>patterns whose type starts with literal package segments (e.g. {@code * a.b..*(..)}) are only tested for
+ * signatures whose type starts with that package, and</li>
+ * <li>all other patterns (plain regular expressions, {@code *}, leading wildcards) are tested for every signature.</li>
+ * </ul>
+ *
+ * <p>
+ * Instances never change after construction and can therefore be shared between threads without synchronization.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public final class PatternIndex {
+
+	/** An index without any patterns, i.e., all signatures are activated. */
+	public static final PatternIndex EMPTY = new PatternIndex(Collections.<PatternEntry>emptyList());
+
+	private static final int[] NO_ENTRIES = new int[0];
+
+	private final PatternEntry[] entries;
+	/** Entries (by position, descending) which have to be tested for every signature. */
+	private final int[] genericEntries;
+	/** Entries (by position, descending) grouped by their literal declaring type. */
+	private final Map<String, int[]> typeEntries;
+	/** Entries (by position, descending) grouped by their literal package prefix including the trailing dot. */
+	private final Map<String, int[]> prefixEntries;
+
+	/**
+	 * Creates a new index for the given patterns. Later entries take precedence over earlier ones.
+	 *
+	 * @param patternEntries
+	 *            the ordered pattern entries, the list is copied
+	 */
+	public PatternIndex(final List<PatternEntry> patternEntries) {
+		this.entries = patternEntries.toArray(new PatternEntry[patternEntries.size()]);
+
+		final List<Integer> generic = new ArrayList<>();
+		final Map<String, List<Integer>> types = new HashMap<>(); // NOPMD (only used during construction)
+		final Map<String, List<Integer>> prefixes = new HashMap<>(); // NOPMD (only used during construction)
+		for (int i = this.entries.length - 1; i >= 0; i--) {
+			final String typeName = PatternIndex.extractTypeName(this.entries[i].getStrPattern());
+			if (typeName == null) {
+				generic.add(i);
+			} else {
+				final String prefix = PatternIndex.extractLiteralPrefix(typeName);
+				if (prefix == null) {
+					PatternIndex.addToGroup(types, typeName, i);
+				} else if (prefix.length() == 0) {
+					generic.add(i);
+				} else {
+					PatternIndex.addToGroup(prefixes, prefix, i);
+				}
+			}
+		}
+
+		this.genericEntries = PatternIndex.toArray(generic);
+		this.typeEntries = PatternIndex.toArrayMap(types);
+		this.prefixEntries = PatternIndex.toArrayMap(prefixes);
+	}
+
+	/**
+	 * @return the indexed pattern entries in their original order
+	 */
+	public List<PatternEntry> getPatternEntries() {
+		final List<PatternEntry> list = new ArrayList<>(this.entries.length);
+		Collections.addAll(list, this.entries);
+		return list;
+	}
+
+	/**
+	 * @return the number of indexed pattern entries
+	 */
+	public int size() {
+		return this.entries.length;
+	}
+
+	/**
+	 * Determines whether the given signature is activated.
+	 *
+	 * @param signature
+	 *            the signature to test
+	 *
+	 * @return the activation state of the last matching pattern or {@code true} if no pattern matches
+	 */
+	public boolean isActivated(final String signature) {
+		if (this.entries.length == 0) {
+			return true;
+		}
+
+		int[] typeCandidates = NO_ENTRIES;
+		final List<int[]> prefixCandidates = new ArrayList<>(4);
+
+		// the declaring type is located between the last whitespace in front of the parameter list and the method name
+		final int openingParenthesis = signature.indexOf('(');
+		final int methodSeparator = openingParenthesis > 0 ? signature.lastIndexOf('.', openingParenthesis) : -1; // NOCS
+		if (methodSeparator > 0) {
+			int typeStart = methodSeparator;
+			while (typeStart > 0 && !PatternIndex.isRegexWhitespace(signature.charAt(typeStart - 1))) {
+				typeStart--;
+			}
+
+			if (!this.typeEntries.isEmpty()) {
+				final int[] group = this.typeEntries.get(signature.substring(typeStart, methodSeparator));
+				if (group != null) {
+					typeCandidates = group;
+				}
+			}
+
+			if (!this.prefixEntries.isEmpty()) {
+				for (int i = signature.indexOf('.', typeStart); (i != -1) && (i < methodSeparator); i = signature.indexOf('.', i + 1)) {
+					final int[] group = this.prefixEntries.get(signature.substring(typeStart, i + 1));
+					if (group != null) {
+						prefixCandidates.add(group);
+					}
+				}
+			}
+		}
+
+		return this.evaluate(signature, typeCandidates, prefixCandidates);
+	}
+
+	/**
+	 * Tests the candidate entries in descending position order and returns the state of the first match.
+	 */
+	private boolean evaluate(final String signature, final int[] typeCandidates, final List<int[]> prefixCandidates) {
+		final int numGroups = prefixCandidates.size() + 2;
+		final int[][] groups = new int[numGroups][];
+		groups[0] = this.genericEntries;
+		groups[1] = typeCandidates;
+		for (int i = 2; i < numGroups; i++) {
+			groups[i] = prefixCandidates.get(i - 2);
+		}
+		final int[] positions = new int[numGroups];
+
+		while (true) {
+			// pick the candidate with the highest position among all groups
+			int selectedGroup = -1;
+			int selectedEntry = -1;
+			for (int g = 0; g < numGroups; g++) {
+				if ((positions[g] < groups[g].length) && (groups[g][positions[g]] > selectedEntry)) {
+					selectedEntry = groups[g][positions[g]];
+					selectedGroup = g;
+				}
+			}
+			if (selectedGroup == -1) {
+				return true; // if nothing matches, the default is true!
+			}
+			positions[selectedGroup]++;
+
+			final PatternEntry patternEntry = this.entries[selectedEntry];
+			if (patternEntry.getPattern().matcher(signature).matches()) {
+				return patternEntry.isActivated();
+			}
+		}
+	}
+
+	/**
+	 * Returns the declaring type part of a non-regex pattern or {@code null} if the pattern might match signatures of
+	 * arbitrary types.
+	 */
+	private static String extractTypeName(final String strPattern) {
+		final String trimPattern = strPattern.trim();
+		if ((trimPattern.length() == 0) || (trimPattern.charAt(0) == SignatureFactory.PATTERN_PREFIX) || "*".equals(trimPattern)) {
+			return null;
+		}
+		final int openingParenthesis = trimPattern.indexOf('(');
+		if (openingParenthesis == -1) {
+			return null;
+		}
+		final String[] tokens = trimPattern.substring(0, openingParenthesis).trim().split("\\s+");
+		final String fqName = tokens[tokens.length - 1];
+		final int index = fqName.lastIndexOf('.');
+		if (index <= 0) {
+			return null;
+		}
+		final String fqTypeName = fqName.substring(0, index);
+		if ((fqTypeName.indexOf('[') != -1) || (fqTypeName.charAt(0) == '.')) {
+			return null;
+		}
+		return fqTypeName;
+	}
+
+	/**
+	 * Returns {@code null} if the given type name is fully literal, otherwise the literal package segments in front of
+	 * the first wildcard segment including the trailing dot (possibly an empty string).
+	 */
+	private static String extractLiteralPrefix(final String typeName) {
+		int segmentStart = 0;
+		while (segmentStart <= typeName.length()) {
+			int segmentEnd = typeName.indexOf('.', segmentStart);
+			if (segmentEnd == -1) {
+				segmentEnd = typeName.length();
+			}
+			if ((segmentEnd == segmentStart) || (typeName.lastIndexOf('*', segmentEnd - 1) >= segmentStart)) {
+				return typeName.substring(0, segmentStart);
+			}
+			segmentStart = segmentEnd + 1;
+		}
+		return null;
+	}
+
+	/**
+	 * Same character class as {@code \s} in {@link java.util.regex.Pattern}.
+	 */
+	private static boolean isRegexWhitespace(final char c) {
+		return (c == ' ') || (c == '\t') || (c == '\n') || (c == '\u000B') || (c == '\f') || (c == '\r');
+	}
+
+	private static void addToGroup(final Map<String, List<Integer>> groups, final String key, final int position) {
+		List<Integer> group = groups.get(key);
+		if (group == null) {
+			group = new ArrayList<>();
+			groups.put(key, group);
+		}
+		group.add(position);
+	}
+
+	private static Map<String, int[]> toArrayMap(final Map<String, List<Integer>> groups) {
+		final Map<String, int[]> result = new HashMap<>(); // NOPMD (not modified after construction)
+		for (final Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+			result.put(group.getKey(), PatternIndex.toArray(group.getValue()));
+		}
+		return result;
+	}
+
+	private static int[] toArray(final List<Integer> positions) {
+		final int[] result = new int[positions.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = positions.get(i);
+		}
+		return result;
+	}
+}
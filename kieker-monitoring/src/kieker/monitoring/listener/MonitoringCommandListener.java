@@ -32,6 +32,7 @@ import kieker.common.record.remotecontrol.IRemoteControlEvent;
 import kieker.common.record.remotecontrol.IRemoteParameterControlEvent;
 import kieker.common.record.remotecontrol.RemoveParameterValueEvent;
 import kieker.common.record.remotecontrol.UpdateParameterEvent;
+import kieker.monitoring.core.controller.IProbeSamplingController;
 import kieker.monitoring.core.controller.MonitoringController;
 
 /**
@@ -89,6 +90,7 @@ public class MonitoringCommandListener implements IRecordReceivedListener {
 			final IRemoteParameterControlEvent event = (IRemoteParameterControlEvent) record;
 			this.monitoringController.addPatternParameter(pattern, event.getName(),
 					new LinkedList<>(Arrays.asList(event.getValues())));
+			this.updateSampling(pattern, event);
 			this.monitoringController.activateProbe(pattern);
 		} else if (record instanceof ActivationEvent) {
 			this.monitoringController.clearPatternParameters(pattern);
@@ -99,13 +101,47 @@ public class MonitoringCommandListener implements IRecordReceivedListener {
 		} else if (record instanceof RemoveParameterValueEvent) {
 			final RemoveParameterValueEvent event = (RemoveParameterValueEvent) record;
 			this.monitoringController.removePatternParameterValue(pattern, event.getName(), event.getValue());
+			if (IProbeSamplingController.SAMPLING_RATE_PARAMETER.equals(event.getName())) {
+				this.monitoringController.removeSamplingRate(pattern);
+			}
 		} else if (record instanceof UpdateParameterEvent) {
 			final IRemoteParameterControlEvent event = (IRemoteParameterControlEvent) record;
 			this.monitoringController.addPatternParameter(pattern, event.getName(),
 					new LinkedList<>(Arrays.asList(event.getValues())));
+			this.updateSampling(pattern, event);
 		} else if (LOGGER.isInfoEnabled()) {
 			MonitoringCommandListener.LOGGER.info("Received unknown remote control event: {}",
 					record.getClass().getName());
 		}
 	}
+
+	/**
+	 * Applies the sampling parameters (see {@link IProbeSamplingController}) of a parameter event. Other parameters are
+	 * ignored. Sampling rates are independent of the activation of probes, i.e., (de-)activation events keep them. The
+	 * sampling rate of a pattern is only removed by a {@link RemoveParameterValueEvent} for its parameter.
+	 */
+	private void updateSampling(final String pattern, final IRemoteParameterControlEvent event) {
+		final String name = event.getName();
+		if (!IProbeSamplingController.SAMPLING_RATE_PARAMETER.equals(name)
+				&& !IProbeSamplingController.TRACE_SAMPLING_RATE_PARAMETER.equals(name)
+				&& !IProbeSamplingController.RECORDS_PER_SECOND_PARAMETER.equals(name)) {
+			return;
+		}
+		final String[] values = event.getValues();
+		if (values.length != 1) {
+			MonitoringCommandListener.LOGGER.warn("Parameter {} requires a single value, but got {}", name, values.length);
+			return;
+		}
+		try {
+			if (IProbeSamplingController.SAMPLING_RATE_PARAMETER.equals(name)) {
+				this.monitoringController.setSamplingRate(pattern, Double.parseDouble(values[0]));
+			} else if (IProbeSamplingController.TRACE_SAMPLING_RATE_PARAMETER.equals(name)) {
+				this.monitoringController.setTraceSamplingRate(Double.parseDouble(values[0]));
+			} else {
+				this.monitoringController.setRecordsPerSecondBudget(Long.parseLong(values[0]));
+			}
+		} catch (final NumberFormatException e) {
+			MonitoringCommandListener.LOGGER.warn("Invalid value for parameter {}: {}", name, values[0]);
+		}
+	}
 }
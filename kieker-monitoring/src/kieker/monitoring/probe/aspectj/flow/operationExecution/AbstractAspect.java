@@ -23,11 +23,9 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 
 import kieker.common.record.flow.trace.TraceMetadata;
-import kieker.common.record.flow.trace.operation.AfterOperationEvent;
-import kieker.common.record.flow.trace.operation.AfterOperationFailedEvent;
-import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
 import kieker.monitoring.core.controller.IMonitoringController;
 import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.core.pool.RecordPools;
 import kieker.monitoring.core.registry.TraceRegistry;
 import kieker.monitoring.probe.aspectj.AbstractAspectJProbe;
 import kieker.monitoring.timer.ITimeSource;
@@ -42,6 +40,7 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 	private static final IMonitoringController CTRLINST = MonitoringController.getInstance();
 	private static final ITimeSource TIME = CTRLINST.getTimeSource();
 	private static final TraceRegistry TRACEREGISTRY = TraceRegistry.INSTANCE;
+	private static final RecordPools RECORDS = RecordPools.INSTANCE;
 
 	/**
 	 * The pointcut for the monitored operations. Inheriting classes should extend the pointcut in order to find the correct executions of the methods (e.g. all
@@ -56,7 +55,7 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 			return thisJoinPoint.proceed();
 		}
 		final String operationSignature = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		if (!CTRLINST.isProbeActivated(operationSignature) || !CTRLINST.isProbeSampled(operationSignature)) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -64,19 +63,25 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 		final boolean newTrace = trace == null;
 		if (newTrace) {
 			trace = TRACEREGISTRY.registerTrace();
+		}
+		if (!TRACEREGISTRY.isTraceSampled()) {
+			// the trace is registered nevertheless, so that nested probes follow the sampling decision
+			return AbstractAspect.proceedUnsampled(thisJoinPoint, newTrace);
+		}
+		if (newTrace) {
 			CTRLINST.newMonitoringRecord(trace);
 		}
 		final long traceId = trace.getTraceId();
 		final String clazz = thisObject.getClass().getName();
 		// measure before execution
-		CTRLINST.newMonitoringRecord(new BeforeOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
+		CTRLINST.newMonitoringRecord(RECORDS.newBeforeOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
 		// execution of the called method
 		final Object retval;
 		try {
 			retval = thisJoinPoint.proceed();
 		} catch (final Throwable th) { // NOPMD NOCS (catch throw might ok here)
 			// measure after failed execution
-			CTRLINST.newMonitoringRecord(new AfterOperationFailedEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz, th.toString()));
+			CTRLINST.newMonitoringRecord(RECORDS.newAfterOperationFailedEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz, th.toString()));
 			throw th;
 		} finally {
 			if (newTrace) { // close the trace
@@ -84,7 +89,7 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 			}
 		}
 		// measure after successful execution
-		CTRLINST.newMonitoringRecord(new AfterOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
+		CTRLINST.newMonitoringRecord(RECORDS.newAfterOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
 		return retval;
 	}
 
@@ -95,7 +100,7 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 		}
 		final Signature sig = thisJoinPoint.getSignature();
 		final String operationSignature = this.signatureToLongString(sig);
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		if (!CTRLINST.isProbeActivated(operationSignature) || !CTRLINST.isProbeSampled(operationSignature)) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -103,19 +108,25 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 		final boolean newTrace = trace == null;
 		if (newTrace) {
 			trace = TRACEREGISTRY.registerTrace();
+		}
+		if (!TRACEREGISTRY.isTraceSampled()) {
+			// the trace is registered nevertheless, so that nested probes follow the sampling decision
+			return AbstractAspect.proceedUnsampled(thisJoinPoint, newTrace);
+		}
+		if (newTrace) {
 			CTRLINST.newMonitoringRecord(trace);
 		}
 		final long traceId = trace.getTraceId();
 		final String clazz = sig.getDeclaringTypeName();
 		// measure before execution
-		CTRLINST.newMonitoringRecord(new BeforeOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
+		CTRLINST.newMonitoringRecord(RECORDS.newBeforeOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
 		// execution of the called method
 		final Object retval;
 		try {
 			retval = thisJoinPoint.proceed();
 		} catch (final Throwable th) { // NOPMD NOCS (catch throw might ok here)
 			// measure after failed execution
-			CTRLINST.newMonitoringRecord(new AfterOperationFailedEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz, th.toString()));
+			CTRLINST.newMonitoringRecord(RECORDS.newAfterOperationFailedEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz, th.toString()));
 			throw th;
 		} finally {
 			if (newTrace) { // close the trace
@@ -123,7 +134,17 @@ public abstract class AbstractAspect extends AbstractAspectJProbe { // NOPMD
 			}
 		}
 		// measure after successful execution
-		CTRLINST.newMonitoringRecord(new AfterOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
+		CTRLINST.newMonitoringRecord(RECORDS.newAfterOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
 		return retval;
 	}
+
+	private static Object proceedUnsampled(final ProceedingJoinPoint thisJoinPoint, final boolean newTrace) throws Throwable { // NOCS (Throwable)
+		try {
+			return thisJoinPoint.proceed();
+		} finally {
+			if (newTrace) { // close the trace
+				TRACEREGISTRY.unregisterTrace();
+			}
+		}
+	}
 }
@@ -0,0 +1,116 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.probe.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor service decorator which wraps each task with {@link TracePropagation#wrap(Runnable)}. The submit and invoke
+ * methods of {@link AbstractExecutorService} wrap the task inside of its future, all other tasks are wrapped by
+ * {@link #execute(Runnable)}. Tasks which are already wrapped are passed on as they are, hence each task is split off
+ * the trace of the submitting thread exactly once.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+final class TracePropagatingExecutorService extends AbstractExecutorService {
+	private final ExecutorService delegate;
+
+	public TracePropagatingExecutorService(final ExecutorService delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(final Callable<T> callable) {
+		return new PropagatingFutureTask<>(TracePropagation.wrap(callable));
+	}
+
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(final Runnable runnable, final T value) {
+		return new PropagatingFutureTask<>(TracePropagation.wrap(runnable), value);
+	}
+
+	@Override
+	public void execute(final Runnable command) {
+		if (command instanceof PropagatingFutureTask) {
+			this.delegate.execute(command);
+		} else {
+			this.delegate.execute(TracePropagation.wrap(command));
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		this.delegate.shutdown();
+	}
+
+	/**
+	 * Returns the tasks which never commenced execution as they have been passed to {@link #execute(Runnable)}.
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		final List<Runnable> tasks = this.delegate.shutdownNow();
+		final List<Runnable> unwrappedTasks = new ArrayList<>(tasks.size());
+		for (final Runnable task : tasks) {
+			if (task instanceof TracePropagatingRunnable) {
+				unwrappedTasks.add(((TracePropagatingRunnable) task).getDelegate());
+			} else {
+				unwrappedTasks.add(task);
+			}
+		}
+		return unwrappedTasks;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return this.delegate.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return this.delegate.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+		return this.delegate.awaitTermination(timeout, unit);
+	}
+
+	/**
+	 * Future of a submitted task, which wraps the task itself instead of being wrapped by {@link #execute(Runnable)}.
+	 *
+	 * @param <V>
+	 *            the result type of the task
+	 */
+	private static final class PropagatingFutureTask<V> extends FutureTask<V> {
+
+		public PropagatingFutureTask(final Callable<V> callable) {
+			super(callable);
+		}
+
+		public PropagatingFutureTask(final Runnable runnable, final V result) {
+			super(runnable, result);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.probe.concurrency;
+
+import kieker.monitoring.core.registry.TraceRegistry;
+import kieker.monitoring.core.registry.TraceRegistry.TracePoint;
+
+/**
+ * Hands a split point over to the thread executing the wrapped task.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+final class TracePropagatingRunnable implements Runnable {
+	private final Runnable delegate;
+	private final long traceId;
+	private final int orderId;
+	private final boolean sampled;
+
+	public TracePropagatingRunnable(final Runnable delegate, final long traceId, final int orderId, final boolean sampled) {
+		this.delegate = delegate;
+		this.traceId = traceId;
+		this.orderId = orderId;
+		this.sampled = sampled;
+	}
+
+	/**
+	 * @return the wrapped task
+	 */
+	public Runnable getDelegate() {
+		return this.delegate;
+	}
+
+	@Override
+	public void run() {
+		// a task run by the caller itself must not discard a split point pending on the calling thread
+		final TracePoint pendingTracePoint = TraceRegistry.INSTANCE.getParentTracePoint();
+		TraceRegistry.INSTANCE.setParentTraceId(this.traceId, this.orderId, this.sampled);
+		try {
+			this.delegate.run();
+		} finally {
+			// do not leak the split point to the next task of a pooled thread
+			TraceRegistry.INSTANCE.restoreParentTracePoint(pendingTracePoint);
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.probe.concurrency;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.record.flow.trace.TraceMetadata;
+import kieker.common.record.flow.trace.concurrency.SplitEvent;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.core.registry.TraceRegistry;
+import kieker.monitoring.probe.IMonitoringProbe;
+import kieker.monitoring.timer.ITimeSource;
+
+/**
+ * Propagates the current trace to tasks which are executed by other threads, e.g., by thread pools or executors
+ * running each task in a new (virtual) thread.
+ *
+ * <p>
+ * This uses the same split point semantics as the {@code ThreadingAspect} for {@link Thread#start()}: wrapping a task
+ * inside of a trace emits a {@link SplitEvent} and the first trace created by the task gets the current trace as
+ * parent with the order id of the split event. In contrast to the aspect, the split point is handed over by the task
+ * itself and not via the {@link Thread} object, hence it also works for executors reusing or creating threads
+ * internally.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public final class TracePropagation implements IMonitoringProbe {
+	/** The signature used to check whether the propagation probe is activated. */
+	public static final String SIGNATURE = "public void java.util.concurrent.Executor.execute(java.lang.Runnable)";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TracePropagation.class);
+	private static final IMonitoringController CTRLINST = MonitoringController.getInstance();
+	private static final ITimeSource TIME = CTRLINST.getTimeSource();
+	private static final TraceRegistry TRACEREGISTRY = TraceRegistry.INSTANCE;
+
+	private TracePropagation() {}
+
+	/**
+	 * Wraps the given task such that the first trace it creates continues the current trace.
+	 *
+	 * @param task
+	 *            the task to wrap
+	 * @return the wrapped task or the task itself if there is no current trace or it is already wrapped
+	 */
+	public static Runnable wrap(final Runnable task) {
+		if (task instanceof TracePropagatingRunnable) {
+			return task;
+		}
+		final TraceMetadata trace = TracePropagation.getTraceToPropagate();
+		if (trace == null) {
+			return task;
+		}
+		final long traceId = trace.getTraceId();
+		final int orderId = trace.getNextOrderId();
+		final boolean sampled = TRACEREGISTRY.isTraceSampled();
+		if (sampled) {
+			TracePropagation.split(traceId, orderId);
+		}
+		return new TracePropagatingRunnable(task, traceId, orderId, sampled);
+	}
+
+	/**
+	 * Wraps the given task such that the first trace it creates continues the current trace.
+	 *
+	 * @param task
+	 *            the task to wrap
+	 * @param <V>
+	 *            the result type of the task
+	 * @return the wrapped task or the task itself if there is no current trace or it is already wrapped
+	 */
+	public static <V> Callable<V> wrap(final Callable<V> task) {
+		if (task instanceof TracePropagatingCallable) {
+			return task;
+		}
+		final TraceMetadata trace = TracePropagation.getTraceToPropagate();
+		if (trace == null) {
+			return task;
+		}
+		final long traceId = trace.getTraceId();
+		final int orderId = trace.getNextOrderId();
+		final boolean sampled = TRACEREGISTRY.isTraceSampled();
+		if (sampled) {
+			TracePropagation.split(traceId, orderId);
+		}
+		return new TracePropagatingCallable<>(task, traceId, orderId, sampled);
+	}
+
+	/**
+	 * Decorates the given executor service such that all submitted tasks continue the trace of the submitting thread.
+	 *
+	 * @param executorService
+	 *            the executor service to decorate
+	 * @return the decorated executor service
+	 */
+	public static ExecutorService wrap(final ExecutorService executorService) {
+		return new TracePropagatingExecutorService(executorService);
+	}
+
+	private static TraceMetadata getTraceToPropagate() {
+		if (!CTRLINST.isMonitoringEnabled()) {
+			return null;
+		}
+		final TraceMetadata trace = TRACEREGISTRY.getTrace();
+		if ((trace == null) || !CTRLINST.isProbeActivated(SIGNATURE)) { // ignore split if not inside of a trace!
+			return null;
+		}
+		return trace;
+	}
+
+	private static void split(final long traceId, final int orderId) {
+		// try-catch in order to avoid that any exception is propagated to the application code.
+		try {
+			CTRLINST.newMonitoringRecord(new SplitEvent(TIME.getTime(), traceId, orderId));
+		} catch (final Exception ex) { // NOPMD NOCS (Exceptions)
+			LOGGER.error("Error monitoring split event", ex);
+		}
+	}
+}
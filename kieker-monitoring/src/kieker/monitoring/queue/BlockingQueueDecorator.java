@@ -23,11 +23,14 @@ import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
+import org.jctools.queues.MessagePassingQueue;
+
 import kieker.monitoring.queue.putstrategy.PutStrategy;
 import kieker.monitoring.queue.takestrategy.TakeStrategy;
 
 /**
- * A wrapper to provide a given queue a strategy to put and to take possibly in blocking mode.
+ * A wrapper to provide a given queue a strategy to put and to take possibly in blocking mode. Several elements are
+ * inserted at once by the batch insert of JCTools queues, and one by one into other queues.
  *
  * @param <E>
  *            the type of the elements in the given queue
@@ -36,7 +39,7 @@ import kieker.monitoring.queue.takestrategy.TakeStrategy;
  *
  * @since 1.13
  */
-public class BlockingQueueDecorator<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+public class BlockingQueueDecorator<E> extends AbstractQueue<E> implements BlockingQueue<E>, IBulkInsertQueue<E> {
 	// "add()" internally calls "q.offer(e)" NOT "this.offer(e)". Hence, we inherit from AbstractQueue to get a correct add()/remove() etc. behavior.
 
 	private final Queue<E> q;
@@ -63,6 +66,30 @@ public class BlockingQueueDecorator<E> extends AbstractQueue<E> implements Block
 		return offered;
 	}
 
+	@Override
+	@SuppressWarnings("unchecked")
+	public int offerAll(final E[] elements, final int length) {
+		int count = 0;
+		if (this.q instanceof MessagePassingQueue) {
+			count = ((MessagePassingQueue<E>) this.q).fill(new MessagePassingQueue.Supplier<E>() {
+				private int next;
+
+				@Override
+				public E get() {
+					return elements[this.next++];
+				}
+			}, length);
+		} else {
+			while ((count < length) && this.q.offer(elements[count])) {
+				count++;
+			}
+		}
+		if (count > 0) {
+			this.takeStrategy.signal();
+		}
+		return count;
+	}
+
 	@Override
 	public E take() throws InterruptedException {
 		return this.takeStrategy.waitPoll(this); // internally calls "poll()"
@@ -107,11 +134,14 @@ public class BlockingQueueDecorator<E> extends AbstractQueue<E> implements Block
 	@Override
 	public int drainTo(final Collection<? super E> c, final int maxElements) {
 		int count = 0;
-		E e = this.poll();
-		while ((e != null) && (count < maxElements)) {
+		// check the limit before polling; otherwise, the element polled after reaching the limit would be lost
+		while (count < maxElements) {
+			final E e = this.poll();
+			if (e == null) {
+				break;
+			}
 			c.add(e);
 			count++;
-			e = this.poll();
 		}
 		return count;
 	}
@@ -0,0 +1,41 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.queue;
+
+/**
+ * A queue which inserts several elements at once. The elements are inserted with a single synchronization between the
+ * producers instead of one per element, and they keep their order.
+ *
+ * @param <E>
+ *            the type of the elements in this queue
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public interface IBulkInsertQueue<E> {
+
+	/**
+	 * Inserts the first elements of the given array in their order, as many as the queue can take without blocking.
+	 *
+	 * @param elements
+	 *            the elements to insert, none of them may be <code>null</code>
+	 * @param length
+	 *            the number of elements to insert starting at index 0
+	 * @return the number of inserted elements, i.e., the elements starting at this index have not been inserted
+	 */
+	int offerAll(E[] elements, int length);
+}
@@ -0,0 +1,412 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.monitoring.queue;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded, lock-free multi-producer/single-consumer ring buffer which can be used as the writer queue of the
+ * {@link kieker.monitoring.core.controller.WriterController} (see <code>RecordQueueFQN</code>).
+ * <br>
+ * All slots are allocated upfront. Producers claim a slot by a CAS on the producer index and publish the element
+ * afterwards, so that they neither take a lock nor allocate on the fast path. The producer and the consumer index
+ * reside on cache lines of their own. The behavior on a full buffer is determined by the insert behavior of the
+ * writer controller: {@link #offer(Object)} fails immediately (terminating or counting and dropping behavior), whereas
+ * {@link #put(Object)} blocks the producer until the consumer has freed a slot (blocking behavior).
+ * {@link #offerAll(Object[], int)} claims the slots of several elements by a single CAS.
+ * <br>
+ * <i>IMPORTANT: This queue only works correctly if at most one consumer accesses the queue.</i>
+ *
+ * @param <E>
+ *            the type of the elements in this queue
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class MpscRingBufferQueue<E> extends AbstractQueue<E> implements BlockingQueue<E>, IBulkInsertQueue<E> {
+
+	private final int capacity;
+	private final int mask;
+	private final AtomicReferenceArray<E> slots;
+
+	/** index of the next slot to claim by a producer. */
+	private final PaddedAtomicLong producerIndex = new PaddedAtomicLong();
+	/** cached upper bound for the producer index which avoids reading the consumer index on each insert. */
+	private final PaddedAtomicLong producerLimit = new PaddedAtomicLong();
+	/** index of the next slot to read by the consumer. */
+	private final PaddedAtomicLong consumerIndex = new PaddedAtomicLong();
+
+	/** the consumer thread if it waits for a new element, otherwise <code>null</code>. */
+	private volatile Thread waitingConsumer; // NOPMD (AvoidUsingVolatile)
+
+	/** slow path for producers which wait for a free slot. */
+	private final ReentrantLock producerLock = new ReentrantLock();
+	private final Condition notFull = this.producerLock.newCondition();
+	private final AtomicInteger numWaitingProducers = new AtomicInteger();
+
+	/**
+	 * Creates a new ring buffer.
+	 *
+	 * @param requestedCapacity
+	 *            the minimal capacity; it is rounded up to the next power of two
+	 */
+	public MpscRingBufferQueue(final int requestedCapacity) {
+		super();
+		if (requestedCapacity <= 0) {
+			throw new IllegalArgumentException("The capacity must be positive, but was " + requestedCapacity);
+		}
+		if (requestedCapacity > (1 << 30)) {
+			throw new IllegalArgumentException("The capacity must not exceed 2^30, but was " + requestedCapacity);
+		}
+		this.capacity = MpscRingBufferQueue.roundToPowerOfTwo(requestedCapacity);
+		this.mask = this.capacity - 1;
+		this.slots = new AtomicReferenceArray<>(this.capacity);
+		this.producerLimit.set(this.capacity);
+	}
+
+	private static int roundToPowerOfTwo(final int value) {
+		return 1 << (32 - Integer.numberOfLeadingZeros(value - 1));
+	}
+
+	@Override
+	public boolean offer(final E e) {
+		if (e == null) {
+			throw new NullPointerException("The given element may not be null.");
+		}
+
+		long limit = this.producerLimit.get();
+		long index;
+		do {
+			index = this.producerIndex.get();
+			if (index >= limit) {
+				limit = this.consumerIndex.get() + this.capacity;
+				if (index >= limit) {
+					return false; // full
+				}
+				// a concurrent producer may overwrite the cache with a smaller, but still valid limit
+				this.producerLimit.lazySet(limit);
+			}
+		} while (!this.producerIndex.compareAndSet(index, index + 1));
+
+		// a volatile write is required here so that the following read of waitingConsumer cannot overtake it
+		this.slots.set(this.offset(index), e);
+
+		final Thread consumer = this.waitingConsumer;
+		if (consumer != null) {
+			LockSupport.unpark(consumer);
+		}
+		return true;
+	}
+
+	@Override
+	public int offerAll(final E[] elements, final int length) {
+		for (int i = 0; i < length; i++) {
+			if (elements[i] == null) {
+				throw new NullPointerException("The given elements may not be null.");
+			}
+		}
+
+		long limit = this.producerLimit.get();
+		long index;
+		int count;
+		do {
+			index = this.producerIndex.get();
+			if ((index + length) > limit) {
+				limit = this.consumerIndex.get() + this.capacity;
+				if (index >= limit) {
+					return 0; // full
+				}
+				this.producerLimit.lazySet(limit);
+			}
+			count = (int) Math.min(length, limit - index);
+		} while (!this.producerIndex.compareAndSet(index, index + count));
+
+		if (count == 0) {
+			return 0;
+		}
+		// the consumer waits for claimed slots until they are published, hence the elements are published in order
+		final int last = count - 1;
+		for (int i = 0; i < last; i++) {
+			this.slots.lazySet(this.offset(index + i), elements[i]);
+		}
+		// a volatile write is required here so that the following read of waitingConsumer cannot overtake it
+		this.slots.set(this.offset(index + last), elements[last]);
+
+		final Thread consumer = this.waitingConsumer;
+		if (consumer != null) {
+			LockSupport.unpark(consumer);
+		}
+		return count;
+	}
+
+	@Override
+	public void put(final E e) throws InterruptedException {
+		if (this.offer(e)) {
+			return;
+		}
+
+		this.producerLock.lockInterruptibly();
+		try {
+			this.numWaitingProducers.incrementAndGet();
+			try {
+				while (!this.offer(e)) {
+					this.notFull.await();
+				}
+			} finally {
+				this.numWaitingProducers.decrementAndGet();
+			}
+		} finally {
+			this.producerLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean offer(final E e, final long timeout, final TimeUnit unit) throws InterruptedException {
+		if (this.offer(e)) {
+			return true;
+		}
+
+		long remainingTimeInNs = unit.toNanos(timeout);
+		this.producerLock.lockInterruptibly();
+		try {
+			this.numWaitingProducers.incrementAndGet();
+			try {
+				while (!this.offer(e)) {
+					if (remainingTimeInNs <= 0) {
+						return false;
+					}
+					remainingTimeInNs = this.notFull.awaitNanos(remainingTimeInNs);
+				}
+				return true;
+			} finally {
+				this.numWaitingProducers.decrementAndGet();
+			}
+		} finally {
+			this.producerLock.unlock();
+		}
+	}
+
+	@Override
+	public E poll() {
+		final long index = this.consumerIndex.get();
+		final int offset = this.offset(index);
+
+		E e = this.slots.get(offset);
+		if (e == null) {
+			if (index == this.producerIndex.get()) {
+				return null; // empty
+			}
+			// a producer has claimed the slot, but has not yet published its element
+			do {
+				e = this.slots.get(offset);
+			} while (e == null);
+		}
+
+		this.slots.lazySet(offset, null);
+		this.releaseSlots(index + 1);
+		return e;
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		E e = this.poll();
+		if (e != null) {
+			return e;
+		}
+
+		this.waitingConsumer = Thread.currentThread();
+		try {
+			e = this.poll();
+			while (e == null) {
+				LockSupport.park(this);
+				if (Thread.interrupted()) {
+					throw new InterruptedException("Interrupted while waiting for the queue to become non-empty.");
+				}
+				e = this.poll();
+			}
+		} finally {
+			this.waitingConsumer = null;
+		}
+		return e;
+	}
+
+	@Override
+	public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+		E e = this.poll();
+		if (e != null) {
+			return e;
+		}
+
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		this.waitingConsumer = Thread.currentThread();
+		try {
+			e = this.poll();
+			while (e == null) {
+				final long remainingTimeInNs = deadline - System.nanoTime();
+				if (remainingTimeInNs <= 0) {
+					return null;
+				}
+				LockSupport.parkNanos(this, remainingTimeInNs);
+				if (Thread.interrupted()) {
+					throw new InterruptedException("Interrupted while waiting for the queue to become non-empty.");
+				}
+				e = this.poll();
+			}
+		} finally {
+			this.waitingConsumer = null;
+		}
+		return e;
+	}
+
+	@Override
+	public int drainTo(final Collection<? super E> c) {
+		return this.drainTo(c, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Moves the available elements to the given collection and releases their slots at once.
+	 */
+	@Override
+	public int drainTo(final Collection<? super E> c, final int maxElements) {
+		final long startIndex = this.consumerIndex.get();
+		long index = startIndex;
+		try {
+			while ((index - startIndex) < maxElements) {
+				final int offset = this.offset(index);
+				final E e = this.slots.get(offset);
+				if (e == null) {
+					break; // empty, or the next element has not yet been published
+				}
+				this.slots.lazySet(offset, null);
+				index++;
+				c.add(e);
+			}
+		} finally {
+			if (index != startIndex) {
+				this.releaseSlots(index);
+			}
+		}
+		return (int) (index - startIndex);
+	}
+
+	private void releaseSlots(final long nextConsumerIndex) {
+		// a volatile write is required here so that the following read of numWaitingProducers cannot overtake it
+		this.consumerIndex.set(nextConsumerIndex);
+
+		if (this.numWaitingProducers.get() > 0) {
+			this.producerLock.lock();
+			try {
+				this.notFull.signalAll();
+			} finally {
+				this.producerLock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public E peek() {
+		final long index = this.consumerIndex.get();
+		final int offset = this.offset(index);
+
+		E e = this.slots.get(offset);
+		if ((e == null) && (index != this.producerIndex.get())) {
+			do {
+				e = this.slots.get(offset);
+			} while (e == null);
+		}
+		return e;
+	}
+
+	@Override
+	public int size() {
+		// read the consumer index before and after the producer index to obtain a consistent snapshot
+		long consumerIndexAfter = this.consumerIndex.get();
+		while (true) {
+			final long consumerIndexBefore = consumerIndexAfter;
+			final long currentProducerIndex = this.producerIndex.get();
+			consumerIndexAfter = this.consumerIndex.get();
+			if (consumerIndexBefore == consumerIndexAfter) {
+				final long size = currentProducerIndex - consumerIndexAfter;
+				return (int) Math.max(0, Math.min(size, this.capacity));
+			}
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.consumerIndex.get() == this.producerIndex.get();
+	}
+
+	@Override
+	public int remainingCapacity() {
+		return this.capacity - this.size();
+	}
+
+	/**
+	 * @return the actual capacity of this ring buffer, i.e., the requested capacity rounded up to the next power of two
+	 */
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Returns a weakly consistent iterator over a snapshot of the elements, which can be used by any thread. Elements which
+	 * are consumed or published while the snapshot is taken may be missing. The iterator does not support removal, hence
+	 * neither does {@link #remove(Object)}.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		final long startIndex = this.consumerIndex.get();
+		final long endIndex = Math.min(this.producerIndex.get(), startIndex + this.capacity);
+		final List<E> snapshot = new ArrayList<>((int) Math.max(0, endIndex - startIndex));
+		for (long index = startIndex; index < endIndex; index++) {
+			final E e = this.slots.get(this.offset(index));
+			if (this.consumerIndex.get() > index) {
+				// the consumer has released the slot, which may already hold an element of a later round
+				continue;
+			}
+			if (e != null) {
+				snapshot.add(e);
+			}
+		}
+		return Collections.unmodifiableList(snapshot).iterator();
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder(64).append(this.getClass().getName()).append("[capacity=").append(this.capacity)
+				.append(", size=").append(this.size()).append(']').toString();
+	}
+
+	private int offset(final long index) {
+		return (int) index & this.mask;
+	}
+}
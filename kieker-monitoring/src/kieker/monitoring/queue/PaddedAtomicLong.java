@@ -0,0 +1,40 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.monitoring.queue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link AtomicLong} which occupies a cache line of its own. This prevents false sharing between sequence counters
+ * which are updated by different threads, e.g., the producer and the consumer index of a ring buffer.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+final class PaddedAtomicLong extends AtomicLong {
+
+	private static final long serialVersionUID = 4614128584062413468L;
+
+	// padding to fill the remainder of a 64 byte cache line
+	long p1, p2, p3, p4, p5, p6, p7; // NOCS NOPMD (padding fields are never read)
+
+	public PaddedAtomicLong() {
+		super();
+	}
+}
@@ -0,0 +1,277 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.monitoring.queue.behavior;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.thread.DaemonThreadFactory;
+import kieker.monitoring.queue.IBulkInsertQueue;
+
+/**
+ * Insert behavior which collects the records of each application thread in a thread-local buffer of fixed size. A
+ * buffer is published to the writer queue when it is full or when its oldest record exceeds the maximal age. If the
+ * queue is an {@link IBulkInsertQueue}, the records of a buffer are inserted with a single synchronization instead of
+ * one per record, while the records of each thread keep their order. The records which do not fit into the queue are
+ * passed one by one to the decorated insert behavior, which blocks, counts, or fails as configured. Hence, the
+ * capacity of the queue is still counted in records.
+ * <br>
+ * Expired buffers of idle threads are published by a periodic flush task. {@link #terminate()} must be called before
+ * the writer thread is terminated so that no buffered record is lost.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class ThreadLocalBufferInsertBehavior implements InsertBehavior<IMonitoringRecord> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThreadLocalBufferInsertBehavior.class);
+
+	private final IBulkInsertQueue<IMonitoringRecord> bulkInsertQueue;
+	private final InsertBehavior<IMonitoringRecord> delegate;
+	private final int bufferSize;
+	private final long maxBufferAgeInNs;
+
+	/** all buffers which may contain records, including those of terminated threads. */
+	private final Queue<ThreadRecordBuffer> buffers = new ConcurrentLinkedQueue<>();
+	private final ThreadLocal<ThreadRecordBuffer> threadLocalBuffer = new ThreadLocal<ThreadRecordBuffer>() {
+		@Override
+		protected ThreadRecordBuffer initialValue() {
+			final ThreadRecordBuffer buffer = new ThreadRecordBuffer(Thread.currentThread());
+			ThreadLocalBufferInsertBehavior.this.buffers.add(buffer);
+			return buffer;
+		}
+	};
+
+	private final ScheduledExecutorService flushExecutor;
+
+	/** set if the flush task failed to publish a buffer; reported once by the next insert. */
+	private final AtomicBoolean publishFailed = new AtomicBoolean();
+
+	/**
+	 * Creates a new thread-local buffer insert behavior.
+	 *
+	 * @param queue
+	 *            the writer queue; the buffers are inserted at once if it is an {@link IBulkInsertQueue}
+	 * @param delegate
+	 *            the insert behavior of the writer queue which receives the records not inserted at once
+	 * @param bufferSize
+	 *            the number of records per thread-local buffer
+	 * @param maxBufferAgeInMs
+	 *            the maximal time in milliseconds a record may remain in a buffer before the buffer is published
+	 */
+	@SuppressWarnings("unchecked")
+	public ThreadLocalBufferInsertBehavior(final BlockingQueue<IMonitoringRecord> queue, final InsertBehavior<IMonitoringRecord> delegate,
+			final int bufferSize, final long maxBufferAgeInMs) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("The buffer size must be positive, but was " + bufferSize);
+		}
+		this.bulkInsertQueue = (queue instanceof IBulkInsertQueue) ? (IBulkInsertQueue<IMonitoringRecord>) queue : null; // NOCS (inline ?)
+		this.delegate = delegate;
+		this.bufferSize = bufferSize;
+		final long maxAgeInMs = Math.max(1, maxBufferAgeInMs);
+		this.maxBufferAgeInNs = TimeUnit.MILLISECONDS.toNanos(maxAgeInMs);
+
+		this.flushExecutor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory());
+		final long flushPeriodInMs = Math.max(1, maxAgeInMs / 2);
+		this.flushExecutor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				ThreadLocalBufferInsertBehavior.this.flushExpiredBuffers();
+			}
+		}, flushPeriodInMs, flushPeriodInMs, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public boolean insert(final IMonitoringRecord element) {
+		if (this.publishFailed.get() && this.publishFailed.getAndSet(false)) {
+			return false;
+		}
+		return this.threadLocalBuffer.get().add(element);
+	}
+
+	/**
+	 * Publishes all buffers whose oldest record exceeds the maximal age and forgets the buffers of terminated threads.
+	 * Buffers which are in use by their thread are skipped; they are published by the next period at the latest.
+	 */
+	protected void flushExpiredBuffers() {
+		final long expiryTimestamp = System.nanoTime() - this.maxBufferAgeInNs;
+
+		final Iterator<ThreadRecordBuffer> iterator = this.buffers.iterator();
+		while (iterator.hasNext()) {
+			final ThreadRecordBuffer buffer = iterator.next();
+			if (buffer.tryAcquire()) {
+				try {
+					if (!buffer.flushIfOlderThan(expiryTimestamp)) {
+						this.publishFailed.set(true);
+					}
+					if (!buffer.owner.isAlive() && buffer.flush()) {
+						iterator.remove();
+					}
+				} finally {
+					buffer.release();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stops the periodic flush task and publishes the remaining records of all buffers.
+	 */
+	public void terminate() {
+		this.flushExecutor.shutdown();
+		try {
+			this.flushExecutor.awaitTermination(1, TimeUnit.SECONDS);
+		} catch (final InterruptedException e) {
+			LOGGER.warn("Awaiting termination of the flush task was interrupted.", e);
+		}
+
+		for (final ThreadRecordBuffer buffer : this.buffers) {
+			buffer.acquire();
+			try {
+				if (!buffer.flush()) {
+					LOGGER.error("Failed to publish the buffered records of thread {}.", buffer.owner.getName());
+				}
+			} finally {
+				buffer.release();
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder(128)
+				.append(this.getClass())
+				.append("\n\t\t")
+				.append("Buffer size: ").append(this.bufferSize)
+				.append("\n\t\t")
+				.append("Max buffer age in ns: ").append(this.maxBufferAgeInNs)
+				.append("\n\t\t")
+				.append("Decorated insert behavior: ").append(this.delegate.toString());
+		return builder.toString();
+	}
+
+	/**
+	 * The buffer of a single thread. Only its owner appends to it, and no monitor is taken. The flush task takes the
+	 * buffer over by a CAS on its state while the owner does not use it, which makes the records of the owner visible to
+	 * the flush task. The CAS of the owner stays in its own cache unless the flush task has taken over the buffer,
+	 * which happens at most once per flush period.
+	 */
+	private final class ThreadRecordBuffer {
+
+		private static final int FREE = 0;
+		private static final int IN_USE = 1;
+
+		private final Thread owner;
+		private final AtomicInteger state = new AtomicInteger(FREE);
+		private final IMonitoringRecord[] records;
+		private int size;
+		/** the timestamp of the first record in the current buffer. */
+		private long firstRecordTimestamp;
+
+		public ThreadRecordBuffer(final Thread owner) {
+			this.owner = owner;
+			this.records = new IMonitoringRecord[ThreadLocalBufferInsertBehavior.this.bufferSize];
+		}
+
+		/**
+		 * Called by the owner only.
+		 */
+		public boolean add(final IMonitoringRecord record) {
+			this.acquire();
+			try {
+				if (this.size == 0) {
+					this.firstRecordTimestamp = System.nanoTime();
+				}
+				this.records[this.size++] = record;
+				if (this.size == this.records.length) {
+					return this.publish();
+				}
+				return true;
+			} finally {
+				this.release();
+			}
+		}
+
+		public boolean tryAcquire() {
+			return this.state.compareAndSet(FREE, IN_USE);
+		}
+
+		/**
+		 * Waits while the flush task publishes this buffer, which takes as long as inserting it into the queue.
+		 */
+		public void acquire() {
+			while (!this.tryAcquire()) {
+				Thread.yield();
+			}
+		}
+
+		public void release() {
+			this.state.lazySet(FREE);
+		}
+
+		/**
+		 * Must only be called while this buffer is acquired.
+		 *
+		 * @return <code>false</code> if the buffer could not be published, otherwise <code>true</code>
+		 */
+		public boolean flushIfOlderThan(final long timestamp) {
+			if ((this.size > 0) && ((timestamp - this.firstRecordTimestamp) >= 0)) {
+				return this.publish();
+			}
+			return true;
+		}
+
+		/**
+		 * Must only be called while this buffer is acquired.
+		 *
+		 * @return <code>false</code> if the buffer could not be published, otherwise <code>true</code>
+		 */
+		public boolean flush() {
+			if (this.size > 0) {
+				return this.publish();
+			}
+			return true;
+		}
+
+		private boolean publish() {
+			final IBulkInsertQueue<IMonitoringRecord> queue = ThreadLocalBufferInsertBehavior.this.bulkInsertQueue;
+			int published = (queue != null) ? queue.offerAll(this.records, this.size) : 0; // NOCS (inline ?)
+			boolean success = true;
+			// the remaining records are subject to the behavior on a full queue
+			while (success && (published < this.size)) {
+				success = ThreadLocalBufferInsertBehavior.this.delegate.insert(this.records[published++]);
+			}
+			Arrays.fill(this.records, 0, this.size, null);
+			this.size = 0;
+			return success;
+		}
+	}
+}
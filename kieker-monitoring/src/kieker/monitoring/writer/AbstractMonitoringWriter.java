@@ -16,6 +16,7 @@
 
 package kieker.monitoring.writer;
 
+import java.util.List;
 import java.util.Set;
 
 import kieker.common.configuration.Configuration;
@@ -47,6 +48,39 @@ public abstract class AbstractMonitoringWriter {
 	 */
 	public abstract void writeMonitoringRecord(IMonitoringRecord record);
 
+	/**
+	 * This event fires when the {@link MonitoringWriterThread} runs in batch mode and has taken several records from the writer queue at once.
+	 * The default implementation passes each record to {@link #writeMonitoringRecord(IMonitoringRecord)}. Writers which can process
+	 * multiple records more efficiently, e.g., by flushing their buffers only once per batch, should override this method.
+	 * <br>
+	 * <i>The list is reused by the writer thread and must not be retained after this method returns.</i>
+	 *
+	 * @param records
+	 *            the records in the order in which they have been taken from the writer queue
+	 *
+	 * @since 2.0.0
+	 */
+	public void writeMonitoringRecords(final List<IMonitoringRecord> records) {
+		for (final IMonitoringRecord record : records) {
+			this.writeMonitoringRecord(record);
+		}
+	}
+
+	/**
+	 * Indicates whether this writer is done with a record as soon as {@link #writeMonitoringRecord(IMonitoringRecord)}
+	 * or {@link #writeMonitoringRecords(List)} returns, i.e., it neither keeps a reference to the record nor hands it
+	 * to another thread. Only then, the {@link MonitoringWriterThread} may return recyclable records to their pool
+	 * after writing them. Writers must write recyclable records with the name returned by
+	 * {@link WriterUtil#getRecordClassName(IMonitoringRecord)}.
+	 *
+	 * @return false by default
+	 *
+	 * @since 2.0.0
+	 */
+	public boolean supportsRecordRecycling() {
+		return false;
+	}
+
 	/**
 	 * This event fires when Kieker has been notified to terminate.
 	 * It is executed by the {@link MonitoringWriterThread} just after finishing the writer queue.
@@ -16,13 +16,18 @@
 
 package kieker.monitoring.writer;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.misc.EmptyRecord;
+import kieker.monitoring.core.pool.IRecyclableRecord;
 
 /**
  * @author Christian Wulf
@@ -35,12 +40,41 @@ public class MonitoringWriterThread extends Thread {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(MonitoringWriterThread.class);
 
+	/** the maximal time the thread parks while lingering for further records of a batch. */
+	private static final long LINGER_PARK_TIME_IN_NS = TimeUnit.MICROSECONDS.toNanos(50);
+
 	private final BlockingQueue<IMonitoringRecord> writerQueue;
 	private final AbstractMonitoringWriter writer;
+	/** the maximal number of records passed to the writer at once; values &lt;= 1 disable the batch mode. */
+	private final int maxBatchSize;
+	/** the maximal time to wait for a batch to become full before it is passed to the writer. */
+	private final long maxLingerTimeInNs;
+	/** whether recyclable records are returned to their pool after they have been written. */
+	private final boolean recycleRecords;
 
 	// private int numWrittenRecords;
 
 	public MonitoringWriterThread(final AbstractMonitoringWriter writer, final BlockingQueue<IMonitoringRecord> writerQueue) {
+		this(writer, writerQueue, 1, 0);
+	}
+
+	/**
+	 * Creates a new writer thread which passes the records to the writer in batches.
+	 *
+	 * @param writer
+	 *            the writer which receives the records
+	 * @param writerQueue
+	 *            the queue the records are taken from
+	 * @param maxBatchSize
+	 *            the maximal number of records per batch; values &lt;= 1 write each record separately
+	 * @param maxLingerTimeInMs
+	 *            the maximal time in milliseconds to wait for further records before an incomplete batch is written;
+	 *            0 writes everything which is available immediately
+	 *
+	 * @since 2.0.0
+	 */
+	public MonitoringWriterThread(final AbstractMonitoringWriter writer, final BlockingQueue<IMonitoringRecord> writerQueue,
+			final int maxBatchSize, final long maxLingerTimeInMs) {
 		if (writer == null) {
 			throw new NullPointerException("The given writer may not be null.");
 		}
@@ -49,6 +83,9 @@ public class MonitoringWriterThread extends Thread {
 		}
 		this.writer = writer;
 		this.writerQueue = writerQueue;
+		this.maxBatchSize = maxBatchSize;
+		this.maxLingerTimeInNs = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxLingerTimeInMs));
+		this.recycleRecords = writer.supportsRecordRecycling();
 		// All Kieker threads must be daemon threads. Otherwise the monitored application can never terminate.
 		this.setDaemon(true);
 	}
@@ -60,10 +97,14 @@ public class MonitoringWriterThread extends Thread {
 		this.writer.onStarting();
 
 		try {
-			IMonitoringRecord record = this.writerQueue.take();
-			while (record != END_OF_MONITORING_RECORD) { // NOPMD (compare references by == not by equals())
-				this.writer.writeMonitoringRecord(record);
-				record = this.writerQueue.take();
+			if (this.maxBatchSize > 1) {
+				this.writeBatches();
+			} else {
+				IMonitoringRecord record = this.writerQueue.take();
+				while (record != END_OF_MONITORING_RECORD) { // NOPMD (compare references by == not by equals())
+					this.writeMonitoringRecord(record);
+					record = this.writerQueue.take();
+				}
 			}
 		} catch (final InterruptedException e) {
 			LOGGER.debug("{} was interrupted.", this.getClass().getName(), e);
@@ -75,6 +116,91 @@ public class MonitoringWriterThread extends Thread {
 		LOGGER.debug("{} has finished.", this.getClass().getName());
 	}
 
+	private void writeBatches() throws InterruptedException {
+		final List<IMonitoringRecord> batch = new ArrayList<>(this.maxBatchSize);
+
+		boolean endOfMonitoring = false;
+		while (!endOfMonitoring) {
+			batch.add(this.writerQueue.take());
+			this.writerQueue.drainTo(batch, this.maxBatchSize - 1);
+			if (this.maxLingerTimeInNs > 0) {
+				this.lingerForRecords(batch);
+			}
+
+			int endIndex = MonitoringWriterThread.indexOfEndOfMonitoring(batch, 0);
+			if (endIndex >= 0) {
+				// records inserted after the end token are discarded as in the single record mode
+				endOfMonitoring = true;
+			} else {
+				endIndex = batch.size();
+			}
+
+			final List<IMonitoringRecord> records = batch.subList(0, endIndex);
+			if (!records.isEmpty()) {
+				this.writer.writeMonitoringRecords(records);
+				if (this.recycleRecords) {
+					MonitoringWriterThread.recycle(records);
+				}
+			}
+			batch.clear();
+		}
+	}
+
+	private void writeMonitoringRecord(final IMonitoringRecord record) {
+		this.writer.writeMonitoringRecord(record);
+		if (this.recycleRecords && (record instanceof IRecyclableRecord)) {
+			((IRecyclableRecord) record).recycle();
+		}
+	}
+
+	private static void recycle(final List<IMonitoringRecord> records) {
+		for (int i = 0; i < records.size(); i++) {
+			final IMonitoringRecord record = records.get(i);
+			if (record instanceof IRecyclableRecord) {
+				((IRecyclableRecord) record).recycle();
+			}
+		}
+	}
+
+	/**
+	 * Fills the given batch until it is full, the end token has been received, or the linger time has expired.
+	 */
+	private void lingerForRecords(final List<IMonitoringRecord> batch) throws InterruptedException {
+		final long deadline = System.nanoTime() + this.maxLingerTimeInNs;
+
+		int checkedIndex = 0;
+		while (batch.size() < this.maxBatchSize) {
+			if (MonitoringWriterThread.indexOfEndOfMonitoring(batch, checkedIndex) >= 0) {
+				return;
+			}
+			checkedIndex = batch.size();
+
+			final long remainingTimeInNs = deadline - System.nanoTime();
+			if (remainingTimeInNs <= 0) {
+				return;
+			}
+
+			if (this.writerQueue.drainTo(batch, this.maxBatchSize - batch.size()) == 0) {
+				LockSupport.parkNanos(Math.min(remainingTimeInNs, LINGER_PARK_TIME_IN_NS));
+				if (Thread.interrupted()) {
+					throw new InterruptedException("Interrupted while waiting for further records of a batch.");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Searches the end token by reference, since other {@link EmptyRecord}s are equal to it.
+	 */
+	private static int indexOfEndOfMonitoring(final List<IMonitoringRecord> batch, final int fromIndex) {
+		for (int i = fromIndex; i < batch.size(); i++) {
+			if (batch.get(i) == END_OF_MONITORING_RECORD) { // NOPMD (compare references by == not by equals())
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	/**
 	 * Initiates the termination of this thread.
 	 */
@@ -23,6 +23,9 @@ import java.nio.channels.WritableByteChannel;
 
 import org.slf4j.Logger;
 
+import kieker.common.record.IMonitoringRecord;
+import kieker.monitoring.core.pool.IRecyclableRecord;
+
 /**
  * @author Christian Wulf
  *
@@ -54,6 +57,23 @@ public final class WriterUtil {
 		return bytesWritten;
 	}
 
+	/**
+	 * Returns the name of the record type the given record is written as. This is the class name of the record
+	 * except for recyclable records, which are written as the immutable record type they represent.
+	 *
+	 * @param record
+	 *            the record to be written
+	 * @return the fully qualified record class name
+	 *
+	 * @since 2.0.0
+	 */
+	public static String getRecordClassName(final IMonitoringRecord record) {
+		if (record instanceof IRecyclableRecord) {
+			return ((IRecyclableRecord) record).getRecordClassName();
+		}
+		return record.getClass().getName();
+	}
+
 	public static void close(final Closeable closeable, final Logger logger) {
 		try {
 			closeable.close();
@@ -39,6 +39,7 @@ import kieker.common.registry.IRegistryListener;
 import kieker.common.registry.writer.WriterRegistry;
 import kieker.common.util.thread.DaemonThreadFactory;
 import kieker.monitoring.writer.AbstractMonitoringWriter;
+import kieker.monitoring.writer.WriterUtil;
 
 /**
  * Monitoring record writer which sends records using the AMQP protocol to a message queue.
@@ -139,7 +140,7 @@ public class AmqpWriter extends AbstractMonitoringWriter implements IRegistryLis
 		}
 
 		// register monitoringRecord class name
-		final String recordClassName = monitoringRecord.getClass().getName();
+		final String recordClassName = WriterUtil.getRecordClassName(monitoringRecord);
 		this.writerRegistry.register(recordClassName);
 
 		// Prepend envelope data
@@ -191,6 +192,11 @@ public class AmqpWriter extends AbstractMonitoringWriter implements IRegistryLis
 		}
 	}
 
+	@Override
+	public boolean supportsRecordRecycling() {
+		return true; // records are serialized synchronously into the message buffer
+	}
+
 	@Override
 	public void onTerminating() {
 		try {
@@ -17,11 +17,15 @@ package kieker.monitoring.writer.collector;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -107,7 +111,16 @@ public class ChunkingCollector extends AbstractMonitoringWriter {
 
 	private final ScheduledExecutorService scheduledExecutor;
 	private final int taskRunInterval;
+	private final int chunkSize;
 	private final ChunkWriterTask writerTask;
+	private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+	private final Runnable wakeUpTask = new Runnable() {
+		@Override
+		public void run() {
+			ChunkingCollector.this.wakeUpPending.set(false);
+			ChunkingCollector.this.writerTask.run();
+		}
+	};
 
 	/**
 	 * Create a chunking collector.
@@ -135,10 +148,10 @@ public class ChunkingCollector extends AbstractMonitoringWriter {
 
 		// Instantiate the writer task
 		final int deferredWriteDelayMs = configuration.getIntProperty(CONFIG_DEFERRED_WRITE_DELAY, DEFAULT_DEFERRED_WRITE_DELAY);
-		final int chunkSize = configuration.getIntProperty(CONFIG_CHUNK_SIZE, DEFAULT_CHUNK_SIZE);
+		this.chunkSize = configuration.getIntProperty(CONFIG_CHUNK_SIZE, DEFAULT_CHUNK_SIZE);
 		final int outputBufferSize = configuration.getIntProperty(CONFIG_OUTPUT_BUFFER_SIZE, DEFAULT_OUTPUT_BUFFER_SIZE);
 
-		this.writerTask = new ChunkWriterTask(this, chunkSize, deferredWriteDelayMs, outputBufferSize, serializer, writer);
+		this.writerTask = new ChunkWriterTask(this, this.chunkSize, deferredWriteDelayMs, outputBufferSize, serializer, writer);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -203,6 +216,38 @@ public class ChunkingCollector extends AbstractMonitoringWriter {
 		this.enqueueRecord(record);
 	}
 
+	/**
+	 * Enqueues all records of the batch for the writer task. If the queue can take the whole batch, the records are added
+	 * after a single capacity check, otherwise they are enqueued one by one as by {@link #writeMonitoringRecord}. If the
+	 * batch completes a chunk, the writer task is woken up once instead of waiting for its next scheduled run.
+	 */
+	@Override
+	public void writeMonitoringRecords(final List<IMonitoringRecord> records) {
+		final int numberOfRecords = records.size();
+		if ((this.recordQueue instanceof BlockingQueue) && (((BlockingQueue<?>) this.recordQueue).remainingCapacity() >= numberOfRecords)) {
+			for (int i = 0; i < numberOfRecords; i++) {
+				final IMonitoringRecord record = records.get(i);
+				// the capacity can only shrink if other threads write concurrently
+				if (!this.recordQueue.offer(record)) {
+					this.enqueueRecord(record);
+				}
+			}
+		} else {
+			for (int i = 0; i < numberOfRecords; i++) {
+				this.enqueueRecord(records.get(i));
+			}
+		}
+
+		if ((this.recordQueue.size() >= this.chunkSize) && !this.wakeUpPending.getAndSet(true)) {
+			try {
+				this.scheduledExecutor.execute(this.wakeUpTask);
+			} catch (final RejectedExecutionException e) {
+				// the collector is terminating and writes the remaining records itself
+				this.wakeUpPending.set(false);
+			}
+		}
+	}
+
 	public Queue<IMonitoringRecord> getRecordQueue() {
 		return this.recordQueue;
 	}
@@ -54,6 +54,11 @@ public class DumpWriter extends AbstractMonitoringWriter {
 		// consumes the record without further processing
 	}
 
+	@Override
+	public boolean supportsRecordRecycling() {
+		return true; // records are discarded immediately
+	}
+
 	@Override
 	public void onTerminating() {
 		LOGGER.info("{} has shut down.", this.getClass().getName());
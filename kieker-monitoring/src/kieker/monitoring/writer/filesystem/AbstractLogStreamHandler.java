@@ -20,7 +20,9 @@ import java.io.OutputStream;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.io.IValueSerializer;
@@ -91,6 +93,23 @@ public abstract class AbstractLogStreamHandler {
 		this.numOfEntries = 0;
 	}
 
+	/**
+	 * Create the given log file and initialize a new stream for it. Handlers which do not write through an output
+	 * stream override this method.
+	 *
+	 * @param outputFile
+	 *            path of the new log file, the file must not exist
+	 *
+	 * @throws IOException
+	 *             when the creation of the file or the channel fails
+	 *
+	 * @since 2.0.0
+	 */
+	public void initialize(final Path outputFile) throws IOException {
+		this.initialize(Files.newOutputStream(outputFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+				outputFile.getFileName());
+	}
+
 	/**
 	 * Return the number of written entries.
 	 *
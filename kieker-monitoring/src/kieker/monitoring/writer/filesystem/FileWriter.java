@@ -20,7 +20,7 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +32,7 @@ import kieker.common.registry.writer.WriterRegistry;
 import kieker.common.util.classpath.InstantiationFactory;
 import kieker.common.util.filesystem.FSUtil;
 import kieker.monitoring.writer.AbstractMonitoringWriter;
+import kieker.monitoring.writer.WriterUtil;
 import kieker.monitoring.writer.compression.ICompressionFilter;
 import kieker.monitoring.writer.compression.NoneCompressionFilter;
 
@@ -183,11 +184,7 @@ public class FileWriter extends AbstractMonitoringWriter implements IRegistryLis
 				logFilePoolHandlerClassName, logFilePoolHandlerSignature, logFolder,
 				this.logStreamHandler.getFileExtension(), maxAmountOfFiles);
 
-		final Path outputFile = this.logFilePoolHandler.requestFile();
-
-		this.logStreamHandler.initialize(
-				Files.newOutputStream(outputFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
-				outputFile.getFileName());
+		this.logStreamHandler.initialize(this.logFilePoolHandler.requestFile());
 	}
 
 	@Override
@@ -208,7 +205,7 @@ public class FileWriter extends AbstractMonitoringWriter implements IRegistryLis
 			this.createNewLogFile();
 		}
 
-		final String recordClassName = record.getClass().getName();
+		final String recordClassName = WriterUtil.getRecordClassName(record);
 		this.writerRegistry.register(recordClassName);
 
 		try {
@@ -218,20 +215,47 @@ public class FileWriter extends AbstractMonitoringWriter implements IRegistryLis
 		}
 	}
 
+	@Override
+	public void writeMonitoringRecords(final List<IMonitoringRecord> records) {
+		// batches usually contain long runs of the same record type, hence we cache the last type lookup
+		Class<?> lastRecordClass = null;
+		int lastRecordClassId = 0;
+
+		for (final IMonitoringRecord record : records) {
+			if ((this.logStreamHandler.getNumOfEntries() >= this.maxEntriesInFile)
+					|| (this.logStreamHandler.getNumOfBytes() >= this.maxBytesInFile)) {
+				this.createNewLogFile();
+			}
+
+			final Class<?> recordClass = record.getClass();
+			if (recordClass != lastRecordClass) {
+				lastRecordClass = recordClass;
+				lastRecordClassId = this.writerRegistry.getId(WriterUtil.getRecordClassName(record));
+			}
+
+			try {
+				this.logStreamHandler.serialize(record, lastRecordClassId);
+			} catch (final IOException e) {
+				FileWriter.LOGGER.error("Serializing of a record failed.", e);
+			}
+		}
+	}
+
 	private void createNewLogFile() {
 		try {
 			// request new file.
 			this.logStreamHandler.close();
-			final Path outputFile = this.logFilePoolHandler.requestFile();
-
-			this.logStreamHandler.initialize(
-					Files.newOutputStream(outputFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
-					outputFile.getFileName());
+			this.logStreamHandler.initialize(this.logFilePoolHandler.requestFile());
 		} catch (final IOException ex) {
 			FileWriter.LOGGER.error("Switching files in logger failed.", ex);
 		}
 	}
 
+	@Override
+	public boolean supportsRecordRecycling() {
+		return true; // records are serialized synchronously into the log stream
+	}
+
 	@Override
 	public void onTerminating() {
 		try {
@@ -0,0 +1,227 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.filesystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.io.BinaryValueSerializer;
+import kieker.common.record.io.IValueSerializer;
+import kieker.common.registry.writer.WriterRegistry;
+import kieker.common.util.filesystem.FSUtil;
+import kieker.common.util.thread.DaemonThreadFactory;
+import kieker.monitoring.writer.compression.ICompressionFilter;
+
+/**
+ * Binary log stream handler which serializes records directly into memory-mapped segments of the log file. The file
+ * format is the same as the one of the {@link BinaryLogStreamHandler}.
+ *
+ * <p>
+ * While the current segment is filled, the next segment is already mapped by a background thread, which also forces
+ * completed segments to disk. Hence, rolling over to the next segment does not wait for the file system. The buffer
+ * size configures the size of a segment; it is at least {@value #MIN_SEGMENT_SIZE} bytes. If the log file has to be
+ * flushed, completed segments are forced synchronously. Compression is not supported.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class MappedBinaryLogStreamHandler extends AbstractLogStreamHandler {
+
+	/** the minimal size of a mapped segment in bytes. */
+	public static final int MIN_SEGMENT_SIZE = 1024 * 1024;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MappedBinaryLogStreamHandler.class);
+
+	private final int segmentSize;
+	/** maps the next segment and forces completed segments. */
+	private final ExecutorService segmentExecutor;
+	/** holds a record which does not fit into the rest of the current segment. */
+	private ByteBuffer spillBuffer;
+	private IValueSerializer spillSerializer;
+
+	private FileChannel fileChannel;
+	private MappedByteBuffer segment;
+	/** the file position of the current segment. */
+	private long segmentOffset;
+	private Future<MappedByteBuffer> nextSegment;
+
+	/**
+	 * Create a memory-mapped binary log stream handler.
+	 *
+	 * @param flushLogFile
+	 *            force each completed segment synchronously
+	 * @param bufferSize
+	 *            segment size
+	 * @param charset
+	 *            charset, presently not used in binary serialization
+	 * @param compressionFilter
+	 *            compression filter, must not compress
+	 * @param writerRegistry
+	 *            writer registry.
+	 */
+	public MappedBinaryLogStreamHandler(final Boolean flushLogFile, final Integer bufferSize, final Charset charset, // NOPMD charset not used in binary
+			final ICompressionFilter compressionFilter, final WriterRegistry writerRegistry) {
+		super(flushLogFile, bufferSize, charset, compressionFilter, writerRegistry);
+		if (compressionFilter.getExtension() != null) {
+			throw new IllegalArgumentException("Memory-mapped log files cannot be compressed, but " + compressionFilter.getClass().getName()
+					+ " has been configured.");
+		}
+		this.segmentSize = Math.max(bufferSize, MIN_SEGMENT_SIZE);
+		this.spillBuffer = ByteBuffer.allocate(1024);
+		this.spillSerializer = BinaryValueSerializer.create(this.spillBuffer, writerRegistry);
+		// a single thread keeps the tasks in order; it terminates when idle, so no explicit shutdown is required
+		this.segmentExecutor = new ThreadPoolExecutor(0, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory());
+		this.extension = FSUtil.BINARY_FILE_EXTENSION;
+	}
+
+	@Override
+	public void initialize(final Path outputFile) throws IOException {
+		this.fileChannel = FileChannel.open(outputFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.segmentOffset = 0;
+		this.segment = this.fileChannel.map(MapMode.READ_WRITE, 0, this.segmentSize);
+		this.serializer = BinaryValueSerializer.create(this.segment, this.writerRegistry);
+		this.nextSegment = this.mapSegmentAsync(this.fileChannel, this.segmentSize);
+		this.numOfEntries = 0;
+	}
+
+	@Override
+	public void serialize(final IMonitoringRecord record, final int id) throws IOException {
+		final int recordSize = 4 + 8 + record.getSize();
+		if (recordSize <= this.segment.remaining()) {
+			this.segment.putInt(id);
+			this.segment.putLong(record.getLoggingTimestamp());
+			record.serialize(this.serializer);
+		} else {
+			this.serializeAcrossSegments(record, id, recordSize);
+		}
+		this.numOfEntries++;
+	}
+
+	/**
+	 * Serializes the record into the spill buffer and copies it into the rest of the current segment and the following
+	 * segment(s).
+	 */
+	private void serializeAcrossSegments(final IMonitoringRecord record, final int id, final int recordSize) throws IOException {
+		if (this.spillBuffer.capacity() < recordSize) {
+			this.spillBuffer = ByteBuffer.allocate(recordSize);
+			this.spillSerializer = BinaryValueSerializer.create(this.spillBuffer, this.writerRegistry);
+		}
+		this.spillBuffer.clear();
+		this.spillBuffer.putInt(id);
+		this.spillBuffer.putLong(record.getLoggingTimestamp());
+		record.serialize(this.spillSerializer);
+		this.spillBuffer.flip();
+
+		while (this.spillBuffer.hasRemaining()) {
+			if (!this.segment.hasRemaining()) {
+				this.nextSegment();
+			}
+			final int length = Math.min(this.spillBuffer.remaining(), this.segment.remaining());
+			final int limit = this.spillBuffer.limit();
+			this.spillBuffer.limit(this.spillBuffer.position() + length);
+			this.segment.put(this.spillBuffer);
+			this.spillBuffer.limit(limit);
+		}
+	}
+
+	/**
+	 * Switches to the segment mapped in the background and starts mapping the one after it.
+	 */
+	private void nextSegment() throws IOException {
+		final MappedByteBuffer completedSegment = this.segment;
+		this.segment = this.awaitSegment(this.nextSegment);
+		this.segmentOffset += this.segmentSize;
+		this.serializer = BinaryValueSerializer.create(this.segment, this.writerRegistry);
+
+		if (this.flushLogFile) {
+			completedSegment.force();
+		} else {
+			this.segmentExecutor.execute(new Runnable() {
+				@Override
+				public void run() {
+					completedSegment.force();
+				}
+			});
+		}
+		this.nextSegment = this.mapSegmentAsync(this.fileChannel, this.segmentOffset + this.segmentSize);
+	}
+
+	private Future<MappedByteBuffer> mapSegmentAsync(final FileChannel channel, final long position) {
+		return this.segmentExecutor.submit(new Callable<MappedByteBuffer>() {
+			@Override
+			public MappedByteBuffer call() throws IOException {
+				final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, position,
+						MappedBinaryLogStreamHandler.this.segmentSize);
+				buffer.load(); // fault in the pages before the writer thread touches them
+				return buffer;
+			}
+		});
+	}
+
+	private MappedByteBuffer awaitSegment(final Future<MappedByteBuffer> future) throws IOException {
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while mapping the next segment.", e);
+		} catch (final ExecutionException e) {
+			throw new IOException("Mapping the next segment failed.", e.getCause());
+		}
+	}
+
+	/**
+	 * Return the number of written bytes, i.e., the current position in the log file.
+	 *
+	 * @return number of bytes
+	 */
+	@Override
+	public long getNumOfBytes() {
+		return this.segmentOffset + this.segment.position();
+	}
+
+	@Override
+	public void close() throws IOException {
+		final long size = this.getNumOfBytes();
+		try {
+			this.awaitSegment(this.nextSegment); // the preallocated segment must be mapped before truncating the file
+		} catch (final IOException e) {
+			LOGGER.warn("Mapping the next segment failed.", e);
+		}
+		this.segment.force();
+		this.fileChannel.truncate(size);
+		this.fileChannel.close();
+	}
+}
@@ -0,0 +1,278 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.influxdb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.thread.DaemonThreadFactory;
+
+/**
+ * Writes records in batches to the HTTP API of InfluxDB. The records are encoded in the line protocol into reusable
+ * buffers. A batch is sent when it contains the configured number of points or when the flush interval elapsed. The
+ * batches are sent by background threads, and at most the configured number of batches is in flight. When all of them
+ * are in flight, adding a record blocks until a batch has been sent.
+ *
+ * <p>
+ * Records are added by the writer thread only, while the flush timer competes for the current batch.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+class InfluxDBBatchWriter {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(InfluxDBBatchWriter.class);
+
+	private static final int INITIAL_BUFFER_CAPACITY = 1 << 16;
+	private static final long TERMINATION_TIMEOUT_SECONDS = 10;
+	private static final String VERSION_HEADER = "X-Influxdb-Version";
+
+	private final URL writeUrl;
+	private final String authorization;
+	private final int batchSize;
+	private final LineProtocolEncoder encoder = new LineProtocolEncoder();
+	private final BlockingQueue<LineProtocolBuffer> freeBuffers;
+	private final ExecutorService senders;
+	private final ScheduledExecutorService flushTimer;
+
+	/** Batch the records are added to, guarded by this writer. */
+	private LineProtocolBuffer currentBuffer;
+
+	/**
+	 * Creates a batch writer.
+	 *
+	 * @param writeUrl
+	 *            URL of the write endpoint including the database and the retention policy
+	 * @param authorization
+	 *            value of the authorization header or null
+	 * @param batchSize
+	 *            number of points after which a batch is sent
+	 * @param flushInterval
+	 *            interval in milliseconds after which incomplete batches are sent
+	 * @param maxInFlightBatches
+	 *            maximal number of batches sent at the same time
+	 */
+	public InfluxDBBatchWriter(final URL writeUrl, final String authorization, final int batchSize, final long flushInterval,
+			final int maxInFlightBatches) {
+		this.writeUrl = writeUrl;
+		this.authorization = authorization;
+		this.batchSize = batchSize;
+
+		// one buffer more than batches in flight, such that records can be added while all batches are sent
+		this.freeBuffers = new ArrayBlockingQueue<>(maxInFlightBatches + 1);
+		for (int i = 0; i < maxInFlightBatches; i++) {
+			this.freeBuffers.add(new LineProtocolBuffer(INITIAL_BUFFER_CAPACITY));
+		}
+		this.currentBuffer = new LineProtocolBuffer(INITIAL_BUFFER_CAPACITY);
+
+		this.senders = Executors.newFixedThreadPool(maxInFlightBatches, new DaemonThreadFactory());
+		this.flushTimer = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory());
+		this.flushTimer.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				InfluxDBBatchWriter.this.flush();
+			}
+		}, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Connects to InfluxDB, creates the database if it does not exist, and creates a batch writer for it.
+	 *
+	 * @param url
+	 *            URL of InfluxDB without the port
+	 * @param port
+	 *            port of InfluxDB
+	 * @param username
+	 *            user name, or an empty string to connect without authentication
+	 * @param password
+	 *            password of the user
+	 * @param database
+	 *            name of the database
+	 * @param batchSize
+	 *            number of points after which a batch is sent
+	 * @param flushInterval
+	 *            interval in milliseconds after which incomplete batches are sent
+	 * @param maxInFlightBatches
+	 *            maximal number of batches sent at the same time
+	 * @return the batch writer
+	 * @throws IOException
+	 *             If InfluxDB cannot be reached or the database cannot be created
+	 */
+	public static InfluxDBBatchWriter connect(final String url, final int port, final String username, final String password, final String database,
+			final int batchSize, final long flushInterval, final int maxInFlightBatches) throws IOException {
+		final String baseUrl = url + ":" + port;
+		final String authorization = username.isEmpty() ? null // NOCS (inline ?)
+				: "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+
+		// Test connection
+		final HttpURLConnection ping = InfluxDBBatchWriter.openConnection(new URL(baseUrl + "/ping"), authorization);
+		final String version = ping.getHeaderField(VERSION_HEADER);
+		InfluxDBBatchWriter.checkResponse(ping, "ping");
+		LOGGER.info("Connected to InfluxDB, version: {}", version);
+
+		int majorVersion = 0;
+		try {
+			majorVersion = Integer.parseInt(version.split("\\.")[0]);
+		} catch (final NumberFormatException | NullPointerException ex) { // NOPMD (no version header)
+			LOGGER.error("InfluxDB major version number is not a number, but {}", version);
+		}
+		final String retentionPolicy = (majorVersion < 1) ? "default" : "autogen"; // NOCS (inline ?)
+
+		// Create database if it does not exist, which does nothing otherwise
+		final String encodedDatabase = URLEncoder.encode(database, "UTF-8");
+		final HttpURLConnection query = InfluxDBBatchWriter.openConnection(
+				new URL(baseUrl + "/query?q=" + URLEncoder.encode("CREATE DATABASE \"" + database + "\"", "UTF-8")), authorization);
+		query.setRequestMethod("POST");
+		InfluxDBBatchWriter.checkResponse(query, "create database " + database);
+
+		final URL writeUrl = new URL(baseUrl + "/write?db=" + encodedDatabase + "&rp=" + retentionPolicy + "&precision=ns");
+		return new InfluxDBBatchWriter(writeUrl, authorization, batchSize, flushInterval, maxInFlightBatches);
+	}
+
+	/**
+	 * Adds the record to the current batch, which is sent if it is full.
+	 *
+	 * @param record
+	 *            record to write
+	 */
+	public void write(final IMonitoringRecord record) {
+		synchronized (this) {
+			if (this.encoder.encode(record, this.currentBuffer) && (this.currentBuffer.getNumberOfPoints() >= this.batchSize)) {
+				this.sendCurrentBuffer();
+			}
+		}
+	}
+
+	/**
+	 * Sends the current batch if it contains any points.
+	 */
+	public void flush() {
+		synchronized (this) {
+			if (this.currentBuffer.getNumberOfPoints() > 0) {
+				this.sendCurrentBuffer();
+			}
+		}
+	}
+
+	private void sendCurrentBuffer() {
+		final LineProtocolBuffer nextBuffer;
+		try {
+			// blocks while the maximal number of batches is in flight
+			nextBuffer = this.freeBuffers.take();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOGGER.warn("Interrupted while waiting for a batch to be sent. Keeping {} points.", this.currentBuffer.getNumberOfPoints());
+			return;
+		}
+		final LineProtocolBuffer buffer = this.currentBuffer;
+		this.currentBuffer = nextBuffer;
+		this.senders.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					InfluxDBBatchWriter.this.send(buffer);
+				} finally {
+					buffer.clear();
+					InfluxDBBatchWriter.this.freeBuffers.add(buffer);
+				}
+			}
+		});
+	}
+
+	private void send(final LineProtocolBuffer buffer) {
+		try {
+			final HttpURLConnection connection = InfluxDBBatchWriter.openConnection(this.writeUrl, this.authorization);
+			connection.setRequestMethod("POST");
+			connection.setDoOutput(true);
+			connection.setFixedLengthStreamingMode(buffer.size());
+			connection.setRequestProperty("Content-Type", "text/plain; charset=utf-8");
+			try (OutputStream stream = connection.getOutputStream()) {
+				buffer.writeTo(stream);
+			}
+			InfluxDBBatchWriter.checkResponse(connection, "write");
+		} catch (final IOException e) {
+			LOGGER.error("Cannot write {} points to InfluxDB. Dropping them.", buffer.getNumberOfPoints(), e);
+		}
+	}
+
+	private static HttpURLConnection openConnection(final URL url, final String authorization) throws IOException {
+		final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		if (authorization != null) {
+			connection.setRequestProperty("Authorization", authorization);
+		}
+		return connection;
+	}
+
+	/**
+	 * Checks the status of the response and reads the response completely, such that the connection can be reused.
+	 */
+	private static void checkResponse(final HttpURLConnection connection, final String request) throws IOException {
+		final int status = connection.getResponseCode();
+		final boolean success = (status / 100) == 2;
+		final InputStream stream = success ? connection.getInputStream() : connection.getErrorStream(); // NOCS (inline ?)
+		final StringBuilder message = new StringBuilder();
+		if (stream != null) {
+			try {
+				final byte[] bytes = new byte[1024];
+				int length = stream.read(bytes);
+				while (length >= 0) {
+					message.append(new String(bytes, 0, length, StandardCharsets.UTF_8));
+					length = stream.read(bytes);
+				}
+			} finally {
+				stream.close();
+			}
+		}
+		if (!success) {
+			throw new IOException("InfluxDB failed to " + request + " with status " + status + ": " + message);
+		}
+	}
+
+	/**
+	 * Sends the remaining points and waits until all batches have been sent.
+	 */
+	public void close() {
+		this.flushTimer.shutdownNow();
+		this.flush();
+		this.senders.shutdown();
+		try {
+			if (!this.senders.awaitTermination(TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				LOGGER.warn("Not all batches could be sent to InfluxDB within {} s.", TERMINATION_TIMEOUT_SECONDS);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOGGER.warn("Interrupted while waiting for the batches to be sent.");
+		}
+	}
+}
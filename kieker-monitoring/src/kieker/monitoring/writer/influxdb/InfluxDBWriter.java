@@ -49,14 +49,31 @@ public class InfluxDBWriter extends AbstractMonitoringWriter { // NOPMD is not a
 	public static final String CONFIG_PROPERTY_DB_USERNAME = "databaseUsername";
 	public static final String CONFIG_PROPERTY_DB_PASSWORD = "databasePassword";
 	public static final String CONFIG_PROPERTY_DB_NAME = "databaseName";
+	/** Whether points are encoded by the writer and sent in batches asynchronously to the HTTP API of InfluxDB. */
+	public static final String CONFIG_PROPERTY_BATCH_MODE = "batchMode";
+	/** Number of points after which a batch is sent in batch mode. */
+	public static final String CONFIG_PROPERTY_BATCH_SIZE = "batchSize";
+	/** Interval in milliseconds after which an incomplete batch is sent in batch mode. */
+	public static final String CONFIG_PROPERTY_FLUSH_INTERVAL = "flushInterval";
+	/** Maximal number of batches sent at the same time in batch mode. */
+	public static final String CONFIG_PROPERTY_MAX_IN_FLIGHT_BATCHES = "maxInFlightBatches";
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(InfluxDBWriter.class);
 
+	private static final int DEFAULT_BATCH_SIZE = 5000;
+	private static final int DEFAULT_FLUSH_INTERVAL = 500;
+	private static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = 4;
+
 	private final String dbURL;
 	private final int dbPort;
 	private final String dbUsername;
 	private final String dbPassword;
 	private final String dbName;
+	private final boolean batchMode;
+	private final int batchSize;
+	private final int flushInterval;
+	private final int maxInFlightBatches;
+	private volatile InfluxDBBatchWriter batchWriter;
 	private volatile InfluxDB influxDB;
 	private volatile int influxDBMajorVersion;
 	private volatile boolean isConnected;
@@ -75,6 +92,10 @@ public class InfluxDBWriter extends AbstractMonitoringWriter { // NOPMD is not a
 		this.dbUsername = this.configuration.getStringProperty(CONFIG_PROPERTY_DB_USERNAME);
 		this.dbPassword = this.configuration.getStringProperty(CONFIG_PROPERTY_DB_PASSWORD);
 		this.dbName = this.configuration.getStringProperty(CONFIG_PROPERTY_DB_NAME);
+		this.batchMode = this.configuration.getBooleanProperty(CONFIG_PROPERTY_BATCH_MODE, false);
+		this.batchSize = this.configuration.getIntProperty(CONFIG_PROPERTY_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+		this.flushInterval = this.configuration.getIntProperty(CONFIG_PROPERTY_FLUSH_INTERVAL, DEFAULT_FLUSH_INTERVAL);
+		this.maxInFlightBatches = this.configuration.getIntProperty(CONFIG_PROPERTY_MAX_IN_FLIGHT_BATCHES, DEFAULT_MAX_IN_FLIGHT_BATCHES);
 		this.isConnected = false;
 	}
 
@@ -90,6 +111,12 @@ public class InfluxDBWriter extends AbstractMonitoringWriter { // NOPMD is not a
 		LOGGER.info("Port = {}", this.dbPort);
 		LOGGER.info("Username = {}", this.dbUsername);
 		LOGGER.info("Password = {}", this.dbPassword);
+		if (this.batchMode) {
+			this.batchWriter = InfluxDBBatchWriter.connect(this.dbURL, this.dbPort, this.dbUsername, this.dbPassword, this.dbName,
+					this.batchSize, this.flushInterval, this.maxInFlightBatches);
+			this.isConnected = true;
+			return;
+		}
 		this.influxDB = InfluxDBFactory.connect(this.dbURL + ":" + this.dbPort, this.dbUsername, this.dbPassword);
 		if (!this.influxDB.isBatchEnabled()) {
 			this.influxDB.enableBatch(2000, 500, TimeUnit.MILLISECONDS);
@@ -141,6 +168,11 @@ public class InfluxDBWriter extends AbstractMonitoringWriter { // NOPMD is not a
 			}
 		}
 
+		if (this.batchMode) {
+			this.batchWriter.write(monitoringRecord);
+			return;
+		}
+
 		// Extract data
 		final String recordName = monitoringRecord.getClass().getSimpleName();
 		final long timestamp = monitoringRecord.getLoggingTimestamp();
@@ -211,7 +243,11 @@ public class InfluxDBWriter extends AbstractMonitoringWriter { // NOPMD is not a
 	@Override
 	public void onTerminating() {
 		LOGGER.info("Closing database");
-		this.influxDB.close();
+		if (this.batchWriter != null) {
+			this.batchWriter.close();
+		} else if (this.influxDB != null) {
+			this.influxDB.close();
+		}
 		LOGGER.info("Closing database done");
 	}
 
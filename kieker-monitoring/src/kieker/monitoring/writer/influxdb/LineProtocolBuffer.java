@@ -0,0 +1,203 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.influxdb;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reusable buffer for points in the InfluxDB line protocol. The buffer grows as needed and keeps its capacity when it
+ * is cleared, such that a batch of points can be encoded without allocating memory.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+class LineProtocolBuffer {
+
+	private byte[] bytes;
+	private int size;
+	private int numberOfPoints;
+
+	/**
+	 * @param initialCapacity
+	 *            initial capacity in bytes
+	 */
+	public LineProtocolBuffer(final int initialCapacity) {
+		this.bytes = new byte[initialCapacity];
+	}
+
+	public void append(final byte value) {
+		this.ensureCapacity(1);
+		this.bytes[this.size++] = value;
+	}
+
+	public void append(final byte[] values) {
+		this.ensureCapacity(values.length);
+		System.arraycopy(values, 0, this.bytes, this.size, values.length);
+		this.size += values.length;
+	}
+
+	public void append(final LineProtocolBuffer other) {
+		this.ensureCapacity(other.size);
+		System.arraycopy(other.bytes, 0, this.bytes, this.size, other.size);
+		this.size += other.size;
+	}
+
+	/**
+	 * Appends the decimal representation of the value.
+	 */
+	public void append(final long value) {
+		if (value == Long.MIN_VALUE) {
+			this.appendAscii(Long.toString(value));
+			return;
+		}
+		this.ensureCapacity(20);
+		long remaining = value;
+		if (remaining < 0) {
+			this.bytes[this.size++] = '-';
+			remaining = -remaining;
+		}
+		final int start = this.size;
+		do {
+			this.bytes[this.size++] = (byte) ('0' + (remaining % 10));
+			remaining /= 10;
+		} while (remaining != 0);
+		// the digits were written in reverse order
+		for (int left = start, right = this.size - 1; left < right; left++, right--) {
+			final byte digit = this.bytes[left];
+			this.bytes[left] = this.bytes[right];
+			this.bytes[right] = digit;
+		}
+	}
+
+	/**
+	 * Appends a string, which consists of ASCII characters only, e.g., the representation of a number.
+	 */
+	public void appendAscii(final String value) {
+		final int length = value.length();
+		this.ensureCapacity(length);
+		for (int i = 0; i < length; i++) {
+			this.bytes[this.size++] = (byte) value.charAt(i);
+		}
+	}
+
+	/**
+	 * Appends a string as a tag key, tag value or field key. Commas, equal signs and spaces are escaped.
+	 */
+	public void appendEscapedKey(final String value) {
+		this.appendEscaped(value, false);
+	}
+
+	/**
+	 * Appends a string as a string field value. Double quotes and backslashes are escaped; the quotes around the value
+	 * are not appended.
+	 */
+	public void appendEscapedString(final String value) {
+		this.appendEscaped(value, true);
+	}
+
+	private void appendEscaped(final String value, final boolean stringValue) {
+		final int length = value.length();
+		// escaping at most doubles the length of ASCII strings
+		this.ensureCapacity(length * 2);
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			if (c >= 0x80) {
+				// slow path for strings which are not ASCII
+				this.appendEscapedUtf8(value.substring(i), stringValue);
+				return;
+			}
+			if (stringValue ? (c == '"') || (c == '\\') : (c == ',') || (c == '=') || (c == ' ')) { // NOCS (inline ?)
+				this.bytes[this.size++] = '\\';
+			}
+			if (!stringValue && ((c == '\n') || (c == '\r'))) {
+				// line breaks cannot be escaped in keys and tag values
+				this.bytes[this.size++] = ' ';
+			} else {
+				this.bytes[this.size++] = (byte) c;
+			}
+		}
+	}
+
+	private void appendEscapedUtf8(final String value, final boolean stringValue) {
+		for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			// all bytes of multi-byte characters have their most significant bit set
+			if (stringValue ? (b == '"') || (b == '\\') : (b == ',') || (b == '=') || (b == ' ')) { // NOCS (inline ?)
+				this.append((byte) '\\');
+			}
+			this.append(!stringValue && ((b == '\n') || (b == '\r')) ? (byte) ' ' : b); // NOCS (inline ?)
+		}
+	}
+
+	private void ensureCapacity(final int additionalBytes) {
+		if ((this.size + additionalBytes) > this.bytes.length) {
+			this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.size + additionalBytes));
+		}
+	}
+
+	/**
+	 * Returns the number of bytes in the buffer.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Removes the bytes after the given size, e.g., of a point which could not be encoded.
+	 */
+	public void truncate(final int newSize) {
+		this.size = newSize;
+	}
+
+	/**
+	 * Counts a completely encoded point.
+	 */
+	public void pointAdded() {
+		this.numberOfPoints++;
+	}
+
+	/**
+	 * Returns the number of points in the buffer.
+	 */
+	public int getNumberOfPoints() {
+		return this.numberOfPoints;
+	}
+
+	/**
+	 * Writes the content of the buffer to the stream.
+	 */
+	public void writeTo(final OutputStream stream) throws IOException {
+		stream.write(this.bytes, 0, this.size);
+	}
+
+	/**
+	 * Returns a copy of the content of the buffer.
+	 */
+	public byte[] toByteArray() {
+		return Arrays.copyOf(this.bytes, this.size);
+	}
+
+	/**
+	 * Removes all points, but keeps the capacity.
+	 */
+	public void clear() {
+		this.size = 0;
+		this.numberOfPoints = 0;
+	}
+}
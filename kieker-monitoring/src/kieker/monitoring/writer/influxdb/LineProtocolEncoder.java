@@ -0,0 +1,233 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.influxdb;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.io.IValueSerializer;
+
+/**
+ * Encodes records as points in the InfluxDB line protocol. The measurement is the simple name of the record class, the
+ * values of the record are the fields, and strings are additionally used as tags, like the {@link InfluxDBWriter} does.
+ * The keys of each record type are escaped only once and cached. The values are obtained by serializing the record
+ * into this encoder, which relies on records serializing their values in the order of their value names.
+ *
+ * <p>
+ * The encoder is not thread-safe.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+class LineProtocolEncoder implements IValueSerializer {
+
+	private final Map<Class<?>, RecordLayout> layouts = new HashMap<>(); // NOPMD (no concurrent access)
+	private final LineProtocolBuffer fields = new LineProtocolBuffer(1024);
+
+	private LineProtocolBuffer output;
+	private RecordLayout layout;
+	private int valueIndex;
+	private int numberOfFields;
+
+	public LineProtocolEncoder() {
+		// Nothing to do
+	}
+
+	/**
+	 * Appends the record as a point to the buffer.
+	 *
+	 * @param record
+	 *            record to encode
+	 * @param buffer
+	 *            buffer to append to
+	 * @return true if the point was appended, false if the record has no value which can be used as a field
+	 */
+	public boolean encode(final IMonitoringRecord record, final LineProtocolBuffer buffer) {
+		final Class<?> recordClass = record.getClass();
+		if ((this.layout == null) || (this.layout.recordClass != recordClass)) {
+			this.layout = this.layouts.get(recordClass);
+			if (this.layout == null) {
+				this.layout = new RecordLayout(record);
+				this.layouts.put(recordClass, this.layout);
+			}
+		}
+
+		final int sizeBefore = buffer.size();
+		this.output = buffer;
+		this.valueIndex = 0;
+		this.numberOfFields = 0;
+		this.fields.clear();
+
+		// The tags follow the measurement directly, the fields are collected separately
+		buffer.append(this.layout.measurement);
+		record.serialize(this);
+		if (this.numberOfFields == 0) {
+			buffer.truncate(sizeBefore);
+			return false;
+		}
+		buffer.append((byte) ' ');
+		buffer.append(this.fields);
+		buffer.append((byte) ' ');
+		buffer.append(record.getLoggingTimestamp());
+		buffer.append((byte) '\n');
+		buffer.pointAdded();
+		return true;
+	}
+
+	/**
+	 * Starts the field of the next value, or returns false if the record serializes more values than it has names.
+	 */
+	private boolean beginField() {
+		if (this.valueIndex >= this.layout.fieldKeys.length) {
+			return false;
+		}
+		if (this.numberOfFields > 0) {
+			this.fields.append((byte) ',');
+		}
+		this.fields.append(this.layout.fieldKeys[this.valueIndex]);
+		this.numberOfFields++;
+		return true;
+	}
+
+	private void appendInteger(final long value) {
+		if (this.beginField()) {
+			this.fields.append(value);
+			this.fields.append((byte) 'i');
+		}
+		this.valueIndex++;
+	}
+
+	private void appendFloat(final double value) {
+		// the line protocol does not support NaN and infinity
+		if (!Double.isNaN(value) && !Double.isInfinite(value) && this.beginField()) {
+			this.fields.appendAscii(Double.toString(value));
+		}
+		this.valueIndex++;
+	}
+
+	private void appendString(final String value) {
+		if (this.beginField()) {
+			this.fields.append((byte) '"');
+			this.fields.appendEscapedString(value);
+			this.fields.append((byte) '"');
+			// empty tag values are not supported
+			if (!value.isEmpty()) {
+				this.output.append(this.layout.tagKeys[this.valueIndex]);
+				this.output.appendEscapedKey(value);
+			}
+		}
+		this.valueIndex++;
+	}
+
+	@Override
+	public void putBoolean(final boolean value) {
+		if (this.beginField()) {
+			this.fields.appendAscii(value ? "true" : "false"); // NOCS (inline ?)
+		}
+		this.valueIndex++;
+	}
+
+	@Override
+	public void putByte(final byte value) {
+		this.appendInteger(value);
+	}
+
+	@Override
+	public void putChar(final char value) {
+		this.appendString(String.valueOf(value));
+	}
+
+	@Override
+	public void putShort(final short value) { // NOPMD (short is part of the interface)
+		this.appendInteger(value);
+	}
+
+	@Override
+	public void putInt(final int value) {
+		this.appendInteger(value);
+	}
+
+	@Override
+	public void putLong(final long value) {
+		this.appendInteger(value);
+	}
+
+	@Override
+	public void putFloat(final float value) {
+		this.appendFloat(value);
+	}
+
+	@Override
+	public void putDouble(final double value) {
+		this.appendFloat(value);
+	}
+
+	@Override
+	public <T extends Enum<T>> void putEnumeration(final T value) {
+		this.appendString(value.name());
+	}
+
+	@Override
+	public void putBytes(final byte[] value) {
+		// binary data cannot be represented as a field
+		this.valueIndex++;
+	}
+
+	@Override
+	public void putString(final String value) {
+		this.appendString((value == null) ? "" : value); // NOCS (inline ?)
+	}
+
+	/**
+	 * The escaped measurement and keys of a record type.
+	 */
+	private static final class RecordLayout {
+
+		private final Class<?> recordClass;
+		private final byte[] measurement;
+		/** Field keys followed by '='. */
+		private final byte[][] fieldKeys;
+		/** Tag keys preceded by ',' and followed by '='. */
+		private final byte[][] tagKeys;
+
+		public RecordLayout(final IMonitoringRecord record) {
+			this.recordClass = record.getClass();
+			final LineProtocolBuffer buffer = new LineProtocolBuffer(64);
+			// measurements need no escaping of equal signs, but class names do not contain them anyway
+			buffer.appendEscapedKey(this.recordClass.getSimpleName());
+			this.measurement = buffer.toByteArray();
+
+			final String[] valueNames = record.getValueNames();
+			this.fieldKeys = new byte[valueNames.length][];
+			this.tagKeys = new byte[valueNames.length][];
+			for (int i = 0; i < valueNames.length; i++) {
+				buffer.clear();
+				buffer.appendEscapedKey(valueNames[i]);
+				buffer.append((byte) '=');
+				this.fieldKeys[i] = buffer.toByteArray();
+
+				buffer.clear();
+				buffer.append((byte) ',');
+				buffer.appendEscapedKey(valueNames[i]);
+				buffer.append((byte) '=');
+				this.tagKeys[i] = buffer.toByteArray();
+			}
+		}
+	}
+}
@@ -28,6 +28,7 @@ import org.slf4j.LoggerFactory;
 import kieker.common.configuration.Configuration;
 import kieker.common.record.IMonitoringRecord;
 import kieker.monitoring.writer.AbstractMonitoringWriter;
+import kieker.monitoring.writer.WriterUtil;
 
 /**
  * A writer that prints incoming records to the specified PrintStream.
@@ -84,7 +85,13 @@ public class PrintStreamWriter extends AbstractMonitoringWriter {
 
 	@Override
 	public void writeMonitoringRecord(final IMonitoringRecord record) {
-		this.printStream.println(record.getClass().getSimpleName() + ": " + record.toString());
+		final String recordClassName = WriterUtil.getRecordClassName(record);
+		this.printStream.println(recordClassName.substring(recordClassName.lastIndexOf('.') + 1) + ": " + record.toString());
+	}
+
+	@Override
+	public boolean supportsRecordRecycling() {
+		return true; // records are printed synchronously
 	}
 
 	@Override
@@ -27,6 +27,7 @@ import kieker.common.record.io.BinaryValueSerializer;
 import kieker.common.registry.writer.IWriterRegistry;
 import kieker.common.util.dataformat.FormatIdentifier;
 import kieker.common.util.dataformat.VariableLengthEncoding;
+import kieker.monitoring.writer.WriterUtil;
 
 /**
  * Serializer for the default Kieker binary record format.
@@ -85,7 +86,7 @@ public class BinarySerializer extends AbstractContainerFormatSerializer {
 		for (final IMonitoringRecord record : records) {
 			// Since writeBytes does not contain the type name and the logging timestamp,
 			// these two fields must be serialized separately
-			final String typeName = record.getClass().getName();
+			final String typeName = WriterUtil.getRecordClassName(record);
 			final int typeNameId = writerRegistry.getId(typeName);
 
 			buffer.putInt(typeNameId);
@@ -0,0 +1,184 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.serializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.io.BinaryValueSerializer;
+import kieker.common.util.dataformat.FormatIdentifier;
+import kieker.common.util.dataformat.VariableLengthEncoding;
+import kieker.monitoring.writer.WriterUtil;
+
+/**
+ * Serializer for the binary record format with a string dictionary spanning several chunks. While the
+ * {@link BinarySerializer} transmits all strings of a chunk with each chunk, this serializer keeps the strings for the
+ * lifetime of the connection and transmits only the strings which were not used by a previous chunk. The strings
+ * continue the IDs of the strings sent before.
+ *
+ * <p>
+ * To allow consumers which join late or lost a chunk to decode the data again, the dictionary is reset periodically,
+ * after which a chunk transmits all its strings again. Each chunk carries the ID of the stream it belongs to, the epoch
+ * of the dictionary, i.e., the number of resets, and the ID of its first new string. Hence, consumers can detect chunks
+ * they cannot decode and skip them until the next reset.
+ * </p>
+ *
+ * <p>
+ * A chunk consists of the record data, followed by the dictionary update (stream ID, epoch, ID of the first new
+ * string, number of new strings, and the new strings) and the size of the record data.
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class DictionaryBinarySerializer extends AbstractContainerFormatSerializer {
+
+	/** Format identifier. */
+	public static final int FORMAT_IDENTIFIER = FormatIdentifier.DICTIONARY_BINARY_FORMAT.getIdentifierValue();
+
+	private static final String PREFIX = DictionaryBinarySerializer.class.getName() + ".";
+
+	/** The name of the configuration property for the number of chunks after which the dictionary is reset. */
+	public static final String CONFIG_RESET_INTERVAL = PREFIX + "resetInterval"; // NOCS (afterPREFIX)
+
+	/** The name of the configuration property for the number of strings after which the dictionary is reset. */
+	public static final String CONFIG_MAX_ENTRIES = PREFIX + "maxEntries"; // NOCS (afterPREFIX)
+
+	// Default reset interval (in chunks)
+	private static final int DEFAULT_RESET_INTERVAL = 256;
+
+	// Default maximal number of strings in the dictionary
+	private static final int DEFAULT_MAX_ENTRIES = 65536;
+
+	/** Encoding to use for Strings. */
+	private static final String ENCODING_NAME = "UTF-8";
+
+	/** Charset to use for Strings. */
+	private static final Charset CHARSET = Charset.forName(ENCODING_NAME);
+
+	private final SerializerStringDictionary dictionary = new SerializerStringDictionary();
+	private final long streamId;
+	private final int resetInterval;
+	private final int maxEntries;
+
+	private int epoch;
+	private int chunksSinceReset;
+
+	/**
+	 * Creates a new serializer using the given configuration.
+	 *
+	 * @param configuration
+	 *            The configuration to use
+	 */
+	public DictionaryBinarySerializer(final Configuration configuration) {
+		super(configuration);
+		this.resetInterval = configuration.getIntProperty(CONFIG_RESET_INTERVAL, DEFAULT_RESET_INTERVAL);
+		this.maxEntries = configuration.getIntProperty(CONFIG_MAX_ENTRIES, DEFAULT_MAX_ENTRIES);
+		this.streamId = new Random().nextLong();
+	}
+
+	@Override
+	protected int getFormatIdentifier() {
+		return FORMAT_IDENTIFIER;
+	}
+
+	@Override
+	protected int writeRecords(final Collection<IMonitoringRecord> records, final ByteBuffer buffer) {
+		if ((this.chunksSinceReset >= this.resetInterval) || (this.dictionary.size() >= this.maxEntries)) {
+			this.dictionary.clear();
+			this.epoch++;
+			this.chunksSinceReset = 0;
+		}
+		this.dictionary.beginChunk();
+
+		try {
+			// Write the record data into the buffer and add new strings to the dictionary
+			final int recordDataSize = this.encodeRecords(records, buffer);
+
+			// Encode the strings added by this chunk
+			final int dictionaryDataSize = this.encodeDictionaryUpdate(buffer);
+
+			// Append the length of the record data to the chunk
+			buffer.putInt(recordDataSize);
+
+			this.chunksSinceReset++;
+			return (recordDataSize + dictionaryDataSize) + 4;
+		} catch (final RuntimeException e) { // NOPMD (the chunk is not transmitted, e.g., when the buffer overflows)
+			this.dictionary.discardChunk();
+			throw e;
+		}
+	}
+
+	private int encodeRecords(final Collection<IMonitoringRecord> records, final ByteBuffer buffer) {
+		final int offsetBefore = buffer.position();
+		final BinaryValueSerializer serializer = BinaryValueSerializer.create(buffer, this.dictionary);
+
+		for (final IMonitoringRecord record : records) {
+			// Since writeBytes does not contain the type name and the logging timestamp,
+			// these two fields must be serialized separately
+			final String typeName = WriterUtil.getRecordClassName(record);
+			final int typeNameId = this.dictionary.getId(typeName);
+
+			buffer.putInt(typeNameId);
+			buffer.putLong(record.getLoggingTimestamp());
+
+			record.serialize(serializer);
+		}
+
+		final int offsetAfter = buffer.position();
+		return (offsetAfter - offsetBefore);
+	}
+
+	private int encodeDictionaryUpdate(final ByteBuffer buffer) {
+		final List<String> newStrings = this.dictionary.getValuesOfChunk();
+
+		final int offsetBefore = buffer.position();
+
+		buffer.putLong(this.streamId);
+		buffer.putInt(this.epoch);
+		VariableLengthEncoding.encodeInt(this.dictionary.getFirstIdOfChunk(), buffer);
+		VariableLengthEncoding.encodeInt(newStrings.size(), buffer);
+
+		for (final String string : newStrings) {
+			final byte[] stringBytes = string.getBytes(CHARSET);
+
+			// We assume that the strings are usually short, and therefore use
+			// a variable-length encoding to save space
+			VariableLengthEncoding.encodeInt(stringBytes.length, buffer);
+			buffer.put(stringBytes);
+		}
+		final int offsetAfter = buffer.position();
+
+		return (offsetAfter - offsetBefore);
+	}
+
+	@Override
+	public void onInitialization() {
+		// Nothing to do
+	}
+
+	@Override
+	public void onTermination() {
+		// Nothing to do
+	}
+
+}
@@ -0,0 +1,117 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.serializer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import kieker.common.registry.writer.IWriterRegistry;
+
+/**
+ * String dictionary for use by the dictionary binary format serializer. In contrast to the
+ * {@link SerializerStringRegistry}, the dictionary is kept across chunks, and it tracks which strings were added
+ * during the current chunk. It hands out only sequential IDs and is <b>not</b> thread-safe.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+class SerializerStringDictionary implements IWriterRegistry<String> {
+
+	private final Map<String, Integer> valueToIdMap = new HashMap<>(); // NOPMD
+	private final List<String> values = new ArrayList<>();
+	private int firstIdOfChunk;
+
+	SerializerStringDictionary() {
+		// Nothing to do
+	}
+
+	@Override
+	public int getId(final String value) {
+		final Integer id = this.valueToIdMap.get(value);
+
+		if (id == null) {
+			final int newId = this.values.size();
+
+			this.values.add(value);
+			this.valueToIdMap.put(value, newId);
+
+			return newId;
+		} else {
+			return id;
+		}
+	}
+
+	@Override
+	public void register(final String value) {
+		this.getId(value);
+	}
+
+	@Override
+	public long getId() {
+		return 0;
+	}
+
+	/**
+	 * Starts a new chunk, i.e., all strings known so far have been transmitted.
+	 */
+	public void beginChunk() {
+		this.firstIdOfChunk = this.values.size();
+	}
+
+	/**
+	 * Returns the ID of the first string added during the current chunk.
+	 */
+	public int getFirstIdOfChunk() {
+		return this.firstIdOfChunk;
+	}
+
+	/**
+	 * Returns the strings added during the current chunk, where the position of each element plus
+	 * {@link #getFirstIdOfChunk()} corresponds to their ID.
+	 */
+	public List<String> getValuesOfChunk() {
+		return this.values.subList(this.firstIdOfChunk, this.values.size());
+	}
+
+	/**
+	 * Removes the strings added during the current chunk, as the chunk was not transmitted.
+	 */
+	public void discardChunk() {
+		for (final String value : this.getValuesOfChunk()) {
+			this.valueToIdMap.remove(value);
+		}
+		this.getValuesOfChunk().clear();
+	}
+
+	/**
+	 * Returns the number of strings in the dictionary.
+	 */
+	public int size() {
+		return this.values.size();
+	}
+
+	/**
+	 * Removes all strings, such that IDs start at zero again.
+	 */
+	public void clear() {
+		this.valueToIdMap.clear();
+		this.values.clear();
+		this.firstIdOfChunk = 0;
+	}
+}
@@ -22,6 +22,7 @@ import java.util.Collection;
 
 import kieker.common.configuration.Configuration;
 import kieker.common.record.IMonitoringRecord;
+import kieker.monitoring.writer.WriterUtil;
 
 /**
  * String serializer for monitoring records based on the record's toString
@@ -62,7 +63,7 @@ public class StringSerializer extends AbstractMonitoringRecordSerializer {
 	}
 
 	private StringBuilder appendSingleRecord(final IMonitoringRecord record, final StringBuilder builder) {
-		builder.append(record.getClass().getName()).append(';').append(record.getLoggingTimestamp()).append(';')
+		builder.append(WriterUtil.getRecordClassName(record)).append(';').append(record.getLoggingTimestamp()).append(';')
 				.append(record.toString()).append('\n');
 
 		return builder;
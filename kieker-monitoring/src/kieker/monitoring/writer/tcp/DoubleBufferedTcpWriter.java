@@ -0,0 +1,488 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.tcp;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.io.BinaryValueSerializer;
+import kieker.common.record.io.IValueSerializer;
+import kieker.common.record.misc.RegistryRecord;
+import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.writer.WriterRegistry;
+import kieker.monitoring.writer.AbstractMonitoringWriter;
+import kieker.monitoring.writer.WriterUtil;
+
+/**
+ * Represents a monitoring writer which serializes records via TCP to a given host:port, using the same format as the
+ * {@link SingleSocketTcpWriter}.
+ *
+ * <p>
+ * The records are serialized into one of several buffer pairs, each consisting of a buffer for the registry entries and
+ * a buffer for the records. Filled buffer pairs are handed over to a sender thread which writes both buffers with a
+ * single gathering write, while the writer thread continues with the next free pair. If the sender is idle, the
+ * current pair is handed over after each write call, so that records are sent with low latency under low load and in
+ * large chunks under high load.
+ * </p>
+ *
+ * <p>
+ * If the connection is lost, the sender reconnects in the background and sends all registry entries again before any
+ * further records. Meanwhile, the writer thread does not block: once all buffer pairs are filled, the oldest pending
+ * pair is dropped. While connected, the writer thread waits for a free buffer pair (back pressure).
+ * </p>
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class DoubleBufferedTcpWriter extends AbstractMonitoringWriter implements IRegistryListener<String> {
+
+	/**
+	 * This writer can be configured by the configuration file "kieker.properties".
+	 * For this purpose, it uses this prefix for all configuration keys.
+	 */
+	public static final String PREFIX = DoubleBufferedTcpWriter.class.getName() + ".";
+
+	/** configuration key for the hostname. */
+	public static final String CONFIG_HOSTNAME = PREFIX + "hostname"; // NOCS (afterPREFIX)
+	/** configuration key for the port. */
+	public static final String CONFIG_PORT = PREFIX + "port"; // NOCS (afterPREFIX)
+	/** configuration key for the size of each record buffer. */
+	public static final String CONFIG_BUFFERSIZE = PREFIX + "bufferSize"; // NOCS (afterPREFIX)
+	/** configuration key for the number of buffer pairs. */
+	public static final String CONFIG_BUFFERCOUNT = PREFIX + "bufferCount"; // NOCS (afterPREFIX)
+	/** configuration key for {@link #flush}. */
+	public static final String CONFIG_FLUSH = PREFIX + "flush"; // NOCS (afterPREFIX)
+	/** configuration key for {@link #connectionTimeoutInMs}. */
+	public static final String CONFIG_CONN_TIMEOUT_IN_MS = PREFIX + "connectionTimeoutInMs"; // NOCS (afterPREFIX)
+	/** configuration key for {@link #reconnectIntervalInMs}. */
+	public static final String CONFIG_RECONNECT_INTERVAL_IN_MS = PREFIX + "reconnectIntervalInMs"; // NOCS (afterPREFIX)
+
+	/** the logger for this class. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(DoubleBufferedTcpWriter.class);
+
+	/** the time in ms the writer thread waits for a free buffer pair before checking the connection again. */
+	private static final long FREE_BUFFER_POLL_INTERVAL_IN_MS = 100;
+
+	/** the host name and the port of the record reader. */
+	private final InetSocketAddress socketAddress;
+	/** the connection timeout for each connection attempt. */
+	private final int connectionTimeoutInMs;
+	/** the time between two reconnection attempts. */
+	private final long reconnectIntervalInMs;
+	/** <code>true</code> if the buffers should be sent after each write call. */
+	private final boolean flush;
+
+	/** buffer pairs which can be filled by the writer thread. */
+	private final BlockingQueue<BufferPair> freeBuffers;
+	/** buffer pairs which are waiting for the sender. */
+	private final BlockingQueue<BufferPair> filledBuffers;
+	/** the buffer pair the writer thread currently serializes into. */
+	private BufferPair activeBuffers;
+
+	/** all registry entries in the order of their ids, sent again after a reconnect. */
+	private final List<String> registryEntries = new ArrayList<>(); // only accessed synchronized
+	private final AtomicLong numDroppedRecords = new AtomicLong();
+
+	private final Sender sender = new Sender();
+	private volatile SocketChannel socketChannel;
+	private volatile boolean connected;
+	private volatile boolean sending;
+	private volatile boolean terminating;
+
+	public DoubleBufferedTcpWriter(final Configuration configuration) {
+		super(configuration);
+		final String hostname = configuration.getStringProperty(CONFIG_HOSTNAME);
+		final int port = configuration.getIntProperty(CONFIG_PORT);
+		this.socketAddress = new InetSocketAddress(hostname, port);
+		this.connectionTimeoutInMs = Math.max(1, configuration.getIntProperty(CONFIG_CONN_TIMEOUT_IN_MS, 1));
+		this.reconnectIntervalInMs = Math.max(1, configuration.getLongProperty(CONFIG_RECONNECT_INTERVAL_IN_MS, 1000));
+		this.flush = configuration.getBooleanProperty(CONFIG_FLUSH);
+
+		final int bufferSize = configuration.getIntProperty(CONFIG_BUFFERSIZE, 65535);
+		final int bufferCount = Math.max(2, configuration.getIntProperty(CONFIG_BUFFERCOUNT, 2));
+		this.freeBuffers = new ArrayBlockingQueue<>(bufferCount);
+		this.filledBuffers = new ArrayBlockingQueue<>(bufferCount);
+
+		final WriterRegistry writerRegistry = new WriterRegistry(this);
+		this.activeBuffers = new BufferPair(bufferSize, writerRegistry);
+		for (int i = 1; i < bufferCount; i++) {
+			this.freeBuffers.add(new BufferPair(bufferSize, writerRegistry));
+		}
+	}
+
+	@Override
+	public void onStarting() {
+		// the initial connection is established synchronously like in the SingleSocketTcpWriter to detect configuration errors
+		final TimeoutCountdown timeoutCountdown = new TimeoutCountdown(TimeUnit.MILLISECONDS.toNanos(this.connectionTimeoutInMs));
+		while (!this.connect()) {
+			final long startTimestampInNs = System.nanoTime();
+			try {
+				Thread.sleep(1);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			timeoutCountdown.countdownNs(System.nanoTime() - startTimestampInNs);
+			if (timeoutCountdown.getRemainingTimeoutInMs() <= 0) {
+				final String message = String.format("Connection timeout of %d ms exceeded.", this.connectionTimeoutInMs);
+				throw new ConnectionTimeoutException(message);
+			}
+		}
+		LOGGER.info("Successfully connected to {}.", this.socketAddress);
+
+		this.sender.setDaemon(true);
+		this.sender.start();
+	}
+
+	@Override
+	public void writeMonitoringRecord(final IMonitoringRecord monitoringRecord) {
+		this.serializeRecord(monitoringRecord);
+		this.sendIfIdle();
+	}
+
+	/**
+	 * Serializes all records of the batch and hands the buffers over to the sender only once per batch.
+	 */
+	@Override
+	public void writeMonitoringRecords(final List<IMonitoringRecord> monitoringRecords) {
+		for (final IMonitoringRecord monitoringRecord : monitoringRecords) {
+			this.serializeRecord(monitoringRecord);
+		}
+		this.sendIfIdle();
+	}
+
+	private void serializeRecord(final IMonitoringRecord monitoringRecord) {
+		if ((4 + 8 + monitoringRecord.getSize()) > this.activeBuffers.recordBuffer.remaining()) {
+			this.sendActiveBuffers();
+		}
+
+		final BufferPair localBuffers = this.activeBuffers;
+		final IValueSerializer serializer = localBuffers.serializer;
+		serializer.putString(WriterUtil.getRecordClassName(monitoringRecord));
+		serializer.putLong(monitoringRecord.getLoggingTimestamp());
+		monitoringRecord.serialize(serializer);
+		localBuffers.numRecords++;
+	}
+
+	private void sendIfIdle() {
+		if (this.flush || (!this.sending && this.connected && this.filledBuffers.isEmpty())) {
+			this.sendActiveBuffers();
+		}
+	}
+
+	/**
+	 * Hands the active buffer pair over to the sender and continues with a free pair.
+	 */
+	private void sendActiveBuffers() {
+		if (this.activeBuffers.isEmpty()) {
+			return;
+		}
+		this.filledBuffers.add(this.activeBuffers); // never exceeds the capacity, since there are only bufferCount pairs
+
+		BufferPair next = this.freeBuffers.poll();
+		while (next == null) {
+			if (this.connected) {
+				try {
+					next = this.freeBuffers.poll(FREE_BUFFER_POLL_INTERVAL_IN_MS, TimeUnit.MILLISECONDS);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					next = this.dropOldestBuffers();
+				}
+			} else {
+				next = this.dropOldestBuffers();
+				if (next == null) {
+					// the sender currently holds the only other pair
+					next = this.freeBuffers.poll();
+				}
+			}
+		}
+		this.activeBuffers = next;
+	}
+
+	/**
+	 * @return the oldest pending buffer pair after discarding its contents, or null if there is no pending pair
+	 */
+	private BufferPair dropOldestBuffers() {
+		final BufferPair dropped = this.filledBuffers.poll();
+		if (dropped != null) {
+			this.numDroppedRecords.addAndGet(dropped.numRecords);
+			dropped.clear();
+		}
+		return dropped;
+	}
+
+	@Override
+	public void onNewRegistryEntry(final String value, final int id) {
+		synchronized (this.registryEntries) {
+			this.registryEntries.add(value);
+		}
+		this.activeBuffers.putRegistryEntry(id, value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public boolean supportsRecordRecycling() {
+		return true; // records are serialized synchronously into the send buffer
+	}
+
+	@Override
+	public void onTerminating() {
+		if (this.sender.isAlive()) {
+			this.sendActiveBuffers();
+			this.terminating = true;
+			try {
+				this.sender.join();
+			} catch (final InterruptedException e) {
+				LOGGER.warn("Interrupted while waiting for the sender to finish.", e);
+				Thread.currentThread().interrupt();
+			}
+		}
+		this.terminating = true;
+		final SocketChannel channel = this.socketChannel;
+		if (channel != null) {
+			WriterUtil.close(channel, LOGGER);
+		}
+		final long dropped = this.numDroppedRecords.get();
+		if (dropped > 0) {
+			LOGGER.warn("{} records have been dropped while the connection to {} was lost.", dropped, this.socketAddress);
+		}
+	}
+
+	/**
+	 * @return the number of records which have been dropped since the connection was lost
+	 */
+	public long getNumDroppedRecords() {
+		return this.numDroppedRecords.get();
+	}
+
+	/**
+	 * Opens a new connection and sends all known registry entries.
+	 *
+	 * @return <code>true</code> if connected
+	 */
+	private boolean connect() {
+		SocketChannel channel = null;
+		try {
+			channel = SocketChannel.open();
+			channel.socket().connect(this.socketAddress, this.connectionTimeoutInMs);
+			final List<String> entries;
+			synchronized (this.registryEntries) {
+				entries = new ArrayList<>(this.registryEntries);
+				// Entries registered after the snapshot are only contained in the buffer pairs. Switching to connected
+				// atomically with the snapshot ensures that these pairs are not dropped by the writer thread.
+				this.socketChannel = channel;
+				this.connected = true;
+			}
+			// the sender is the only thread writing to the channel, so the entries precede all buffer pairs
+			this.sendRegistryEntries(channel, entries);
+			return true;
+		} catch (final IOException e) {
+			this.connected = false;
+			if (channel != null) {
+				WriterUtil.close(channel, LOGGER);
+			}
+			return false;
+		}
+	}
+
+	private void sendRegistryEntries(final SocketChannel channel, final List<String> entries) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(this.activeBuffers.recordBuffer.capacity());
+		for (int id = 0; id < entries.size(); id++) {
+			final byte[] bytes = entries.get(id).getBytes(StandardCharsets.UTF_8);
+			final int requiredBufferSize = BufferPair.getRegistryEntrySize(bytes);
+			if (buffer.remaining() < requiredBufferSize) {
+				DoubleBufferedTcpWriter.write(buffer, channel);
+				if (buffer.capacity() < requiredBufferSize) {
+					buffer = ByteBuffer.allocateDirect(requiredBufferSize);
+				}
+			}
+			BufferPair.putRegistryEntry(buffer, id, bytes);
+		}
+		DoubleBufferedTcpWriter.write(buffer, channel);
+	}
+
+	private static void write(final ByteBuffer buffer, final SocketChannel channel) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Writes the filled buffer pairs to the connection and reconnects if necessary.
+	 *
+	 * @author Kieker Project
+	 */
+	private final class Sender extends Thread {
+
+		public Sender() {
+			super("DoubleBufferedTcpWriter sender");
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				final BufferPair buffers;
+				try {
+					buffers = DoubleBufferedTcpWriter.this.filledBuffers.poll(FREE_BUFFER_POLL_INTERVAL_IN_MS, TimeUnit.MILLISECONDS);
+				} catch (final InterruptedException e) {
+					break;
+				}
+				if (buffers == null) {
+					if (DoubleBufferedTcpWriter.this.terminating) {
+						break;
+					}
+					continue;
+				}
+
+				DoubleBufferedTcpWriter.this.sending = true;
+				this.send(buffers);
+				buffers.clear();
+				DoubleBufferedTcpWriter.this.freeBuffers.add(buffers);
+				DoubleBufferedTcpWriter.this.sending = false;
+			}
+		}
+
+		private void send(final BufferPair buffers) {
+			if (!DoubleBufferedTcpWriter.this.connected && !this.reconnect()) {
+				DoubleBufferedTcpWriter.this.numDroppedRecords.addAndGet(buffers.numRecords);
+				return;
+			}
+
+			// registry entries are always written before the records which refer to them
+			buffers.flip();
+			try {
+				final SocketChannel channel = DoubleBufferedTcpWriter.this.socketChannel;
+				while (buffers.hasRemaining()) {
+					channel.write(buffers.gatheringBuffers);
+				}
+			} catch (final IOException e) {
+				LOGGER.warn("Lost connection to {}. Records are dropped until the connection is reestablished.",
+						DoubleBufferedTcpWriter.this.socketAddress, e);
+				DoubleBufferedTcpWriter.this.connected = false;
+				WriterUtil.close(DoubleBufferedTcpWriter.this.socketChannel, LOGGER);
+				// a partially written pair cannot be resent over a new connection
+				DoubleBufferedTcpWriter.this.numDroppedRecords.addAndGet(buffers.numRecords);
+			}
+		}
+
+		/**
+		 * Tries to reconnect until it succeeds or the writer terminates.
+		 *
+		 * @return <code>true</code> if connected
+		 */
+		private boolean reconnect() {
+			while (!DoubleBufferedTcpWriter.this.terminating) {
+				if (DoubleBufferedTcpWriter.this.connect()) {
+					LOGGER.info("Reconnected to {}; {} records have been dropped so far.", DoubleBufferedTcpWriter.this.socketAddress,
+							DoubleBufferedTcpWriter.this.numDroppedRecords.get());
+					return true;
+				}
+				try {
+					Thread.sleep(DoubleBufferedTcpWriter.this.reconnectIntervalInMs);
+				} catch (final InterruptedException e) {
+					return false;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * A buffer for registry entries and a buffer for records which are written together.
+	 *
+	 * @author Kieker Project
+	 */
+	private static final class BufferPair {
+		final ByteBuffer recordBuffer; // NOCS (package visible for outer class)
+		final IValueSerializer serializer; // NOCS (package visible for outer class)
+		/** the registry buffer followed by the record buffer. */
+		final ByteBuffer[] gatheringBuffers; // NOCS (package visible for outer class)
+		int numRecords; // NOCS (package visible for outer class)
+
+		public BufferPair(final int bufferSize, final WriterRegistry writerRegistry) {
+			this.recordBuffer = ByteBuffer.allocateDirect(bufferSize);
+			this.serializer = BinaryValueSerializer.create(this.recordBuffer, writerRegistry);
+			// registry entries are rare, the registry buffer grows on demand
+			this.gatheringBuffers = new ByteBuffer[] { ByteBuffer.allocateDirect(1024), this.recordBuffer };
+		}
+
+		public boolean isEmpty() {
+			return (this.recordBuffer.position() == 0) && (this.gatheringBuffers[0].position() == 0);
+		}
+
+		public boolean hasRemaining() {
+			return this.gatheringBuffers[0].hasRemaining() || this.recordBuffer.hasRemaining();
+		}
+
+		public void flip() {
+			this.gatheringBuffers[0].flip();
+			this.recordBuffer.flip();
+		}
+
+		public void clear() {
+			this.gatheringBuffers[0].clear();
+			this.recordBuffer.clear();
+			this.numRecords = 0;
+		}
+
+		/**
+		 * Adds a registry entry. Since registry entries are created in the middle of serializing a record, the buffers
+		 * cannot be sent at this point; instead, the registry buffer is enlarged if necessary.
+		 */
+		public void putRegistryEntry(final int id, final byte[] bytes) {
+			final int requiredBufferSize = BufferPair.getRegistryEntrySize(bytes);
+			ByteBuffer registryBuffer = this.gatheringBuffers[0];
+			if (registryBuffer.remaining() < requiredBufferSize) {
+				final int capacity = Math.max(registryBuffer.capacity() * 2, registryBuffer.position() + requiredBufferSize);
+				final ByteBuffer newBuffer = ByteBuffer.allocateDirect(capacity);
+				registryBuffer.flip();
+				newBuffer.put(registryBuffer);
+				registryBuffer = newBuffer;
+				this.gatheringBuffers[0] = registryBuffer;
+			}
+			BufferPair.putRegistryEntry(registryBuffer, id, bytes);
+		}
+
+		public static int getRegistryEntrySize(final byte[] bytes) {
+			// class id + string id + string length + bytes
+			return (2 * AbstractMonitoringRecord.TYPE_SIZE_INT) + RegistryRecord.SIZE + bytes.length;
+		}
+
+		public static void putRegistryEntry(final ByteBuffer buffer, final int id, final byte[] bytes) {
+			buffer.putInt(RegistryRecord.CLASS_ID);
+			buffer.putInt(id);
+			buffer.putInt(bytes.length);
+			buffer.put(bytes);
+		}
+	}
+}
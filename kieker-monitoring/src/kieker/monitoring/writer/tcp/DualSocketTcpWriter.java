@@ -119,7 +119,7 @@ public class DualSocketTcpWriter extends AbstractMonitoringWriter implements IRe
 			WriterUtil.flushBuffer(buffer, this.monitoringRecordChannel, LOGGER);
 		}
 
-		final String recordClassName = monitoringRecord.getClass().getName();
+		final String recordClassName = WriterUtil.getRecordClassName(monitoringRecord);
 
 		this.serializer.putString(recordClassName);
 		this.serializer.putLong(monitoringRecord.getLoggingTimestamp());
@@ -153,6 +153,11 @@ public class DualSocketTcpWriter extends AbstractMonitoringWriter implements IRe
 		WriterUtil.flushBuffer(buffer, this.registryRecordChannel, LOGGER);
 	}
 
+	@Override
+	public boolean supportsRecordRecycling() {
+		return true; // records are serialized synchronously into the send buffer
+	}
+
 	@Override
 	public void onTerminating() {
 		WriterUtil.flushBuffer(this.stringRegistryBuffer, this.registryRecordChannel, LOGGER);
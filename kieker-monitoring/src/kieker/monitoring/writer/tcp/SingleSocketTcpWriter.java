@@ -24,6 +24,7 @@ import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -173,26 +174,44 @@ public class SingleSocketTcpWriter extends AbstractMonitoringWriter implements I
 
 	@Override
 	public void writeMonitoringRecord(final IMonitoringRecord monitoringRecord) {
-		final ByteBuffer recordBuffer = this.buffer;
-		if ((4 + 8 + monitoringRecord.getSize()) > recordBuffer.remaining()) {
-			// Always flush the registryBuffer before flushing the recordBuffer. Otherwise
-			// the monitoring records could arrive before their string records
-			WriterUtil.flushBuffer(this.registryBuffer, this.socketChannel, LOGGER);
-			WriterUtil.flushBuffer(recordBuffer, this.socketChannel, LOGGER);
+		this.serializeRecord(monitoringRecord);
+
+		if (this.flush) {
+			this.flushBuffers();
+		}
+	}
+
+	/**
+	 * Serializes all records of the batch and, if {@link #flush} is enabled, flushes the buffers only once per batch.
+	 */
+	@Override
+	public void writeMonitoringRecords(final List<IMonitoringRecord> monitoringRecords) {
+		for (final IMonitoringRecord monitoringRecord : monitoringRecords) {
+			this.serializeRecord(monitoringRecord);
+		}
+
+		if (this.flush) {
+			this.flushBuffers();
+		}
+	}
+
+	private void serializeRecord(final IMonitoringRecord monitoringRecord) {
+		if ((4 + 8 + monitoringRecord.getSize()) > this.buffer.remaining()) {
+			this.flushBuffers();
 		}
 
-		final String recordClassName = monitoringRecord.getClass().getName();
+		final String recordClassName = WriterUtil.getRecordClassName(monitoringRecord);
 
 		this.serializer.putString(recordClassName);
 		this.serializer.putLong(monitoringRecord.getLoggingTimestamp());
 		monitoringRecord.serialize(this.serializer);
+	}
 
-		if (this.flush) {
-			// Always flush the registryBuffer before flushing the recordBuffer. Otherwise
-			// the monitoring records could arrive before their string records
-			WriterUtil.flushBuffer(this.registryBuffer, this.socketChannel, LOGGER);
-			WriterUtil.flushBuffer(recordBuffer, this.socketChannel, LOGGER);
-		}
+	private void flushBuffers() {
+		// Always flush the registryBuffer before flushing the recordBuffer. Otherwise
+		// the monitoring records could arrive before their string records
+		WriterUtil.flushBuffer(this.registryBuffer, this.socketChannel, LOGGER);
+		WriterUtil.flushBuffer(this.buffer, this.socketChannel, LOGGER);
 	}
 
 	@Override
@@ -214,12 +233,14 @@ public class SingleSocketTcpWriter extends AbstractMonitoringWriter implements I
 		localRegistryBuffer.put(bytes);
 	}
 
+	@Override
+	public boolean supportsRecordRecycling() {
+		return true; // records are serialized synchronously into the send buffer
+	}
+
 	@Override
 	public void onTerminating() {
-		// Always flush the registryBuffer before flushing the recordBuffer. Otherwise
-		// the monitoring records could arrive before their string records
-		WriterUtil.flushBuffer(this.registryBuffer, this.socketChannel, LOGGER);
-		WriterUtil.flushBuffer(this.buffer, this.socketChannel, LOGGER);
+		this.flushBuffers();
 		WriterUtil.close(this.socketChannel, LOGGER);
 	}
 }
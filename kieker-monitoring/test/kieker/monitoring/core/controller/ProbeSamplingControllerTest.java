@@ -0,0 +1,149 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.core.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import kieker.common.configuration.Configuration;
+import kieker.monitoring.core.configuration.ConfigurationConstants;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+
+/**
+ * Tests the {@link ProbeSamplingController}.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class ProbeSamplingControllerTest {
+
+	private static final String OPERATION_SIGNATURE = "public void example.Class.do(String)";
+	private static final String OTHER_OPERATION_SIGNATURE = "public void example.Other.do(int)";
+	private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private Configuration configuration;
+
+	/** Default constructor. */
+	public ProbeSamplingControllerTest() {
+		// empty default constructor
+	}
+
+	@Before
+	public void setUp() {
+		this.configuration = ConfigurationFactory.createDefaultConfiguration();
+		this.configuration.setProperty(ConfigurationConstants.PROBE_SAMPLING_ENABLED, true);
+		this.configuration.setProperty(ConfigurationConstants.PROBE_SAMPLING_QUEUE_FILL_THRESHOLD, 0.5);
+	}
+
+	@Test
+	public void testDisabledSamplesEverything() {
+		final ProbeSamplingController controller = new ProbeSamplingController(ConfigurationFactory.createDefaultConfiguration());
+		Assert.assertFalse(controller.setSamplingRate("* example.Class.*(..)", 0.0));
+		Assert.assertTrue(controller.isProbeSampled(OPERATION_SIGNATURE));
+		Assert.assertThat(controller.getEffectiveTraceSamplingRate(), CoreMatchers.is(1.0));
+	}
+
+	@Test
+	public void testConfiguredRates() {
+		this.configuration.setProperty(ConfigurationConstants.PROBE_SAMPLING_RATES, "0.0:* example..*.*(..)|1.0:* example.Other.*(..)|invalid");
+		this.configuration.setProperty(ConfigurationConstants.PROBE_SAMPLING_TRACE_RATE, 0.25);
+		final ProbeSamplingController controller = new ProbeSamplingController(this.configuration);
+
+		Assert.assertThat(controller.getSamplingRates().size(), CoreMatchers.is(2));
+		Assert.assertThat(controller.getTraceSamplingRate(), CoreMatchers.is(0.25));
+		for (int i = 0; i < 100; i++) {
+			Assert.assertFalse(controller.isProbeSampled(OPERATION_SIGNATURE));
+			Assert.assertTrue(controller.isProbeSampled(OTHER_OPERATION_SIGNATURE));
+		}
+	}
+
+	@Test
+	public void testLaterPatternTakesPrecedence() {
+		final ProbeSamplingController controller = new ProbeSamplingController(this.configuration);
+		Assert.assertTrue(controller.setSamplingRate("* example.Class.*(..)", 0.0));
+		Assert.assertFalse(controller.isProbeSampled(OPERATION_SIGNATURE)); // fills the cache
+		Assert.assertTrue(controller.setSamplingRate("* example..*.*(..)", 1.0));
+		Assert.assertTrue(controller.isProbeSampled(OPERATION_SIGNATURE));
+		Assert.assertTrue(controller.setSamplingRate("* example.Class.*(..)", 0.0)); // moved to the end
+		Assert.assertFalse(controller.isProbeSampled(OPERATION_SIGNATURE));
+		Assert.assertTrue(controller.removeSamplingRate("* example.Class.*(..)"));
+		Assert.assertFalse(controller.removeSamplingRate("* example.Class.*(..)"));
+		Assert.assertTrue(controller.isProbeSampled(OPERATION_SIGNATURE));
+		Assert.assertFalse(controller.setSamplingRate("no pattern", 0.5));
+	}
+
+	@Test
+	public void testPartialRate() {
+		final ProbeSamplingController controller = new ProbeSamplingController(this.configuration);
+		controller.setSamplingRate("* example.Class.*(..)", 0.2);
+		int sampled = 0;
+		for (int i = 0; i < 10000; i++) {
+			if (controller.isProbeSampled(OPERATION_SIGNATURE)) {
+				sampled++;
+			}
+		}
+		Assert.assertTrue("Sampled " + sampled + " invocations", (sampled > 1500) && (sampled < 2500));
+	}
+
+	@Test
+	public void testBudgetLowersAndRestoresTraceRate() {
+		final ProbeSamplingController controller = new ProbeSamplingController(this.configuration);
+		controller.setTraceSamplingRate(0.5);
+		controller.setRecordsPerSecondBudget(1000);
+
+		controller.adjustLoadFactor(4000, ONE_SECOND, 0.0);
+		Assert.assertThat(controller.getEffectiveTraceSamplingRate(), CoreMatchers.is(0.125));
+
+		// below the budget, but the queue fills up
+		controller.adjustLoadFactor(800, ONE_SECOND, 0.75);
+		Assert.assertThat(controller.getEffectiveTraceSamplingRate(), CoreMatchers.is(0.0625));
+
+		// the load decreases again
+		for (int i = 0; i < 100; i++) {
+			controller.adjustLoadFactor(100, ONE_SECOND, 0.0);
+		}
+		Assert.assertThat(controller.getEffectiveTraceSamplingRate(), CoreMatchers.is(0.5));
+		Assert.assertThat(controller.getTraceSamplingRate(), CoreMatchers.is(0.5));
+	}
+
+	@Test
+	public void testQueueFillLevelAloneLowersTraceRate() {
+		final ProbeSamplingController controller = new ProbeSamplingController(this.configuration);
+		for (int i = 0; i < 100; i++) {
+			controller.adjustLoadFactor(1000000, ONE_SECOND, 1.0);
+		}
+		// some visibility is kept
+		Assert.assertTrue(controller.getEffectiveTraceSamplingRate() > 0.0);
+		Assert.assertTrue(controller.getEffectiveTraceSamplingRate() < 0.01);
+	}
+
+	@Test
+	public void testRatesAreClamped() {
+		final ProbeSamplingController controller = new ProbeSamplingController(this.configuration);
+		controller.setTraceSamplingRate(2.0);
+		Assert.assertThat(controller.getTraceSamplingRate(), CoreMatchers.is(1.0));
+		controller.setTraceSamplingRate(-1.0);
+		Assert.assertThat(controller.getTraceSamplingRate(), CoreMatchers.is(0.0));
+		controller.setRecordsPerSecondBudget(-5);
+		Assert.assertThat(controller.getRecordsPerSecondBudget(), CoreMatchers.is(0L));
+	}
+}
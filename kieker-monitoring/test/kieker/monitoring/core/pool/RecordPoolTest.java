@@ -0,0 +1,118 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.core.pool;
+
+import java.nio.CharBuffer;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.trace.operation.AfterOperationEvent;
+import kieker.common.record.flow.trace.operation.AfterOperationFailedEvent;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.io.TextValueSerializer;
+import kieker.monitoring.writer.WriterUtil;
+
+/**
+ * Tests the {@link RecordPool} and the recyclable records.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class RecordPoolTest {
+
+	/** Default constructor. */
+	public RecordPoolTest() {
+		// empty default constructor
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCapacityTooSmall() {
+		new RecordPool<>(1, RecyclableBeforeOperationEvent.FACTORY); // NOPMD (throws)
+	}
+
+	@Test
+	public void testClaimAndRecycle() {
+		final RecordPool<RecyclableBeforeOperationEvent> pool = new RecordPool<>(4, RecyclableBeforeOperationEvent.FACTORY);
+		Assert.assertThat(pool.size(), CoreMatchers.is(4));
+
+		final RecyclableBeforeOperationEvent first = pool.claim();
+		Assert.assertThat(pool.size(), CoreMatchers.is(3));
+		first.recycle();
+		Assert.assertThat(pool.size(), CoreMatchers.is(4));
+
+		// an empty pool creates new records ...
+		final RecyclableBeforeOperationEvent[] records = new RecyclableBeforeOperationEvent[6];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = pool.claim();
+		}
+		Assert.assertThat(pool.size(), CoreMatchers.is(0));
+		// ... and a full pool drops released records
+		for (final RecyclableBeforeOperationEvent record : records) {
+			record.recycle();
+		}
+		Assert.assertThat(pool.size(), CoreMatchers.is(4));
+	}
+
+	@Test
+	public void testRecordsAreWrittenAsImmutableRecords() {
+		final RecordPool<RecyclableBeforeOperationEvent> beforePool = new RecordPool<>(2, RecyclableBeforeOperationEvent.FACTORY);
+		final RecordPool<RecyclableAfterOperationEvent> afterPool = new RecordPool<>(2, RecyclableAfterOperationEvent.FACTORY);
+		final RecordPool<RecyclableAfterOperationFailedEvent> failedPool = new RecordPool<>(2, RecyclableAfterOperationFailedEvent.FACTORY);
+
+		RecordPoolTest.assertSameSerialization(new BeforeOperationEvent(1L, 2L, 3, "op", "class"), beforePool.claim().set(1L, 2L, 3, "op", "class"));
+		RecordPoolTest.assertSameSerialization(new AfterOperationEvent(4L, 5L, 6, "op", null), afterPool.claim().set(4L, 5L, 6, "op", null));
+		RecordPoolTest.assertSameSerialization(new AfterOperationFailedEvent(7L, 8L, 9, "op", "class", "cause"),
+				failedPool.claim().set(7L, 8L, 9, "op", "class", "cause"));
+	}
+
+	@Test
+	public void testReusedRecordIsOverwritten() {
+		final RecordPool<RecyclableAfterOperationFailedEvent> pool = new RecordPool<>(2, RecyclableAfterOperationFailedEvent.FACTORY);
+		final RecyclableAfterOperationFailedEvent record = pool.claim().set(1L, 2L, 3, "op", "class", "cause");
+		record.recycle();
+
+		RecyclableAfterOperationFailedEvent reused = pool.claim();
+		if (reused != record) { // NOPMD (compare references)
+			reused.recycle();
+			reused = pool.claim();
+		}
+		Assert.assertSame(record, reused);
+		reused.set(4L, 5L, 6, "other", "otherClass", null);
+		Assert.assertThat(reused.getTimestamp(), CoreMatchers.is(4L));
+		Assert.assertThat(reused.getTraceId(), CoreMatchers.is(5L));
+		Assert.assertThat(reused.getOrderIndex(), CoreMatchers.is(6));
+		Assert.assertThat(reused.getOperationSignature(), CoreMatchers.is("other"));
+		Assert.assertThat(reused.getClassSignature(), CoreMatchers.is("otherClass"));
+		Assert.assertThat(reused.getCause(), CoreMatchers.is(""));
+	}
+
+	private static void assertSameSerialization(final IMonitoringRecord expected, final IMonitoringRecord actual) {
+		Assert.assertThat(WriterUtil.getRecordClassName(actual), CoreMatchers.is(expected.getClass().getName()));
+		Assert.assertThat(actual.getSize(), CoreMatchers.is(expected.getSize()));
+		Assert.assertThat(RecordPoolTest.serialize(actual), CoreMatchers.is(RecordPoolTest.serialize(expected)));
+	}
+
+	private static String serialize(final IMonitoringRecord record) {
+		final CharBuffer buffer = CharBuffer.allocate(256);
+		record.serialize(TextValueSerializer.create(buffer));
+		buffer.flip();
+		return buffer.toString();
+	}
+}
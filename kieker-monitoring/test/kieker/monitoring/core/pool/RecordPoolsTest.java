@@ -0,0 +1,128 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.core.pool;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.monitoring.writer.MonitoringWriterThread;
+import kieker.monitoring.writer.dump.DumpWriter;
+
+/**
+ * Tests the {@link RecordPools}, including the recycling of records by the {@link MonitoringWriterThread}.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class RecordPoolsTest {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RecordPoolsTest.class);
+
+	private static final RecordPools RECORDS = RecordPools.INSTANCE;
+
+	private static final int NUM_RECORDS = 100000;
+
+	/** Default constructor. */
+	public RecordPoolsTest() {
+		// empty default constructor
+	}
+
+	@After
+	public void disablePools() {
+		RECORDS.disable();
+	}
+
+	@Test
+	public void testDisabledPoolsCreateImmutableRecords() {
+		Assert.assertFalse(RECORDS.isEnabled());
+		final IMonitoringRecord record = RECORDS.newBeforeOperationEvent(1L, 2L, 3, "op", "class");
+		Assert.assertThat(record, CoreMatchers.is((IMonitoringRecord) new BeforeOperationEvent(1L, 2L, 3, "op", "class")));
+	}
+
+	@Test
+	public void testEnabledPoolsCreateRecyclableRecords() {
+		RECORDS.enable(16);
+		Assert.assertTrue(RECORDS.isEnabled());
+		Assert.assertTrue(RECORDS.newBeforeOperationEvent(1L, 2L, 3, "op", "class") instanceof RecyclableBeforeOperationEvent);
+		Assert.assertTrue(RECORDS.newAfterOperationEvent(1L, 2L, 3, "op", "class") instanceof RecyclableAfterOperationEvent);
+		Assert.assertTrue(RECORDS.newAfterOperationFailedEvent(1L, 2L, 3, "op", "class", "cause") instanceof RecyclableAfterOperationFailedEvent);
+	}
+
+	/**
+	 * Passes records through a writer thread and compares the bytes allocated by the producing thread with and without
+	 * pooling. With pooling, the records are returned by the writer thread and the producer does not allocate new ones.
+	 */
+	@Test
+	public void testWriterThreadRecyclesRecords() throws InterruptedException {
+		final long allocatedWithoutPool = RecordPoolsTest.produceRecords();
+		RECORDS.enable(1024);
+		RecordPoolsTest.produceRecords(); // warm up
+		final long allocatedWithPool = RecordPoolsTest.produceRecords();
+
+		if (allocatedWithPool >= 0) {
+			LOGGER.info("Allocated {} bytes per record without and {} bytes per record with pooling", allocatedWithoutPool / NUM_RECORDS,
+					allocatedWithPool / NUM_RECORDS);
+			Assert.assertTrue("Allocated " + allocatedWithPool + " bytes with pooling", allocatedWithPool < (allocatedWithoutPool / 2));
+		}
+	}
+
+	/**
+	 * @return the bytes allocated by the current thread while producing the records or -1 if they cannot be measured
+	 */
+	private static long produceRecords() throws InterruptedException {
+		// the writer queue must not allocate per record either
+		final BlockingQueue<IMonitoringRecord> writerQueue = new LinkedBlockingQueue<>(16);
+		final MonitoringWriterThread thread = new MonitoringWriterThread(new DumpWriter(new Configuration()), writerQueue);
+		thread.start();
+
+		final long allocatedBefore = RecordPoolsTest.getAllocatedBytes();
+		for (int i = 0; i < NUM_RECORDS; i++) {
+			writerQueue.put(RECORDS.newBeforeOperationEvent(i, 1L, i, "op", "class"));
+		}
+		final long allocatedAfter = RecordPoolsTest.getAllocatedBytes();
+
+		thread.terminate();
+		thread.join();
+		return (allocatedBefore < 0) ? -1 : allocatedAfter - allocatedBefore; // NOCS
+	}
+
+	/**
+	 * @return the bytes allocated by the current thread or -1 if the JVM does not support measuring them
+	 */
+	private static long getAllocatedBytes() {
+		final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+			return -1;
+		}
+		final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+		if (!threadBean.isThreadAllocatedMemorySupported() || !threadBean.isThreadAllocatedMemoryEnabled()) {
+			return -1;
+		}
+		return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
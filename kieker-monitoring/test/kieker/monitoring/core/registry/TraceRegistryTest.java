@@ -0,0 +1,205 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.core.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.flow.trace.ApplicationTraceMetadata;
+import kieker.common.record.flow.trace.TraceMetadata;
+
+/**
+ * Tests the {@link TraceRegistry}.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class TraceRegistryTest {
+
+	private static final TraceRegistry REGISTRY = TraceRegistry.INSTANCE;
+
+	/** Default constructor. */
+	public TraceRegistryTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testNestedTracesAreRestored() {
+		Assert.assertNull(REGISTRY.getTrace());
+
+		final ApplicationTraceMetadata outer = REGISTRY.registerTrace();
+		Assert.assertThat(outer.getParentTraceId(), CoreMatchers.is(outer.getTraceId()));
+
+		final List<TraceMetadata> inner = new ArrayList<>();
+		for (int i = 0; i < 10; i++) { // deeper than the initial stack size
+			final TraceMetadata enclosing = REGISTRY.getTrace();
+			final ApplicationTraceMetadata trace = REGISTRY.registerTrace();
+			Assert.assertThat(trace.getParentTraceId(), CoreMatchers.is(enclosing.getTraceId()));
+			Assert.assertThat(trace.getParentOrderId(), CoreMatchers.is(-1));
+			inner.add(trace);
+		}
+
+		for (int i = inner.size() - 1; i >= 0; i--) {
+			Assert.assertSame(inner.get(i), REGISTRY.getTrace());
+			REGISTRY.unregisterTrace();
+		}
+		Assert.assertSame(outer, REGISTRY.getTrace());
+		REGISTRY.unregisterTrace();
+		Assert.assertNull(REGISTRY.getTrace());
+	}
+
+	@Test
+	public void testSplitPointIsHandedOverToStartedThread() throws InterruptedException {
+		final ApplicationTraceMetadata parent = REGISTRY.registerTrace();
+		final int orderId = parent.getNextOrderId();
+		final AtomicReference<ApplicationTraceMetadata> childTrace = new AtomicReference<>();
+		final AtomicReference<ApplicationTraceMetadata> secondChildTrace = new AtomicReference<>();
+
+		final Thread child = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				childTrace.set(REGISTRY.registerTrace());
+				REGISTRY.unregisterTrace();
+				// the split point is consumed by the first trace of the thread
+				secondChildTrace.set(REGISTRY.registerTrace());
+				REGISTRY.unregisterTrace();
+			}
+		});
+		REGISTRY.setParentTraceId(child, parent.getTraceId(), orderId);
+		child.start();
+		child.join();
+		REGISTRY.unregisterTrace();
+
+		Assert.assertThat(childTrace.get().getParentTraceId(), CoreMatchers.is(parent.getTraceId()));
+		Assert.assertThat(childTrace.get().getParentOrderId(), CoreMatchers.is(orderId));
+		Assert.assertThat(childTrace.get().getThreadId(), CoreMatchers.is(child.getId()));
+		Assert.assertThat(secondChildTrace.get().getParentTraceId(), CoreMatchers.is(secondChildTrace.get().getTraceId()));
+	}
+
+	@Test
+	public void testSplitPointsOfBothKindsAreConsumedByTheFirstTrace() throws InterruptedException {
+		final ApplicationTraceMetadata parent = REGISTRY.registerTrace();
+		final int threadOrderId = parent.getNextOrderId();
+		final int contextOrderId = parent.getNextOrderId();
+		final AtomicReference<ApplicationTraceMetadata> childTrace = new AtomicReference<>();
+		final AtomicReference<ApplicationTraceMetadata> secondChildTrace = new AtomicReference<>();
+
+		final Thread child = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				REGISTRY.setParentTraceId(parent.getTraceId(), contextOrderId);
+				childTrace.set(REGISTRY.registerTrace());
+				REGISTRY.unregisterTrace();
+				secondChildTrace.set(REGISTRY.registerTrace());
+				REGISTRY.unregisterTrace();
+			}
+		});
+		REGISTRY.setParentTraceId(child, parent.getTraceId(), threadOrderId);
+		child.start();
+		child.join();
+		REGISTRY.unregisterTrace();
+
+		// the split point of the context takes precedence, but the one of the thread is discarded as well
+		Assert.assertThat(childTrace.get().getParentTraceId(), CoreMatchers.is(parent.getTraceId()));
+		Assert.assertThat(childTrace.get().getParentOrderId(), CoreMatchers.is(contextOrderId));
+		Assert.assertThat(secondChildTrace.get().getParentTraceId(), CoreMatchers.is(secondChildTrace.get().getTraceId()));
+		Assert.assertThat(secondChildTrace.get().getParentOrderId(), CoreMatchers.is(-1));
+	}
+
+	@Test
+	public void testConcurrentRegistrationCreatesUniqueTraces() throws InterruptedException {
+		final int numThreads = 8;
+		final int tracesPerThread = 10000;
+		final Set<Long> traceIds = ConcurrentHashMap.newKeySet();
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		final List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < numThreads; t++) {
+			final Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (int i = 0; i < tracesPerThread; i++) {
+							final ApplicationTraceMetadata outer = REGISTRY.registerTrace();
+							final ApplicationTraceMetadata inner = REGISTRY.registerTrace();
+							traceIds.add(outer.getTraceId());
+							traceIds.add(inner.getTraceId());
+							if (inner.getParentTraceId() != outer.getTraceId()) {
+								throw new IllegalStateException("Wrong parent trace");
+							}
+							REGISTRY.unregisterTrace();
+							if (REGISTRY.getTrace() != outer) { // NOPMD (compare references)
+								throw new IllegalStateException("Enclosing trace not restored");
+							}
+							REGISTRY.unregisterTrace();
+						}
+					} catch (final Throwable e) { // NOPMD NOCS (test)
+						failure.set(e);
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		start.countDown();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+
+		Assert.assertNull(failure.get());
+		Assert.assertThat(traceIds.size(), CoreMatchers.is(numThreads * tracesPerThread * 2));
+	}
+
+	@Test
+	public void testSamplingDecisionIsInherited() throws InterruptedException {
+		final AtomicReference<Boolean> childSampled = new AtomicReference<>();
+		final AtomicReference<Boolean> nestedSampled = new AtomicReference<>();
+		final AtomicReference<Boolean> nextSampled = new AtomicReference<>();
+
+		final Thread child = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				REGISTRY.setParentTraceId(42L, 3, false);
+				REGISTRY.registerTrace();
+				childSampled.set(REGISTRY.isTraceSampled());
+				REGISTRY.registerTrace();
+				nestedSampled.set(REGISTRY.isTraceSampled());
+				REGISTRY.unregisterTrace();
+				REGISTRY.unregisterTrace();
+				// without an active trace, probes are not restricted; a new trace makes its own decision
+				nextSampled.set(REGISTRY.isTraceSampled());
+			}
+		});
+		child.start();
+		child.join();
+
+		Assert.assertFalse(childSampled.get());
+		Assert.assertFalse(nestedSampled.get());
+		Assert.assertTrue(nextSampled.get());
+	}
+}
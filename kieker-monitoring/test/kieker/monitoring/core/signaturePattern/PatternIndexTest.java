@@ -0,0 +1,156 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.core.signaturePattern;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link PatternIndex}.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class PatternIndexTest {
+
+	private static final String SIGNATURE = "public void a.b.Service.doIt(int)";
+	private static final String OTHER_SIGNATURE = "private static java.lang.String a.c.Helper.format(java.lang.String, int)";
+	private static final String CONSTRUCTOR_SIGNATURE = "public a.b.Service.<init>()";
+
+	private static final String[] PACKAGES = { "a", "a.b", "a.b.c", "a.c", "x.y" };
+	private static final String[] CLASSES = { "Service", "Helper", "Outer$Inner", "ServiceImpl" };
+	private static final String[] METHODS = { "doIt", "format", "get", "<init>" };
+
+	/** Default constructor. */
+	public PatternIndexTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testEmptyIndexActivatesAll() {
+		Assert.assertTrue(PatternIndex.EMPTY.isActivated(SIGNATURE));
+		Assert.assertTrue(new PatternIndex(new ArrayList<PatternEntry>()).isActivated("no signature at all"));
+	}
+
+	@Test
+	public void testLastMatchingPatternWinsAcrossGroups() throws InvalidPatternException {
+		final List<PatternEntry> entries = new ArrayList<>();
+		entries.add(new PatternEntry("*", false)); // generic
+		entries.add(new PatternEntry("* a.b.Service.*(..)", true)); // literal type
+		entries.add(new PatternEntry("* a..*.*(..)", false)); // package prefix
+		entries.add(new PatternEntry("public * a.b.Service.doIt(int)", true)); // literal type
+
+		final PatternIndex index = new PatternIndex(entries);
+
+		Assert.assertTrue(index.isActivated(SIGNATURE));
+		Assert.assertFalse(index.isActivated("public void a.b.Service.other()"));
+		Assert.assertFalse(index.isActivated(OTHER_SIGNATURE));
+		Assert.assertFalse(index.isActivated("public void x.Service.doIt(int)"));
+		Assert.assertFalse(index.isActivated(CONSTRUCTOR_SIGNATURE));
+	}
+
+	@Test
+	public void testConstructorsAndWildcardTypes() throws InvalidPatternException {
+		final List<PatternEntry> entries = new ArrayList<>();
+		entries.add(new PatternEntry("new a.b.Service.<init>(..)", false));
+		entries.add(new PatternEntry("* *.Helper.*(..)", false));
+
+		final PatternIndex index = new PatternIndex(entries);
+
+		Assert.assertFalse(index.isActivated(CONSTRUCTOR_SIGNATURE));
+		Assert.assertFalse(index.isActivated(OTHER_SIGNATURE));
+		Assert.assertTrue(index.isActivated(SIGNATURE));
+		Assert.assertThat(index.size(), CoreMatchers.is(2));
+		Assert.assertThat(index.getPatternEntries(), CoreMatchers.is(entries));
+	}
+
+	/**
+	 * Compares the index against the sequential evaluation of all patterns for a large generated pattern list.
+	 */
+	@Test
+	public void testEquivalentToSequentialEvaluation() throws InvalidPatternException {
+		final Random random = new Random(42);
+		final List<PatternEntry> entries = new ArrayList<>();
+		entries.add(new PatternEntry("*", false));
+		for (int i = 0; i < 1500; i++) {
+			entries.add(new PatternEntry(PatternIndexTest.createPattern(random), random.nextBoolean()));
+		}
+		final PatternIndex index = new PatternIndex(entries);
+
+		for (int i = 0; i < 2000; i++) {
+			final String signature = PatternIndexTest.createSignature(random);
+			Assert.assertThat(signature, index.isActivated(signature), CoreMatchers.is(PatternIndexTest.evaluateSequentially(entries, signature)));
+		}
+	}
+
+	private static boolean evaluateSequentially(final List<PatternEntry> entries, final String signature) {
+		for (int i = entries.size() - 1; i >= 0; i--) {
+			if (entries.get(i).getPattern().matcher(signature).matches()) {
+				return entries.get(i).isActivated();
+			}
+		}
+		return true;
+	}
+
+	private static String createPattern(final Random random) {
+		final String method = METHODS[random.nextInt(METHODS.length)];
+		final String type;
+		switch (random.nextInt(5)) {
+		case 0:
+			type = "*." + CLASSES[random.nextInt(CLASSES.length)];
+			break;
+		case 1:
+			type = PACKAGES[random.nextInt(PACKAGES.length)] + ".*";
+			break;
+		case 2:
+			type = PACKAGES[random.nextInt(PACKAGES.length)] + "..*";
+			break;
+		default:
+			type = PACKAGES[random.nextInt(PACKAGES.length)] + "." + CLASSES[random.nextInt(CLASSES.length)];
+			break;
+		}
+		if ("<init>".equals(method)) {
+			return "new " + type + ".<init>(..)";
+		}
+		switch (random.nextInt(20)) {
+		case 0:
+			return "* " + type + ".*(..)";
+		case 1:
+			return "%.*" + CLASSES[random.nextInt(CLASSES.length)].replace("$", "\\$") + "\\..*";
+		case 2:
+			return "public * " + type + "." + method + "(int)";
+		default:
+			return "* " + type + "." + method + "(..)";
+		}
+	}
+
+	private static String createSignature(final Random random) {
+		final String type = PACKAGES[random.nextInt(PACKAGES.length)] + "." + CLASSES[random.nextInt(CLASSES.length)];
+		final String method = METHODS[random.nextInt(METHODS.length)];
+		final String params = random.nextBoolean() ? "int" : ""; // NOCS
+		if ("<init>".equals(method)) {
+			return "public " + type + ".<init>(" + params + ")";
+		}
+		return "public void " + type + "." + method + "(" + params + ")";
+	}
+}
@@ -0,0 +1,82 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.listener;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.remotecontrol.ActivationEvent;
+import kieker.common.record.remotecontrol.DeactivationEvent;
+import kieker.common.record.remotecontrol.RemoveParameterValueEvent;
+import kieker.common.record.remotecontrol.UpdateParameterEvent;
+import kieker.monitoring.core.configuration.ConfigurationConstants;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.controller.IProbeSamplingController;
+import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.writer.dump.DumpWriter;
+
+/**
+ * Tests how the {@link MonitoringCommandListener} applies sampling parameters.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class MonitoringCommandListenerTest {
+
+	private static final String PATTERN = "* example.Class.*(..)";
+
+	private MonitoringController controller;
+	private MonitoringCommandListener listener;
+
+	/** Default constructor. */
+	public MonitoringCommandListenerTest() {
+		// empty default constructor
+	}
+
+	@Before
+	public void setUp() {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationConstants.WRITER_CLASSNAME, DumpWriter.class.getName());
+		configuration.setProperty(ConfigurationConstants.ADAPTIVE_MONITORING_ENABLED, true);
+		configuration.setProperty(ConfigurationConstants.PROBE_SAMPLING_ENABLED, true);
+		this.controller = MonitoringController.createInstance(configuration);
+		this.listener = new MonitoringCommandListener(this.controller);
+	}
+
+	@After
+	public void tearDown() {
+		this.controller.terminateMonitoring();
+	}
+
+	@Test
+	public void testActivationKeepsSamplingRate() {
+		this.listener.onRecordReceived(new UpdateParameterEvent(PATTERN, IProbeSamplingController.SAMPLING_RATE_PARAMETER,
+				new String[] { "0.5" }));
+		Assert.assertThat(this.controller.getSamplingRates().get(PATTERN), CoreMatchers.is(0.5));
+
+		this.listener.onRecordReceived(new DeactivationEvent(PATTERN));
+		this.listener.onRecordReceived(new ActivationEvent(PATTERN));
+		Assert.assertThat(this.controller.getSamplingRates().get(PATTERN), CoreMatchers.is(0.5));
+
+		this.listener.onRecordReceived(new RemoveParameterValueEvent(PATTERN, IProbeSamplingController.SAMPLING_RATE_PARAMETER, "0.5"));
+		Assert.assertNull(this.controller.getSamplingRates().get(PATTERN));
+	}
+}
@@ -0,0 +1,288 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.probe.concurrency;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.record.flow.trace.ApplicationTraceMetadata;
+import kieker.monitoring.core.registry.TraceRegistry;
+
+/**
+ * Tests the {@link TracePropagation}, including a stress test with many short tasks.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class TracePropagationTest {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TracePropagationTest.class);
+
+	private static final TraceRegistry REGISTRY = TraceRegistry.INSTANCE;
+
+	private static final int NUM_THREADS = 8;
+	private static final int NUM_TASKS = 200000;
+
+	/** Default constructor. */
+	public TracePropagationTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testTaskWithoutTraceIsNotWrapped() {
+		final Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				// nothing to do
+			}
+		};
+		Assert.assertSame(task, TracePropagation.wrap(task));
+	}
+
+	@Test
+	public void testCallableContinuesTrace() throws InterruptedException, ExecutionException {
+		final ExecutorService executor = TracePropagation.wrap(Executors.newSingleThreadExecutor());
+		try {
+			final ApplicationTraceMetadata parent = REGISTRY.registerTrace();
+			final ApplicationTraceMetadata child = executor.submit(new Callable<ApplicationTraceMetadata>() {
+				@Override
+				public ApplicationTraceMetadata call() {
+					final ApplicationTraceMetadata trace = REGISTRY.registerTrace();
+					REGISTRY.unregisterTrace();
+					return trace;
+				}
+			}).get();
+			REGISTRY.unregisterTrace();
+
+			Assert.assertThat(child.getParentTraceId(), CoreMatchers.is(parent.getTraceId()));
+			Assert.assertThat(child.getParentOrderId(), CoreMatchers.is(0));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testSplitPointDoesNotLeakToNextTask() throws InterruptedException, ExecutionException {
+		final ExecutorService pool = Executors.newSingleThreadExecutor();
+		final ExecutorService executor = TracePropagation.wrap(pool);
+		try {
+			REGISTRY.registerTrace();
+			executor.submit(new Runnable() {
+				@Override
+				public void run() {
+					// does not create a trace, i.e., the split point is not consumed
+				}
+			}).get();
+			REGISTRY.unregisterTrace();
+
+			// submitted to the undecorated pool, runs on the same thread
+			final ApplicationTraceMetadata unrelated = pool.submit(new Callable<ApplicationTraceMetadata>() {
+				@Override
+				public ApplicationTraceMetadata call() {
+					final ApplicationTraceMetadata trace = REGISTRY.registerTrace();
+					REGISTRY.unregisterTrace();
+					return trace;
+				}
+			}).get();
+
+			Assert.assertThat(unrelated.getParentTraceId(), CoreMatchers.is(unrelated.getTraceId()));
+			Assert.assertThat(unrelated.getParentOrderId(), CoreMatchers.is(-1));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testPendingSplitPointOfCallerIsRestored() {
+		REGISTRY.registerTrace();
+		final Runnable task = TracePropagation.wrap(new Runnable() {
+			@Override
+			public void run() {
+				// does not create a trace
+			}
+		});
+		REGISTRY.unregisterTrace();
+
+		// the task runs on a thread which has a split point of its own, e.g., by a caller-runs policy
+		REGISTRY.setParentTraceId(42L, 7);
+		task.run();
+		final ApplicationTraceMetadata trace = REGISTRY.registerTrace();
+		REGISTRY.unregisterTrace();
+
+		Assert.assertThat(trace.getParentTraceId(), CoreMatchers.is(42L));
+		Assert.assertThat(trace.getParentOrderId(), CoreMatchers.is(7));
+	}
+
+	@Test
+	public void testWrappedTaskIsNotWrappedAgain() throws InterruptedException, ExecutionException {
+		final ExecutorService executor = TracePropagation.wrap(Executors.newSingleThreadExecutor());
+		try {
+			final ApplicationTraceMetadata parent = REGISTRY.registerTrace();
+			final Callable<ApplicationTraceMetadata> task = TracePropagation.wrap(new Callable<ApplicationTraceMetadata>() {
+				@Override
+				public ApplicationTraceMetadata call() {
+					final ApplicationTraceMetadata trace = REGISTRY.registerTrace();
+					REGISTRY.unregisterTrace();
+					return trace;
+				}
+			});
+			Assert.assertSame(task, TracePropagation.wrap(task));
+			final ApplicationTraceMetadata child = executor.submit(task).get();
+			final int nextOrderId = parent.getNextOrderId();
+			REGISTRY.unregisterTrace();
+
+			Assert.assertThat(child.getParentOrderId(), CoreMatchers.is(0));
+			// no further split event has been created by the executor
+			Assert.assertThat(nextOrderId, CoreMatchers.is(1));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testShutdownNowReturnsTheOriginalTasks() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final ExecutorService executor = TracePropagation.wrap(Executors.newSingleThreadExecutor());
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				started.countDown();
+				try {
+					release.await();
+				} catch (final InterruptedException e) {
+					// terminate
+				}
+			}
+		});
+		Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+		final Runnable pendingTask = new Runnable() {
+			@Override
+			public void run() {
+				// never executed
+			}
+		};
+		REGISTRY.registerTrace();
+		executor.execute(pendingTask);
+		REGISTRY.unregisterTrace();
+
+		final List<Runnable> pendingTasks = executor.shutdownNow();
+		release.countDown();
+
+		Assert.assertThat(pendingTasks.size(), CoreMatchers.is(1));
+		Assert.assertSame(pendingTask, pendingTasks.get(0));
+	}
+
+	/**
+	 * Runs many short tasks on a pool and checks the parent trace and order id of the trace created by each task. The
+	 * bytes allocated by the worker threads are logged and must stay in the range of a single trace record per task.
+	 */
+	@Test
+	public void testManyShortTasks() throws InterruptedException {
+		final List<Thread> workers = new CopyOnWriteArrayList<>();
+		final ExecutorService executor = TracePropagation.wrap(Executors.newFixedThreadPool(NUM_THREADS, new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r);
+				workers.add(thread);
+				return thread;
+			}
+		}));
+		// start all worker threads before measuring
+		for (int i = 0; i < NUM_THREADS; i++) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					// warm up
+				}
+			});
+		}
+
+		final long[] parentTraceIds = new long[NUM_TASKS];
+		final int[] parentOrderIds = new int[NUM_TASKS];
+		final long[] allocatedBefore = TracePropagationTest.getAllocatedBytes(workers);
+
+		final ApplicationTraceMetadata parent = REGISTRY.registerTrace();
+		for (int i = 0; i < NUM_TASKS; i++) {
+			final int index = i;
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					final ApplicationTraceMetadata trace = REGISTRY.registerTrace();
+					parentTraceIds[index] = trace.getParentTraceId();
+					parentOrderIds[index] = trace.getParentOrderId();
+					REGISTRY.unregisterTrace();
+				}
+			});
+		}
+		REGISTRY.unregisterTrace();
+		executor.shutdown();
+		Assert.assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+		final long[] allocatedAfter = TracePropagationTest.getAllocatedBytes(workers);
+
+		for (int i = 0; i < NUM_TASKS; i++) {
+			Assert.assertThat(parentTraceIds[i], CoreMatchers.is(parent.getTraceId()));
+			Assert.assertThat(parentOrderIds[i], CoreMatchers.is(i));
+		}
+
+		if (allocatedBefore != null) {
+			long allocated = 0;
+			for (int i = 0; i < allocatedBefore.length; i++) {
+				allocated += allocatedAfter[i] - allocatedBefore[i];
+			}
+			final long bytesPerTask = allocated / NUM_TASKS;
+			LOGGER.info("Worker threads allocated {} bytes per task", bytesPerTask);
+			Assert.assertTrue("Allocated " + bytesPerTask + " bytes per task", bytesPerTask < 1024);
+		}
+	}
+
+	/**
+	 * @return the allocated bytes of the given threads or null if the JVM does not support measuring them
+	 */
+	private static long[] getAllocatedBytes(final List<Thread> threads) {
+		final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+			return null; // NOPMD (null to indicate missing support)
+		}
+		final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+		if (!threadBean.isThreadAllocatedMemorySupported() || !threadBean.isThreadAllocatedMemoryEnabled()) {
+			return null; // NOPMD (null to indicate missing support)
+		}
+		final long[] ids = new long[threads.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = threads.get(i).getId();
+		}
+		return threadBean.getThreadAllocatedBytes(ids);
+	}
+}
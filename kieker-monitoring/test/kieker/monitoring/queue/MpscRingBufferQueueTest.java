@@ -0,0 +1,192 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.monitoring.queue;
+
+import java.lang.Thread.State;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.Await;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class MpscRingBufferQueueTest {
+
+	private static final int THREAD_STATE_CHANGE_TIMEOUT_IN_MS = 1000;
+
+	public MpscRingBufferQueueTest() {
+		super();
+	}
+
+	@Test
+	public void testCapacityIsRoundedToPowerOfTwo() {
+		Assert.assertThat(new MpscRingBufferQueue<Integer>(1).capacity(), CoreMatchers.is(1));
+		Assert.assertThat(new MpscRingBufferQueue<Integer>(1000).capacity(), CoreMatchers.is(1024));
+		Assert.assertThat(new MpscRingBufferQueue<Integer>(1024).capacity(), CoreMatchers.is(1024));
+	}
+
+	@Test
+	public void testOfferFailsIfFull() {
+		final MpscRingBufferQueue<Integer> queue = new MpscRingBufferQueue<>(4);
+		for (int i = 0; i < 4; i++) {
+			Assert.assertTrue(queue.offer(i));
+		}
+		Assert.assertFalse(queue.offer(4));
+		Assert.assertThat(queue.size(), CoreMatchers.is(4));
+		Assert.assertThat(queue.remainingCapacity(), CoreMatchers.is(0));
+
+		Assert.assertThat(queue.poll(), CoreMatchers.is(0));
+		Assert.assertTrue(queue.offer(4));
+	}
+
+	@Test
+	public void testOfferAllInsertsTheFittingPrefix() {
+		final MpscRingBufferQueue<Integer> queue = new MpscRingBufferQueue<>(4);
+		Assert.assertTrue(queue.offer(-1));
+
+		final Integer[] elements = { 0, 1, 2, 3, 4 };
+		Assert.assertThat(queue.offerAll(elements, 2), CoreMatchers.is(2));
+		Assert.assertThat(queue.offerAll(elements, elements.length), CoreMatchers.is(1));
+		Assert.assertThat(queue.offerAll(elements, elements.length), CoreMatchers.is(0));
+		Assert.assertThat(queue.size(), CoreMatchers.is(4));
+
+		final List<Integer> drained = new ArrayList<>();
+		queue.drainTo(drained);
+		Assert.assertThat(drained, CoreMatchers.is(Arrays.asList(-1, 0, 1, 0)));
+	}
+
+	@Test
+	public void testFifoOrderAcrossWrapAround() {
+		final MpscRingBufferQueue<Integer> queue = new MpscRingBufferQueue<>(4);
+		final List<Integer> drained = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			Assert.assertTrue(queue.offer(i));
+			if ((i % 3) == 2) {
+				queue.drainTo(drained, 3);
+			}
+		}
+		queue.drainTo(drained);
+
+		final List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			expected.add(i);
+		}
+		Assert.assertThat(drained, CoreMatchers.is(expected));
+		Assert.assertTrue(queue.isEmpty());
+		Assert.assertNull(queue.poll());
+	}
+
+	@Test
+	public void testIteratorReturnsSnapshotAcrossWrapAround() {
+		final MpscRingBufferQueue<Integer> queue = new MpscRingBufferQueue<>(4);
+		for (int i = 0; i < 3; i++) {
+			queue.offer(i);
+		}
+		queue.poll();
+		queue.poll();
+		queue.offer(3);
+		queue.offer(4);
+
+		Assert.assertArrayEquals(new Object[] { 2, 3, 4 }, queue.toArray());
+		Assert.assertTrue(queue.contains(3));
+		Assert.assertFalse(queue.contains(1));
+
+		final Iterator<Integer> iterator = queue.iterator();
+		queue.poll();
+		queue.offer(5);
+		final List<Integer> snapshot = new ArrayList<>();
+		while (iterator.hasNext()) {
+			snapshot.add(iterator.next());
+		}
+		Assert.assertThat(snapshot, CoreMatchers.is(Arrays.asList(2, 3, 4)));
+		Assert.assertThat(queue.poll(), CoreMatchers.is(3));
+	}
+
+	@Test
+	public void testPutBlocksUntilSlotIsFree() throws Exception {
+		final MpscRingBufferQueue<Integer> queue = new MpscRingBufferQueue<>(1);
+		queue.put(0);
+
+		final Thread producer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					queue.put(1);
+				} catch (final InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		});
+		producer.start();
+
+		Await.awaitThreadState(producer, State.WAITING, THREAD_STATE_CHANGE_TIMEOUT_IN_MS);
+
+		Assert.assertThat(queue.take(), CoreMatchers.is(0));
+		producer.join(THREAD_STATE_CHANGE_TIMEOUT_IN_MS);
+		Assert.assertThat(producer.getState(), CoreMatchers.is(State.TERMINATED));
+		Assert.assertThat(queue.take(), CoreMatchers.is(1));
+	}
+
+	@Test
+	public void testMultipleProducersPreserveOrderPerProducer() throws Exception {
+		final int numProducers = 4;
+		final int numElementsPerProducer = 100_000;
+		final MpscRingBufferQueue<long[]> queue = new MpscRingBufferQueue<>(128);
+
+		final List<Thread> producers = new ArrayList<>();
+		for (int p = 0; p < numProducers; p++) {
+			final int producerId = p;
+			final Thread producer = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < numElementsPerProducer; i++) {
+							queue.put(new long[] { producerId, i });
+						}
+					} catch (final InterruptedException e) {
+						throw new IllegalStateException(e);
+					}
+				}
+			});
+			producers.add(producer);
+			producer.start();
+		}
+
+		final long[] nextExpected = new long[numProducers];
+		for (int i = 0; i < (numProducers * numElementsPerProducer); i++) {
+			final long[] element = queue.take();
+			final int producerId = (int) element[0];
+			Assert.assertThat(element[1], CoreMatchers.is(nextExpected[producerId]));
+			nextExpected[producerId]++;
+		}
+
+		for (final Thread producer : producers) {
+			producer.join();
+		}
+		Assert.assertTrue(queue.isEmpty());
+	}
+}
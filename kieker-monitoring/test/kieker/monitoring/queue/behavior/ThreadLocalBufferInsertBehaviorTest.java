@@ -0,0 +1,233 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.monitoring.queue.behavior;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hamcrest.CoreMatchers;
+import org.jctools.queues.MpscArrayQueue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.misc.TimestampRecord;
+import kieker.monitoring.queue.BlockingQueueDecorator;
+import kieker.monitoring.queue.MpscRingBufferQueue;
+import kieker.monitoring.queue.putstrategy.YieldPutStrategy;
+import kieker.monitoring.queue.takestrategy.YieldTakeStrategy;
+
+/**
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class ThreadLocalBufferInsertBehaviorTest {
+
+	public ThreadLocalBufferInsertBehaviorTest() {
+		super();
+	}
+
+	@Test
+	public void testFullBufferIsPublished() {
+		final BlockingQueue<IMonitoringRecord> queue = new MpscRingBufferQueue<>(16);
+		final ThreadLocalBufferInsertBehavior behavior = new ThreadLocalBufferInsertBehavior(queue,
+				new BlockOnFailedInsertBehavior<>(queue), 3, 60000);
+
+		for (int i = 0; i < 7; i++) {
+			Assert.assertTrue(behavior.insert(new TimestampRecord(i)));
+		}
+
+		Assert.assertThat(queue.size(), CoreMatchers.is(6));
+		Assert.assertThat(ThreadLocalBufferInsertBehaviorTest.drain(queue),
+				CoreMatchers.is(ThreadLocalBufferInsertBehaviorTest.timestamps(0, 6)));
+
+		behavior.terminate();
+
+		Assert.assertThat(ThreadLocalBufferInsertBehaviorTest.drain(queue),
+				CoreMatchers.is(ThreadLocalBufferInsertBehaviorTest.timestamps(6, 7)));
+	}
+
+	@Test
+	public void testFullBufferIsPublishedToDecoratedQueue() {
+		final BlockingQueue<IMonitoringRecord> queue = new BlockingQueueDecorator<>(new MpscArrayQueue<IMonitoringRecord>(4),
+				new YieldPutStrategy(), new YieldTakeStrategy());
+		final CountOnFailedInsertBehavior<IMonitoringRecord> countBehavior = new CountOnFailedInsertBehavior<>(queue);
+		final ThreadLocalBufferInsertBehavior behavior = new ThreadLocalBufferInsertBehavior(queue, countBehavior, 3, 60000);
+
+		for (int i = 0; i < 7; i++) {
+			Assert.assertTrue(behavior.insert(new TimestampRecord(i)));
+		}
+		Assert.assertThat(queue.size(), CoreMatchers.is(4));
+		Assert.assertThat(countBehavior.getNumFailedInserts(), CoreMatchers.is(2L));
+
+		behavior.terminate();
+		Assert.assertThat(ThreadLocalBufferInsertBehaviorTest.drain(queue),
+				CoreMatchers.is(ThreadLocalBufferInsertBehaviorTest.timestamps(0, 4)));
+	}
+
+	@Test
+	public void testFullBufferIsPublishedToQueueWithoutBulkInsert() {
+		final BlockingQueue<IMonitoringRecord> queue = new LinkedBlockingQueue<>();
+		final ThreadLocalBufferInsertBehavior behavior = new ThreadLocalBufferInsertBehavior(queue,
+				new BlockOnFailedInsertBehavior<>(queue), 3, 60000);
+
+		for (int i = 0; i < 7; i++) {
+			Assert.assertTrue(behavior.insert(new TimestampRecord(i)));
+		}
+		behavior.terminate();
+
+		Assert.assertThat(ThreadLocalBufferInsertBehaviorTest.drain(queue),
+				CoreMatchers.is(ThreadLocalBufferInsertBehaviorTest.timestamps(0, 7)));
+	}
+
+	@Test
+	public void testExpiredBufferIsPublished() throws Exception {
+		final BlockingQueue<IMonitoringRecord> queue = new MpscRingBufferQueue<>(16);
+		final ThreadLocalBufferInsertBehavior behavior = new ThreadLocalBufferInsertBehavior(queue,
+				new BlockOnFailedInsertBehavior<>(queue), 100, 10);
+
+		behavior.insert(new TimestampRecord(0));
+
+		final IMonitoringRecord record = queue.poll(1, TimeUnit.SECONDS);
+		Assert.assertThat(record, CoreMatchers.is((IMonitoringRecord) new TimestampRecord(0)));
+
+		behavior.terminate();
+	}
+
+	@Test
+	public void testOrderIsKeptPerThread() throws Exception {
+		final BlockingQueue<IMonitoringRecord> queue = new MpscRingBufferQueue<>(1 << 16);
+		final ThreadLocalBufferInsertBehavior behavior = new ThreadLocalBufferInsertBehavior(queue,
+				new BlockOnFailedInsertBehavior<>(queue), 16, 1);
+
+		final int numThreads = 4;
+		final int numRecordsPerThread = 10000;
+		final List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < numThreads; t++) {
+			final long offset = t * (long) numRecordsPerThread;
+			final Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 0; i < numRecordsPerThread; i++) {
+						behavior.insert(new TimestampRecord(offset + i));
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		behavior.terminate();
+
+		final List<IMonitoringRecord> records = ThreadLocalBufferInsertBehaviorTest.drain(queue);
+		Assert.assertThat(records.size(), CoreMatchers.is(numThreads * numRecordsPerThread));
+
+		final long[] lastTimestamps = new long[numThreads];
+		for (int t = 0; t < numThreads; t++) {
+			lastTimestamps[t] = -1;
+		}
+		for (final IMonitoringRecord record : records) {
+			final long timestamp = ((TimestampRecord) record).getTimestamp();
+			final int thread = (int) (timestamp / numRecordsPerThread);
+			Assert.assertTrue("Records of a thread are out of order", timestamp > lastTimestamps[thread]);
+			lastTimestamps[thread] = timestamp;
+		}
+	}
+
+	@Test
+	public void testCapacityIsCountedInRecords() {
+		final BlockingQueue<IMonitoringRecord> queue = new MpscRingBufferQueue<>(4);
+		final CountOnFailedInsertBehavior<IMonitoringRecord> countBehavior = new CountOnFailedInsertBehavior<>(queue);
+		final ThreadLocalBufferInsertBehavior behavior = new ThreadLocalBufferInsertBehavior(queue, countBehavior, 3, 60000);
+
+		for (int i = 0; i < 7; i++) {
+			Assert.assertTrue(behavior.insert(new TimestampRecord(i)));
+		}
+		Assert.assertThat(queue.size(), CoreMatchers.is(4));
+		Assert.assertThat(countBehavior.getNumFailedInserts(), CoreMatchers.is(2L));
+
+		behavior.terminate();
+		Assert.assertThat(countBehavior.getNumFailedInserts(), CoreMatchers.is(3L));
+		Assert.assertThat(ThreadLocalBufferInsertBehaviorTest.drain(queue),
+				CoreMatchers.is(ThreadLocalBufferInsertBehaviorTest.timestamps(0, 4)));
+	}
+
+	@Test
+	public void testRecordsOfFullQueueAreCounted() {
+		final BlockingQueue<IMonitoringRecord> queue = new ArrayBlockingQueue<>(1);
+		queue.add(new TimestampRecord(-1));
+		final CountOnFailedInsertBehavior<IMonitoringRecord> countBehavior = new CountOnFailedInsertBehavior<>(queue);
+		final ThreadLocalBufferInsertBehavior behavior = new ThreadLocalBufferInsertBehavior(queue, countBehavior, 3, 60000);
+
+		for (int i = 0; i < 7; i++) {
+			Assert.assertTrue(behavior.insert(new TimestampRecord(i)));
+		}
+		Assert.assertThat(countBehavior.getNumFailedInserts(), CoreMatchers.is(6L));
+
+		behavior.terminate();
+		Assert.assertThat(countBehavior.getNumFailedInserts(), CoreMatchers.is(7L));
+	}
+
+	@Test
+	public void testFailedPublishIsReportedOnce() throws Exception {
+		final AtomicInteger numFailedPublishes = new AtomicInteger();
+		final InsertBehavior<IMonitoringRecord> failingBehavior = new InsertBehavior<IMonitoringRecord>() {
+			@Override
+			public boolean insert(final IMonitoringRecord element) {
+				numFailedPublishes.incrementAndGet();
+				return false;
+			}
+		};
+		final ThreadLocalBufferInsertBehavior behavior = new ThreadLocalBufferInsertBehavior(new LinkedBlockingQueue<IMonitoringRecord>(),
+				failingBehavior, 100, 1);
+
+		Assert.assertTrue(behavior.insert(new TimestampRecord(0)));
+		final long deadline = System.currentTimeMillis() + 5000;
+		while ((numFailedPublishes.get() == 0) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(1);
+		}
+		Assert.assertThat(numFailedPublishes.get(), CoreMatchers.is(1));
+
+		Assert.assertFalse(behavior.insert(new TimestampRecord(1)));
+		Assert.assertTrue(behavior.insert(new TimestampRecord(2)));
+
+		behavior.terminate();
+	}
+
+	private static List<IMonitoringRecord> drain(final BlockingQueue<IMonitoringRecord> queue) {
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		queue.drainTo(records);
+		return records;
+	}
+
+	private static List<IMonitoringRecord> timestamps(final int from, final int to) {
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		for (int i = from; i < to; i++) {
+			records.add(new TimestampRecord(i));
+		}
+		return records;
+	}
+}
@@ -17,6 +17,8 @@
 package kieker.monitoring.writer;
 
 import java.lang.Thread.State;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
@@ -28,6 +30,7 @@ import kieker.Await;
 import kieker.common.configuration.Configuration;
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.misc.EmptyRecord;
+import kieker.common.record.misc.TimestampRecord;
 import kieker.monitoring.writer.dump.DumpWriter;
 
 /**
@@ -95,4 +98,70 @@ public class MonitoringWriterThreadTest {
 
 		Assert.assertThat(thread.getState(), CoreMatchers.is(State.TERMINATED));
 	}
+
+	@Test
+	public void testBatchWriting() throws Exception {
+		final Configuration configuration = new Configuration();
+		final BatchCollectingWriter writer = new BatchCollectingWriter(configuration);
+		final BlockingQueue<IMonitoringRecord> writerQueue = new LinkedBlockingQueue<>();
+
+		final List<IMonitoringRecord> expectedRecords = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			final IMonitoringRecord record = new TimestampRecord(i);
+			expectedRecords.add(record);
+			writerQueue.add(record);
+		}
+		// an empty record must not be confused with the end-of-monitoring token
+		final IMonitoringRecord emptyRecord = new EmptyRecord();
+		expectedRecords.add(emptyRecord);
+		writerQueue.add(emptyRecord);
+
+		final MonitoringWriterThread thread = new MonitoringWriterThread(writer, writerQueue, 4, 1);
+		thread.start();
+		thread.terminate();
+		thread.join(THREAD_STATE_CHANGE_TIMEOUT_IN_MS);
+
+		Assert.assertThat(thread.getState(), CoreMatchers.is(State.TERMINATED));
+		Assert.assertThat(writer.records, CoreMatchers.is(expectedRecords));
+		Assert.assertThat(writer.numSingleWrites, CoreMatchers.is(0));
+		for (final Integer batchSize : writer.batchSizes) {
+			Assert.assertTrue("Batch exceeds the maximal batch size: " + batchSize, batchSize <= 4);
+		}
+	}
+
+	/**
+	 * Writer which remembers the received records and batch sizes.
+	 */
+	private static class BatchCollectingWriter extends AbstractMonitoringWriter {
+
+		private final List<IMonitoringRecord> records = new ArrayList<>();
+		private final List<Integer> batchSizes = new ArrayList<>();
+		private int numSingleWrites;
+
+		public BatchCollectingWriter(final Configuration configuration) {
+			super(configuration);
+		}
+
+		@Override
+		public void onStarting() {
+			// nothing to do
+		}
+
+		@Override
+		public void writeMonitoringRecord(final IMonitoringRecord record) {
+			this.numSingleWrites++;
+			this.records.add(record);
+		}
+
+		@Override
+		public void writeMonitoringRecords(final List<IMonitoringRecord> batch) {
+			this.batchSizes.add(batch.size());
+			this.records.addAll(batch);
+		}
+
+		@Override
+		public void onTerminating() {
+			// nothing to do
+		}
+	}
 }
@@ -0,0 +1,138 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.filesystem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.registry.IRegistryListener;
+import kieker.common.registry.writer.WriterRegistry;
+import kieker.common.util.filesystem.FileExtensionFilter;
+import kieker.monitoring.core.configuration.ConfigurationConstants;
+import kieker.monitoring.writer.compression.GZipCompressionFilter;
+import kieker.monitoring.writer.compression.ICompressionFilter;
+import kieker.monitoring.writer.compression.NoneCompressionFilter;
+
+/**
+ * Tests the {@link MappedBinaryLogStreamHandler}.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class MappedBinaryLogStreamHandlerTest implements IRegistryListener<String> {
+
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder(); // NOCS recommends that this is private. JUnit test wants this public.
+
+	/** enough records to fill several segments, records also cross segment boundaries. */
+	private static final int NUM_RECORDS = 100000;
+
+	private final Charset charset = Charset.defaultCharset();
+	private final ICompressionFilter compressionFilter = new NoneCompressionFilter(null);
+
+	public MappedBinaryLogStreamHandlerTest() {
+		// nothing to be done here.
+	}
+
+	@Test
+	public void testSameContentAsBinaryLogStreamHandler() throws IOException {
+		final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		final BinaryLogStreamHandler binaryHandler = new BinaryLogStreamHandler(false, 65536, this.charset, this.compressionFilter,
+				new WriterRegistry(this));
+		binaryHandler.initialize(expected, Paths.get("test-filename"));
+
+		final Path file = this.tmpFolder.getRoot().toPath().resolve("test.bin");
+		final MappedBinaryLogStreamHandler mappedHandler = new MappedBinaryLogStreamHandler(false, 65536, this.charset,
+				this.compressionFilter, new WriterRegistry(this));
+		mappedHandler.initialize(file);
+
+		for (int i = 0; i < NUM_RECORDS; i++) {
+			final IMonitoringRecord record = MappedBinaryLogStreamHandlerTest.createRecord(i);
+			binaryHandler.serialize(record, 2);
+			mappedHandler.serialize(record, 2);
+		}
+		Assert.assertThat(mappedHandler.getNumOfEntries(), CoreMatchers.is(NUM_RECORDS));
+		final long recordSize = 4 + 8 + MappedBinaryLogStreamHandlerTest.createRecord(0).getSize();
+		Assert.assertThat(mappedHandler.getNumOfBytes(), CoreMatchers.is(NUM_RECORDS * recordSize));
+
+		binaryHandler.close();
+		mappedHandler.close();
+
+		Assert.assertTrue(mappedHandler.getNumOfBytes() > (2 * MappedBinaryLogStreamHandler.MIN_SEGMENT_SIZE));
+		Assert.assertArrayEquals(expected.toByteArray(), Files.readAllBytes(file));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCompressionIsRejected() {
+		new MappedBinaryLogStreamHandler(false, 65536, this.charset, new GZipCompressionFilter(null), new WriterRegistry(this));
+	}
+
+	@Test
+	public void testFileWriterCreatesMultipleRecordFiles() throws IOException {
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(ConfigurationConstants.HOST_NAME, "testHostName");
+		configuration.setProperty(ConfigurationConstants.CONTROLLER_NAME, "testControllerName");
+		configuration.setProperty(FileWriter.CONFIG_MAXENTRIESINFILE, "10000");
+		configuration.setProperty(FileWriter.CONFIG_MAXLOGFILES, String.valueOf(Integer.MAX_VALUE));
+		configuration.setProperty(FileWriter.CONFIG_MAXLOGSIZE, String.valueOf(Integer.MAX_VALUE));
+		configuration.setProperty(FileWriter.CONFIG_PATH, this.tmpFolder.getRoot().getAbsolutePath());
+		configuration.setProperty(FileWriter.CONFIG_LOG_STREAM_HANDLER, MappedBinaryLogStreamHandler.class.getName());
+		configuration.setProperty(FileWriter.CONFIG_COMPRESSION_FILTER, NoneCompressionFilter.class.getName());
+
+		final FileWriter writer = new FileWriter(configuration);
+		writer.onStarting();
+		for (int i = 0; i < 25000; i++) {
+			writer.writeMonitoringRecord(MappedBinaryLogStreamHandlerTest.createRecord(i));
+		}
+		writer.onTerminating();
+
+		final File storePath = Files.list(this.tmpFolder.getRoot().toPath()).findFirst().get().toFile();
+		final File[] recordFiles = storePath.listFiles(FileExtensionFilter.BIN);
+		Assert.assertThat(recordFiles.length, CoreMatchers.is(3));
+		long totalSize = 0;
+		for (final File recordFile : recordFiles) {
+			totalSize += recordFile.length();
+		}
+		// each file has been truncated to its content
+		Assert.assertThat(totalSize, CoreMatchers.is(25000L * (4 + 8 + MappedBinaryLogStreamHandlerTest.createRecord(0).getSize())));
+	}
+
+	private static IMonitoringRecord createRecord(final int index) {
+		return new OperationExecutionRecord("testing" + (index % 10), "abc", index, index, index + 1, "localhost", index, 456);
+	}
+
+	@Override
+	public void onNewRegistryEntry(final String value, final int id) {
+		// ignore, as we only want to mock the serialization
+	}
+
+}
@@ -0,0 +1,247 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.influxdb;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local HTTP server which answers the requests of the {@link InfluxDBWriter} like InfluxDB does, without storing the
+ * points. It counts the received points and, if requested, keeps the received lines. It is used to test the writer and
+ * to measure its throughput without a database.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class InfluxDBStandIn implements AutoCloseable {
+
+	/** Version reported to the writer. */
+	public static final String VERSION = "1.8.10";
+
+	private static final String DATABASES_RESPONSE_START = "{\"results\":[{\"statement_id\":0,\"series\":[{\"name\":\"databases\","
+			+ "\"columns\":[\"name\"],\"values\":[[\"";
+	private static final String DATABASES_RESPONSE_END = "\"]]}]}]}";
+	private static final String EMPTY_RESPONSE = "{\"results\":[{\"statement_id\":0}]}";
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final boolean keepLines;
+	private final List<String> lines = new ArrayList<>();
+	private final List<String> databases = new ArrayList<>();
+	private final AtomicLong numberOfPoints = new AtomicLong();
+	private final AtomicLong numberOfRequests = new AtomicLong();
+	private volatile int writeStatus = 204;
+
+	/**
+	 * Starts the server on a free local port.
+	 *
+	 * @param keepLines
+	 *            whether the received lines are kept, which should be avoided in throughput measurements
+	 * @throws IOException
+	 *             if the server cannot be started
+	 */
+	public InfluxDBStandIn(final boolean keepLines) throws IOException {
+		this.keepLines = keepLines;
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/ping", new HttpHandler() {
+			@Override
+			public void handle(final HttpExchange exchange) throws IOException {
+				InfluxDBStandIn.this.ping(exchange);
+			}
+		});
+		this.server.createContext("/query", new HttpHandler() {
+			@Override
+			public void handle(final HttpExchange exchange) throws IOException {
+				InfluxDBStandIn.this.query(exchange);
+			}
+		});
+		this.server.createContext("/write", new HttpHandler() {
+			@Override
+			public void handle(final HttpExchange exchange) throws IOException {
+				InfluxDBStandIn.this.write(exchange);
+			}
+		});
+		this.executor = Executors.newCachedThreadPool();
+		this.server.setExecutor(this.executor);
+		this.server.start();
+	}
+
+	private void ping(final HttpExchange exchange) throws IOException {
+		InfluxDBStandIn.readBody(exchange);
+		exchange.getResponseHeaders().add("X-Influxdb-Version", VERSION);
+		InfluxDBStandIn.respond(exchange, 204, null);
+	}
+
+	private void query(final HttpExchange exchange) throws IOException {
+		final byte[] body = InfluxDBStandIn.readBody(exchange);
+		String parameters = exchange.getRequestURI().getRawQuery();
+		if ((parameters == null) || !parameters.contains("q=")) {
+			// the query may also be sent as form
+			parameters = new String(body, StandardCharsets.UTF_8);
+		}
+		String query = "";
+		for (final String parameter : parameters.split("&")) {
+			if (parameter.startsWith("q=")) {
+				query = URLDecoder.decode(parameter, "UTF-8");
+			}
+		}
+		final String response;
+		if (query.startsWith("q=SHOW DATABASES")) {
+			synchronized (this.databases) {
+				response = DATABASES_RESPONSE_START + String.join("\"],[\"", this.databases) + DATABASES_RESPONSE_END;
+			}
+		} else {
+			if (query.startsWith("q=CREATE DATABASE ")) {
+				synchronized (this.databases) {
+					this.databases.add(query.substring("q=CREATE DATABASE ".length()).replace("\"", ""));
+				}
+			}
+			response = EMPTY_RESPONSE;
+		}
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		InfluxDBStandIn.respond(exchange, 200, response);
+	}
+
+	private void write(final HttpExchange exchange) throws IOException {
+		final byte[] body = InfluxDBStandIn.readBody(exchange);
+		this.numberOfRequests.incrementAndGet();
+		if (this.writeStatus / 100 != 2) {
+			InfluxDBStandIn.respond(exchange, this.writeStatus, "{\"error\":\"rejected by stand-in\"}");
+			return;
+		}
+		long points = 0;
+		for (final byte b : body) {
+			if (b == '\n') {
+				points++;
+			}
+		}
+		if ((body.length > 0) && (body[body.length - 1] != '\n')) {
+			points++;
+		}
+		if (this.keepLines) {
+			synchronized (this.lines) {
+				for (final String line : new String(body, StandardCharsets.UTF_8).split("\n")) {
+					this.lines.add(line);
+				}
+			}
+		}
+		this.numberOfPoints.addAndGet(points);
+		InfluxDBStandIn.respond(exchange, 204, null);
+	}
+
+	private static byte[] readBody(final HttpExchange exchange) throws IOException {
+		final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		try (InputStream stream = exchange.getRequestBody()) {
+			final byte[] bytes = new byte[8192];
+			int length = stream.read(bytes);
+			while (length >= 0) {
+				body.write(bytes, 0, length);
+				length = stream.read(bytes);
+			}
+		}
+		return body.toByteArray();
+	}
+
+	private static void respond(final HttpExchange exchange, final int status, final String body) throws IOException {
+		if (body == null) {
+			exchange.sendResponseHeaders(status, -1);
+			exchange.close();
+		} else {
+			final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(status, bytes.length);
+			try (OutputStream stream = exchange.getResponseBody()) {
+				stream.write(bytes);
+			}
+		}
+	}
+
+	/**
+	 * @return URL of the server without the port, as configured for the writer
+	 */
+	public String getUrl() {
+		return "http://localhost";
+	}
+
+	/**
+	 * @return port of the server
+	 */
+	public int getPort() {
+		return this.server.getAddress().getPort();
+	}
+
+	/**
+	 * Sets the status with which write requests are answered.
+	 *
+	 * @param writeStatus
+	 *            HTTP status code
+	 */
+	public void setWriteStatus(final int writeStatus) {
+		this.writeStatus = writeStatus;
+	}
+
+	/**
+	 * @return number of points received so far
+	 */
+	public long getNumberOfPoints() {
+		return this.numberOfPoints.get();
+	}
+
+	/**
+	 * @return number of write requests received so far
+	 */
+	public long getNumberOfRequests() {
+		return this.numberOfRequests.get();
+	}
+
+	/**
+	 * @return copy of the lines received so far, if they are kept
+	 */
+	public List<String> getLines() {
+		synchronized (this.lines) {
+			return new ArrayList<>(this.lines);
+		}
+	}
+
+	/**
+	 * @return copy of the databases created so far
+	 */
+	public List<String> getDatabases() {
+		synchronized (this.databases) {
+			return new ArrayList<>(this.databases);
+		}
+	}
+
+	@Override
+	public void close() {
+		this.server.stop(0);
+		this.executor.shutdownNow();
+	}
+}
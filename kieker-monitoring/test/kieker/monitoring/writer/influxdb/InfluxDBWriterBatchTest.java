@@ -0,0 +1,156 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.monitoring.writer.influxdb;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.system.CPUUtilizationRecord;
+
+/**
+ * Tests the batch mode of the {@link InfluxDBWriter} against the {@link InfluxDBStandIn}.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class InfluxDBWriterBatchTest {
+
+	private static final String DATABASE = "kieker";
+
+	private InfluxDBStandIn standIn;
+
+	/** Default constructor. */
+	public InfluxDBWriterBatchTest() {
+		// empty default constructor
+	}
+
+	/**
+	 * Start the stand-in.
+	 *
+	 * @throws Exception
+	 *             if the stand-in cannot be started
+	 */
+	@Before
+	public void setUp() throws Exception {
+		this.standIn = new InfluxDBStandIn(true);
+	}
+
+	/**
+	 * Stop the stand-in.
+	 */
+	@After
+	public void tearDown() {
+		this.standIn.close();
+	}
+
+	private InfluxDBWriter createWriter(final int batchSize, final int flushInterval) {
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_DB_URL, this.standIn.getUrl());
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_DB_PORT, this.standIn.getPort());
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_DB_USERNAME, "root");
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_DB_PASSWORD, "root");
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_DB_NAME, DATABASE);
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_BATCH_MODE, true);
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_BATCH_SIZE, batchSize);
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_FLUSH_INTERVAL, flushInterval);
+		configuration.setProperty(InfluxDBWriter.CONFIG_PROPERTY_MAX_IN_FLIGHT_BATCHES, 2);
+		return new InfluxDBWriter(configuration);
+	}
+
+	/**
+	 * All points are sent in full batches and the remaining points on termination.
+	 */
+	@Test
+	public void testBatchesAreSentWhenFullAndOnTermination() {
+		final InfluxDBWriter writer = this.createWriter(10, 60000);
+		writer.onStarting();
+		for (int i = 0; i < 25; i++) {
+			final BeforeOperationEvent record = new BeforeOperationEvent(i, 1, i, "public void a.B.c()", "a.B");
+			record.setLoggingTimestamp(i);
+			writer.writeMonitoringRecord(record);
+		}
+		writer.onTerminating();
+
+		Assert.assertEquals("database", DATABASE, this.standIn.getDatabases().get(0));
+		Assert.assertEquals("points", 25, this.standIn.getNumberOfPoints());
+		Assert.assertEquals("requests", 3, this.standIn.getNumberOfRequests());
+	}
+
+	/**
+	 * Incomplete batches are sent after the flush interval.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	@Test
+	public void testBatchIsSentAfterFlushInterval() throws InterruptedException {
+		final InfluxDBWriter writer = this.createWriter(1000, 20);
+		writer.onStarting();
+		for (int i = 0; i < 3; i++) {
+			writer.writeMonitoringRecord(new CPUUtilizationRecord(i, "host", "0", 0.1, 0.2, 0.3, 0.0, 0.0, 0.0, 0.4));
+		}
+		for (int i = 0; (i < 500) && (this.standIn.getNumberOfPoints() < 3); i++) {
+			Thread.sleep(10);
+		}
+		Assert.assertEquals("points before termination", 3, this.standIn.getNumberOfPoints());
+		writer.onTerminating();
+		Assert.assertEquals("points", 3, this.standIn.getNumberOfPoints());
+	}
+
+	/**
+	 * Points are encoded in the line protocol, using the strings also as tags.
+	 */
+	@Test
+	public void testLineProtocol() {
+		final InfluxDBWriter writer = this.createWriter(10, 60000);
+		writer.onStarting();
+		final BeforeOperationEvent record = new BeforeOperationEvent(1, 2, 3, "public void a.B.c(int, \"x\")", "a.B");
+		record.setLoggingTimestamp(42);
+		writer.writeMonitoringRecord(record);
+		writer.writeMonitoringRecord(new CPUUtilizationRecord(5, "host", "0", 0.5, Double.NaN, 0, 0, 0, 0, 1));
+		writer.onTerminating();
+
+		final List<String> lines = this.standIn.getLines();
+		Assert.assertEquals("BeforeOperationEvent,operationSignature=public\\ void\\ a.B.c(int\\,\\ \"x\"),classSignature=a.B "
+				+ "timestamp=1i,traceId=2i,orderIndex=3i,operationSignature=\"public void a.B.c(int, \\\"x\\\")\",classSignature=\"a.B\" 42",
+				lines.get(0));
+		Assert.assertTrue("fields of doubles", lines.get(1).contains(",user=0.5,wait=0.0,nice=0.0,"));
+		Assert.assertFalse("NaN is skipped", lines.get(1).contains("system="));
+	}
+
+	/**
+	 * Batches rejected by InfluxDB are dropped without stopping the writer.
+	 */
+	@Test
+	public void testRejectedBatchesAreDropped() {
+		final InfluxDBWriter writer = this.createWriter(1, 60000);
+		writer.onStarting();
+		this.standIn.setWriteStatus(400);
+		writer.writeMonitoringRecord(new BeforeOperationEvent(1, 2, 3, "op", "class"));
+		writer.writeMonitoringRecord(new BeforeOperationEvent(1, 2, 3, "op", "class"));
+		writer.onTerminating();
+
+		Assert.assertEquals("requests", 2, this.standIn.getNumberOfRequests());
+		Assert.assertEquals("points", 0, this.standIn.getNumberOfPoints());
+	}
+}
@@ -0,0 +1,278 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.tcp;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.IRecordReceivedListener;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.monitoring.core.controller.tcp.TcpRecordReader;
+import kieker.monitoring.writer.AbstractMonitoringWriter;
+
+/**
+ * Tests the {@link DoubleBufferedTcpWriter}, including a throughput comparison with the {@link SingleSocketTcpWriter}.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class DoubleBufferedTcpWriterTest {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DoubleBufferedTcpWriterTest.class);
+
+	private static final String HOSTNAME = "localhost";
+	private static final int PORT = 10445;
+	private static final int BUFFER_SIZE = 65535;
+
+	private static final int NUM_RECORDS = 10000;
+	private static final int NUM_BENCHMARK_RECORDS = 1000000;
+	private static final int LONG_STRING_LENGTH = 1000;
+	/** the number of records after which a string is used again, which exceeds the records per buffer pair. */
+	private static final int REUSED_STRING_DISTANCE = 200;
+
+	/** Default constructor. */
+	public DoubleBufferedTcpWriterTest() {
+		// empty default constructor
+	}
+
+	@Test
+	public void shouldSendRecordsDecodableByTcpRecordReader() throws Exception {
+		final BlockingQueue<IMonitoringRecord> receivedRecords = new LinkedBlockingQueue<>();
+		final Thread readerThread = DoubleBufferedTcpWriterTest.startReader(receivedRecords);
+
+		final DoubleBufferedTcpWriter writer = new DoubleBufferedTcpWriter(DoubleBufferedTcpWriterTest.createConfiguration(PORT));
+		writer.onStarting();
+		for (int i = 0; i < NUM_RECORDS; i++) {
+			writer.writeMonitoringRecord(DoubleBufferedTcpWriterTest.createRecord(i));
+		}
+		writer.onTerminating();
+		readerThread.join(10000);
+
+		Assert.assertThat(receivedRecords.size(), CoreMatchers.is(NUM_RECORDS));
+		for (int i = 0; i < NUM_RECORDS; i++) {
+			Assert.assertThat(receivedRecords.take(), CoreMatchers.is((IMonitoringRecord) DoubleBufferedTcpWriterTest.createRecord(i)));
+		}
+		Assert.assertThat(writer.getNumDroppedRecords(), CoreMatchers.is(0L));
+	}
+
+	/**
+	 * Closes the first connection and checks that the writer does not block while disconnected and that a new reader,
+	 * which does not know any previous registry entries, is able to decode the records after the reconnect.
+	 */
+	@Test
+	public void shouldResendRegistryAfterReconnect() throws Exception {
+		final Configuration configuration = DoubleBufferedTcpWriterTest.createConfiguration(PORT);
+		configuration.setProperty(DoubleBufferedTcpWriter.CONFIG_RECONNECT_INTERVAL_IN_MS, 50);
+		final DoubleBufferedTcpWriter writer = new DoubleBufferedTcpWriter(configuration);
+
+		try (ServerSocketChannel serverSocketChannel = ServerSocketChannel.open()) {
+			serverSocketChannel.bind(new InetSocketAddress(HOSTNAME, PORT));
+			writer.onStarting();
+			serverSocketChannel.accept().close();
+		}
+
+		long maxWriteDurationInNs = 0;
+		int index = 0;
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while ((writer.getNumDroppedRecords() == 0) && (System.nanoTime() < deadline)) {
+			final long start = System.nanoTime();
+			writer.writeMonitoringRecord(DoubleBufferedTcpWriterTest.createRecord(index++));
+			maxWriteDurationInNs = Math.max(maxWriteDurationInNs, System.nanoTime() - start);
+		}
+		Assert.assertTrue("No records have been dropped", writer.getNumDroppedRecords() > 0);
+		LOGGER.info("Longest write call while disconnected: {} ms", TimeUnit.NANOSECONDS.toMillis(maxWriteDurationInNs));
+		Assert.assertTrue("Writer blocked while disconnected", maxWriteDurationInNs < TimeUnit.SECONDS.toNanos(1));
+
+		final BlockingQueue<IMonitoringRecord> receivedRecords = new LinkedBlockingQueue<>();
+		final Thread readerThread = DoubleBufferedTcpWriterTest.startReader(receivedRecords);
+		while (receivedRecords.isEmpty() && (System.nanoTime() < deadline)) {
+			writer.writeMonitoringRecord(DoubleBufferedTcpWriterTest.createRecord(index++));
+			Thread.sleep(1);
+		}
+		writer.onTerminating();
+		readerThread.join(10000);
+
+		Assert.assertFalse("No records received after the reconnect", receivedRecords.isEmpty());
+		for (final IMonitoringRecord record : receivedRecords) {
+			final BeforeOperationEvent event = (BeforeOperationEvent) record;
+			Assert.assertThat(event, CoreMatchers.is(DoubleBufferedTcpWriterTest.createRecord(event.getOrderIndex())));
+		}
+	}
+
+	/**
+	 * Registers a new string with each record while the sender reconnects and refers to it again by a later record. The
+	 * strings are long, so that resending the known registry entries takes a while. Registry entries which are created
+	 * meanwhile must not be lost with a buffer pair dropped by the writer thread.
+	 */
+	@Test
+	public void shouldSendRegistryEntriesCreatedDuringReconnect() throws Exception {
+		final Configuration configuration = DoubleBufferedTcpWriterTest.createConfiguration(PORT);
+		configuration.setProperty(DoubleBufferedTcpWriter.CONFIG_RECONNECT_INTERVAL_IN_MS, 1);
+		final DoubleBufferedTcpWriter writer = new DoubleBufferedTcpWriter(configuration);
+
+		try (ServerSocketChannel serverSocketChannel = ServerSocketChannel.open()) {
+			serverSocketChannel.bind(new InetSocketAddress(HOSTNAME, PORT));
+			writer.onStarting();
+			serverSocketChannel.accept().close();
+		}
+
+		int index = 0;
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (((writer.getNumDroppedRecords() == 0) || (index < NUM_RECORDS)) && (System.nanoTime() < deadline)) {
+			writer.writeMonitoringRecord(DoubleBufferedTcpWriterTest.createRecordWithNewString(index++));
+		}
+		Assert.assertTrue("No records have been dropped", writer.getNumDroppedRecords() > 0);
+
+		final BlockingQueue<IMonitoringRecord> receivedRecords = new LinkedBlockingQueue<>();
+		final Thread readerThread = DoubleBufferedTcpWriterTest.startReader(receivedRecords);
+		final int lastIndex = index + NUM_RECORDS;
+		while (index < lastIndex) {
+			writer.writeMonitoringRecord(DoubleBufferedTcpWriterTest.createRecordWithNewString(index++));
+		}
+		writer.onTerminating();
+		readerThread.join(10000);
+
+		Assert.assertFalse("No records received after the reconnect", receivedRecords.isEmpty());
+		for (final IMonitoringRecord record : receivedRecords) {
+			final BeforeOperationEvent event = (BeforeOperationEvent) record;
+			Assert.assertThat(event, CoreMatchers.is(DoubleBufferedTcpWriterTest.createRecordWithNewString(event.getOrderIndex())));
+		}
+	}
+
+	/**
+	 * Compares the throughput of this writer with the {@link SingleSocketTcpWriter} when sending to a local sink which
+	 * discards all data. Both writers have to send the same number of bytes.
+	 */
+	@Test
+	public void compareThroughputWithSingleSocketTcpWriter() throws Exception {
+		final Configuration configuration = DoubleBufferedTcpWriterTest.createConfiguration(PORT);
+		configuration.setProperty(SingleSocketTcpWriter.CONFIG_HOSTNAME, HOSTNAME);
+		configuration.setProperty(SingleSocketTcpWriter.CONFIG_PORT, PORT);
+		configuration.setProperty(SingleSocketTcpWriter.CONFIG_BUFFERSIZE, BUFFER_SIZE);
+		configuration.setProperty(SingleSocketTcpWriter.CONFIG_CONN_TIMEOUT_IN_MS, 5000);
+
+		// warm up
+		this.measureThroughput(new SingleSocketTcpWriter(configuration));
+		this.measureThroughput(new DoubleBufferedTcpWriter(configuration));
+
+		final long singleSocketBytes = this.measureThroughput(new SingleSocketTcpWriter(configuration));
+		final long doubleBufferedBytes = this.measureThroughput(new DoubleBufferedTcpWriter(configuration));
+
+		Assert.assertThat(doubleBufferedBytes, CoreMatchers.is(singleSocketBytes));
+	}
+
+	/**
+	 * @return the number of bytes received by the sink
+	 */
+	private long measureThroughput(final AbstractMonitoringWriter writer) throws Exception {
+		final AtomicLong receivedBytes = new AtomicLong();
+		final ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
+		serverSocketChannel.bind(new InetSocketAddress(HOSTNAME, PORT));
+		final Thread sink = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+				try (SocketChannel channel = serverSocketChannel.accept()) {
+					long bytes = 0;
+					int read;
+					while ((read = channel.read(buffer)) != -1) { // NOPMD (assignment in operand)
+						bytes += read;
+						buffer.clear();
+					}
+					receivedBytes.set(bytes);
+				} catch (final IOException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		});
+		sink.start();
+
+		try {
+			final BeforeOperationEvent record = DoubleBufferedTcpWriterTest.createRecord(0);
+			final long start = System.nanoTime();
+			writer.onStarting();
+			for (int i = 0; i < NUM_BENCHMARK_RECORDS; i++) {
+				writer.writeMonitoringRecord(record);
+			}
+			writer.onTerminating();
+			sink.join(10000);
+			final long durationInNs = System.nanoTime() - start;
+
+			LOGGER.info("{}: {} records/s", writer.getClass().getSimpleName(), (NUM_BENCHMARK_RECORDS * TimeUnit.SECONDS.toNanos(1)) / durationInNs);
+		} finally {
+			serverSocketChannel.close();
+		}
+		return receivedBytes.get();
+	}
+
+	private static Thread startReader(final BlockingQueue<IMonitoringRecord> receivedRecords) {
+		final TcpRecordReader reader = new TcpRecordReader(PORT, BUFFER_SIZE, LOGGER, new IRecordReceivedListener() {
+			@Override
+			public void onRecordReceived(final IMonitoringRecord record) {
+				receivedRecords.add(record);
+			}
+		});
+		final Thread readerThread = new Thread(reader);
+		readerThread.start();
+		return readerThread;
+	}
+
+	private static Configuration createConfiguration(final int port) {
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(DoubleBufferedTcpWriter.CONFIG_HOSTNAME, HOSTNAME);
+		configuration.setProperty(DoubleBufferedTcpWriter.CONFIG_PORT, port);
+		configuration.setProperty(DoubleBufferedTcpWriter.CONFIG_BUFFERSIZE, BUFFER_SIZE);
+		configuration.setProperty(DoubleBufferedTcpWriter.CONFIG_CONN_TIMEOUT_IN_MS, 5000);
+		return configuration;
+	}
+
+	private static BeforeOperationEvent createRecord(final int index) {
+		// signatures are registered per distinct value, so both registry entries and records are sent
+		return new BeforeOperationEvent(index, 1L, index, "public void example.Service.op" + (index % 100) + "()", "example.Service");
+	}
+
+	/**
+	 * @return a record with a new operation signature, whose class signature is the operation signature of an earlier record
+	 */
+	private static BeforeOperationEvent createRecordWithNewString(final int index) {
+		return new BeforeOperationEvent(index, 1L, index, DoubleBufferedTcpWriterTest.createLongString(index),
+				DoubleBufferedTcpWriterTest.createLongString(Math.max(0, index - REUSED_STRING_DISTANCE)));
+	}
+
+	private static String createLongString(final int index) {
+		final StringBuilder builder = new StringBuilder(LONG_STRING_LENGTH + 16).append(index);
+		while (builder.length() < LONG_STRING_LENGTH) {
+			builder.append('x');
+		}
+		return builder.toString();
+	}}
@@ -28,6 +28,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.controlflow.OperationExecutionRecord;
 import kieker.monitoring.core.configuration.ConfigurationConstants;
 import kieker.monitoring.core.configuration.ConfigurationFactory;
@@ -89,6 +90,44 @@ public final class TestChunkingCollector {
 		Assert.assertEquals(recordCount + 1, numberOfLines);
 	}
 
+	/**
+	 * Tests that a batch which completes a chunk is written without waiting for the next run of the writer task, and that
+	 * the remaining records are written on termination.
+	 *
+	 * @throws IOException
+	 *             Not expected
+	 * @throws InterruptedException
+	 */
+	@Test
+	public void testBatchWakesUpWriterTask() throws IOException, InterruptedException {
+		final String testId = "testBatchWakesUpWriterTask";
+		final int recordCount = 20;
+		final int chunkSize = 16;
+
+		final Configuration configuration = this.createConfiguration(testId, 60000);
+		configuration.setProperty(ChunkingCollector.CONFIG_CHUNK_SIZE, chunkSize);
+		configuration.setProperty(ChunkingCollector.CONFIG_TASK_RUN_INTERVAL, 60000);
+		final ChunkingCollector collector = new ChunkingCollector(configuration);
+		collector.onStarting();
+
+		final List<IMonitoringRecord> records = new ArrayList<>();
+		for (int recordIndex = 0; recordIndex < recordCount; recordIndex++) {
+			records.add(new OperationExecutionRecord("op()", "SESS-ID", 0, recordIndex, recordIndex, "host", recordIndex, 1));
+		}
+		collector.writeMonitoringRecords(records);
+
+		// the scheduled run of the writer task is a minute away, hence only the wake-up can write the chunk
+		final long deadline = System.currentTimeMillis() + 5000;
+		while ((TestRawDataStorage.getInstance().getData(testId).length == 0) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(10);
+		}
+		Assert.assertEquals(chunkSize, TestChunkingCollector.linesFromData(TestRawDataStorage.getInstance().getData(testId)).size());
+		Assert.assertEquals(recordCount - chunkSize, collector.getRecordQueue().size());
+
+		collector.onTerminating();
+		Assert.assertEquals(recordCount, TestChunkingCollector.linesFromData(TestRawDataStorage.getInstance().getData(testId)).size());
+	}
+
 	private static List<String> linesFromData(final byte[] data) throws IOException {
 		final List<String> lines = new ArrayList<>();
 
@@ -109,6 +148,10 @@ public final class TestChunkingCollector {
 	}
 
 	private IMonitoringController createController(final String testId, final int deferredWriteDelay) {
+		return MonitoringController.createInstance(this.createConfiguration(testId, deferredWriteDelay));
+	}
+
+	private Configuration createConfiguration(final String testId, final int deferredWriteDelay) {
 		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
 
 		configuration.setProperty(ConfigurationConstants.WRITER_CLASSNAME, ChunkingCollector.class.getName());
@@ -117,7 +160,7 @@ public final class TestChunkingCollector {
 		configuration.setProperty(ChunkingCollector.CONFIG_DEFERRED_WRITE_DELAY, deferredWriteDelay);
 		configuration.setProperty(TestRawDataWriter.CONFIG_TEST_ID, testId);
 
-		return MonitoringController.createInstance(configuration);
+		return configuration;
 	}
 
 }
@@ -15,6 +15,8 @@
  ***************************************************************************/
 package kieker.tools.behavior.analysis;
 
+import java.util.concurrent.ForkJoinPool;
+
 import com.google.common.graph.MutableNetwork;
 
 import kieker.analysis.behavior.ModelGenerationCompositeStage;
@@ -30,7 +32,7 @@ import kieker.analysis.generic.clustering.ClusteringCompositeStage;
 import kieker.analysis.generic.clustering.ClusteringFileSink;
 import kieker.analysis.generic.clustering.NaiveMedoidGenerator;
 import kieker.analysis.generic.graph.INode;
-import kieker.analysis.generic.graph.clustering.GraphEditDistance;
+import kieker.analysis.generic.graph.clustering.IndexedGraphEditDistance;
 import kieker.analysis.generic.graph.clustering.OPTICSDataGED;
 import kieker.analysis.util.stage.trigger.TerminationStage;
 import kieker.common.exception.ConfigurationException;
@@ -61,15 +63,21 @@ public class BehaviorAnalysisConfiguration extends Configuration {
 		final ModelGenerationCompositeStage modelGeneration = new ModelGenerationCompositeStage(entryCallAcceptanceMatcher,
 				settings.getTraceSignatureProcessor(), settings.getUserSessionTimeout(), true);
 
-		final GraphEditDistance<INode, UserBehaviorEdge> gedDistanceFunction = new GraphEditDistance<>(costFunction);
+		final IndexedGraphEditDistance<INode, UserBehaviorEdge> gedDistanceFunction = new IndexedGraphEditDistance<>(costFunction);
 
 		final OPTICSDataGED<MutableNetwork<INode, UserBehaviorEdge>> distanceFunction = new OPTICSDataGED<>(gedDistanceFunction);
 
 		final BehaviorModelToOpticsDataTransformation<INode, UserBehaviorEdge> behaviorModelToOpticsDataTransformation =
 				new BehaviorModelToOpticsDataTransformation<>(distanceFunction);
+		final ForkJoinPool clusteringPool;
+		if (settings.getClusteringParallelism() != null) {
+			clusteringPool = new ForkJoinPool(settings.getClusteringParallelism());
+		} else {
+			clusteringPool = null;
+		}
 		final ClusteringCompositeStage<MutableNetwork<INode, UserBehaviorEdge>> clusteringCompositeStage =
 				new ClusteringCompositeStage<>(settings.getClusteringDistance(),
-						settings.getMinPts(), settings.getMaxAmount(), distanceFunction);
+						settings.getMinPts(), settings.getMaxAmount(), distanceFunction, clusteringPool);
 		final Distributor<Clustering<MutableNetwork<INode, UserBehaviorEdge>>> distributor = new Distributor<>(new CopyByReferenceStrategy());
 
 		// TODO needed to use this during online runtime.
@@ -90,7 +98,7 @@ public class BehaviorAnalysisConfiguration extends Configuration {
 		}
 
 		if (settings.getMedoidOutputPath() != null) {
-			final GraphEditDistance<INode, UserBehaviorEdge> graphEditDistance = new GraphEditDistance<>(costFunction);
+			final IndexedGraphEditDistance<INode, UserBehaviorEdge> graphEditDistance = new IndexedGraphEditDistance<>(costFunction);
 
 			final NaiveMedoidGenerator<MutableNetwork<INode, UserBehaviorEdge>> medoid = new NaiveMedoidGenerator<>(graphEditDistance);
 			final ClusterMedoidFilesSink<MutableNetwork<INode, UserBehaviorEdge>> sink = new ClusterMedoidFilesSink<>(settings.getMedoidOutputPath(),
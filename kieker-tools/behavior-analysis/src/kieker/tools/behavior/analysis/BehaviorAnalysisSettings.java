@@ -68,6 +68,9 @@ public final class BehaviorAnalysisSettings { // NOPMD configuration class needs
 	@Setting
 	private Integer maxAmount;
 
+	@Setting
+	private Integer clusteringParallelism;
+
 	@Setting
 	private Long userSessionTimeout;
 
@@ -128,6 +131,10 @@ public final class BehaviorAnalysisSettings { // NOPMD configuration class needs
 		return this.maxAmount;
 	}
 
+	public Integer getClusteringParallelism() {
+		return this.clusteringParallelism;
+	}
+
 	public List<Pattern> getClassSignatureAcceptancePatterns() {
 		return this.classSignatureAcceptancePatterns;
 	}
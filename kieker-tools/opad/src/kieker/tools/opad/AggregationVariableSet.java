@@ -16,8 +16,8 @@
 
 package kieker.tools.opad;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
 import kieker.tools.opad.model.NamedDoubleTimeSeriesPoint;
@@ -30,10 +30,13 @@ import kieker.tools.opad.model.NamedDoubleTimeSeriesPoint;
  */
 public class AggregationVariableSet {
 
+	private static final int INITIAL_AGGREGATION_CAPACITY = 16;
+
 	private long firstTimestampInCurrentInterval;
 	private long lastTimestampInCurrentInterval;
 	private long firstIntervalStart;
-	private List<NamedDoubleTimeSeriesPoint> aggregationList;
+	private double[] aggregationValues;
+	private int numAggregationValues;
 
 	/**
 	 * Creates an instance of this class.
@@ -43,7 +46,7 @@ public class AggregationVariableSet {
 		this.firstTimestampInCurrentInterval = -1;
 		this.lastTimestampInCurrentInterval = -1;
 		this.firstIntervalStart = -1;
-		this.aggregationList = Collections.synchronizedList(new ArrayList<NamedDoubleTimeSeriesPoint>());
+		this.aggregationValues = new double[INITIAL_AGGREGATION_CAPACITY];
 	}
 
 	public long getFirstTimestampInCurrentInterval() {
@@ -70,12 +73,117 @@ public class AggregationVariableSet {
 		this.firstIntervalStart = firstIntervalStart;
 	}
 
+	/**
+	 * Returns a view on the values to be aggregated, which supports adding points, clearing, and reading the values.
+	 * Only the values of added points are kept; the points of the view carry the last timestamp in the current interval
+	 * and no name.
+	 *
+	 * @return the values to be aggregated as list of points
+	 *
+	 * @deprecated since 2.0.0, use {@link #addAggregationValue(double)} and {@link #getAggregationValues()} instead
+	 */
+	@Deprecated
 	public List<NamedDoubleTimeSeriesPoint> getAggregationList() {
-		return this.aggregationList;
+		return new AggregationListView();
 	}
 
+	/**
+	 * Replaces the values to be aggregated by the values of the given points.
+	 *
+	 * @param aggregationList
+	 *            points whose values are aggregated
+	 *
+	 * @deprecated since 2.0.0, use {@link #clearAggregationValues()} and {@link #addAggregationValue(double)} instead
+	 */
+	@Deprecated
 	public void setAggregationList(final List<NamedDoubleTimeSeriesPoint> aggregationList) {
-		this.aggregationList = aggregationList;
+		this.clearAggregationValues();
+		for (final NamedDoubleTimeSeriesPoint point : aggregationList) {
+			this.addAggregationValue(point.getDoubleValue());
+		}
 	}
 
+	/**
+	 * Adds a value to be aggregated for the current interval.
+	 *
+	 * @param value
+	 *            measurement value
+	 *
+	 * @since 2.0.0
+	 */
+	public void addAggregationValue(final double value) {
+		if (this.numAggregationValues == this.aggregationValues.length) {
+			this.aggregationValues = Arrays.copyOf(this.aggregationValues, this.aggregationValues.length * 2);
+		}
+		this.aggregationValues[this.numAggregationValues++] = value;
+	}
+
+	/**
+	 * Returns the buffer of the values to be aggregated, of which only the first {@link #getNumAggregationValues()}
+	 * entries are valid.
+	 *
+	 * @return the buffer of values
+	 *
+	 * @since 2.0.0
+	 */
+	public double[] getAggregationValues() {
+		return this.aggregationValues; // NOPMD (internal array exposed)
+	}
+
+	/**
+	 * @return the number of values to be aggregated
+	 *
+	 * @since 2.0.0
+	 */
+	public int getNumAggregationValues() {
+		return this.numAggregationValues;
+	}
+
+	/**
+	 * Removes all values to be aggregated, keeping the buffer for the next interval.
+	 *
+	 * @since 2.0.0
+	 */
+	public void clearAggregationValues() {
+		this.numAggregationValues = 0;
+	}
+
+	/**
+	 * List view on the values to be aggregated, which keeps the former list based API working.
+	 *
+	 * @author Kieker Project
+	 *
+	 * @since 2.0.0
+	 */
+	private final class AggregationListView extends AbstractList<NamedDoubleTimeSeriesPoint> {
+
+		public AggregationListView() {
+			// nothing to do
+		}
+
+		@Override
+		public NamedDoubleTimeSeriesPoint get(final int index) {
+			if ((index < 0) || (index >= AggregationVariableSet.this.numAggregationValues)) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + AggregationVariableSet.this.numAggregationValues);
+			}
+			return new NamedDoubleTimeSeriesPoint(AggregationVariableSet.this.lastTimestampInCurrentInterval,
+					AggregationVariableSet.this.aggregationValues[index], null);
+		}
+
+		@Override
+		public boolean add(final NamedDoubleTimeSeriesPoint point) {
+			AggregationVariableSet.this.addAggregationValue(point.getDoubleValue());
+			return true;
+		}
+
+		@Override
+		public void clear() {
+			AggregationVariableSet.this.clearAggregationValues();
+		}
+
+		@Override
+		public int size() {
+			return AggregationVariableSet.this.numAggregationValues;
+		}
+	}
 }
@@ -35,11 +35,12 @@ import kieker.common.configuration.Configuration;
 import kieker.tools.opad.model.ForecastMeasurementPair;
 import kieker.tools.opad.model.IForecastMeasurementPair;
 import kieker.tools.opad.model.NamedDoubleTimeSeriesPoint;
+import kieker.tools.opad.timeseries.DoubleRingBufferTimeSeries;
 import kieker.tools.opad.timeseries.ForecastMethod;
 import kieker.tools.opad.timeseries.ITimeSeries;
-import kieker.tools.opad.timeseries.TimeSeries;
 import kieker.tools.opad.timeseries.forecast.IForecastResult;
 import kieker.tools.opad.timeseries.forecast.IForecaster;
+import kieker.tools.opad.timeseries.forecast.IIncrementalForecaster;
 
 /**
  * Computes a forecast for every incoming measurement from different applications.
@@ -75,8 +76,9 @@ public class ForecastingFilter extends AbstractUpdateableFilterPlugin {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ForecastingFilter.class.getCanonicalName());
 
-	private final ConcurrentHashMap<String, ITimeSeries<Double>> applicationForecastingWindow;
+	private final ConcurrentHashMap<String, DoubleRingBufferTimeSeries> applicationForecastingWindow;
 	private final ConcurrentHashMap<String, ForecastMeasurementPair> previousFCPair;
+	private final ConcurrentHashMap<String, IIncrementalForecaster> incrementalForecasters;
 
 	private AtomicInteger timeSeriesWindowCapacity;
 	private AtomicInteger forecastConfidence;
@@ -96,6 +98,7 @@ public class ForecastingFilter extends AbstractUpdateableFilterPlugin {
 		super(configuration, projectContext);
 		this.applicationForecastingWindow = new ConcurrentHashMap<>();
 		this.previousFCPair = new ConcurrentHashMap<>();
+		this.incrementalForecasters = new ConcurrentHashMap<>();
 		this.setFieldsByConfiguration(configuration, false);
 	}
 
@@ -149,8 +152,9 @@ public class ForecastingFilter extends AbstractUpdateableFilterPlugin {
 			this.processInput(input, input.getTime(), input.getName());
 		} else {
 			// Initialization of the forecasting variables for a new application
+			final int capacity = this.timeSeriesWindowCapacity.get();
 			this.applicationForecastingWindow.put(input.getName(),
-					new TimeSeries<Double>(input.getTime(), super.recordsTimeUnitFromProjectContext, this.deltat.get(), this.timeSeriesWindowCapacity.get()));
+					new DoubleRingBufferTimeSeries(input.getTime(), super.recordsTimeUnitFromProjectContext, this.deltat.get(), capacity, capacity));
 			this.processInput(input, input.getTime(), input.getName());
 		}
 	}
@@ -166,10 +170,10 @@ public class ForecastingFilter extends AbstractUpdateableFilterPlugin {
 	 *            Name of the application of the measurement
 	 */
 	public void processInput(final NamedDoubleTimeSeriesPoint input, final long timestamp, final String name) {
-		final ITimeSeries<Double> currentWindow = this.applicationForecastingWindow.get(name);
-		currentWindow.append(input.getValue());
+		final DoubleRingBufferTimeSeries currentWindow = this.applicationForecastingWindow.get(name);
+		currentWindow.appendValue(input.getDoubleValue());
 
-		final IForecaster<Double> forecaster = this.forecastMethod.get().getForecaster(currentWindow, this.forecastConfidence.get());
+		final IForecaster<Double> forecaster = this.getForecaster(name, currentWindow, input.getDoubleValue());
 
 		final IForecastResult result = forecaster.forecast(1);
 		super.deliver(OUTPUT_PORT_NAME_FORECAST, result);
@@ -231,6 +235,38 @@ public class ForecastingFilter extends AbstractUpdateableFilterPlugin {
 
 	}
 
+	/**
+	 * Returns the forecaster for the window of the given application. Incremental forecasters are kept per application
+	 * and only updated with the new value, while all other forecasters are created for each forecast.
+	 *
+	 * @param name
+	 *            application name
+	 * @param currentWindow
+	 *            forecasting window of the application, which already contains the new value
+	 * @param value
+	 *            the new value
+	 */
+	private IForecaster<Double> getForecaster(final String name, final ITimeSeries<Double> currentWindow, final double value) {
+		final ForecastMethod method = this.forecastMethod.get();
+		final int confidence = this.forecastConfidence.get();
+
+		final IIncrementalForecaster incrementalForecaster = this.incrementalForecasters.get(name);
+		if ((incrementalForecaster != null) && (incrementalForecaster.getForecastMethod() == method)
+				&& (incrementalForecaster.getConfidenceLevel() == confidence)) {
+			incrementalForecaster.update(value);
+			return incrementalForecaster;
+		}
+
+		// the forecaster is fitted to the whole window, e.g., after the forecast method has been changed
+		final IForecaster<Double> forecaster = method.getForecaster(currentWindow, confidence);
+		if (forecaster instanceof IIncrementalForecaster) {
+			this.incrementalForecasters.put(name, (IIncrementalForecaster) forecaster);
+		} else if (incrementalForecaster != null) {
+			this.incrementalForecasters.remove(name);
+		}
+		return forecaster;
+	}
+
 	/**
 	 * Checks if the current application is already known to this filter.
 	 *
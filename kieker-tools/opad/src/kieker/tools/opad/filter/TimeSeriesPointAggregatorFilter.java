@@ -173,7 +173,7 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 		// check if interval is omitted
 		if (endOfTimestampsInterval > variables.getLastTimestampInCurrentInterval()) {
 			if (variables.getFirstTimestampInCurrentInterval() >= 0) { // don't do this for the first record (only used for initialization of variables)
-				this.calculateAndDeliverAggregationValue(variables);
+				this.calculateAndDeliverAggregationValue(variables, appname);
 				long numIntervalsElapsed = 1; // refined below
 				numIntervalsElapsed = (endOfTimestampsInterval - variables.getLastTimestampInCurrentInterval()) / this.aggregationSpan;
 				if (numIntervalsElapsed > 1) {
@@ -187,9 +187,9 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 			}
 			variables.setFirstTimestampInCurrentInterval(startOfTimestampsInterval);
 			variables.setLastTimestampInCurrentInterval(endOfTimestampsInterval);
-			variables.getAggregationList().clear();
+			variables.clearAggregationValues();
 		}
-		variables.getAggregationList().add(input);
+		variables.addAggregationValue(input.getDoubleValue());
 	}
 
 	private synchronized void processInputGlobalScope(final NamedDoubleTimeSeriesPoint input) { // NOPMD (AvoidSynchronizedAtMethodLevel)
@@ -231,7 +231,7 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 
 		// Ignore input if the timestamp is before the current window
 		if (inputTimestamp >= inputVariables.getFirstTimestampInCurrentInterval()) {
-			inputVariables.getAggregationList().add(input);
+			inputVariables.addAggregationValue(input.getDoubleValue());
 		}
 
 		for (final List<NamedDoubleTimeSeriesPoint> tsPointList : orderedTsPoints.values()) {
@@ -247,17 +247,13 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 		final long firstTimestampInCurrentInterval = variables.getFirstTimestampInCurrentInterval();
 		final long lastTimestampInCurrentInterval = variables.getLastTimestampInCurrentInterval();
 		synchronized (this) {
-			final int listSize = variables.getAggregationList().size();
-			if (listSize <= 0) {
+			final int numValues = variables.getNumAggregationValues();
+			if (numValues <= 0) {
 				tsPoint = new NamedDoubleTimeSeriesPoint(lastTimestampInCurrentInterval, Double.NaN, name);
 			} else {
-				final double[] a = new double[listSize];
-				for (int i = 0; i < listSize; i++) {
-					a[i] = variables.getAggregationList().get(i).getValue();
-				}
-				aggregationValue = this.aggregationMethod.getAggregationValue(a);
+				aggregationValue = this.aggregationMethod.getAggregationValue(variables.getAggregationValues(), numValues);
 				tsPoint = new NamedDoubleTimeSeriesPoint(lastTimestampInCurrentInterval, aggregationValue, name);
-				variables.getAggregationList().clear();
+				variables.clearAggregationValues();
 			}
 			variables.setFirstTimestampInCurrentInterval(firstTimestampInCurrentInterval + this.aggregationSpan);
 			variables.setLastTimestampInCurrentInterval(lastTimestampInCurrentInterval + this.aggregationSpan);
@@ -274,21 +270,13 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 		tsPointList.add(newTsPoint);
 	}
 
-	private void calculateAndDeliverAggregationValue(final AggregationVariableSet variables) {
+	private void calculateAndDeliverAggregationValue(final AggregationVariableSet variables, final String name) {
 		final double aggregationValue;
 		final NamedDoubleTimeSeriesPoint tsPoint;
 		synchronized (this) {
-			final int listSize = variables.getAggregationList().size();
-			final double[] a = new double[listSize];
-			for (int i = 0; i < listSize; i++) {
-				a[i] = variables.getAggregationList().get(i).getValue();
-			}
-			aggregationValue = this.aggregationMethod.getAggregationValue(a);
-			tsPoint = new NamedDoubleTimeSeriesPoint(variables.getLastTimestampInCurrentInterval(),
-					aggregationValue,
-					variables.getAggregationList().get(0).getName()); // use name of first element (any will do)
-			variables.getAggregationList().clear();
-
+			aggregationValue = this.aggregationMethod.getAggregationValue(variables.getAggregationValues(), variables.getNumAggregationValues());
+			tsPoint = new NamedDoubleTimeSeriesPoint(variables.getLastTimestampInCurrentInterval(), aggregationValue, name);
+			variables.clearAggregationValues();
 		}
 		super.deliver(OUTPUT_PORT_NAME_AGGREGATED_TSPOINT, tsPoint);
 	}
@@ -38,31 +38,47 @@ public enum AggregationMethod {
 	 *         Result of the aggregation
 	 */
 	public double getAggregationValue(final double[] aggregationValues) {
+		return this.getAggregationValue(aggregationValues, aggregationValues.length);
+	}
+
+	/**
+	 * This method returns the result of the aggregation of the first values of the given array.
+	 *
+	 * @param aggregationValues
+	 *            Array containing the values to be aggregated
+	 * @param length
+	 *            Number of values to be aggregated
+	 * @return
+	 *         Result of the aggregation
+	 *
+	 * @since 2.0.0
+	 */
+	public double getAggregationValue(final double[] aggregationValues, final int length) {
 		switch (this) {
 		case GEOMETRIC_MEAN:
-			return StatUtils.geometricMean(aggregationValues);
+			return StatUtils.geometricMean(aggregationValues, 0, length);
 		case MAX:
-			return StatUtils.max(aggregationValues);
+			return StatUtils.max(aggregationValues, 0, length);
 		case MEAN:
-			return StatUtils.mean(aggregationValues);
+			return StatUtils.mean(aggregationValues, 0, length);
 		case MIN:
-			return StatUtils.min(aggregationValues);
+			return StatUtils.min(aggregationValues, 0, length);
 		case PERCENTILE90:
-			return StatUtils.percentile(aggregationValues, 90);
+			return StatUtils.percentile(aggregationValues, 0, length, 90);
 		case PERCENTILE95:
-			return StatUtils.percentile(aggregationValues, 95);
+			return StatUtils.percentile(aggregationValues, 0, length, 95);
 		case PRODUCT:
-			return StatUtils.product(aggregationValues);
+			return StatUtils.product(aggregationValues, 0, length);
 		case SUM:
-			return StatUtils.sum(aggregationValues);
+			return StatUtils.sum(aggregationValues, 0, length);
 		case SUMSQ:
-			return StatUtils.sumSq(aggregationValues);
+			return StatUtils.sumSq(aggregationValues, 0, length);
 		case SUMLOG:
-			return StatUtils.sumLog(aggregationValues);
+			return StatUtils.sumLog(aggregationValues, 0, length);
 		case VARIANCE:
-			return StatUtils.variance(aggregationValues);
+			return StatUtils.variance(aggregationValues, 0, length);
 		default:
-			return StatUtils.mean(aggregationValues);
+			return StatUtils.mean(aggregationValues, 0, length);
 		}
 	}
 }
@@ -0,0 +1,378 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.tools.opad.timeseries;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A time series of primitive double values with a fixed capacity. The values are stored in a ring buffer, i.e.,
+ * appending to a full series overwrites the oldest value, and the times of the values are derived from the start time
+ * and the step size instead of being stored.
+ *
+ * <p>
+ * Appends are lock-free, but must be performed by a single thread. Other threads see all values appended before they
+ * read the size of the series. The lists returned by {@link #getValues()} and {@link #getPoints()} as well as the
+ * windows returned by {@link #getWindow(int)} are views on the buffer and not copies. Hence, they are valid only until
+ * the writer overwrites their oldest value, which never happens when they are used by the writing thread itself, e.g.,
+ * by a forecaster called from the same filter.
+ * </p>
+ *
+ * @author Kieker Project
+ * @since 2.0.0
+ */
+public class DoubleRingBufferTimeSeries implements ITimeSeries<Double> {
+
+	/** Time of the first value ever appended. */
+	private final long initialStartTime;
+	private final TimeUnit timeSeriesTimeUnit;
+	private final long deltaTime;
+	private final TimeUnit deltaTimeUnit;
+	private final int frequency;
+	private final long timeSeriesStepSize;
+	private final double[] values;
+
+	/** Number of values appended so far, only written by the writer thread. The volatile write publishes the value. */
+	private volatile long numAppended;
+
+	/**
+	 * @param startTime
+	 *            start time of the time series
+	 * @param timeSeriesTimeUnit
+	 *            time unit of the start time
+	 * @param deltaTime
+	 *            time between two values
+	 * @param deltaTimeUnit
+	 *            time unit of the delta time
+	 * @param frequency
+	 *            frequency of events
+	 * @param capacity
+	 *            maximal number of values, must be positive
+	 */
+	public DoubleRingBufferTimeSeries(final long startTime, final TimeUnit timeSeriesTimeUnit, final long deltaTime, final TimeUnit deltaTimeUnit,
+			final int frequency, final int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("A ring buffer time series requires a positive capacity, but got " + capacity);
+		}
+		this.initialStartTime = startTime;
+		this.timeSeriesTimeUnit = timeSeriesTimeUnit;
+		this.deltaTime = deltaTime;
+		this.deltaTimeUnit = deltaTimeUnit;
+		this.frequency = frequency;
+		this.timeSeriesStepSize = timeSeriesTimeUnit.convert(deltaTime, deltaTimeUnit);
+		this.values = new double[capacity];
+	}
+
+	/**
+	 * Constructor using the time unit as unit for the start time and the delta time.
+	 *
+	 * @param startTime
+	 *            start time of the time series
+	 * @param timeUnit
+	 *            time unit
+	 * @param deltaTime
+	 *            time between two values
+	 * @param frequency
+	 *            frequency of events
+	 * @param capacity
+	 *            maximal number of values, must be positive
+	 */
+	public DoubleRingBufferTimeSeries(final long startTime, final TimeUnit timeUnit, final long deltaTime, final int frequency, final int capacity) {
+		this(startTime, timeUnit, deltaTime, timeUnit, frequency, capacity);
+	}
+
+	/**
+	 * Appends a value without creating a time series point.
+	 *
+	 * @param value
+	 *            value to append
+	 */
+	public void appendValue(final double value) {
+		final long count = this.numAppended;
+		this.values[(int) (count % this.values.length)] = value;
+		this.numAppended = count + 1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws NullPointerException
+	 *             if the value is null, since the series stores primitive values
+	 */
+	@Override
+	public ITimeSeriesPoint<Double> append(final Double value) {
+		if (value == null) {
+			throw new NullPointerException("A ring buffer time series cannot store null values.");
+		}
+		final long time = this.initialStartTime + (this.numAppended * this.timeSeriesStepSize);
+		this.appendValue(value);
+		return new TimeSeriesPoint<>(time, value);
+	}
+
+	@Override
+	public List<ITimeSeriesPoint<Double>> appendAll(final Double[] newValues) {
+		final List<ITimeSeriesPoint<Double>> points = new ArrayList<>(newValues.length);
+		for (final Double value : newValues) {
+			points.add(this.append(value));
+		}
+		return points;
+	}
+
+	/**
+	 * Returns the value at the given position.
+	 *
+	 * @param index
+	 *            position in the series, where 0 is the oldest value still contained
+	 * @return the value
+	 */
+	public double getValue(final int index) {
+		final long count = this.numAppended;
+		final int size = this.size(count);
+		if ((index < 0) || (index >= size)) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return this.values[(int) (((count - size) + index) % this.values.length)];
+	}
+
+	/**
+	 * Returns a view on the latest values of this series.
+	 *
+	 * @param windowSize
+	 *            maximal number of values in the window
+	 * @return a time series containing the latest values, which does not support appending
+	 */
+	public ITimeSeries<Double> getWindow(final int windowSize) {
+		final long count = this.numAppended;
+		final int size = Math.min(this.size(count), windowSize);
+		return new Window(count - size, size);
+	}
+
+	private int size(final long count) {
+		return (int) Math.min(count, this.values.length);
+	}
+
+	@Override
+	public long getStartTime() {
+		final long count = this.numAppended;
+		return this.getTime(count - this.size(count));
+	}
+
+	private long getTime(final long position) {
+		return this.initialStartTime + (position * this.timeSeriesStepSize);
+	}
+
+	@Override
+	public TimeUnit getTimeSeriesTimeUnit() {
+		return this.timeSeriesTimeUnit;
+	}
+
+	@Override
+	public long getDeltaTime() {
+		return this.deltaTime;
+	}
+
+	@Override
+	public TimeUnit getDeltaTimeUnit() {
+		return this.deltaTimeUnit;
+	}
+
+	/**
+	 * Returns the step size between each item in the time series, using the time unit of the start time.
+	 *
+	 * @return step size
+	 */
+	public long getStepSize() {
+		return this.timeSeriesStepSize;
+	}
+
+	@Override
+	public List<ITimeSeriesPoint<Double>> getPoints() {
+		final long count = this.numAppended;
+		final int size = this.size(count);
+		return new PointsView(count - size, size);
+	}
+
+	@Override
+	public List<Double> getValues() {
+		final long count = this.numAppended;
+		final int size = this.size(count);
+		return new ValuesView(count - size, size);
+	}
+
+	@Override
+	public int getCapacity() {
+		return this.values.length;
+	}
+
+	@Override
+	public int size() {
+		return this.size(this.numAppended);
+	}
+
+	@Override
+	public long getEndTime() {
+		final long count = this.numAppended;
+		if (count == 0) {
+			throw new IllegalStateException("The TimeSeries is empty, so no end time can be returned.");
+		}
+		return this.getTime(count - 1);
+	}
+
+	@Override
+	public int getFrequency() {
+		return this.frequency;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder buf = new StringBuilder();
+		buf.append("Time Series with delta: ").append(this.deltaTime).append(' ').append(this.deltaTimeUnit).append(" starting at: ")
+				.append(this.getStartTime()).append(' ').append(this.timeSeriesTimeUnit);
+		for (final ITimeSeriesPoint<Double> curPoint : this.getPoints()) {
+			buf.append(curPoint);
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * View on the values of the positions [first, first + size).
+	 */
+	private class ValuesView extends AbstractList<Double> implements RandomAccess {
+
+		private final long first;
+		private final int size;
+
+		public ValuesView(final long first, final int size) {
+			this.first = first;
+			this.size = size;
+		}
+
+		@Override
+		public Double get(final int index) {
+			if ((index < 0) || (index >= this.size)) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+			}
+			return DoubleRingBufferTimeSeries.this.values[(int) ((this.first + index) % DoubleRingBufferTimeSeries.this.values.length)];
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+	}
+
+	/**
+	 * View on the points of the positions [first, first + size), creating the points on access.
+	 */
+	private class PointsView extends AbstractList<ITimeSeriesPoint<Double>> implements RandomAccess {
+
+		private final ValuesView valuesView;
+
+		public PointsView(final long first, final int size) {
+			this.valuesView = new ValuesView(first, size);
+		}
+
+		@Override
+		public ITimeSeriesPoint<Double> get(final int index) {
+			return new TimeSeriesPoint<>(DoubleRingBufferTimeSeries.this.getTime(this.valuesView.first + index), this.valuesView.get(index));
+		}
+
+		@Override
+		public int size() {
+			return this.valuesView.size;
+		}
+	}
+
+	/**
+	 * Read-only time series on the positions [first, first + size).
+	 */
+	private class Window implements ITimeSeries<Double> {
+
+		private final long first;
+		private final int size;
+
+		public Window(final long first, final int size) {
+			this.first = first;
+			this.size = size;
+		}
+
+		@Override
+		public long getStartTime() {
+			return DoubleRingBufferTimeSeries.this.getTime(this.first);
+		}
+
+		@Override
+		public TimeUnit getTimeSeriesTimeUnit() {
+			return DoubleRingBufferTimeSeries.this.timeSeriesTimeUnit;
+		}
+
+		@Override
+		public long getDeltaTime() {
+			return DoubleRingBufferTimeSeries.this.deltaTime;
+		}
+
+		@Override
+		public TimeUnit getDeltaTimeUnit() {
+			return DoubleRingBufferTimeSeries.this.deltaTimeUnit;
+		}
+
+		@Override
+		public ITimeSeriesPoint<Double> append(final Double value) {
+			throw new UnsupportedOperationException("A window of a time series is read-only.");
+		}
+
+		@Override
+		public List<ITimeSeriesPoint<Double>> appendAll(final Double[] newValues) {
+			throw new UnsupportedOperationException("A window of a time series is read-only.");
+		}
+
+		@Override
+		public List<ITimeSeriesPoint<Double>> getPoints() {
+			return new PointsView(this.first, this.size);
+		}
+
+		@Override
+		public List<Double> getValues() {
+			return new ValuesView(this.first, this.size);
+		}
+
+		@Override
+		public int getCapacity() {
+			return this.size;
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+
+		@Override
+		public long getEndTime() {
+			if (this.size == 0) {
+				throw new IllegalStateException("The TimeSeries is empty, so no end time can be returned.");
+			}
+			return DoubleRingBufferTimeSeries.this.getTime((this.first + this.size) - 1);
+		}
+
+		@Override
+		public int getFrequency() {
+			return DoubleRingBufferTimeSeries.this.frequency;
+		}
+	}
+}
@@ -20,13 +20,16 @@ import kieker.tools.opad.timeseries.anomalycalculators.IAnomalyScoreCalculator;
 import kieker.tools.opad.timeseries.anomalycalculators.SimpleAnomalyScoreCalculator;
 import kieker.tools.opad.timeseries.forecast.IForecaster;
 import kieker.tools.opad.timeseries.forecast.arima.ARIMA101Forecaster;
+import kieker.tools.opad.timeseries.forecast.arima.ARIMA101ForecasterJava;
 import kieker.tools.opad.timeseries.forecast.arima.ARIMAForecaster;
 import kieker.tools.opad.timeseries.forecast.croston.CrostonForecaster;
 import kieker.tools.opad.timeseries.forecast.cs.CSForecaster;
 import kieker.tools.opad.timeseries.forecast.ets.ETSForecaster;
+import kieker.tools.opad.timeseries.forecast.ets.ETSForecasterJava;
 import kieker.tools.opad.timeseries.forecast.mean.MeanForecaster;
 import kieker.tools.opad.timeseries.forecast.mean.MeanForecasterJava;
 import kieker.tools.opad.timeseries.forecast.naive.NaiveForecaster;
+import kieker.tools.opad.timeseries.forecast.ses.SESForecasterJava;
 import kieker.tools.opad.timeseries.forecast.ses.SESRForecaster;
 
 /**
@@ -42,6 +45,9 @@ public enum ForecastMethod {
 	/** {@link ARIMA101Forecaster} */
 	ARIMA101,
 
+	/** {@link ARIMA101ForecasterJava} */
+	ARIMA101JAVA,
+
 	/** {@link CrostonForecaster} */
 	CROSTON,
 
@@ -51,6 +57,9 @@ public enum ForecastMethod {
 	/** {@link ETSForecaster} */
 	ETS,
 
+	/** {@link ETSForecasterJava} */
+	ETSJAVA,
+
 	/** {@link MeanForecaster} */
 	MEAN,
 
@@ -61,7 +70,10 @@ public enum ForecastMethod {
 	NAIVE,
 
 	/** {@link SESRForecaster} */
-	SES;
+	SES,
+
+	/** {@link SESForecasterJava} */
+	SESJAVA;
 
 	/**
 	 *
@@ -79,12 +91,16 @@ public enum ForecastMethod {
 			return new ARIMAForecaster(history);
 		case ARIMA101:
 			return new ARIMA101Forecaster(history);
+		case ARIMA101JAVA:
+			return new ARIMA101ForecasterJava(history);
 		case CROSTON:
 			return new CrostonForecaster(history);
 		case CS:
 			return new CSForecaster(history);
 		case ETS:
 			return new ETSForecaster(history);
+		case ETSJAVA:
+			return new ETSForecasterJava(history);
 		case MEAN:
 			return new MeanForecaster(history);
 		case MEANJAVA:
@@ -93,6 +109,8 @@ public enum ForecastMethod {
 			return new NaiveForecaster(history);
 		case SES:
 			return new SESRForecaster(history);
+		case SESJAVA:
+			return new SESForecasterJava(history);
 		default:
 			throw new UnsupportedOperationException("No forecaster defined for " + this.toString());
 		}
@@ -116,12 +134,16 @@ public enum ForecastMethod {
 			return new ARIMAForecaster(history, alpha);
 		case ARIMA101:
 			return new ARIMA101Forecaster(history, alpha);
+		case ARIMA101JAVA:
+			return new ARIMA101ForecasterJava(history, alpha);
 		case CROSTON:
 			return new CrostonForecaster(history, alpha);
 		case CS:
 			return new CSForecaster(ForecastMethod.getLastXofTS(history, 30), alpha);
 		case ETS:
 			return new ETSForecaster(history, alpha);
+		case ETSJAVA:
+			return new ETSForecasterJava(history, alpha);
 		case MEAN:
 			return new MeanForecaster(ForecastMethod.getLastXofTS(history, 10), alpha);
 		case MEANJAVA:
@@ -130,6 +152,8 @@ public enum ForecastMethod {
 			return new NaiveForecaster(history, alpha);
 		case SES:
 			return new SESRForecaster(history, alpha);
+		case SESJAVA:
+			return new SESForecasterJava(history, alpha);
 		default:
 			throw new UnsupportedOperationException("No forecaster defined for " + this.toString());
 		}
@@ -141,7 +165,8 @@ public enum ForecastMethod {
 
 	// Was extracted from ClassificationUtility in WCF/TBATS as it is not yet integrated:
 	/**
-	 * Returns a new time series object shortened to the last x values.
+	 * Returns a new time series object shortened to the last x values. For a {@link DoubleRingBufferTimeSeries}, a view
+	 * on the last x values is returned instead of a copy.
 	 *
 	 * @param ts
 	 *            timeseries
@@ -150,6 +175,9 @@ public enum ForecastMethod {
 	 * @return new time series object
 	 */
 	private static ITimeSeries<Double> getLastXofTS(final ITimeSeries<Double> ts, final int x) {
+		if (ts instanceof DoubleRingBufferTimeSeries) {
+			return ((DoubleRingBufferTimeSeries) ts).getWindow(x);
+		}
 		if (ts.size() >= x) {
 			Double[] a = new Double[ts.size()];
 			a = ts.getValues().toArray(a);
@@ -0,0 +1,166 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.tools.opad.timeseries.forecast;
+
+import org.apache.commons.math3.distribution.NormalDistribution;
+
+import kieker.tools.opad.timeseries.ForecastMethod;
+import kieker.tools.opad.timeseries.ITimeSeries;
+
+/**
+ * Base class for Java-based forecasters which update their model incrementally. The class tracks the one-step
+ * forecast errors over all values seen so far, which are used for the prediction intervals and the MASE of the
+ * forecast result.
+ *
+ * @author Kieker Project
+ * @since 2.0.0
+ */
+public abstract class AbstractIncrementalForecaster extends AbstractForecaster<Double> implements IIncrementalForecaster {
+
+	private final ForecastMethod forecastMethod;
+	private final double quantile;
+
+	private double lastValue = Double.NaN;
+	private long numErrors;
+	private double sumAbsoluteErrors;
+	private double sumSquaredErrors;
+	private long numNaiveErrors;
+	private double sumAbsoluteNaiveErrors;
+
+	/**
+	 * Creates a new incremental forecaster. Subclasses have to call {@link #initialize()} at the end of their
+	 * constructor.
+	 *
+	 * @param historyTimeseries
+	 *            time series used by the forecasting algorithm
+	 * @param confidenceLevel
+	 *            confidence level of the prediction intervals in percent
+	 * @param forecastMethod
+	 *            forecast method implemented by the subclass
+	 */
+	protected AbstractIncrementalForecaster(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel,
+			final ForecastMethod forecastMethod) {
+		super(historyTimeseries, confidenceLevel);
+		this.forecastMethod = forecastMethod;
+		if (confidenceLevel > 0) {
+			this.quantile = new NormalDistribution().inverseCumulativeProbability(0.5 + (confidenceLevel / 200.0));
+		} else {
+			this.quantile = 0;
+		}
+	}
+
+	/**
+	 * Fits the model to the values already contained in the history.
+	 */
+	protected final void initialize() {
+		for (final Double value : this.getTsOriginal().getValues()) {
+			if (value != null) {
+				this.update(value);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void update(final double value) {
+		if (Double.isNaN(value)) {
+			return;
+		}
+		final double forecast = this.updateModel(value);
+		if (!Double.isNaN(forecast)) {
+			final double error = value - forecast;
+			this.numErrors++;
+			this.sumAbsoluteErrors += Math.abs(error);
+			this.sumSquaredErrors += error * error;
+		}
+		if (!Double.isNaN(this.lastValue)) {
+			this.numNaiveErrors++;
+			this.sumAbsoluteNaiveErrors += Math.abs(value - this.lastValue);
+		}
+		this.lastValue = value;
+	}
+
+	@Override
+	public synchronized IForecastResult forecast(final int numForecastSteps) {
+		final ITimeSeries<Double> tsForecast = this.prepareForecastTS();
+		final Double[] forecastValues = new Double[numForecastSteps];
+		for (int step = 1; step <= numForecastSteps; step++) {
+			forecastValues[step - 1] = this.forecastValue(step);
+		}
+		tsForecast.appendAll(forecastValues);
+
+		final double mase = this.computeMeanAbsoluteScaledError();
+		if ((this.quantile == 0) || (this.numErrors < 2)) {
+			return new ForecastResult(tsForecast, this.getTsOriginal(), 0, mase, tsForecast, tsForecast, this.forecastMethod);
+		}
+
+		final double variance = this.sumSquaredErrors / this.numErrors;
+		final Double[] lowerValues = new Double[numForecastSteps];
+		final Double[] upperValues = new Double[numForecastSteps];
+		for (int step = 1; step <= numForecastSteps; step++) {
+			final double width = this.quantile * Math.sqrt(variance * this.forecastVarianceFactor(step));
+			lowerValues[step - 1] = forecastValues[step - 1] - width;
+			upperValues[step - 1] = forecastValues[step - 1] + width;
+		}
+		final ITimeSeries<Double> tsLower = this.prepareForecastTS();
+		tsLower.appendAll(lowerValues);
+		final ITimeSeries<Double> tsUpper = this.prepareForecastTS();
+		tsUpper.appendAll(upperValues);
+
+		return new ForecastResult(tsForecast, this.getTsOriginal(), this.getConfidenceLevel(), mase, tsLower, tsUpper, this.forecastMethod);
+	}
+
+	/**
+	 * MASE of the one-step forecasts relative to the naive forecast, or 0 if it is not yet defined.
+	 */
+	private double computeMeanAbsoluteScaledError() {
+		if ((this.numErrors == 0) || (this.sumAbsoluteNaiveErrors == 0)) {
+			return 0;
+		}
+		return (this.sumAbsoluteErrors / this.numErrors) / (this.sumAbsoluteNaiveErrors / this.numNaiveErrors);
+	}
+
+	@Override
+	public ForecastMethod getForecastMethod() {
+		return this.forecastMethod;
+	}
+
+	/**
+	 * Updates the model state with the next value.
+	 *
+	 * @param value
+	 *            next value of the time series
+	 * @return the one-step forecast for this value computed before the update, or NaN if the model was not initialized yet
+	 */
+	protected abstract double updateModel(double value);
+
+	/**
+	 * Computes the point forecast based on the current model state.
+	 *
+	 * @param step
+	 *            number of steps ahead, starting with 1
+	 * @return the forecast value
+	 */
+	protected abstract double forecastValue(int step);
+
+	/**
+	 * Computes the ratio of the forecast error variance of the given step to the one-step forecast error variance.
+	 *
+	 * @param step
+	 *            number of steps ahead, starting with 1
+	 * @return the variance factor
+	 */
+	protected abstract double forecastVarianceFactor(int step);
+}
@@ -0,0 +1,48 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.tools.opad.timeseries.forecast;
+
+import kieker.tools.opad.timeseries.ForecastMethod;
+
+/**
+ * A forecaster which keeps its model as state and updates it with every new value of the time series, instead of
+ * fitting the model to the whole history for each forecast. Hence, a single instance is kept per time series and
+ * {@link #update(double)} is called for each value appended to the history.
+ *
+ * @author Kieker Project
+ * @since 2.0.0
+ */
+public interface IIncrementalForecaster extends IForecaster<Double> {
+
+	/**
+	 * Updates the model state with the next value of the time series.
+	 *
+	 * @param value
+	 *            the new value, NaN values are ignored
+	 *
+	 * @since 2.0.0
+	 */
+	public void update(final double value);
+
+	/**
+	 * Returns the forecast method implemented by this forecaster.
+	 *
+	 * @return the forecast method
+	 *
+	 * @since 2.0.0
+	 */
+	public ForecastMethod getForecastMethod();
+}
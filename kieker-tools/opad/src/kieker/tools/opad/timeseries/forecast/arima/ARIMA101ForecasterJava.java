@@ -0,0 +1,175 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.tools.opad.timeseries.forecast.arima;
+
+import kieker.tools.opad.timeseries.ForecastMethod;
+import kieker.tools.opad.timeseries.ITimeSeries;
+import kieker.tools.opad.timeseries.forecast.AbstractIncrementalForecaster;
+
+/**
+ * A Java-based time series forecaster which computes a forecast based on an ARIMA(1,0,1) model
+ * <code>y(t) = c + phi * y(t-1) + e(t) + theta * e(t-1)</code>. The coefficients are estimated online with recursive
+ * extended least squares, i.e., with each new value and using the previous residual as regressor for the moving
+ * average term. Older values are discounted by a forgetting factor, so the model adapts to changes of the series.
+ *
+ * @author Kieker Project
+ * @since 2.0.0
+ */
+public class ARIMA101ForecasterJava extends AbstractIncrementalForecaster {
+
+	/** Default forgetting factor of the least squares estimation. */
+	public static final double DEFAULT_FORGETTING_FACTOR = 0.99;
+
+	private static final int NUM_COEFFICIENTS = 3;
+	private static final double INITIAL_COVARIANCE = 1e4;
+	/** Bound of the covariance trace, above which nothing is forgotten to avoid a covariance wind-up. */
+	private static final double MAX_COVARIANCE_TRACE = 1e8;
+	/** Bound of the AR coefficient used for forecasting, which keeps forecasts of non-stationary estimates finite. */
+	private static final double MAX_AR_COEFFICIENT = 0.999;
+
+	private final double forgettingFactor;
+
+	/** Estimates of c, phi, and theta. */
+	private final double[] coefficients = new double[NUM_COEFFICIENTS];
+	private final double[][] covariance = new double[NUM_COEFFICIENTS][NUM_COEFFICIENTS];
+	private final double[] regressors = new double[NUM_COEFFICIENTS];
+	private final double[] gain = new double[NUM_COEFFICIENTS];
+
+	private boolean initialized;
+	private double previousValue;
+	private double previousResidual;
+
+	/**
+	 *
+	 * @param historyTimeseries
+	 *            time series used by the forecasting algorithm
+	 */
+	public ARIMA101ForecasterJava(final ITimeSeries<Double> historyTimeseries) {
+		this(historyTimeseries, 0);
+	}
+
+	/**
+	 *
+	 * @param historyTimeseries
+	 *            time series used by the forecasting algorithm
+	 * @param confidenceLevel
+	 *            value of confidence
+	 */
+	public ARIMA101ForecasterJava(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel) {
+		this(historyTimeseries, confidenceLevel, ARIMA101ForecasterJava.DEFAULT_FORGETTING_FACTOR);
+	}
+
+	/**
+	 *
+	 * @param historyTimeseries
+	 *            time series used by the forecasting algorithm
+	 * @param confidenceLevel
+	 *            value of confidence
+	 * @param forgettingFactor
+	 *            weight of the past in the estimation, in (0, 1], where 1 weights all values equally
+	 */
+	public ARIMA101ForecasterJava(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel, final double forgettingFactor) {
+		super(historyTimeseries, confidenceLevel, ForecastMethod.ARIMA101JAVA);
+		this.forgettingFactor = forgettingFactor;
+		for (int i = 0; i < NUM_COEFFICIENTS; i++) {
+			this.covariance[i][i] = INITIAL_COVARIANCE;
+		}
+		this.initialize();
+	}
+
+	@Override
+	protected double updateModel(final double value) {
+		if (!this.initialized) {
+			this.coefficients[0] = value;
+			this.previousValue = value;
+			this.initialized = true;
+			return Double.NaN;
+		}
+
+		this.regressors[0] = 1;
+		this.regressors[1] = this.previousValue;
+		this.regressors[2] = this.previousResidual;
+		final double forecast = this.predict();
+		final double error = value - forecast;
+
+		// gain = P x / (lambda + x' P x), P is symmetric
+		double denominator = 0;
+		double trace = 0;
+		for (int i = 0; i < NUM_COEFFICIENTS; i++) {
+			double sum = 0;
+			for (int j = 0; j < NUM_COEFFICIENTS; j++) {
+				sum += this.covariance[i][j] * this.regressors[j];
+			}
+			this.gain[i] = sum;
+			denominator += this.regressors[i] * sum;
+			trace += this.covariance[i][i];
+		}
+		final double lambda = (trace > MAX_COVARIANCE_TRACE) ? 1 : this.forgettingFactor; // NOCS (inline ?)
+		denominator += lambda;
+
+		// P = (P - P x x' P / (lambda + x' P x)) / lambda
+		for (int i = 0; i < NUM_COEFFICIENTS; i++) {
+			for (int j = 0; j < NUM_COEFFICIENTS; j++) {
+				this.covariance[i][j] = (this.covariance[i][j] - ((this.gain[i] * this.gain[j]) / denominator)) / lambda;
+			}
+		}
+		for (int i = 0; i < NUM_COEFFICIENTS; i++) {
+			this.coefficients[i] += (this.gain[i] / denominator) * error;
+		}
+
+		this.previousResidual = value - this.predict();
+		this.previousValue = value;
+		return forecast;
+	}
+
+	private double predict() {
+		double result = 0;
+		for (int i = 0; i < NUM_COEFFICIENTS; i++) {
+			result += this.coefficients[i] * this.regressors[i];
+		}
+		return result;
+	}
+
+	private double getBoundedArCoefficient() {
+		return Math.max(-MAX_AR_COEFFICIENT, Math.min(MAX_AR_COEFFICIENT, this.coefficients[1]));
+	}
+
+	@Override
+	protected double forecastValue(final int step) {
+		if (!this.initialized) {
+			return Double.NaN;
+		}
+		final double phi = this.getBoundedArCoefficient();
+		double forecast = this.coefficients[0] + (phi * this.previousValue) + (this.coefficients[2] * this.previousResidual);
+		for (int i = 1; i < step; i++) {
+			forecast = this.coefficients[0] + (phi * forecast);
+		}
+		return forecast;
+	}
+
+	@Override
+	protected double forecastVarianceFactor(final int step) {
+		// sum of the squared psi weights of the MA(infinity) representation
+		final double phi = this.getBoundedArCoefficient();
+		double psi = 1;
+		double factor = 1;
+		for (int j = 1; j < step; j++) {
+			psi = (j == 1) ? phi + this.coefficients[2] : phi * psi; // NOCS (inline ?)
+			factor += psi * psi;
+		}
+		return factor;
+	}
+}
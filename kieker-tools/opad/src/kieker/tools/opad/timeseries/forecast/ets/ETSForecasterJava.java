@@ -0,0 +1,159 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.tools.opad.timeseries.forecast.ets;
+
+import kieker.tools.opad.timeseries.ForecastMethod;
+import kieker.tools.opad.timeseries.ITimeSeries;
+import kieker.tools.opad.timeseries.forecast.AbstractIncrementalForecaster;
+
+/**
+ * A Java-based time series forecaster which computes a forecast based on additive Holt-Winters exponential smoothing,
+ * i.e., the ETS(A,A,A) model. The seasonal component uses the frequency of the history as period and is omitted for a
+ * frequency below 2. Level, trend, and season are updated with each new value, using fixed smoothing parameters.
+ *
+ * <p>
+ * The model is initialized after the first period: the level is the mean of the period, the trend is 0, and the
+ * seasonal components are the deviations from the mean. Until then, the mean of the values is forecast.
+ * </p>
+ *
+ * @author Kieker Project
+ * @since 2.0.0
+ */
+public class ETSForecasterJava extends AbstractIncrementalForecaster {
+
+	/** Default smoothing parameter of the level. */
+	public static final double DEFAULT_ALPHA = 0.3;
+	/** Default smoothing parameter of the trend. */
+	public static final double DEFAULT_BETA = 0.1;
+	/** Default smoothing parameter of the season. */
+	public static final double DEFAULT_GAMMA = 0.1;
+
+	private final double alpha;
+	private final double beta;
+	private final double gamma;
+	private final int period;
+	private final double[] season;
+
+	private int numInitValues;
+	private double sumInitValues;
+	private boolean initialized;
+	private double level;
+	private double trend;
+	private int seasonIndex;
+
+	/**
+	 *
+	 * @param historyTimeseries
+	 *            time series used by the forecasting algorithm
+	 */
+	public ETSForecasterJava(final ITimeSeries<Double> historyTimeseries) {
+		this(historyTimeseries, 0);
+	}
+
+	/**
+	 *
+	 * @param historyTimeseries
+	 *            time series used by the forecasting algorithm
+	 * @param confidenceLevel
+	 *            value of confidence
+	 */
+	public ETSForecasterJava(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel) {
+		this(historyTimeseries, confidenceLevel, ETSForecasterJava.DEFAULT_ALPHA, ETSForecasterJava.DEFAULT_BETA, ETSForecasterJava.DEFAULT_GAMMA);
+	}
+
+	/**
+	 *
+	 * @param historyTimeseries
+	 *            time series used by the forecasting algorithm
+	 * @param confidenceLevel
+	 *            value of confidence
+	 * @param alpha
+	 *            smoothing parameter of the level, in (0, 1]
+	 * @param beta
+	 *            smoothing parameter of the trend, in [0, 1]
+	 * @param gamma
+	 *            smoothing parameter of the season, in [0, 1]
+	 */
+	public ETSForecasterJava(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel, final double alpha, final double beta,
+			final double gamma) {
+		super(historyTimeseries, confidenceLevel, ForecastMethod.ETSJAVA);
+		this.alpha = alpha;
+		this.beta = beta;
+		this.gamma = gamma;
+		if (historyTimeseries.getFrequency() > 1) {
+			this.period = historyTimeseries.getFrequency();
+			this.season = new double[this.period];
+		} else {
+			this.period = 1;
+			this.season = null;
+		}
+		this.initialize();
+	}
+
+	@Override
+	protected double updateModel(final double value) {
+		if (!this.initialized) {
+			if (this.season != null) {
+				this.season[this.numInitValues] = value;
+			}
+			this.numInitValues++;
+			this.sumInitValues += value;
+			if (this.numInitValues == this.period) {
+				this.level = this.sumInitValues / this.period;
+				if (this.season != null) {
+					for (int i = 0; i < this.period; i++) {
+						this.season[i] -= this.level;
+					}
+				}
+				this.initialized = true;
+			}
+			return Double.NaN;
+		}
+
+		final double seasonal = (this.season != null) ? this.season[this.seasonIndex] : 0; // NOCS (inline ?)
+		final double forecast = this.level + this.trend + seasonal;
+		final double previousLevel = this.level;
+		this.level = (this.alpha * (value - seasonal)) + ((1 - this.alpha) * (this.level + this.trend));
+		this.trend = (this.beta * (this.level - previousLevel)) + ((1 - this.beta) * this.trend);
+		if (this.season != null) {
+			this.season[this.seasonIndex] = (this.gamma * (value - this.level)) + ((1 - this.gamma) * seasonal);
+			this.seasonIndex = (this.seasonIndex + 1) % this.period;
+		}
+		return forecast;
+	}
+
+	@Override
+	protected double forecastValue(final int step) {
+		if (!this.initialized) {
+			return (this.numInitValues > 0) ? this.sumInitValues / this.numInitValues : Double.NaN; // NOCS (inline ?)
+		}
+		final double seasonal = (this.season != null) ? this.season[(this.seasonIndex + step - 1) % this.period] : 0; // NOCS (inline ?)
+		return this.level + (step * this.trend) + seasonal;
+	}
+
+	@Override
+	protected double forecastVarianceFactor(final int step) {
+		double factor = 1;
+		for (int j = 1; j < step; j++) {
+			double c = this.alpha * (1 + (j * this.beta));
+			if ((this.season != null) && ((j % this.period) == 0)) {
+				c += this.gamma * (1 - this.alpha);
+			}
+			factor += c * c;
+		}
+		return factor;
+	}
+}
@@ -0,0 +1,95 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.tools.opad.timeseries.forecast.ses;
+
+import kieker.tools.opad.timeseries.ForecastMethod;
+import kieker.tools.opad.timeseries.ITimeSeries;
+import kieker.tools.opad.timeseries.forecast.AbstractIncrementalForecaster;
+
+/**
+ * A Java-based time series forecaster which computes a forecast based on simple exponential smoothing. The level is
+ * updated with each new value, using a fixed smoothing parameter.
+ *
+ * @author Kieker Project
+ * @since 2.0.0
+ */
+public class SESForecasterJava extends AbstractIncrementalForecaster {
+
+	/** Default smoothing parameter of the level. */
+	public static final double DEFAULT_ALPHA = 0.3;
+
+	private final double alpha;
+
+	private boolean initialized;
+	private double level;
+
+	/**
+	 *
+	 * @param historyTimeseries
+	 *            time series used by the forecasting algorithm
+	 */
+	public SESForecasterJava(final ITimeSeries<Double> historyTimeseries) {
+		this(historyTimeseries, 0);
+	}
+
+	/**
+	 *
+	 * @param historyTimeseries
+	 *            time series used by the forecasting algorithm
+	 * @param confidenceLevel
+	 *            value of confidence
+	 */
+	public SESForecasterJava(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel) {
+		this(historyTimeseries, confidenceLevel, SESForecasterJava.DEFAULT_ALPHA);
+	}
+
+	/**
+	 *
+	 * @param historyTimeseries
+	 *            time series used by the forecasting algorithm
+	 * @param confidenceLevel
+	 *            value of confidence
+	 * @param alpha
+	 *            smoothing parameter of the level, in (0, 1]
+	 */
+	public SESForecasterJava(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel, final double alpha) {
+		super(historyTimeseries, confidenceLevel, ForecastMethod.SESJAVA);
+		this.alpha = alpha;
+		this.initialize();
+	}
+
+	@Override
+	protected double updateModel(final double value) {
+		if (!this.initialized) {
+			this.level = value;
+			this.initialized = true;
+			return Double.NaN;
+		}
+		final double forecast = this.level;
+		this.level += this.alpha * (value - this.level);
+		return forecast;
+	}
+
+	@Override
+	protected double forecastValue(final int step) {
+		return this.initialized ? this.level : Double.NaN; // NOCS (inline ?)
+	}
+
+	@Override
+	protected double forecastVarianceFactor(final int step) {
+		return 1 + ((step - 1) * this.alpha * this.alpha);
+	}
+}
@@ -0,0 +1,81 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.test.tools.junit.opad;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.tools.opad.AggregationVariableSet;
+import kieker.tools.opad.model.NamedDoubleTimeSeriesPoint;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the deprecated list based API of the {@link AggregationVariableSet}.
+ *
+ * @author Kieker Project
+ *
+ * @since 2.0.0
+ */
+public class AggregationVariableSetTest extends AbstractKiekerTest {
+
+	/**
+	 * Creates a new instance of this class.
+	 */
+	public AggregationVariableSetTest() {
+		// Default Constructor
+	}
+
+	/**
+	 * Points added to the list view are aggregated as values and vice versa.
+	 */
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testAggregationListView() {
+		final AggregationVariableSet variables = new AggregationVariableSet();
+		variables.addAggregationValue(1.0);
+
+		final List<NamedDoubleTimeSeriesPoint> aggregationList = variables.getAggregationList();
+		aggregationList.add(new NamedDoubleTimeSeriesPoint(0, 2.0, "op"));
+
+		Assert.assertEquals(2, variables.getNumAggregationValues());
+		Assert.assertEquals(2.0, variables.getAggregationValues()[1], 0);
+		Assert.assertEquals(2, aggregationList.size());
+		Assert.assertEquals(1.0, aggregationList.get(0).getDoubleValue(), 0);
+
+		aggregationList.clear();
+		Assert.assertEquals(0, variables.getNumAggregationValues());
+	}
+
+	/**
+	 * Setting the aggregation list replaces all values.
+	 */
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testSetAggregationList() {
+		final AggregationVariableSet variables = new AggregationVariableSet();
+		variables.addAggregationValue(1.0);
+
+		variables.setAggregationList(Arrays.asList(new NamedDoubleTimeSeriesPoint(0, 2.0, "op"), new NamedDoubleTimeSeriesPoint(1, 3.0, "op")));
+
+		Assert.assertEquals(2, variables.getNumAggregationValues());
+		Assert.assertEquals(2.0, variables.getAggregationValues()[0], 0);
+		Assert.assertEquals(3.0, variables.getAggregationValues()[1], 0);
+	}
+}
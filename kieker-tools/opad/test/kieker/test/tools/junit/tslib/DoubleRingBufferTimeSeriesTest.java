@@ -0,0 +1,184 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.test.tools.junit.tslib;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.tools.opad.timeseries.DoubleRingBufferTimeSeries;
+import kieker.tools.opad.timeseries.ITimeSeries;
+import kieker.tools.opad.timeseries.ITimeSeriesPoint;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the {@link DoubleRingBufferTimeSeries}.
+ *
+ * @author Kieker Project
+ * @since 2.0.0
+ */
+public class DoubleRingBufferTimeSeriesTest extends AbstractKiekerTest {
+
+	private static final long START_TIME = 1000;
+	private static final long DELTA_TIME = 10;
+	private static final int CAPACITY = 4;
+
+	/**
+	 * Creates a new instance of this class.
+	 */
+	public DoubleRingBufferTimeSeriesTest() {
+		// Default Constructor
+	}
+
+	private static DoubleRingBufferTimeSeries createTimeSeries() {
+		return new DoubleRingBufferTimeSeries(START_TIME, TimeUnit.MILLISECONDS, DELTA_TIME, 24, CAPACITY);
+	}
+
+	/**
+	 * Appending to a full series overwrites the oldest values and moves the start time.
+	 */
+	@Test
+	public void testOverwriteOldestValues() {
+		final DoubleRingBufferTimeSeries ts = DoubleRingBufferTimeSeriesTest.createTimeSeries();
+		Assert.assertEquals(0, ts.size());
+		Assert.assertEquals(START_TIME, ts.getStartTime());
+
+		for (int i = 0; i < 10; i++) {
+			ts.appendValue(i);
+		}
+
+		Assert.assertEquals(CAPACITY, ts.size());
+		Assert.assertEquals(CAPACITY, ts.getCapacity());
+		Assert.assertEquals(START_TIME + (6 * DELTA_TIME), ts.getStartTime());
+		Assert.assertEquals(START_TIME + (9 * DELTA_TIME), ts.getEndTime());
+		for (int i = 0; i < CAPACITY; i++) {
+			Assert.assertEquals(6 + i, ts.getValue(i), 0);
+		}
+
+		final List<ITimeSeriesPoint<Double>> points = ts.getPoints();
+		Assert.assertEquals(CAPACITY, points.size());
+		for (int i = 0; i < CAPACITY; i++) {
+			Assert.assertEquals(START_TIME + ((6 + i) * DELTA_TIME), points.get(i).getTime());
+			Assert.assertEquals(Double.valueOf(6 + i), points.get(i).getValue());
+		}
+	}
+
+	/**
+	 * The boxed append returns the point with the time of the appended value.
+	 */
+	@Test
+	public void testAppendPoint() {
+		final DoubleRingBufferTimeSeries ts = DoubleRingBufferTimeSeriesTest.createTimeSeries();
+		ts.appendValue(1);
+		final ITimeSeriesPoint<Double> point = ts.append(2.0);
+		Assert.assertEquals(START_TIME + DELTA_TIME, point.getTime());
+		Assert.assertEquals(Double.valueOf(2.0), point.getValue());
+		Assert.assertEquals(2, ts.getValues().size());
+	}
+
+	/**
+	 * A window contains the latest values and is read-only.
+	 */
+	@Test
+	public void testWindow() {
+		final DoubleRingBufferTimeSeries ts = DoubleRingBufferTimeSeriesTest.createTimeSeries();
+		for (int i = 0; i < 6; i++) {
+			ts.appendValue(i);
+		}
+
+		final ITimeSeries<Double> window = ts.getWindow(2);
+		Assert.assertEquals(2, window.size());
+		Assert.assertEquals(START_TIME + (4 * DELTA_TIME), window.getStartTime());
+		Assert.assertEquals(START_TIME + (5 * DELTA_TIME), window.getEndTime());
+		Assert.assertEquals(Double.valueOf(4), window.getValues().get(0));
+		Assert.assertEquals(Double.valueOf(5), window.getValues().get(1));
+
+		Assert.assertEquals(CAPACITY, ts.getWindow(10).size());
+
+		try {
+			window.append(6.0);
+			Assert.fail("Window must be read-only");
+		} catch (final UnsupportedOperationException e) { // NOPMD (expected)
+			// expected
+		}
+	}
+
+	/**
+	 * A series without capacity is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInfiniteCapacityIsRejected() {
+		new DoubleRingBufferTimeSeries(START_TIME, TimeUnit.MILLISECONDS, DELTA_TIME, 24, ITimeSeries.INFINITE_CAPACITY); // NOPMD (exception expected)
+	}
+
+	/**
+	 * A null value is rejected with an explicit message and does not change the series.
+	 */
+	@Test
+	public void testAppendNullIsRejected() {
+		final DoubleRingBufferTimeSeries ts = DoubleRingBufferTimeSeriesTest.createTimeSeries();
+		ts.appendValue(1);
+		try {
+			ts.append(null);
+			Assert.fail("Appending null must be rejected");
+		} catch (final NullPointerException e) {
+			Assert.assertEquals("A ring buffer time series cannot store null values.", e.getMessage());
+		}
+		Assert.assertEquals(1, ts.size());
+	}
+
+	/**
+	 * A reader thread sees the values appended by the writer thread in order.
+	 *
+	 * @throws InterruptedException
+	 *             If interrupted
+	 */
+	@Test
+	public void testConcurrentReader() throws InterruptedException {
+		final int numValues = 1000000;
+		final DoubleRingBufferTimeSeries ts = new DoubleRingBufferTimeSeries(START_TIME, TimeUnit.MILLISECONDS, DELTA_TIME, 24, numValues);
+		final CountDownLatch started = new CountDownLatch(1);
+		final AtomicReference<String> failure = new AtomicReference<>();
+
+		final Thread reader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				started.countDown();
+				int size = 0;
+				while (size < numValues) {
+					size = ts.size();
+					if ((size > 0) && (ts.getValue(size - 1) != (size - 1))) {
+						failure.set("Value " + (size - 1) + " not published");
+						return;
+					}
+				}
+			}
+		});
+		reader.start();
+		started.await();
+		for (int i = 0; i < numValues; i++) {
+			ts.appendValue(i);
+		}
+		reader.join();
+
+		Assert.assertNull(failure.get());
+	}
+}
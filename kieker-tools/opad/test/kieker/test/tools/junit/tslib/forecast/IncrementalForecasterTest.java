@@ -0,0 +1,180 @@
+/***************************************************************************
+ * Copyright 2022 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.test.tools.junit.tslib.forecast;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.tools.opad.timeseries.ForecastMethod;
+import kieker.tools.opad.timeseries.ITimeSeries;
+import kieker.tools.opad.timeseries.TimeSeries;
+import kieker.tools.opad.timeseries.forecast.IForecastResult;
+import kieker.tools.opad.timeseries.forecast.IForecaster;
+import kieker.tools.opad.timeseries.forecast.IIncrementalForecaster;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the Java-based incremental forecasters.
+ *
+ * @author Kieker Project
+ * @since 2.0.0
+ */
+public class IncrementalForecasterTest extends AbstractKiekerTest {
+
+	private static final int CONFIDENCE_LEVEL = 95;
+	private static final int PERIOD = 4;
+	private static final double DELTA = 1e-9;
+
+	private static final ForecastMethod[] METHODS = { ForecastMethod.SESJAVA, ForecastMethod.ETSJAVA, ForecastMethod.ARIMA101JAVA };
+
+	/**
+	 * Creates a new instance of this class.
+	 */
+	public IncrementalForecasterTest() {
+		// Default constructor
+	}
+
+	private static ITimeSeries<Double> createTimeSeries() {
+		return new TimeSeries<>(0, TimeUnit.MILLISECONDS, 1000, PERIOD);
+	}
+
+	private static double[] createValues(final int numValues) {
+		final Random random = new Random(42);
+		final double[] values = new double[numValues];
+		for (int i = 0; i < numValues; i++) {
+			values[i] = 10 + (0.1 * i) + (((i % PERIOD) == 0) ? 5 : 0) + random.nextGaussian(); // NOCS (inline ?)
+		}
+		return values;
+	}
+
+	/**
+	 * An incrementally updated forecaster must forecast the same values as a forecaster fitted to the whole history.
+	 */
+	@Test
+	public void testIncrementalUpdateEqualsFit() {
+		final double[] values = IncrementalForecasterTest.createValues(100);
+		for (final ForecastMethod method : METHODS) {
+			final ITimeSeries<Double> history = IncrementalForecasterTest.createTimeSeries();
+			final IForecaster<Double> forecaster = method.getForecaster(history, CONFIDENCE_LEVEL);
+			Assert.assertTrue(method.name(), forecaster instanceof IIncrementalForecaster);
+			final IIncrementalForecaster incrementalForecaster = (IIncrementalForecaster) forecaster;
+			for (final double value : values) {
+				history.append(value);
+				incrementalForecaster.update(value);
+			}
+
+			final IForecastResult incremental = incrementalForecaster.forecast(PERIOD);
+			final IForecastResult fitted = method.getForecaster(history, CONFIDENCE_LEVEL).forecast(PERIOD);
+			Assert.assertEquals(method.name(), method, incrementalForecaster.getForecastMethod());
+			IncrementalForecasterTest.assertValuesEqual(fitted.getForecast().getValues(), incremental.getForecast().getValues());
+			IncrementalForecasterTest.assertValuesEqual(fitted.getLower().getValues(), incremental.getLower().getValues());
+			IncrementalForecasterTest.assertValuesEqual(fitted.getUpper().getValues(), incremental.getUpper().getValues());
+			Assert.assertEquals(fitted.getMeanAbsoluteScaledError(), incremental.getMeanAbsoluteScaledError(), DELTA);
+		}
+	}
+
+	private static void assertValuesEqual(final List<Double> expected, final List<Double> actual) {
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i), actual.get(i), DELTA);
+		}
+	}
+
+	/**
+	 * The prediction intervals must contain the forecast and widen with the forecast horizon.
+	 */
+	@Test
+	public void testConfidenceIntervals() {
+		final ITimeSeries<Double> history = IncrementalForecasterTest.createTimeSeries();
+		for (final double value : IncrementalForecasterTest.createValues(100)) {
+			history.append(value);
+		}
+		for (final ForecastMethod method : METHODS) {
+			final IForecastResult result = method.getForecaster(history, CONFIDENCE_LEVEL).forecast(PERIOD);
+			Assert.assertEquals(CONFIDENCE_LEVEL, result.getConfidenceLevel());
+			Assert.assertTrue(result.getMeanAbsoluteScaledError() > 0);
+			double previousWidth = 0;
+			for (int i = 0; i < PERIOD; i++) {
+				final double forecast = result.getForecast().getValues().get(i);
+				final double lower = result.getLower().getValues().get(i);
+				final double upper = result.getUpper().getValues().get(i);
+				Assert.assertTrue(method.name(), lower < forecast);
+				Assert.assertTrue(method.name(), forecast < upper);
+				Assert.assertTrue(method.name(), (upper - lower) >= previousWidth);
+				previousWidth = upper - lower;
+			}
+		}
+	}
+
+	/**
+	 * Simple exponential smoothing forecasts a constant series.
+	 */
+	@Test
+	public void testSESConstantSeries() {
+		final ITimeSeries<Double> history = IncrementalForecasterTest.createTimeSeries();
+		for (int i = 0; i < 10; i++) {
+			history.append(3.0);
+		}
+		final IForecastResult result = ForecastMethod.SESJAVA.getForecaster(history).forecast(2);
+		Assert.assertEquals(3.0, result.getForecast().getValues().get(0), DELTA);
+		Assert.assertEquals(3.0, result.getForecast().getValues().get(1), DELTA);
+	}
+
+	/**
+	 * Holt-Winters follows trend and season of a noise-free series.
+	 */
+	@Test
+	public void testETSTrendAndSeason() {
+		final ITimeSeries<Double> history = IncrementalForecasterTest.createTimeSeries();
+		final int numValues = 400;
+		for (int i = 0; i < numValues; i++) {
+			history.append(IncrementalForecasterTest.trendAndSeason(i));
+		}
+		final IForecastResult result = ForecastMethod.ETSJAVA.getForecaster(history).forecast(PERIOD);
+		for (int i = 0; i < PERIOD; i++) {
+			Assert.assertEquals(IncrementalForecasterTest.trendAndSeason(numValues + i), result.getForecast().getValues().get(i), 0.1);
+		}
+	}
+
+	private static double trendAndSeason(final int index) {
+		return 10 + (0.5 * index) + (((index % PERIOD) == 1) ? 4 : 0); // NOCS (inline ?)
+	}
+
+	/**
+	 * The ARIMA(1,0,1) forecast of a stationary AR(1) process reverts to the mean of the process.
+	 */
+	@Test
+	public void testARIMA101MeanReversion() {
+		final Random random = new Random(7);
+		final ITimeSeries<Double> history = IncrementalForecasterTest.createTimeSeries();
+		double value = 20;
+		for (int i = 0; i < 2000; i++) {
+			value = 20 + (0.7 * (value - 20)) + random.nextGaussian();
+			history.append(value);
+		}
+		history.append(30.0);
+		final IForecastResult result = ForecastMethod.ARIMA101JAVA.getForecaster(history).forecast(50);
+		final List<Double> forecast = result.getForecast().getValues();
+		Assert.assertTrue(forecast.get(0) > 23);
+		Assert.assertTrue(forecast.get(0) < 30);
+		Assert.assertEquals(20, forecast.get(forecast.size() - 1), 1.5);
+	}
+}
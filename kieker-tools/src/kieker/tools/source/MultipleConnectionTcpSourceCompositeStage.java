@@ -39,6 +39,8 @@ import teetime.framework.OutputPort;
  * <dd>capacity of the receiving buffer</dd>
  * <dt>recordRewriter</dt>
  * <dd>the record rewriter used to rewrite trace ids</dd>
+ * <dt>readers</dt>
+ * <dd>number of threads reading and decoding the connections, 1 by default</dd>
  * </dl>
  * All names are prefixed with kieker.tools.source.MultipleConnectionTcpSourceCompositeStage.
  *
@@ -56,6 +58,9 @@ public class MultipleConnectionTcpSourceCompositeStage extends CompositeStage im
 
 	private static final String REWRITER = MultipleConnectionTcpSourceCompositeStage.PREFIX + ".recordRewriter";
 
+	private static final String READERS = MultipleConnectionTcpSourceCompositeStage.PREFIX + ".readers";
+	private static final int DEFAULT_READERS = 1;
+
 	private final MultipleConnectionTcpSourceStage reader;
 
 	/**
@@ -77,7 +82,9 @@ public class MultipleConnectionTcpSourceCompositeStage extends CompositeStage im
 				NoneTraceMetadataRewriter.class.getName());
 		final ITraceMetadataRewriter rewriter = InstantiationFactory.getInstance(configuration).create(ITraceMetadataRewriter.class,
 				rewriterClassName, null);
-		this.reader = new MultipleConnectionTcpSourceStage(inputPort, capacity, rewriter);
+		final int readers = configuration.getIntProperty(MultipleConnectionTcpSourceCompositeStage.READERS,
+				MultipleConnectionTcpSourceCompositeStage.DEFAULT_READERS);
+		this.reader = new MultipleConnectionTcpSourceStage(inputPort, capacity, rewriter, readers);
 	}
 
 	/**
@@ -92,7 +99,26 @@ public class MultipleConnectionTcpSourceCompositeStage extends CompositeStage im
 	 *            trace record metadata rewriter, (necessary when multiple sources send traces).
 	 */
 	public MultipleConnectionTcpSourceCompositeStage(final int inputPort, final int capacity, final ITraceMetadataRewriter rewriter) {
-		this.reader = new MultipleConnectionTcpSourceStage(inputPort, capacity, rewriter);
+		this(inputPort, capacity, rewriter, DEFAULT_READERS);
+	}
+
+	/**
+	 * Create a composite reader stage for TCP connections, which are read and decoded by several threads.
+	 *
+	 * @param inputPort
+	 *            the input port to listen to
+	 * @param capacity
+	 *            internal ready buffer size, the buffer size must be at least as big as the largest incoming event
+	 * @param rewriter
+	 *            trace record metadata rewriter, (necessary when multiple sources send traces).
+	 * @param readers
+	 *            number of reader threads
+	 *
+	 * @since 2.0.0
+	 */
+	public MultipleConnectionTcpSourceCompositeStage(final int inputPort, final int capacity, final ITraceMetadataRewriter rewriter,
+			final int readers) {
+		this.reader = new MultipleConnectionTcpSourceStage(inputPort, capacity, rewriter, readers);
 	}
 
 	@Override